@@ -0,0 +1,93 @@
+package uk.co.exahertz.friendlysociety.bench;
+
+import uk.co.exahertz.friendlysociety.database.CachingMortgageDatabase;
+import uk.co.exahertz.friendlysociety.database.IndexedMortgageDatabase;
+import uk.co.exahertz.friendlysociety.database.MemoryDatabase;
+import uk.co.exahertz.friendlysociety.database.MortgageDatabase;
+import uk.co.exahertz.friendlysociety.database.MySQL;
+
+/**
+ * Creates the MortgageDatabase a benchmark runs against from its name. A name
+ * is a store followed by the decorators to wrap it in, separated by "+", such
+ * as "memory", "memory+indexed" or "mysql+indexed+cached". The store is one
+ * of:
+ * <ul>
+ * <li>memory - a MemoryDatabase</li>
+ * <li>mysql - the MySQL database, which should be empty</li>
+ * <li>the class name of any MortgageDatabase with a public no argument
+ * constructor</li>
+ * </ul>
+ * and the decorators are "indexed" and "cached". The store is filled with
+ * the data set before the decorators are added, as the indexed decorator
+ * reads the store when it is created.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class Backends {
+
+    /**
+     * This class only has static methods, please do not initialise it.
+     *
+     * @since 0.0.1
+     */
+    private Backends() {
+    }
+
+    /**
+     * Create the store named at the start of a backend name
+     *
+     * @param name The backend name
+     * @return The new, empty store
+     * @throws java.lang.Exception When the store could not be created
+     * @since 0.0.1
+     */
+    public static MortgageDatabase createStore(final String name)
+            throws Exception
+    {
+        String store = name.split("\\+")[0].trim();
+        if(store.equals("memory")) return new MemoryDatabase();
+        if(store.equals("mysql")) return new MySQL();
+        return (MortgageDatabase) Class.forName(store).newInstance();
+    }
+
+    /**
+     * Wrap a filled store in the decorators named after it in a backend name
+     *
+     * @param name The backend name
+     * @param store The store created by createStore(name)
+     * @return The decorated database
+     * @throws java.lang.IllegalArgumentException When a decorator is not
+     * known
+     * @since 0.0.1
+     */
+    public static MortgageDatabase decorate(final String name,
+            final MortgageDatabase store)
+    {
+        String[] parts = name.split("\\+");
+        MortgageDatabase database = store;
+        for(int i = 1; i < parts.length; i++) {
+            String decorator = parts[i].trim();
+            if(decorator.equals("indexed")) {
+                database = new IndexedMortgageDatabase(database);
+            } else if(decorator.equals("cached")) {
+                database = new CachingMortgageDatabase(database);
+            } else {
+                throw new IllegalArgumentException("Unknown database " +
+                        "decorator: " + decorator);
+            }
+        }
+        return database;
+    }
+
+    /**
+     * Release the resources held by a store
+     *
+     * @param store The store created by createStore
+     * @since 0.0.1
+     */
+    public static void close(final MortgageDatabase store) {
+        if(store instanceof MySQL) ((MySQL) store).close();
+    }
+}
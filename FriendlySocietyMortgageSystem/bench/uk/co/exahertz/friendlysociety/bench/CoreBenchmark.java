@@ -0,0 +1,176 @@
+package uk.co.exahertz.friendlysociety.bench;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.co.exahertz.friendlysociety.core.*;
+import uk.co.exahertz.friendlysociety.database.MortgageDatabase;
+
+/**
+ * Benchmarks of the calls the forms make most often through Core, against
+ * each backend and data set size. Run them with "ant bench"; the results are
+ * written as JSON to build/bench/results so they can be compared between
+ * releases. A single benchmark, backend or size can be chosen with
+ * bench.args, for example:
+ * <pre>ant bench -Dbench.args="CoreBenchmark.logIn -p backend=mysql"</pre>
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class CoreBenchmark {
+    /** The seed of the data set, the same for every run */
+    public static final long SEED = 20100401L;
+    /** The number of members of staff in the data set */
+    public static final int STAFFMEMBERS = 100;
+    /** The backend to run against, see Backends */
+    @Param({"memory", "memory+indexed", "memory+indexed+cached"})
+    public String backend;
+    /** The number of customers in the data set */
+    @Param({"10000", "100000", "1000000"})
+    public int customers;
+    private SyntheticData data;
+    private MortgageDatabase store;
+    private Core core;
+
+    /**
+     * Create the backend and fill it with the data set
+     *
+     * @throws java.lang.Exception When the backend could not be created
+     * @since 0.0.1
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        data = new SyntheticData(SEED);
+        store = Backends.createStore(backend);
+        data.populate(store, customers, STAFFMEMBERS);
+        core = new Core(Backends.decorate(backend, store));
+    }
+
+    /**
+     * Release the backend
+     *
+     * @since 0.0.1
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Backends.close(store);
+    }
+
+    /**
+     * The random choices of one benchmark thread
+     *
+     * @since 0.0.1
+     */
+    @State(Scope.Thread)
+    public static class Choices {
+        private final Random random = new Random(SEED);
+
+        /**
+         * Choose a customer number from the data set
+         *
+         * @param benchmark The benchmark being run
+         * @return A customer number
+         * @since 0.0.1
+         */
+        int customer(final CoreBenchmark benchmark) {
+            return random.nextInt(benchmark.customers);
+        }
+
+        /**
+         * Choose a member of staff number
+         *
+         * @return A member of staff number
+         * @since 0.0.1
+         */
+        int staffMember() {
+            return random.nextInt(STAFFMEMBERS);
+        }
+    }
+
+    /**
+     * Log in as a member of staff with the correct password
+     *
+     * @param choices The choices of this thread
+     * @return True if the log in succeeded
+     * @since 0.0.1
+     */
+    @Benchmark
+    public boolean logIn(final Choices choices) {
+        int n = choices.staffMember();
+        return core.logIn(SyntheticData.username(n), SyntheticData.password(n));
+    }
+
+    /**
+     * Search for the customers with the surname and forename of a customer
+     * in the data set
+     *
+     * @param choices The choices of this thread
+     * @return The customers found
+     * @since 0.0.1
+     */
+    @Benchmark
+    public Collection<Customer> getCustomersByName(final Choices choices) {
+        int n = choices.customer(this);
+        return core.getCustomersByName(data.surname(n), data.forename(n));
+    }
+
+    /**
+     * Search for the customers in the post code sector of a customer in the
+     * data set
+     *
+     * @param choices The choices of this thread
+     * @return The customers found
+     * @since 0.0.1
+     */
+    @Benchmark
+    public Collection<Customer> getCustomersByAddress(final Choices choices) {
+        int n = choices.customer(this);
+        return core.getCustomersByAddress("", "", data.postCodeSector(n), "",
+                "");
+    }
+
+    /**
+     * Add a new customer. The data set grows by one customer per call.
+     *
+     * @param choices The choices of this thread
+     * @return The ID of the new customer
+     * @since 0.0.1
+     */
+    @Benchmark
+    public int addCustomer(final Choices choices) {
+        return core.addCustomer(data.customer(choices.customer(this)));
+    }
+
+    /**
+     * Get the employments of a customer. One customer in four has one.
+     *
+     * @param choices The choices of this thread
+     * @return The employments found
+     * @since 0.0.1
+     */
+    @Benchmark
+    public Collection<Employment> getEmploymentsByCustomerID(
+            final Choices choices) {
+        return core.getEmploymentsByCustomerID(1 + choices.customer(this));
+    }
+}
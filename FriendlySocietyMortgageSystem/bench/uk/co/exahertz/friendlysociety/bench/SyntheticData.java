@@ -0,0 +1,282 @@
+package uk.co.exahertz.friendlysociety.bench;
+
+import uk.co.exahertz.friendlysociety.core.*;
+import uk.co.exahertz.friendlysociety.database.MortgageDatabase;
+import uk.co.exahertz.friendlysociety.gui.LoginScreen;
+
+/**
+ * Synthetic customers, members of staff and employments for benchmarks. Every
+ * record is worked out from its number and a seed, so the same seed always
+ * gives the same data, and a benchmark can work out the name or post code of
+ * any record without keeping the records in memory.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class SyntheticData {
+    /** Every fourth customer has an employment */
+    public static final int EMPLOYMENTEVERY = 4;
+    private static final String[] FORENAMES = {"Oliver", "Amelia", "George",
+        "Isla", "Harry", "Ava", "Noah", "Mia", "Jack", "Ivy", "Leo", "Lily",
+        "Arthur", "Isabella", "Muhammad", "Rosie", "Oscar", "Sophia", "Charlie",
+        "Grace", "Henry", "Freya", "Thomas", "Florence", "Alfie", "Willow",
+        "Theo", "Evie", "Archie", "Emily", "Joshua", "Poppy", "James", "Ella",
+        "William", "Elsie", "Isaac", "Evelyn", "Edward", "Sienna"};
+    private static final String[] SURNAMES = {"Smith", "Jones", "Williams",
+        "Taylor", "Brown", "Davies", "Evans", "Wilson", "Thomas", "Johnson",
+        "Roberts", "Robinson", "Thompson", "Wright", "Walker", "White",
+        "Edwards", "Hughes", "Green", "Hall", "Lewis", "Harris", "Clarke",
+        "Patel", "Jackson", "Wood", "Turner", "Martin", "Cooper", "Hill",
+        "Ward", "Morris", "Moore", "Clark", "Lee", "King", "Baker", "Harrison",
+        "Morgan", "Allen", "James", "Scott", "Phillips", "Watson", "Davis",
+        "Parker", "Price", "Bennett", "Young", "Griffiths", "Mitchell", "Kelly",
+        "Cook", "Carter", "Richardson", "Bailey", "Collins", "Bell", "Shaw",
+        "Murphy", "Miller", "Cox", "Richards", "Khan", "Marshall", "Anderson",
+        "Simpson", "Ellis", "Adams", "Singh", "Begum", "Wilkinson", "Foster",
+        "Chapman", "Powell", "Webb", "Rogers", "Gray", "Mason", "Ali", "Hunt",
+        "Hussain", "Campbell", "Matthews", "Owen", "Palmer", "Holmes", "Mills",
+        "Barnes", "Knight", "Lloyd", "Butler", "Russell", "Barker", "Fisher",
+        "Stevens", "Jenkins", "Murray", "Dixon", "Harvey"};
+    private static final String[] TOWNS = {"London", "Birmingham", "Leeds",
+        "Glasgow", "Sheffield", "Bradford", "Manchester", "Edinburgh",
+        "Liverpool", "Bristol", "Cardiff", "Leicester", "Coventry", "Belfast",
+        "Nottingham", "Newcastle", "Brighton", "Hull", "Plymouth", "Derby"};
+    private static final String[] AREAS = {"EC", "B", "LS", "G", "S", "BD",
+        "M", "EH", "L", "BS", "CF", "LE", "CV", "BT", "NG", "NE", "BN", "HU",
+        "PL", "DE"};
+    private static final String[] STREETS = {"High Street", "Station Road",
+        "Main Street", "Park Road", "Church Road", "Church Street",
+        "London Road", "Victoria Road", "Green Lane", "Manor Road",
+        "Church Lane", "Park Avenue", "The Avenue", "The Crescent",
+        "Queens Road", "New Road", "Grange Road", "Kings Road", "Kingsway",
+        "Windsor Road", "Highfield Road", "Mill Lane", "Alexander Road",
+        "York Road", "St. John's Road", "Main Road", "Broadway",
+        "King Street", "The Green", "Springfield Road"};
+    private static final String[] EMPLOYERS = {"Exahertz Ltd", "Northwind",
+        "Acme Trading", "Globex", "Initech", "Umbrella Holdings",
+        "Stark Engineering", "Wayne Logistics", "Tyrell Systems", "Soylent"};
+    private static final String PASSWORD = "password";
+    private final long seed;
+
+    /**
+     * Create a new synthetic data set
+     *
+     * @param seed The seed the data set is worked out from
+     * @since 0.0.1
+     */
+    public SyntheticData(final long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Add customers, with an employment for every fourth customer, and
+     * members of staff to a database. Customers are numbered from 0 and are
+     * expected to get IDs from 1 in the same order.
+     *
+     * @param database The database to fill, which should be empty
+     * @param customers The number of customers to add
+     * @param staff The number of members of staff to add
+     * @since 0.0.1
+     */
+    public void populate(final MortgageDatabase database, final int customers,
+            final int staff)
+    {
+        for(int n = 0; n < customers; n++) {
+            int id = database.addCustomer(customer(n));
+            if(n % EMPLOYMENTEVERY == 0) {
+                database.addEmployment(employment(n), id);
+            }
+        }
+        for(int n = 0; n < staff; n++) {
+            database.addStaffMember(staffMember(n));
+        }
+    }
+
+    /**
+     * Get a synthetic customer
+     *
+     * @param n The number of the customer
+     * @return The customer, with an ID of 0
+     * @since 0.0.1
+     */
+    public Customer customer(final int n) {
+        long bits = mix(n);
+        return new Customer(0, (bits & 1) == 0 ? "Mr" : "Ms", forename(n),
+                surname(n), dateOfBirth(bits), (bits & 1) != 0, address(n),
+                "0" + (1000000000L + (bits >>> 8) % 900000000L), "",
+                forename(n).toLowerCase() + "." + n + "@example.com",
+                nationalInsuranceNumber(n),
+                String.valueOf(10000000 + n % 90000000));
+    }
+
+    /**
+     * Get a synthetic member of staff, who can log in with username(n) and
+     * password(n)
+     *
+     * @param n The number of the member of staff
+     * @return The member of staff, with an ID of 0
+     * @since 0.0.1
+     */
+    public StaffMember staffMember(final int n) {
+        long bits = mix(-1 - n);
+        return new StaffMember(0, "Mx", forename(-1 - n), surname(-1 - n),
+                dateOfBirth(bits), (bits & 1) != 0, address(-1 - n),
+                "0" + (1000000000L + (bits >>> 8) % 900000000L), "",
+                "staff" + n + "@example.com", n % 10 == 0, username(n),
+                password(n), true);
+    }
+
+    /**
+     * Get a synthetic employment
+     *
+     * @param n The number of the customer employed
+     * @return The employment, with an ID of 0
+     * @since 0.0.1
+     */
+    public Employment employment(final int n) {
+        long bits = mix(n) >>> 16;
+        return new Employment(0, EMPLOYERS[(int) (bits % EMPLOYERS.length)],
+                address(Integer.MAX_VALUE - n), "0" + (1000000000L + bits %
+                900000000L), "", Day.of(2000 + (int) (bits % 10),
+                (int) (bits % 12) + 1, 1), null, 37.5f,
+                Money.ofPounds(15000 + (bits % 60) * 1000), true, false);
+    }
+
+    /**
+     * Get the forenames of a synthetic customer
+     *
+     * @param n The number of the customer
+     * @return The forenames
+     * @since 0.0.1
+     */
+    public String forename(final int n) {
+        return FORENAMES[(int) ((mix(n) >>> 20) % FORENAMES.length)];
+    }
+
+    /**
+     * Get the surname of a synthetic customer
+     *
+     * @param n The number of the customer
+     * @return The surname
+     * @since 0.0.1
+     */
+    public String surname(final int n) {
+        return SURNAMES[(int) ((mix(n) >>> 28) % SURNAMES.length)];
+    }
+
+    /**
+     * Get the post code of a synthetic customer, such as "LS14 3AB"
+     *
+     * @param n The number of the customer
+     * @return The post code
+     * @since 0.0.1
+     */
+    public String postCode(final int n) {
+        long bits = mix(n) >>> 36;
+        return postCodeSector(n) + (char) ('A' + bits % 26) +
+                (char) ('A' + (bits >>> 5) % 26);
+    }
+
+    /**
+     * Get the sector of the post code of a synthetic customer, such as
+     * "LS14 3", which is shared by about one customer in four thousand
+     *
+     * @param n The number of the customer
+     * @return The post code sector
+     * @since 0.0.1
+     */
+    public String postCodeSector(final int n) {
+        long bits = mix(n) >>> 36;
+        int town = town(n);
+        return AREAS[town] + (1 + (bits >>> 10) % 20) + " " + (bits >>> 15) %
+                10;
+    }
+
+    /**
+     * Get the username of a synthetic member of staff
+     *
+     * @param n The number of the member of staff
+     * @return The username
+     * @since 0.0.1
+     */
+    public static String username(final int n) {
+        return "staff" + n;
+    }
+
+    /**
+     * Get the password a synthetic member of staff logs in with, encrypted as
+     * the login screen encrypts it
+     *
+     * @param n The number of the member of staff
+     * @return The encrypted password
+     * @since 0.0.1
+     */
+    public static String password(final int n) {
+        return LoginScreen.encrypt(PASSWORD + n);
+    }
+
+    /**
+     * Get a synthetic address
+     *
+     * @param n The number of the record the address belongs to
+     * @return The address, with an ID of 0
+     * @since 0.0.1
+     */
+    private Address address(final int n) {
+        long bits = mix(n);
+        return new Address(0, String.valueOf(1 + (bits >>> 40) % 200),
+                STREETS[(int) ((bits >>> 48) % STREETS.length)],
+                TOWNS[town(n)], "United Kingdom", postCode(n));
+    }
+
+    /**
+     * Get the town of a synthetic address
+     *
+     * @param n The number of the record the address belongs to
+     * @return The index of the town in TOWNS and AREAS
+     * @since 0.0.1
+     */
+    private int town(final int n) {
+        return (int) ((mix(n) >>> 56) % TOWNS.length);
+    }
+
+    /**
+     * Get a date of birth between 20 and 70 years ago
+     *
+     * @param bits Random bits to choose the date from
+     * @return The date of birth
+     * @since 0.0.1
+     */
+    private static Day dateOfBirth(final long bits) {
+        return Day.today().plusMonths(-12 * (20 + (int) ((bits >>> 2) % 50)))
+                .plusDays(-(int) ((bits >>> 12) % 300));
+    }
+
+    /**
+     * Get a National Insurance number in the format AB123456C
+     *
+     * @param n The number of the customer
+     * @return The National Insurance number
+     * @since 0.0.1
+     */
+    private static String nationalInsuranceNumber(final int n) {
+        String digits = String.valueOf(100000 + n % 900000);
+        return "AB" + digits + (char) ('A' + n % 4);
+    }
+
+    /**
+     * Mix the seed and a record number into 64 well distributed bits, using
+     * the SplitMix64 finaliser
+     *
+     * @param n The record number
+     * @return Non-negative random bits for the record
+     * @since 0.0.1
+     */
+    private long mix(final int n) {
+        long z = seed + n * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) >>> 1;
+    }
+}
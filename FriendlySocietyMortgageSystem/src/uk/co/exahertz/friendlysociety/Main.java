@@ -1,9 +1,26 @@
 package uk.co.exahertz.friendlysociety;
 
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.UIManager;
+import uk.co.exahertz.friendlysociety.core.ArrearsCase;
+import uk.co.exahertz.friendlysociety.core.ArrearsEngine;
+import uk.co.exahertz.friendlysociety.core.CashFlowProjection;
+import uk.co.exahertz.friendlysociety.core.CollectionsWorklist;
 import uk.co.exahertz.friendlysociety.core.Core;
+import uk.co.exahertz.friendlysociety.core.Day;
+import uk.co.exahertz.friendlysociety.core.MortgageBook;
+import uk.co.exahertz.friendlysociety.core.PortfolioProjector;
+import uk.co.exahertz.friendlysociety.core.RateTable;
+import uk.co.exahertz.friendlysociety.database.CachingMortgageDatabase;
+import uk.co.exahertz.friendlysociety.database.IndexedMortgageDatabase;
+import uk.co.exahertz.friendlysociety.database.InstrumentedMortgageDatabase;
 import uk.co.exahertz.friendlysociety.database.MySQL;
+import uk.co.exahertz.friendlysociety.database.SchemaVersionException;
 import uk.co.exahertz.friendlysociety.gui.LoginScreen;
+import uk.co.exahertz.friendlysociety.metrics.MetricsRegistry;
+import uk.co.exahertz.friendlysociety.metrics.MetricsSnapshotWriter;
 import java.sql.SQLException;
 
 /**
@@ -21,6 +38,8 @@ public final class Main {
     public final static int VERSIONMINOR = 0;
     /** Release revision of application */
     public final static int VERSIONREVISION = 1;
+    /** The number of months projected when no number is given, 40 years */
+    public final static int PROJECTIONMONTHS = 480;
     /** The title of the application */
     public final static String APPLICATIONTITLE = "Friendly Society Mortgage " +
             "System";
@@ -46,6 +65,32 @@ public final class Main {
             {
                 System.out.println(APPLICATIONTITLE);
                 System.out.println("Version: " + getVersion());
+            } else if(args[0].trim().toLowerCase().equals("--migrate")) {
+                System.exit(migrate() ? 0 : 1);
+            } else if(args[0].trim().toLowerCase().equals("--check-schema")) {
+                System.exit(checkSchema() ? 0 : 1);
+            } else if(args[0].trim().toLowerCase().equals(
+                    "--project-cash-flows")) {
+                try {
+                    int months = args.length > 1 ?
+                            Integer.parseInt(args[1].trim()) :
+                            PROJECTIONMONTHS;
+                    System.exit(projectCashFlows(months) ? 0 : 1);
+                } catch(NumberFormatException e) {
+                    System.out.println("The number of months must be a " +
+                            "number.");
+                }
+            } else if(args[0].trim().toLowerCase().equals(
+                    "--arrears-worklist")) {
+                try {
+                    int limit = args.length > 1 ?
+                            Integer.parseInt(args[1].trim()) :
+                            ArrearsEngine.DEFAULTLIMIT;
+                    System.exit(printArrearsWorklist(limit) ? 0 : 1);
+                } catch(NumberFormatException e) {
+                    System.out.println("The number of cases must be a " +
+                            "number.");
+                }
             } else {
                 System.out.println("Incorrect command line parameters.");
             }
@@ -53,7 +98,21 @@ public final class Main {
             try {
                 UIManager.setLookAndFeel(
                         UIManager.getSystemLookAndFeelClassName());
-                final Core core = new Core(new MySQL());
+                final Core core = new Core(
+                        new InstrumentedMortgageDatabase(
+                        new CachingMortgageDatabase(
+                        new IndexedMortgageDatabase(new MySQL()))));
+                final MetricsSnapshotWriter metrics =
+                        new MetricsSnapshotWriter(MetricsRegistry.getDefault(),
+                        new File(MetricsSnapshotWriter.DEFAULTFILE),
+                        MetricsSnapshotWriter.DEFAULTINTERVAL);
+                metrics.start();
+                Runtime.getRuntime().addShutdownHook(new Thread() {
+                    @Override
+                    public void run() {
+                        metrics.close();
+                    }
+                });
                 javax.swing.SwingUtilities.invokeLater(new Runnable () {
                     public void run() {
                         LoginScreen login = new LoginScreen(core);
@@ -64,6 +123,10 @@ public final class Main {
                 System.err.println("The MySQL JDBC could not be found. " +
                         "Application exiting.");
                 System.exit(0);
+            } catch(SchemaVersionException e) {
+                System.err.println(e.getMessage());
+                System.err.println("Exiting...");
+                System.exit(1);
             } catch(SQLException e) {
                 System.err.println("A MySQL exception has occurred. Error:");
                 System.err.println(e.toString());
@@ -75,6 +138,178 @@ public final class Main {
         }
     }
     
+    /**
+     * Run every migration the database has not had yet, printing the version
+     * it is then at. The application does not change the schema otherwise.
+     *
+     * @return True if the database is up to date
+     * @since 0.0.1
+     */
+    private static boolean migrate() {
+        try {
+            System.out.println("The database schema is at version " +
+                    MySQL.migrate() + ".");
+            return true;
+        } catch(ClassNotFoundException e) {
+            System.err.println("The MySQL JDBC could not be found.");
+        } catch(SQLException e) {
+            System.err.println("A MySQL exception has occurred. Error:");
+            System.err.println(e.toString());
+        }
+        return false;
+    }
+
+    /**
+     * Check that every lookup query is served by its index, printing the
+     * version of the schema and the result of each check
+     *
+     * @return True if every check passed
+     * @since 0.0.1
+     */
+    private static boolean checkSchema() {
+        try {
+            return MySQL.checkSchema(System.out);
+        } catch(ClassNotFoundException e) {
+            System.err.println("The MySQL JDBC could not be found.");
+        } catch(SQLException e) {
+            System.err.println("A MySQL exception has occurred. Error:");
+            System.err.println(e.toString());
+        }
+        return false;
+    }
+
+    /**
+     * Project the monthly cash flows of every accepted mortgage from this
+     * month at the default rates, and print them as comma separated values in
+     * pounds
+     *
+     * @param months The number of months to project
+     * @return True if the projection was printed
+     * @since 0.0.1
+     */
+    private static boolean projectCashFlows(final int months) {
+        if(months < 1) {
+            System.err.println("The number of months must be at least 1.");
+            return false;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors());
+        try {
+            MySQL database = new MySQL(1, 1);
+            MortgageBook book;
+            try {
+                book = MortgageBook.read(database);
+            } finally {
+                database.close();
+            }
+            if(book == null) {
+                System.err.println("The mortgage book could not be read.");
+                return false;
+            }
+            long started = System.nanoTime();
+            CashFlowProjection projection = new PortfolioProjector(executor)
+                    .project(book, RateTable.DEFAULT,
+                    RateTable.monthNumber(Day.today()), months);
+            System.err.println("Projected " + projection.getMortgageCount() +
+                    " mortgages over " + months + " months in " +
+                    (System.nanoTime() - started) / 1000000 + " ms.");
+            System.out.println("month,payments,interest,principal,balance");
+            for(int i = 0; i < projection.getMonths(); i++) {
+                int month = projection.getFirstMonth() + i;
+                System.out.println(String.format("%d-%02d,%s,%s,%s,%s",
+                        month / 12, month % 12 + 1,
+                        pounds(projection.getPayments(i)),
+                        pounds(projection.getInterest(i)),
+                        pounds(projection.getPrincipal(i)),
+                        pounds(projection.getBalance(i))));
+            }
+            return true;
+        } catch(ClassNotFoundException e) {
+            System.err.println("The MySQL JDBC could not be found.");
+        } catch(SQLException e) {
+            System.err.println("A MySQL exception has occurred. Error:");
+            System.err.println(e.toString());
+        } catch(InterruptedException e) {
+            System.err.println("The projection was interrupted.");
+        } finally {
+            executor.shutdown();
+        }
+        return false;
+    }
+
+    /**
+     * Find the mortgages in arrears today and print the collections
+     * worklist as comma separated values, the case to work first first. This
+     * is run nightly.
+     *
+     * @param limit The most cases to print
+     * @return True if the worklist was printed
+     * @since 0.0.1
+     */
+    private static boolean printArrearsWorklist(final int limit) {
+        if(limit < 1) {
+            System.err.println("The number of cases must be at least 1.");
+            return false;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            MySQL database = new MySQL(1, threads);
+            CollectionsWorklist worklist;
+            long started = System.nanoTime();
+            try {
+                worklist = new ArrearsEngine(executor).findArrears(database,
+                        Day.today(), limit);
+            } finally {
+                database.close();
+            }
+            if(worklist == null) {
+                System.err.println("The mortgages could not be read.");
+                return false;
+            }
+            System.err.println("Checked " + worklist.getMortgagesScanned() +
+                    " mortgages and found " +
+                    worklist.getMortgagesInArrears() + " in arrears in " +
+                    (System.nanoTime() - started) / 1000000 + " ms.");
+            System.out.println("rank,mortgage,customer,daysoverdue,arrears," +
+                    "payments,risk,score");
+            for(int i = 0; i < worklist.size(); i++) {
+                ArrearsCase arrearsCase = worklist.get(i);
+                System.out.println((i + 1) + "," +
+                        arrearsCase.getMortgageID() + "," +
+                        arrearsCase.getCustomerID() + "," +
+                        arrearsCase.getDaysOverdue() + "," +
+                        pounds(arrearsCase.getArrears()) + "," +
+                        arrearsCase.getPaymentsInArrears() + "," +
+                        (arrearsCase.getRiskStatus() == null ? "" :
+                        arrearsCase.getRiskStatus()) + "," +
+                        arrearsCase.getCreditCheckScore());
+            }
+            return true;
+        } catch(ClassNotFoundException e) {
+            System.err.println("The MySQL JDBC could not be found.");
+        } catch(SQLException e) {
+            System.err.println("A MySQL exception has occurred. Error:");
+            System.err.println(e.toString());
+        } catch(InterruptedException e) {
+            System.err.println("The arrears check was interrupted.");
+        } finally {
+            executor.shutdown();
+        }
+        return false;
+    }
+
+    /**
+     * Format an amount in pence as pounds, such as 1234.05
+     *
+     * @param pence The amount in pence
+     * @return The amount in pounds
+     * @since 0.0.1
+     */
+    private static String pounds(final long pence) {
+        return String.format("%d.%02d", pence / 100, pence % 100);
+    }
+
     /**
      * Get the version of the application, which is the concatination of the
      * VERSIONMAJOR, VERSIONMINOR and VERSIONREVISION static variables in this
@@ -0,0 +1,296 @@
+package uk.co.exahertz.friendlysociety.core;
+
+/**
+ * Works out the repayment schedule of a mortgage: the payment, interest,
+ * principal repaid and balance left for every month of its term. Amounts are
+ * held in pence in arrays which are reused by every calculation, so a
+ * schedule can be recalculated as often as a form changes without creating
+ * an object per month.<br>
+ * Interest is charged monthly on the balance at a twelfth of the annual rate
+ * and rounded to the penny. The payment is the level repayment which clears
+ * the balance over the months left, rounded up to the penny, and is worked
+ * out again whenever the rate changes, whether that is a fixed period ending
+ * or a change to the base rate. The last payment clears whatever is left.<br>
+ * A schedule is not thread safe; each thread should have its own.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see RateTable
+ */
+public final class AmortisationSchedule {
+    /** The longest term a schedule is calculated for, in months, 40 years */
+    public static final int MAXTERM = 480;
+    /** The number of months the arrays hold to begin with, the longest term */
+    public static final int DEFAULTCAPACITY = MAXTERM;
+    private long[] payments;
+    private long[] interest;
+    private long[] principal;
+    private long[] balances;
+    private double[] rates;
+    private int months;
+    private int firstMonth;
+    private long totalInterest;
+
+    /**
+     * Create a new empty schedule
+     *
+     * @since 0.0.1
+     */
+    public AmortisationSchedule() {
+        this(DEFAULTCAPACITY);
+    }
+
+    /**
+     * Create a new empty schedule
+     *
+     * @param capacity The number of months to make room for, the arrays grow
+     * if a longer mortgage is calculated
+     * @throws java.lang.IllegalArgumentException When capacity is negative
+     * or more than MAXTERM
+     * @since 0.0.1
+     */
+    public AmortisationSchedule(final int capacity)
+            throws IllegalArgumentException
+    {
+        if(capacity < 0 || capacity > MAXTERM) {
+            throw new IllegalArgumentException("The capacity must be from 0 " +
+                    "to " + MAXTERM + " months.");
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Calculate the schedule of a mortgage. The amount borrowed is the
+     * amount requested, the deposit having already been taken off the price
+     * of the property.
+     *
+     * @param mortgage The mortgage
+     * @param table The interest rates
+     * @return The number of months in the schedule
+     * @throws java.lang.IllegalArgumentException When mortgage or table is
+     * null, the mortgage has no type or is longer than MAXTERM
+     * @since 0.0.1
+     */
+    public int calculate(final Mortgage mortgage, final RateTable table)
+            throws IllegalArgumentException
+    {
+        if(mortgage == null) throw new IllegalArgumentException("The " +
+                "mortgage instance must not be null.");
+        return calculate(mortgage.getAmountRequested().getPence(),
+                mortgage.getMortgageLengthInMonths(),
+                mortgage.getMortgageType(),
+                RateTable.monthNumber(mortgage.getPaymentsBegin()), table);
+    }
+
+    /**
+     * Calculate the schedule of a loan, replacing the previous schedule
+     *
+     * @param amount The amount borrowed, in pence
+     * @param term The length of the mortgage in months
+     * @param type The type of mortgage
+     * @param first The month number of the first payment
+     * @param table The interest rates
+     * @return The number of months in the schedule
+     * @throws java.lang.IllegalArgumentException When amount is negative,
+     * term is less than 1 or more than MAXTERM, or type or table is null
+     * @since 0.0.1
+     * @see RateTable#monthNumber(Day)
+     */
+    public int calculate(final long amount, final int term,
+            final MortgagesOffered type, final int first,
+            final RateTable table) throws IllegalArgumentException
+    {
+        if(amount < 0) throw new IllegalArgumentException("The amount " +
+                "borrowed must not be negative.");
+        if(term < 1) throw new IllegalArgumentException("The length of the " +
+                "mortgage must be at least 1 month.");
+        if(term > MAXTERM) throw new IllegalArgumentException("The length " +
+                "of the mortgage must be at most " + MAXTERM + " months.");
+        if(type == null) throw new IllegalArgumentException("The mortgage " +
+                "type must not be null.");
+        if(table == null) throw new IllegalArgumentException("The rate " +
+                "table must not be null.");
+        if(term > payments.length) {
+            allocate(Math.min(MAXTERM, Math.max(term, payments.length * 2)));
+        }
+        int change = table.changeIndex(first);
+        int nextChange = table.nextChangeMonth(change);
+        double baseRate = table.baseRateAt(change);
+        double annualRate = Double.NaN;
+        double monthlyRate = 0;
+        long payment = 0;
+        long balance = amount;
+        long charged = 0;
+        for(int i = 0; i < term; i++) {
+            int month = first + i;
+            while(month >= nextChange) {
+                change++;
+                nextChange = table.nextChangeMonth(change);
+                baseRate = table.baseRateAt(change);
+            }
+            double rate = table.rate(type, i, baseRate);
+            if(rate != annualRate) {
+                annualRate = rate;
+                monthlyRate = rate / 1200;
+                payment = levelPayment(balance, monthlyRate, term - i);
+            }
+            long due = Math.round(balance * monthlyRate);
+            long paid = payment;
+            if(i == term - 1 || paid >= balance + due) paid = balance + due;
+            payments[i] = paid;
+            interest[i] = due;
+            principal[i] = paid - due;
+            balance -= paid - due;
+            balances[i] = balance;
+            rates[i] = annualRate;
+            charged += due;
+        }
+        months = term;
+        firstMonth = first;
+        totalInterest = charged;
+        return term;
+    }
+
+    /**
+     * Get the number of months in the schedule
+     *
+     * @return The number of months, 0 if nothing has been calculated
+     * @since 0.0.1
+     */
+    public int getMonths() {
+        return months;
+    }
+
+    /**
+     * Get the month number of the first payment
+     *
+     * @return The month number of the first payment
+     * @since 0.0.1
+     */
+    public int getFirstMonth() {
+        return firstMonth;
+    }
+
+    /**
+     * Get the payment due in a month
+     *
+     * @param month The month, from 0 for the first payment
+     * @return The payment in pence
+     * @throws java.lang.IndexOutOfBoundsException When month is not in the
+     * schedule
+     * @since 0.0.1
+     */
+    public long getPayment(final int month) {
+        return payments[checkMonth(month)];
+    }
+
+    /**
+     * Get the interest charged in a month
+     *
+     * @param month The month, from 0 for the first payment
+     * @return The interest in pence
+     * @throws java.lang.IndexOutOfBoundsException When month is not in the
+     * schedule
+     * @since 0.0.1
+     */
+    public long getInterest(final int month) {
+        return interest[checkMonth(month)];
+    }
+
+    /**
+     * Get the amount of the loan repaid in a month
+     *
+     * @param month The month, from 0 for the first payment
+     * @return The principal repaid in pence
+     * @throws java.lang.IndexOutOfBoundsException When month is not in the
+     * schedule
+     * @since 0.0.1
+     */
+    public long getPrincipal(final int month) {
+        return principal[checkMonth(month)];
+    }
+
+    /**
+     * Get the balance left after the payment of a month
+     *
+     * @param month The month, from 0 for the first payment
+     * @return The balance in pence
+     * @throws java.lang.IndexOutOfBoundsException When month is not in the
+     * schedule
+     * @since 0.0.1
+     */
+    public long getBalance(final int month) {
+        return balances[checkMonth(month)];
+    }
+
+    /**
+     * Get the annual interest rate charged in a month
+     *
+     * @param month The month, from 0 for the first payment
+     * @return The rate as an annual percentage
+     * @throws java.lang.IndexOutOfBoundsException When month is not in the
+     * schedule
+     * @since 0.0.1
+     */
+    public double getRate(final int month) {
+        return rates[checkMonth(month)];
+    }
+
+    /**
+     * Get the interest charged over the whole term
+     *
+     * @return The interest in pence
+     * @since 0.0.1
+     */
+    public long getTotalInterest() {
+        return totalInterest;
+    }
+
+    /**
+     * Get the level payment which clears a balance over a number of months
+     *
+     * @param balance The balance in pence
+     * @param monthlyRate The monthly rate as a fraction
+     * @param months The number of months left
+     * @return The payment in pence, rounded up
+     * @since 0.0.1
+     */
+    private static long levelPayment(final long balance,
+            final double monthlyRate, final int months) {
+        if(monthlyRate == 0) return (balance + months - 1) / months;
+        return (long) Math.ceil(balance * monthlyRate /
+                (1 - Math.pow(1 + monthlyRate, -months)));
+    }
+
+    /**
+     * Check a month is in the schedule
+     *
+     * @param month The month, from 0 for the first payment
+     * @return The month
+     * @throws java.lang.IndexOutOfBoundsException When month is not in the
+     * schedule
+     * @since 0.0.1
+     */
+    private int checkMonth(final int month) {
+        if(month < 0 || month >= months) {
+            throw new IndexOutOfBoundsException("Month " + month + " is not " +
+                    "in a schedule of " + months + " months.");
+        }
+        return month;
+    }
+
+    /**
+     * Replace the arrays with empty ones
+     *
+     * @param capacity The number of months the arrays hold
+     * @since 0.0.1
+     */
+    private void allocate(final int capacity) {
+        payments = new long[capacity];
+        interest = new long[capacity];
+        principal = new long[capacity];
+        balances = new long[capacity];
+        rates = new double[capacity];
+    }
+}
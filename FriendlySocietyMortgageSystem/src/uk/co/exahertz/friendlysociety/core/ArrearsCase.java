@@ -0,0 +1,162 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.Comparator;
+
+/**
+ * A mortgage found in arrears, with what the collections team ranks it by:
+ * how long its oldest unmade payment is overdue, how much is in arrears and
+ * the risk status of the latest credit check of its customer.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see ArrearsEngine
+ */
+public final class ArrearsCase {
+    /**
+     * The order cases are worked in: the most days overdue first, then the
+     * most in arrears, then the highest credit risk, then by mortgage ID
+     */
+    public static final Comparator<ArrearsCase> PRIORITY =
+            new Comparator<ArrearsCase>() {
+        @Override
+        public int compare(final ArrearsCase a, final ArrearsCase b) {
+            if(a.daysOverdue != b.daysOverdue) {
+                return a.daysOverdue > b.daysOverdue ? -1 : 1;
+            }
+            if(a.arrears != b.arrears) return a.arrears > b.arrears ? -1 : 1;
+            if(a.riskRank != b.riskRank) {
+                return a.riskRank > b.riskRank ? -1 : 1;
+            }
+            if(a.mortgageID != b.mortgageID) {
+                return a.mortgageID < b.mortgageID ? -1 : 1;
+            }
+            return 0;
+        }
+    };
+    private final int mortgageID;
+    private final int customerID;
+    private final int daysOverdue;
+    private final long arrears;
+    private final int paymentsInArrears;
+    private final String riskStatus;
+    private final int creditCheckScore;
+    private final int riskRank;
+
+    /**
+     * Create a new case
+     *
+     * @param mortgageID The ID of the mortgage
+     * @param customerID The ID of the customer of the mortgage
+     * @param daysOverdue The number of days the oldest payment in arrears is
+     * overdue
+     * @param arrears The total in arrears, in pence
+     * @param paymentsInArrears The number of payments in arrears
+     * @param creditCheck The latest credit check of the customer, can be
+     * null
+     * @since 0.0.1
+     */
+    public ArrearsCase(final int mortgageID, final int customerID,
+            final int daysOverdue, final long arrears,
+            final int paymentsInArrears, final CreditCheck creditCheck) {
+        this.mortgageID = mortgageID;
+        this.customerID = customerID;
+        this.daysOverdue = daysOverdue;
+        this.arrears = arrears;
+        this.paymentsInArrears = paymentsInArrears;
+        if(creditCheck == null) {
+            riskStatus = null;
+            creditCheckScore = 0;
+        } else {
+            riskStatus = creditCheck.getCreditCheckRiskStatus();
+            creditCheckScore = creditCheck.getCreditCheckScore();
+        }
+        riskRank = rank(riskStatus);
+    }
+
+    /**
+     * Get the ID of the mortgage
+     *
+     * @return The mortgage ID
+     * @since 0.0.1
+     */
+    public int getMortgageID() {
+        return mortgageID;
+    }
+
+    /**
+     * Get the ID of the customer of the mortgage
+     *
+     * @return The customer ID
+     * @since 0.0.1
+     */
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Get the number of days the oldest payment in arrears is overdue
+     *
+     * @return The number of days
+     * @since 0.0.1
+     */
+    public int getDaysOverdue() {
+        return daysOverdue;
+    }
+
+    /**
+     * Get the total in arrears
+     *
+     * @return The arrears in pence
+     * @since 0.0.1
+     */
+    public long getArrears() {
+        return arrears;
+    }
+
+    /**
+     * Get the number of payments in arrears
+     *
+     * @return The number of payments
+     * @since 0.0.1
+     */
+    public int getPaymentsInArrears() {
+        return paymentsInArrears;
+    }
+
+    /**
+     * Get the risk status of the latest credit check of the customer
+     *
+     * @return high, medium or low, or null if the customer has not been
+     * credit checked
+     * @since 0.0.1
+     */
+    public String getRiskStatus() {
+        return riskStatus;
+    }
+
+    /**
+     * Get the score of the latest credit check of the customer
+     *
+     * @return The score from 1 to 1000, or 0 if the customer has not been
+     * credit checked
+     * @since 0.0.1
+     */
+    public int getCreditCheckScore() {
+        return creditCheckScore;
+    }
+
+    /**
+     * Rank a risk status, the highest risk highest
+     *
+     * @param riskStatus The risk status, can be null
+     * @return 3 for high, 2 for medium, 1 for low and 0 for none
+     * @since 0.0.1
+     */
+    private static int rank(final String riskStatus) {
+        if("high".equals(riskStatus)) return 3;
+        if("medium".equals(riskStatus)) return 2;
+        if("low".equals(riskStatus)) return 1;
+        return 0;
+    }
+}
@@ -0,0 +1,349 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.HashMap;
+import uk.co.exahertz.friendlysociety.database.MortgageDatabase;
+import uk.co.exahertz.friendlysociety.database.MortgagePaymentRange;
+
+/**
+ * Finds every accepted mortgage in arrears on a day and ranks them into a
+ * collections worklist. Mortgages are read from the database a page at a
+ * time, and each page is handed to the executor as soon as it is read, so
+ * the book is never held in memory at once and reading overlaps with
+ * checking. Only a few pages are waiting at any time; once that many are,
+ * the oldest is waited for before the next is read.<br>
+ * Each page builds the accounts of its mortgages from their payments, which
+ * are read for the whole range of mortgage IDs of the page in order of
+ * mortgage ID, due date and payment ID, a few thousand at a time, rather
+ * than with a query for each mortgage. It keeps its best cases in a heap
+ * of its own no larger than the worklist, and looks up the latest credit
+ * check only of mortgages in arrears which could still make the heap. The
+ * heaps of the pages are merged as they finish, so nothing is shared between
+ * pages while they run.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see MortgageAccount
+ * @see MortgageDatabase#getMortgagePaymentsByRange(int, int, int,
+ * MortgagePaymentDetails, int)
+ * @see ArrearsCase#PRIORITY
+ */
+public final class ArrearsEngine {
+    /** The number of mortgages read and checked as one page */
+    public static final int PAGESIZE = 1000;
+    /** The number of worklist cases used when no number is given */
+    public static final int DEFAULTLIMIT = 500;
+    /** The most pages read and waiting to be checked */
+    public static final int MAXPENDING = 16;
+    /** The most payments read by one query while checking a page */
+    public static final int PAYMENTPAGESIZE = 10000;
+    /** The lowest priority case first, so it is the one dropped */
+    private static final Comparator<ArrearsCase> LOWESTFIRST =
+            Collections.reverseOrder(ArrearsCase.PRIORITY);
+    private final ExecutorService executor;
+    private final RateTable rateTable;
+
+    /**
+     * Create a new engine which gives the mortgages the default rate table
+     *
+     * @param executor The threads to check the pages on, which the caller
+     * shuts down
+     * @throws java.lang.IllegalArgumentException When executor is null
+     * @since 0.0.1
+     */
+    public ArrearsEngine(final ExecutorService executor)
+            throws IllegalArgumentException
+    {
+        this(executor, RateTable.DEFAULT);
+    }
+
+    /**
+     * Create a new engine
+     *
+     * @param executor The threads to check the pages on, which the caller
+     * shuts down
+     * @param rateTable The rate table given to each mortgage read
+     * @throws java.lang.IllegalArgumentException When executor or rateTable
+     * is null
+     * @since 0.0.1
+     */
+    public ArrearsEngine(final ExecutorService executor,
+            final RateTable rateTable) throws IllegalArgumentException
+    {
+        if(executor == null) throw new IllegalArgumentException("The " +
+                "executor must not be null.");
+        if(rateTable == null) throw new IllegalArgumentException("The rate " +
+                "table must not be null.");
+        this.executor = executor;
+        this.rateTable = rateTable;
+    }
+
+    /**
+     * Find the mortgages in arrears on a day and rank them
+     *
+     * @param database The database to read the mortgages from
+     * @param day The day to find arrears on
+     * @param limit The most cases in the worklist
+     * @return The worklist, or null if the database returned an error
+     * @throws java.lang.InterruptedException When the thread was interrupted
+     * waiting for the pages to be checked
+     * @throws java.lang.IllegalArgumentException When database or day is
+     * null, or limit is less than 1
+     * @throws java.lang.IllegalStateException When the payments of a
+     * mortgage could not be read
+     * @since 0.0.1
+     */
+    public CollectionsWorklist findArrears(final MortgageDatabase database,
+            final Day day, final int limit) throws InterruptedException
+    {
+        if(database == null) throw new IllegalArgumentException("The " +
+                "database must not be null.");
+        if(day == null) throw new IllegalArgumentException("The day must " +
+                "not be null.");
+        if(limit < 1) throw new IllegalArgumentException("The number of " +
+                "cases must be at least 1.");
+        Result total = new Result(limit);
+        LinkedList<Future<Result>> pending = new LinkedList<Future<Result>>();
+        try {
+            int afterMortgageID = -1;
+            Collection<Mortgage> page;
+            do {
+                page = database.getMortgagesPage(afterMortgageID, PAGESIZE);
+                if(page == null) return null;
+                if(page.isEmpty()) break;
+                int firstMortgageID = page.iterator().next().getMortgageID();
+                for(Mortgage mortgage : page) {
+                    mortgage.setRateTable(rateTable);
+                    afterMortgageID = mortgage.getMortgageID();
+                }
+                if(pending.size() == MAXPENDING) {
+                    total.merge(pending.removeFirst().get());
+                }
+                pending.add(executor.submit(new Page(database, page,
+                        firstMortgageID, afterMortgageID, day.getEpochDay(),
+                        limit)));
+            } while(page.size() == PAGESIZE);
+            while(!pending.isEmpty()) {
+                total.merge(pending.removeFirst().get());
+            }
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("A page of mortgages could not " +
+                    "be checked for arrears.", e.getCause());
+        } finally {
+            for(Future<Result> future : pending) future.cancel(true);
+        }
+        ArrearsCase[] cases = total.cases.toArray(
+                new ArrearsCase[total.cases.size()]);
+        Arrays.sort(cases, ArrearsCase.PRIORITY);
+        return new CollectionsWorklist(day, cases, total.scanned,
+                total.inArrears);
+    }
+
+    /**
+     * Find the latest credit check of a customer
+     *
+     * @param database The database
+     * @param customerID The ID of the customer
+     * @return The credit check, or null if there is none or it could not be
+     * read
+     * @since 0.0.1
+     */
+    private static CreditCheck latestCreditCheck(
+            final MortgageDatabase database, final int customerID) {
+        Collection<CreditCheck> checks =
+                database.getCreditCheckByCustomerID(customerID);
+        if(checks == null) return null;
+        CreditCheck latest = null;
+        for(CreditCheck check : checks) {
+            if(latest == null || check.getCreditCheckDate().isAfter(
+                    latest.getCreditCheckDate()) ||
+                    (check.getCreditCheckDate().equals(
+                    latest.getCreditCheckDate()) &&
+                    check.getID() > latest.getID())) {
+                latest = check;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * The best cases found in some pages, and how many mortgages they
+     * checked
+     *
+     * @since 0.0.1
+     */
+    private static final class Result {
+        private final int limit;
+        private final PriorityQueue<ArrearsCase> cases;
+        private int scanned;
+        private int inArrears;
+
+        /**
+         * Create a new empty result
+         *
+         * @param limit The most cases to keep
+         * @since 0.0.1
+         */
+        Result(final int limit) {
+            this.limit = limit;
+            cases = new PriorityQueue<ArrearsCase>(
+                    Math.min(limit, PAGESIZE) + 1, LOWESTFIRST);
+        }
+
+        /**
+         * Check whether a case could be kept whatever the risk of its
+         * customer
+         *
+         * @param daysOverdue The number of days the case is overdue
+         * @param arrears The total in arrears, in pence
+         * @return False if a full heap holds only cases which come first
+         * @since 0.0.1
+         */
+        boolean mightKeep(final int daysOverdue, final long arrears) {
+            if(cases.size() < limit) return true;
+            ArrearsCase lowest = cases.peek();
+            if(daysOverdue != lowest.getDaysOverdue()) {
+                return daysOverdue > lowest.getDaysOverdue();
+            }
+            return arrears >= lowest.getArrears();
+        }
+
+        /**
+         * Keep a case if it is among the best found
+         *
+         * @param arrearsCase The case
+         * @since 0.0.1
+         */
+        void offer(final ArrearsCase arrearsCase) {
+            if(cases.size() < limit) {
+                cases.add(arrearsCase);
+            } else if(ArrearsCase.PRIORITY.compare(arrearsCase,
+                    cases.peek()) < 0) {
+                cases.poll();
+                cases.add(arrearsCase);
+            }
+        }
+
+        /**
+         * Add the cases and counts of another result to this one
+         *
+         * @param other The other result
+         * @since 0.0.1
+         */
+        void merge(final Result other) {
+            for(ArrearsCase arrearsCase : other.cases) offer(arrearsCase);
+            scanned += other.scanned;
+            inArrears += other.inArrears;
+        }
+    }
+
+    /**
+     * Checks one page of mortgages for arrears
+     *
+     * @since 0.0.1
+     */
+    private static final class Page implements Callable<Result> {
+        private final MortgageDatabase database;
+        private final Collection<Mortgage> mortgages;
+        private final int firstMortgageID;
+        private final int lastMortgageID;
+        private final int epochDay;
+        private final int limit;
+
+        /**
+         * Create a new page
+         *
+         * @param database The database to read payments and credit checks
+         * from
+         * @param mortgages The mortgages of the page, in order of ID
+         * @param firstMortgageID The ID of the first mortgage of the page
+         * @param lastMortgageID The ID of the last mortgage of the page
+         * @param epochDay The day to find arrears on
+         * @param limit The most cases to keep
+         * @since 0.0.1
+         */
+        Page(final MortgageDatabase database,
+                final Collection<Mortgage> mortgages,
+                final int firstMortgageID, final int lastMortgageID,
+                final int epochDay, final int limit) {
+            this.database = database;
+            this.mortgages = mortgages;
+            this.firstMortgageID = firstMortgageID;
+            this.lastMortgageID = lastMortgageID;
+            this.epochDay = epochDay;
+            this.limit = limit;
+        }
+
+        @Override
+        public Result call() {
+            Result result = new Result(limit);
+            HashMap<Integer, MortgageAccount> accounts = readAccounts();
+            for(Mortgage mortgage : mortgages) {
+                if(mortgage.getApplicationStatus() !=
+                        MortgageApplicationStatus.ACCEPTED) continue;
+                result.scanned++;
+                MortgageAccount account =
+                        accounts.get(mortgage.getMortgageID());
+                if(account == null) continue;
+                long arrears = account.getArrears(epochDay);
+                if(arrears == 0) continue;
+                result.inArrears++;
+                int daysOverdue = account.getDaysOverdue(epochDay);
+                if(!result.mightKeep(daysOverdue, arrears)) continue;
+                int customerID = mortgage.getCustomer().getID();
+                result.offer(new ArrearsCase(mortgage.getMortgageID(),
+                        customerID, daysOverdue, arrears,
+                        account.getPaymentsInArrears(epochDay),
+                        latestCreditCheck(database, customerID)));
+            }
+            return result;
+        }
+
+        /**
+         * Build the accounts of the mortgages of the page from their
+         * payments
+         *
+         * @return The accounts by mortgage ID, with none for a mortgage
+         * which has no payments
+         * @throws java.lang.IllegalStateException When the payments could not
+         * be read
+         * @since 0.0.1
+         */
+        private HashMap<Integer, MortgageAccount> readAccounts() {
+            HashMap<Integer, MortgageAccount> accounts =
+                    new HashMap<Integer, MortgageAccount>();
+            int afterMortgageID = firstMortgageID;
+            MortgagePaymentDetails after = null;
+            MortgagePaymentRange range;
+            do {
+                range = database.getMortgagePaymentsByRange(firstMortgageID,
+                        lastMortgageID, afterMortgageID, after,
+                        PAYMENTPAGESIZE);
+                if(range == null) throw new IllegalStateException("The " +
+                        "payments of mortgages " + firstMortgageID + " to " +
+                        lastMortgageID + " could not be read.");
+                for(int i = 0; i < range.size(); i++) {
+                    afterMortgageID = range.getMortgageID(i);
+                    after = range.getPayment(i);
+                    MortgageAccount account = accounts.get(afterMortgageID);
+                    if(account == null) {
+                        account = new MortgageAccount();
+                        accounts.put(afterMortgageID, account);
+                    }
+                    account.add(after);
+                }
+            } while(range.size() == PAYMENTPAGESIZE);
+            return accounts;
+        }
+    }
+}
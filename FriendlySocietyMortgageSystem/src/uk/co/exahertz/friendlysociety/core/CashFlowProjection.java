@@ -0,0 +1,167 @@
+package uk.co.exahertz.friendlysociety.core;
+
+/**
+ * The projected monthly cash flows of a set of mortgages: the repayments
+ * due, split into interest and principal, and the balance outstanding at the
+ * end of each month. Amounts are in pence. A mortgage only counts towards the
+ * months from its first payment.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see PortfolioProjector
+ */
+public final class CashFlowProjection {
+    private final int firstMonth;
+    private final long[] payments;
+    private final long[] interest;
+    private final long[] principal;
+    private final long[] balances;
+    private int mortgageCount;
+
+    /**
+     * Create a new empty projection
+     *
+     * @param firstMonth The month number of the first month projected
+     * @param months The number of months projected
+     * @throws java.lang.IllegalArgumentException When months is less than 1
+     * @since 0.0.1
+     */
+    public CashFlowProjection(final int firstMonth, final int months)
+            throws IllegalArgumentException
+    {
+        if(months < 1) throw new IllegalArgumentException("The number of " +
+                "months must be at least 1.");
+        this.firstMonth = firstMonth;
+        payments = new long[months];
+        interest = new long[months];
+        principal = new long[months];
+        balances = new long[months];
+    }
+
+    /**
+     * Get the month number of the first month projected
+     *
+     * @return The month number
+     * @since 0.0.1
+     */
+    public int getFirstMonth() {
+        return firstMonth;
+    }
+
+    /**
+     * Get the number of months projected
+     *
+     * @return The number of months
+     * @since 0.0.1
+     */
+    public int getMonths() {
+        return payments.length;
+    }
+
+    /**
+     * Get the number of mortgages projected
+     *
+     * @return The number of mortgages
+     * @since 0.0.1
+     */
+    public int getMortgageCount() {
+        return mortgageCount;
+    }
+
+    /**
+     * Get the repayments due in a month
+     *
+     * @param month The month, from 0 for the first month projected
+     * @return The repayments in pence
+     * @throws java.lang.ArrayIndexOutOfBoundsException When month is not
+     * projected
+     * @since 0.0.1
+     */
+    public long getPayments(final int month) {
+        return payments[month];
+    }
+
+    /**
+     * Get the interest due in a month
+     *
+     * @param month The month, from 0 for the first month projected
+     * @return The interest in pence
+     * @throws java.lang.ArrayIndexOutOfBoundsException When month is not
+     * projected
+     * @since 0.0.1
+     */
+    public long getInterest(final int month) {
+        return interest[month];
+    }
+
+    /**
+     * Get the principal repaid in a month
+     *
+     * @param month The month, from 0 for the first month projected
+     * @return The principal in pence
+     * @throws java.lang.ArrayIndexOutOfBoundsException When month is not
+     * projected
+     * @since 0.0.1
+     */
+    public long getPrincipal(final int month) {
+        return principal[month];
+    }
+
+    /**
+     * Get the balance outstanding at the end of a month
+     *
+     * @param month The month, from 0 for the first month projected
+     * @return The balance in pence
+     * @throws java.lang.ArrayIndexOutOfBoundsException When month is not
+     * projected
+     * @since 0.0.1
+     */
+    public long getBalance(final int month) {
+        return balances[month];
+    }
+
+    /**
+     * Add the months of a schedule which fall in this projection
+     *
+     * @param schedule The schedule of one mortgage
+     * @since 0.0.1
+     */
+    void add(final AmortisationSchedule schedule) {
+        int offset = schedule.getFirstMonth() - firstMonth;
+        int from = Math.max(0, -offset);
+        int to = Math.min(schedule.getMonths(), payments.length - offset);
+        for(int i = from; i < to; i++) {
+            int month = offset + i;
+            payments[month] += schedule.getPayment(i);
+            interest[month] += schedule.getInterest(i);
+            principal[month] += schedule.getPrincipal(i);
+            balances[month] += schedule.getBalance(i);
+        }
+        mortgageCount++;
+    }
+
+    /**
+     * Add the totals of another projection of the same months to this one
+     *
+     * @param other The other projection
+     * @throws java.lang.IllegalArgumentException When the projections are
+     * of different months
+     * @since 0.0.1
+     */
+    void merge(final CashFlowProjection other) throws IllegalArgumentException
+    {
+        if(other.firstMonth != firstMonth ||
+                other.payments.length != payments.length) {
+            throw new IllegalArgumentException("The projections must be of " +
+                    "the same months.");
+        }
+        for(int i = 0; i < payments.length; i++) {
+            payments[i] += other.payments[i];
+            interest[i] += other.interest[i];
+            principal[i] += other.principal[i];
+            balances[i] += other.balances[i];
+        }
+        mortgageCount += other.mortgageCount;
+    }
+}
@@ -0,0 +1,129 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.ArrayList;
+
+/**
+ * The mortgages in arrears on a day which the collections team should work
+ * first, in order of priority. The worklist holds at most the number of
+ * cases it was asked for, and counts how many mortgages were found in arrears
+ * in all, so a screen can show a page at a time and say how many more there
+ * are.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see ArrearsEngine
+ * @see ArrearsCase#PRIORITY
+ */
+public final class CollectionsWorklist {
+    private final Day day;
+    private final ArrearsCase[] cases;
+    private final int mortgagesScanned;
+    private final int mortgagesInArrears;
+
+    /**
+     * Create a new worklist
+     *
+     * @param day The day arrears were found on
+     * @param cases The cases, in order of priority
+     * @param mortgagesScanned The number of mortgages looked at
+     * @param mortgagesInArrears The number of mortgages found in arrears,
+     * which may be more than the number of cases
+     * @throws java.lang.IllegalArgumentException When day or cases is null
+     * @since 0.0.1
+     */
+    public CollectionsWorklist(final Day day, final ArrearsCase[] cases,
+            final int mortgagesScanned, final int mortgagesInArrears)
+            throws IllegalArgumentException
+    {
+        if(day == null) throw new IllegalArgumentException("The day must " +
+                "not be null.");
+        if(cases == null) throw new IllegalArgumentException("The cases " +
+                "must not be null.");
+        this.day = day;
+        this.cases = cases.clone();
+        this.mortgagesScanned = mortgagesScanned;
+        this.mortgagesInArrears = mortgagesInArrears;
+    }
+
+    /**
+     * Get the day arrears were found on
+     *
+     * @return The day
+     * @since 0.0.1
+     */
+    public Day getDay() {
+        return day;
+    }
+
+    /**
+     * Get the number of cases in the worklist
+     *
+     * @return The number of cases
+     * @since 0.0.1
+     */
+    public int size() {
+        return cases.length;
+    }
+
+    /**
+     * Get a case by its place in the worklist
+     *
+     * @param index The place, from 0 for the case to work first
+     * @return The case
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * worklist
+     * @since 0.0.1
+     */
+    public ArrearsCase get(final int index) {
+        if(index < 0 || index >= cases.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is not " +
+                    "in a worklist of " + cases.length + " cases.");
+        }
+        return cases[index];
+    }
+
+    /**
+     * Get a page of the worklist
+     *
+     * @param first The place of the first case, from 0
+     * @param count The most cases to return
+     * @return The cases, fewer than count at the end of the worklist
+     * @throws java.lang.IllegalArgumentException When first is negative or
+     * count is less than 1
+     * @since 0.0.1
+     */
+    public ArrayList<ArrearsCase> getPage(final int first, final int count)
+            throws IllegalArgumentException
+    {
+        if(first < 0) throw new IllegalArgumentException("The first case " +
+                "must not be less than 0.");
+        if(count < 1) throw new IllegalArgumentException("The number of " +
+                "cases must be at least 1.");
+        int end = (int) Math.min((long) first + count, cases.length);
+        ArrayList<ArrearsCase> page = new ArrayList<ArrearsCase>();
+        for(int i = first; i < end; i++) page.add(cases[i]);
+        return page;
+    }
+
+    /**
+     * Get the number of mortgages looked at
+     *
+     * @return The number of mortgages
+     * @since 0.0.1
+     */
+    public int getMortgagesScanned() {
+        return mortgagesScanned;
+    }
+
+    /**
+     * Get the number of mortgages found in arrears, including those which
+     * did not make the worklist
+     *
+     * @return The number of mortgages
+     * @since 0.0.1
+     */
+    public int getMortgagesInArrears() {
+        return mortgagesInArrears;
+    }
+}
@@ -1,9 +1,21 @@
 package uk.co.exahertz.friendlysociety.core;
 
 import uk.co.exahertz.friendlysociety.database.*;
+import uk.co.exahertz.friendlysociety.metrics.MetricsRegistry;
+import uk.co.exahertz.friendlysociety.metrics.OperationMetrics;
+import java.awt.Cursor;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 /**
  * The Core class is the central hub of the application, bringing together all 
@@ -15,9 +27,17 @@ import javax.swing.JFrame;
  * @since 0.0.1
  */
 public class Core {
+    /** The number of threads which run database calls in the background */
+    public static final int BACKGROUNDTHREADS = 4;
     private MortgageDatabase dataSource;
     private StaffMember loggedInAs;
     private LinkedList<JFrame> formList;
+    private ExecutorService executor;
+    private final ExecutorService arrearsExecutor;
+    private HashMap<JFrame, LinkedList<BackgroundTask<?>>> formTasks;
+    private final OperationMetrics logInMetrics;
+    private final OperationMetrics executeMetrics;
+    private volatile RateTable rateTable;
 
     /**
      * Create a new instance of the Core class, providing the data source 
@@ -30,7 +50,91 @@ public class Core {
         if(dataSource == null) throw new IllegalArgumentException("The data " +
                 "source must not be null.");
         this.dataSource = dataSource;
+        rateTable = RateTable.DEFAULT;
         formList = new LinkedList<JFrame>();
+        formTasks = new HashMap<JFrame, LinkedList<BackgroundTask<?>>>();
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        logInMetrics = metrics.getOperation("Core.logIn");
+        executeMetrics = metrics.getOperation("Core.execute");
+        executor = Executors.newFixedThreadPool(BACKGROUNDTHREADS,
+                daemonThreads("Core background task"));
+        arrearsExecutor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                daemonThreads("Core arrears check"));
+    }
+
+    /**
+     * Get a factory of daemon threads, so that the threads of the core never
+     * keep the application running once its forms are closed
+     *
+     * @param name The name of the threads
+     * @return The thread factory
+     * @since 0.0.1
+     */
+    private static ThreadFactory daemonThreads(final String name) {
+        return new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Run a task, such as a call to the database, on a background thread so
+     * that the form which asked for it stays responsive. The form shows the
+     * wait cursor until all of its tasks have finished, and its tasks are
+     * cancelled when it is removed with removeForm(). Each task is timed as
+     * the operation "Core.execute", from when it is asked for to when it is
+     * done, so the time it waits for a thread is included.<br>
+     * This method must be called on the Swing event dispatch thread.
+     *
+     * @param <T> The type of result the task produces
+     * @param owner The form the task is run for, or null if the task should
+     * not be cancelled with a form
+     * @param task The task to run
+     * @param callback Receives the result on the event dispatch thread, can
+     * be null
+     * @return The future for the task, which can be used to cancel it
+     * @since 0.0.1
+     */
+    public <T> Future<T> execute(final JFrame owner, final Callable<T> task,
+            final TaskCallback<T> callback) {
+        if(task == null) throw new IllegalArgumentException("The task must " +
+                "not be null.");
+        BackgroundTask<T> future = new BackgroundTask<T>(owner, task,
+                callback);
+        if(owner != null) {
+            LinkedList<BackgroundTask<?>> tasks = formTasks.get(owner);
+            if(tasks == null) {
+                tasks = new LinkedList<BackgroundTask<?>>();
+                formTasks.put(owner, tasks);
+                owner.setCursor(Cursor.getPredefinedCursor(
+                        Cursor.WAIT_CURSOR));
+            }
+            tasks.add(future);
+        }
+        executor.execute(future);
+        return future;
+    }
+
+    /**
+     * Forget a task which has finished, restoring the cursor of its form if
+     * the form has no more tasks running
+     *
+     * @param task The task which has finished
+     * @since 0.0.1
+     */
+    private void taskFinished(final BackgroundTask<?> task) {
+        if(task.owner == null) return;
+        LinkedList<BackgroundTask<?>> tasks = formTasks.get(task.owner);
+        if(tasks == null) return;
+        tasks.remove(task);
+        if(tasks.isEmpty()) {
+            formTasks.remove(task.owner);
+            task.owner.setCursor(Cursor.getDefaultCursor());
+        }
     }
 
     
@@ -44,20 +148,28 @@ public class Core {
     }
 
     /**
-     * Log in a member of staff to use the system
+     * Log in a member of staff to use the system. Log ins are timed as the
+     * operation "Core.logIn", and a log in which is refused counts as an
+     * error so that repeated guessing shows up in the metrics.
      *
      * @param username The username of the member of staff
      * @param password The password of the member of staff
      * @return True if person is now logged in, false if not
      */
     public boolean logIn(final String username, final String password) {
-        StaffMember staff = dataSource.getStaffMemberByUsername(username);
-        if(staff == null) return false;
-        if(staff.isPasswordCorrect(password) && staff.getIsStillWithCompany()) {
-            loggedInAs = staff;
-            return true;
-        } else {
-            return false;
+        long started = logInMetrics.start();
+        boolean loggedIn = false;
+        try {
+            StaffMember staff = dataSource.getStaffMemberByUsername(username);
+            if(staff == null) return false;
+            if(staff.isPasswordCorrect(password) &&
+                    staff.getIsStillWithCompany()) {
+                loggedInAs = staff;
+                loggedIn = true;
+            }
+            return loggedIn;
+        } finally {
+            logInMetrics.stop(started, !loggedIn);
         }
     }
     
@@ -100,6 +212,21 @@ public class Core {
                 "customer instance must not be null.");
         return dataSource.addCustomer(customer);
     }
+
+    /**
+     * Add many customers at once, such as when a portfolio is moved from
+     * another lender. A customer which cannot be added does not stop the
+     * others being added.
+     *
+     * @param customers The customers to add
+     * @return The IDs of the customers and the reasons any failed
+     * @since 0.0.1
+     */
+    public BulkAddResult addCustomers(final Iterable<Customer> customers) {
+        if(customers == null) throw new IllegalArgumentException("The " +
+                "customers must not be null.");
+        return dataSource.addCustomers(customers);
+    }
     
     /**
      * Add new employment details for a customer
@@ -116,6 +243,19 @@ public class Core {
         return dataSource.addEmployment(employment, customerID);
     }
     
+    /**
+     * Add a new mortgage application to the database
+     *
+     * @param mortgage The mortgage to be added
+     * @return The ID of the mortgage
+     * @since 0.0.1
+     */
+    public int addMortgage(final Mortgage mortgage) {
+        if(mortgage == null) throw new IllegalArgumentException("The " +
+                "mortgage instance must not be null.");
+        return dataSource.addMortgage(mortgage);
+    }
+
     /**
      * Add a new mortgage payment for a mortgage
      * 
@@ -131,6 +271,47 @@ public class Core {
         return dataSource.addMortgagePayment(payment, mortgageID);
     }
 
+    /**
+     * Record that a payment of a mortgage has been made, in the database and
+     * in the mortgage. The payments of the mortgage are read if they have not
+     * been, so this should be run with execute().
+     *
+     * @param mortgage The mortgage
+     * @param paymentID The ID of the payment
+     * @param paymentMadeDate The date the payment was made
+     * @param methodOfPayment How the payment was made
+     * @return True if the payment was recorded, false if the database could
+     * not record it
+     * @throws uk.co.exahertz.friendlysociety.core.PaymentAlreadyMadeException
+     * When the payment has already been made
+     * @throws java.lang.IllegalArgumentException When mortgage or
+     * paymentMadeDate is null, or the mortgage has no payment with the ID
+     * @since 0.0.1
+     */
+    public boolean makeMortgagePayment(final Mortgage mortgage,
+            final int paymentID, final Day paymentMadeDate,
+            final MethodOfPayment methodOfPayment)
+            throws PaymentAlreadyMadeException
+    {
+        if(mortgage == null) throw new IllegalArgumentException("The " +
+                "mortgage instance must not be null.");
+        if(paymentMadeDate == null) throw new IllegalArgumentException("The " +
+                "payment made date must not be null.");
+        MortgagePaymentDetails payment = mortgage.getMortgagePaymentByID(
+                paymentID);
+        if(payment == null) throw new IllegalArgumentException("Mortgage " +
+                mortgage.getMortgageID() + " has no payment " + paymentID +
+                ".");
+        payment.setPaymentMadeDate(paymentMadeDate);
+        payment.setMethodOfPayment(methodOfPayment);
+        if(!dataSource.setMortgagePaymentMade(payment,
+                mortgage.getMortgageID())) {
+            return false;
+        }
+        mortgage.setPaymentMadeDate(paymentID, paymentMadeDate);
+        return true;
+    }
+
     /**
      * Add a new property to the database
      *
@@ -197,6 +378,42 @@ public class Core {
         return dataSource.changeStaffMemberPassword(staffMember);
     }
 
+    /**
+     * Change the application status of a mortgage in the database
+     *
+     * @param mortgage The mortgage, with its new application status
+     * @return True if successful, false if the operation failed
+     * @since 0.0.1
+     */
+    public boolean changeMortgageApplicationStatus(final Mortgage mortgage) {
+        if(mortgage == null) throw new IllegalArgumentException("The " +
+                "mortgage instance must not be null.");
+        return dataSource.changeMortgageApplicationStatus(mortgage);
+    }
+
+    /**
+     * Get the interest rates that repayment schedules are worked out at
+     *
+     * @return The rate table
+     * @since 0.0.1
+     */
+    public RateTable getRateTable() {
+        return rateTable;
+    }
+
+    /**
+     * Set the interest rates that repayment schedules are worked out at
+     *
+     * @param rateTable The rate table
+     * @throws java.lang.IllegalArgumentException When rateTable is null
+     * @since 0.0.1
+     */
+    public void setRateTable(final RateTable rateTable) {
+        if(rateTable == null) throw new IllegalArgumentException("The rate " +
+                "table must not be null.");
+        this.rateTable = rateTable;
+    }
+
     /**
      * Get the StaffMember object of who is logged in to the application
      *
@@ -217,6 +434,113 @@ public class Core {
     public Customer getCustomerByID(final int customerID) {
         return dataSource.getCustomerByID(customerID);
     }
+
+    /**
+     * Get a mortgage by its ID. Its payments are read from the database a
+     * page at a time as they are asked for, and its balance is worked out
+     * with the current rate table.
+     *
+     * @param mortgageID The mortgage ID to look for
+     * @return The mortgage, or null if it does not exist
+     * @since 0.0.1
+     */
+    public Mortgage getMortgageByID(final int mortgageID) {
+        Mortgage mortgage = dataSource.getMortgageByID(mortgageID);
+        if(mortgage != null) mortgage.setRateTable(rateTable);
+        return mortgage;
+    }
+
+    /**
+     * Get the mortgages a customer holds, alone or with their spouse
+     *
+     * @param customerID The ID of the customer
+     * @return The mortgages of the customer
+     * @since 0.0.1
+     */
+    public Collection<Mortgage> getMortgagesByCustomerID(final int customerID) {
+        return withRateTable(dataSource.getMortgagesByCustomerID(customerID));
+    }
+
+    /**
+     * Get a page of every mortgage ordered by mortgage ID. The next page is
+     * fetched by passing the ID of the last mortgage in this page.
+     *
+     * @param afterMortgageID The ID of the last mortgage on the previous
+     * page, or -1 for the first page
+     * @param limit The maximum number of mortgages on the page
+     * @return The page of mortgages, fewer than limit if it is the last page
+     * @since 0.0.1
+     */
+    public Collection<Mortgage> getMortgagesPage(final int afterMortgageID,
+            final int limit) {
+        return withRateTable(dataSource.getMortgagesPage(afterMortgageID,
+                limit));
+    }
+
+    /**
+     * Give mortgages read from the database the current rate table
+     *
+     * @param mortgages The mortgages, can be null
+     * @return The mortgages
+     * @since 0.0.1
+     */
+    private Collection<Mortgage> withRateTable(
+            final Collection<Mortgage> mortgages) {
+        if(mortgages != null) {
+            RateTable table = rateTable;
+            for(Mortgage mortgage : mortgages) mortgage.setRateTable(table);
+        }
+        return mortgages;
+    }
+
+    /**
+     * Get the repayment terms of every accepted mortgage, for projecting the
+     * cash flows of the book
+     *
+     * @return The mortgage book, or null if it could not be read
+     * @since 0.0.1
+     * @see PortfolioProjector
+     */
+    public MortgageBook getMortgageBook() {
+        return MortgageBook.read(dataSource);
+    }
+
+    /**
+     * Find the mortgages in arrears today and rank them into a collections
+     * worklist, checking the mortgages on a pool of daemon threads, one for
+     * each processor, which the core keeps for every worklist. The mortgages
+     * are given the rate table of the core. On a large book this takes a
+     * while, so a form should run it with execute() and page through the
+     * worklist it is given.
+     *
+     * @param limit The most cases in the worklist
+     * @return The worklist, or null if the database returned an error
+     * @throws java.lang.InterruptedException When the thread was interrupted
+     * waiting for the mortgages to be checked
+     * @since 0.0.1
+     * @see ArrearsEngine
+     */
+    public CollectionsWorklist getCollectionsWorklist(final int limit)
+            throws InterruptedException
+    {
+        return new ArrearsEngine(arrearsExecutor, rateTable).findArrears(
+                dataSource, Day.today(), limit);
+    }
+
+    /**
+     * Get a page of customers ordered by customer ID. The next page is fetched
+     * by passing the ID of the last customer in this page.
+     *
+     * @param afterCustomerID The ID of the last customer on the previous page,
+     * or -1 for the first page
+     * @param limit The maximum number of customers on the page
+     * @param sort Whether the customer IDs ascend or descend
+     * @return The page of customers, fewer than limit if it is the last page
+     */
+    public Collection<Customer> getCustomersPage(final int afterCustomerID,
+            final int limit, final SortOrder sort) {
+        return dataSource.getCustomersPage(afterCustomerID, limit, sort);
+    }
     
    
    /**
@@ -407,6 +731,12 @@ public class Core {
          if(form == null) throw new IllegalArgumentException("The form " +
                  "instance must not be null.");
          formList.remove(form);
+         LinkedList<BackgroundTask<?>> tasks = formTasks.remove(form);
+         if(tasks != null) {
+             for(BackgroundTask<?> task : tasks) {
+                 task.cancel(true);
+             }
+         }
      }
      
      public void closeAllForms() {
@@ -416,4 +746,58 @@ public class Core {
              form.dispose();
          }
      }
+
+    /**
+     * A task run by execute(), which hands its outcome to its callback on the
+     * event dispatch thread once it is done
+     *
+     * @param <T> The type of result the task produces
+     * @since 0.0.1
+     */
+    private class BackgroundTask<T> extends FutureTask<T> {
+        private final JFrame owner;
+        private final TaskCallback<T> callback;
+        private final long started;
+        private volatile boolean failed;
+
+        /**
+         * Create a new background task
+         *
+         * @param owner The form the task is run for, can be null
+         * @param task The task to run
+         * @param callback Receives the result, can be null
+         * @since 0.0.1
+         */
+        BackgroundTask(final JFrame owner, final Callable<T> task,
+                final TaskCallback<T> callback) {
+            super(task);
+            this.owner = owner;
+            this.callback = callback;
+            started = executeMetrics.start();
+        }
+
+        @Override
+        protected void setException(final Throwable t) {
+            failed = true;
+            super.setException(t);
+        }
+
+        @Override
+        protected void done() {
+            executeMetrics.stop(started, failed);
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run() {
+                    taskFinished(BackgroundTask.this);
+                    if(callback == null || isCancelled()) return;
+                    try {
+                        callback.succeeded(get());
+                    } catch(ExecutionException e) {
+                        callback.failed(e.getCause());
+                    } catch(InterruptedException e) {
+                        // The task is already done, so get() does not wait
+                    }
+                }
+            });
+        }
+    }
 }
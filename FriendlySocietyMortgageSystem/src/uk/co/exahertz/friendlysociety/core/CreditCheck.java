@@ -1,7 +1,5 @@
 package uk.co.exahertz.friendlysociety.core;
 
-import java.util.GregorianCalendar;
-
 /**
  * The CreditCheck class holds the data relevant to a credit check against a
  * customer
@@ -12,7 +10,7 @@ import java.util.GregorianCalendar;
  */
 public class CreditCheck {
     private int creditCheckID;
-    private GregorianCalendar creditCheckDate;
+    private Day creditCheckDate;
     private int creditCheckScore;
     private String creditCheckRiskStatus;
 
@@ -29,7 +27,7 @@ public class CreditCheck {
      * @since 0.0.1
      */
     public CreditCheck(final int creditCheckID,
-            final GregorianCalendar creditCheckDate, final int creditCheckScore,
+            final Day creditCheckDate, final int creditCheckScore,
             final String creditCheckRiskStatus)
             throws IllegalArgumentException
     {
@@ -60,7 +58,7 @@ public class CreditCheck {
      * @return The date the credit check was done for the customer
      * @since 0.0.1
      */
-    public GregorianCalendar getCreditCheckDate() {
+    public Day getCreditCheckDate() {
         return creditCheckDate;
     }
 
@@ -101,7 +99,7 @@ public class CreditCheck {
      * @param date The date to be checked
      * @since 0.0.1
      */
-    private static void checkCreditCheckDate(final GregorianCalendar date) {
+    private static void checkCreditCheckDate(final Day date) {
         if(date == null) throw new IllegalArgumentException("The credit " +
                 "check date must not be null.");
     }
@@ -1,6 +1,5 @@
 package uk.co.exahertz.friendlysociety.core;
 
-import java.util.GregorianCalendar;
 import java.util.ArrayList;
 import java.util.Iterator;
 
@@ -46,7 +45,7 @@ public class Customer extends Person {
      */
     public Customer(final int customerID, final String title,
             final String forenames, final String surname,
-            final GregorianCalendar dateOfBirth, final boolean isFemale,
+            final Day dateOfBirth, final boolean isFemale,
             final Address address, final String telephone,
             final String faxNumber, final String email,
             final String nationalInsuranceNumber,
@@ -0,0 +1,452 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.io.Serializable;
+import java.util.TimeZone;
+
+/**
+ * A date without a time of day, held as the number of days since 1 January
+ * 1970. A day takes a single int where a GregorianCalendar takes a few
+ * hundred bytes, and it is immutable, so it can be shared between entities
+ * and threads without being copied. Months are numbered 1 to 12, as they are
+ * written, not from 0 as in Calendar.<br>
+ * The arithmetic used on every row, such as ages and due dates, is also
+ * offered as static methods on plain epoch days, so that it can be done
+ * without creating an object.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class Day implements Comparable<Day>, Serializable {
+    private static final long serialVersionUID = 1L;
+    /** The earliest year a day can be in */
+    public static final int MINYEAR = 1;
+    /** The latest year a day can be in */
+    public static final int MAXYEAR = 9999;
+    /** The days from 1 March of year 0 to 1 January 1970 */
+    private static final int EPOCHOFFSET = 719468;
+    /** The days in a 400 year cycle of the Gregorian calendar */
+    private static final int DAYSPERERA = 146097;
+    private static final long MILLISPERDAY = 24L * 60 * 60 * 1000;
+    /** The zone the system was started in, which today is worked out in */
+    private static final TimeZone ZONE = TimeZone.getDefault();
+    private final int epochDay;
+
+    /**
+     * Create a day
+     *
+     * @param epochDay The number of days since 1 January 1970
+     * @since 0.0.1
+     */
+    private Day(final int epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    /**
+     * Get a day from the number of days since 1 January 1970
+     *
+     * @param epochDay The number of days since 1 January 1970
+     * @return The day
+     * @since 0.0.1
+     */
+    public static Day ofEpochDay(final int epochDay) {
+        return new Day(epochDay);
+    }
+
+    /**
+     * Get a day from its year, month and day of the month
+     *
+     * @param year The year, from 1 to 9999
+     * @param month The month, from 1 for January to 12 for December
+     * @param dayOfMonth The day of the month, from 1
+     * @return The day
+     * @throws java.lang.IllegalArgumentException When the date does not exist
+     * @since 0.0.1
+     */
+    public static Day of(final int year, final int month,
+            final int dayOfMonth) throws IllegalArgumentException
+    {
+        return new Day(epochDay(year, month, dayOfMonth));
+    }
+
+    /**
+     * Parse a date written as yyyy-MM-dd, as MySQL returns a DATE column
+     *
+     * @param text The text to parse
+     * @return The day
+     * @throws java.lang.IllegalArgumentException When text is null or not a
+     * date written as yyyy-MM-dd
+     * @since 0.0.1
+     */
+    public static Day parse(final String text) throws IllegalArgumentException
+    {
+        if(text == null) throw new IllegalArgumentException("The date must " +
+                "not be null.");
+        if(text.length() != 10 || text.charAt(4) != '-' ||
+                text.charAt(7) != '-') {
+            throw new IllegalArgumentException("The date \"" + text + "\" " +
+                    "must be yyyy-MM-dd.");
+        }
+        return of(digits(text, 0, 4), digits(text, 5, 7),
+                digits(text, 8, 10));
+    }
+
+    /**
+     * Get today in the zone the system was started in
+     *
+     * @return Today
+     * @since 0.0.1
+     */
+    public static Day today() {
+        return new Day(currentEpochDay());
+    }
+
+    /**
+     * Get the number of days from 1 January 1970 to today, in the zone the
+     * system was started in
+     *
+     * @return Today as an epoch day
+     * @since 0.0.1
+     */
+    public static int currentEpochDay() {
+        long now = System.currentTimeMillis();
+        long local = now + ZONE.getOffset(now);
+        long day = local / MILLISPERDAY;
+        if(local % MILLISPERDAY < 0) day--;
+        return (int) day;
+    }
+
+    /**
+     * Get the number of days since 1 January 1970
+     *
+     * @return The epoch day
+     * @since 0.0.1
+     */
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Get the year
+     *
+     * @return The year
+     * @since 0.0.1
+     */
+    public int getYear() {
+        return year(civil(epochDay));
+    }
+
+    /**
+     * Get the month
+     *
+     * @return The month, from 1 for January to 12 for December
+     * @since 0.0.1
+     */
+    public int getMonth() {
+        return month(civil(epochDay));
+    }
+
+    /**
+     * Get the day of the month
+     *
+     * @return The day of the month, from 1
+     * @since 0.0.1
+     */
+    public int getDayOfMonth() {
+        return dayOfMonth(civil(epochDay));
+    }
+
+    /**
+     * Get the month this day is in as a single number which goes up by one
+     * each month, year * 12 + month - 1
+     *
+     * @return The month number
+     * @since 0.0.1
+     * @see RateTable#monthNumber(Day)
+     */
+    public int getMonthNumber() {
+        return monthNumber(epochDay);
+    }
+
+    /**
+     * Get the day a number of days after this one
+     *
+     * @param days The number of days, negative for days before
+     * @return The day
+     * @since 0.0.1
+     */
+    public Day plusDays(final int days) {
+        return days == 0 ? this : new Day(epochDay + days);
+    }
+
+    /**
+     * Get the same day of the month a number of months after this one. If
+     * that month is shorter, the last day of the month is used.
+     *
+     * @param months The number of months, negative for months before
+     * @return The day
+     * @since 0.0.1
+     */
+    public Day plusMonths(final int months) {
+        return months == 0 ? this : new Day(addMonths(epochDay, months));
+    }
+
+    /**
+     * Get the number of whole years from this day to another, such as the
+     * age on a day of a person born on this day
+     *
+     * @param other The later day
+     * @return The number of whole years, negative if other is earlier
+     * @throws java.lang.IllegalArgumentException When other is null
+     * @since 0.0.1
+     */
+    public int getYearsUntil(final Day other) throws IllegalArgumentException
+    {
+        if(other == null) throw new IllegalArgumentException("The day must " +
+                "not be null.");
+        return yearsBetween(epochDay, other.epochDay);
+    }
+
+    /**
+     * Get whether this day is before another
+     *
+     * @param other The other day
+     * @return True if this day is earlier
+     * @since 0.0.1
+     */
+    public boolean isBefore(final Day other) {
+        return epochDay < other.epochDay;
+    }
+
+    /**
+     * Get whether this day is after another
+     *
+     * @param other The other day
+     * @return True if this day is later
+     * @since 0.0.1
+     */
+    public boolean isAfter(final Day other) {
+        return epochDay > other.epochDay;
+    }
+
+    public int compareTo(final Day other) {
+        return epochDay < other.epochDay ? -1 :
+                (epochDay == other.epochDay ? 0 : 1);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof Day && ((Day) other).epochDay == epochDay;
+    }
+
+    @Override
+    public int hashCode() {
+        return epochDay;
+    }
+
+    /**
+     * Get the day written as yyyy-MM-dd
+     *
+     * @return The day as text
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        int civil = civil(epochDay);
+        StringBuilder text = new StringBuilder(10);
+        int year = year(civil);
+        if(year < 1000) text.append('0');
+        if(year < 100) text.append('0');
+        if(year < 10) text.append('0');
+        text.append(year).append('-');
+        if(month(civil) < 10) text.append('0');
+        text.append(month(civil)).append('-');
+        if(dayOfMonth(civil) < 10) text.append('0');
+        return text.append(dayOfMonth(civil)).toString();
+    }
+
+    /**
+     * Get the number of days from 1 January 1970 to a date
+     *
+     * @param year The year, from 1 to 9999
+     * @param month The month, from 1 for January to 12 for December
+     * @param dayOfMonth The day of the month, from 1
+     * @return The epoch day
+     * @throws java.lang.IllegalArgumentException When the date does not exist
+     * @since 0.0.1
+     */
+    public static int epochDay(final int year, final int month,
+            final int dayOfMonth) throws IllegalArgumentException
+    {
+        if(year < MINYEAR || year > MAXYEAR) {
+            throw new IllegalArgumentException("The year " + year + " must " +
+                    "be between " + MINYEAR + " and " + MAXYEAR + ".");
+        }
+        if(month < 1 || month > 12) throw new IllegalArgumentException("The " +
+                "month " + month + " must be between 1 and 12.");
+        if(dayOfMonth < 1 || dayOfMonth > lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("The day " + dayOfMonth +
+                    " is not in month " + month + " of " + year + ".");
+        }
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 +
+                dayOfMonth - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 +
+                dayOfYear;
+        return era * DAYSPERERA + dayOfEra - EPOCHOFFSET;
+    }
+
+    /**
+     * Get the month number of an epoch day, year * 12 + month - 1
+     *
+     * @param epochDay The epoch day
+     * @return The month number
+     * @since 0.0.1
+     */
+    public static int monthNumber(final int epochDay) {
+        int civil = civil(epochDay);
+        return year(civil) * 12 + month(civil) - 1;
+    }
+
+    /**
+     * Get the same day of the month a number of months after an epoch day.
+     * If that month is shorter, the last day of the month is used.
+     *
+     * @param epochDay The epoch day
+     * @param months The number of months, negative for months before
+     * @return The epoch day months later
+     * @throws java.lang.IllegalArgumentException When the result is not
+     * between years 1 and 9999
+     * @since 0.0.1
+     */
+    public static int addMonths(final int epochDay, final int months)
+            throws IllegalArgumentException
+    {
+        int civil = civil(epochDay);
+        int month = year(civil) * 12 + month(civil) - 1 + months;
+        if(month < 0) {
+            throw new IllegalArgumentException("The date is before year " +
+                    MINYEAR + ".");
+        }
+        int year = month / 12;
+        int monthOfYear = month % 12 + 1;
+        return epochDay(year, monthOfYear, Math.min(dayOfMonth(civil),
+                lengthOfMonth(year, monthOfYear)));
+    }
+
+    /**
+     * Get the number of whole years from one epoch day to another, such as
+     * the age on the second day of a person born on the first. A person born
+     * on 29 February is a year older on 1 March in years which are not leap
+     * years.
+     *
+     * @param from The earlier epoch day
+     * @param to The later epoch day
+     * @return The number of whole years, negative if to is earlier
+     * @since 0.0.1
+     */
+    public static int yearsBetween(final int from, final int to) {
+        if(to < from) return -yearsBetween(to, from);
+        int start = civil(from);
+        int end = civil(to);
+        int years = year(end) - year(start);
+        if((end & 511) < (start & 511)) years--;
+        return years;
+    }
+
+    /**
+     * Get the number of days in a month
+     *
+     * @param year The year
+     * @param month The month, from 1 for January to 12 for December
+     * @return The number of days
+     * @since 0.0.1
+     */
+    public static int lengthOfMonth(final int year, final int month) {
+        switch(month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Get whether a year is a leap year in the Gregorian calendar
+     *
+     * @param year The year
+     * @return True if the year has a 29 February
+     * @since 0.0.1
+     */
+    public static boolean isLeapYear(final int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    /**
+     * Work out the year, month and day of the month of an epoch day, packed
+     * into one int as year * 512 + month * 32 + day so that nothing has to
+     * be allocated to return them. The low nine bits order the days within
+     * a year.
+     *
+     * @param epochDay The epoch day
+     * @return The packed date
+     * @since 0.0.1
+     */
+    private static int civil(final int epochDay) {
+        int z = epochDay + EPOCHOFFSET;
+        int era = (z >= 0 ? z : z - DAYSPERERA + 1) / DAYSPERERA;
+        int dayOfEra = z - era * DAYSPERERA;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 -
+                dayOfEra / (DAYSPERERA - 1)) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 -
+                yearOfEra / 100);
+        int shifted = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shifted + 2) / 5 + 1;
+        int month = shifted < 10 ? shifted + 3 : shifted - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 512 + month * 32 + day;
+    }
+
+    private static int year(final int civil) {
+        return civil >> 9;
+    }
+
+    private static int month(final int civil) {
+        return (civil >> 5) & 15;
+    }
+
+    private static int dayOfMonth(final int civil) {
+        return civil & 31;
+    }
+
+    /**
+     * Read a run of decimal digits from a date
+     *
+     * @param text The date
+     * @param from The position of the first digit
+     * @param to The position after the last digit
+     * @return The number
+     * @throws java.lang.IllegalArgumentException When a character is not a
+     * digit
+     * @since 0.0.1
+     */
+    private static int digits(final String text, final int from,
+            final int to) throws IllegalArgumentException
+    {
+        int value = 0;
+        for(int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if(c < '0' || c > '9') throw new IllegalArgumentException("The " +
+                    "date \"" + text + "\" must be yyyy-MM-dd.");
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+}
@@ -1,7 +1,5 @@
 package uk.co.exahertz.friendlysociety.core;
 
-import java.util.GregorianCalendar;
-
 /**
  * The Employment class holds details concerning a customer's employment which
  * is used when making a decision about awarding a customer a mortgage
@@ -17,10 +15,10 @@ public class Employment {
     private Address employerAddress;
     private String employerTelephone;
     private String employerFax;
-    private GregorianCalendar dateStarted;
-    private GregorianCalendar dateEnded;
+    private Day dateStarted;
+    private Day dateEnded;
     private float hoursPerWeek;
-    private float currentAnnualSalery;
+    private Money currentAnnualSalery;
     private boolean permenant;
     private boolean selfEmployed;
 
@@ -51,9 +49,9 @@ public class Employment {
      */
     public Employment(final int employmentID, final String employerName,
             final Address employerAddress, final String employerTelephone,
-            final String employerFax, final GregorianCalendar dateStarted,
-            final GregorianCalendar dateEnded, final float hoursPerWeek,
-            final float currentAnnualSalery, final boolean permenant,
+            final String employerFax, final Day dateStarted,
+            final Day dateEnded, final float hoursPerWeek,
+            final Money currentAnnualSalery, final boolean permenant,
             final boolean selfEmployed)
             throws IllegalArgumentException
     {
@@ -141,7 +139,7 @@ public class Employment {
      * this employer
      * @since 0.0.1
      */
-    public GregorianCalendar getDateStarted() {
+    public Day getDateStarted() {
         return dateStarted;
     }
 
@@ -155,7 +153,7 @@ public class Employment {
      * employer
      * @since 0.0.1
      */
-    public GregorianCalendar getDateEnded() {
+    public Day getDateEnded() {
         return dateEnded;
     }
 
@@ -176,7 +174,7 @@ public class Employment {
      * employment
      * @since 0.0.1
      */
-    public float getCurrentAnnualSalery() {
+    public Money getCurrentAnnualSalery() {
         return currentAnnualSalery;
     }
 
@@ -266,7 +264,7 @@ public class Employment {
      * @param dateEnded The end date of the employment with this employer
      * @since 0.0.1
      */
-    public void setDateEnded(final GregorianCalendar dateEnded) {
+    public void setDateEnded(final Day dateEnded) {
         this.dateEnded = dateEnded;
     }
 
@@ -291,11 +289,11 @@ public class Employment {
      *
      * @param currentAnnualSalery The current annual salery the customer
      * receives in this employment
-     * @throws java.lang.IllegalArgumentException When a salery of 0 or less is
-     * specified
+     * @throws java.lang.IllegalArgumentException When no salery or a salery
+     * of 0 or less is specified
      * @since 0.0.1
      */
-    public void setCurrentAnnualSalery(final float currentAnnualSalery)
+    public void setCurrentAnnualSalery(final Money currentAnnualSalery)
             throws IllegalArgumentException
     {
         checkCurrentAnnualSalery(currentAnnualSalery);
@@ -365,7 +363,7 @@ public class Employment {
      * @param startDate The start date to be checked
      * @since 0.0.1
      */
-    private static void checkStartDate(final GregorianCalendar startDate) {
+    private static void checkStartDate(final Day startDate) {
         if(startDate == null) throw new IllegalArgumentException("The start " +
                 "date must not be null.");
     }
@@ -382,16 +380,20 @@ public class Employment {
     }
 
     /**
-     * Check to ensure the current annual salery is not 0
+     * Check to ensure the current annual salery is not null or 0
      *
      * @param currentAnnualSalery The annual salery to be checked
      * @since 0.0.1
      */
     private static void checkCurrentAnnualSalery(
-            final float currentAnnualSalery)
+            final Money currentAnnualSalery)
     {
-        if(currentAnnualSalery <= 0) throw new IllegalArgumentException("The " +
-                "current yearly salery of this employment must be greater " +
-                "0.");
+        if(currentAnnualSalery == null) throw new IllegalArgumentException(
+                "The current yearly salery of this employment must not be " +
+                "null.");
+        if(currentAnnualSalery.signum() <= 0) {
+            throw new IllegalArgumentException("The current yearly salery " +
+                    "of this employment must be greater 0.");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,466 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money in pounds, held exactly as a whole number of pence.
+ * Money is immutable, so an amount can be shared between entities and
+ * threads, and adding up amounts never drifts the way float amounts do.<br>
+ * Every operation is also offered as a static method on plain pence, so that
+ * totals over many amounts can be worked out in a long without creating an
+ * object per step: add up getPence() and wrap the total once at the end.
+ * Arithmetic which overflows a long throws ArithmeticException rather than
+ * wrapping round.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class Money implements Comparable<Money>, Serializable {
+    private static final long serialVersionUID = 1L;
+    /** No money */
+    public static final Money ZERO = new Money(0);
+    /** The number of pence in a pound */
+    public static final int PENCEPERPOUND = 100;
+    private final long pence;
+
+    /**
+     * Create an amount of money
+     *
+     * @param pence The amount in pence
+     * @since 0.0.1
+     */
+    private Money(final long pence) {
+        this.pence = pence;
+    }
+
+    /**
+     * Get an amount of money in pence
+     *
+     * @param pence The amount in pence
+     * @return The amount
+     * @since 0.0.1
+     */
+    public static Money ofPence(final long pence) {
+        return pence == 0 ? ZERO : new Money(pence);
+    }
+
+    /**
+     * Get an amount of money in whole pounds
+     *
+     * @param pounds The amount in pounds
+     * @return The amount
+     * @throws java.lang.ArithmeticException When the amount does not fit in
+     * a long number of pence
+     * @since 0.0.1
+     */
+    public static Money ofPounds(final long pounds) {
+        return ofPence(multiply(pounds, PENCEPERPOUND));
+    }
+
+    /**
+     * Get an amount of money from a decimal number of pounds, as read from a
+     * DECIMAL column. Fractions of a penny are rounded half to even.
+     *
+     * @param pounds The amount in pounds
+     * @return The amount, or null if pounds is null
+     * @throws java.lang.ArithmeticException When the amount does not fit in
+     * a long number of pence
+     * @since 0.0.1
+     */
+    public static Money valueOf(final BigDecimal pounds) {
+        if(pounds == null) return null;
+        BigInteger value = pounds.setScale(2, RoundingMode.HALF_EVEN)
+                .unscaledValue();
+        if(value.bitLength() > 63) throw new ArithmeticException("The " +
+                "amount " + pounds + " is too large.");
+        return ofPence(value.longValue());
+    }
+
+    /**
+     * Parse an amount of pounds such as "1234.5", "-12" or "1,234.50", with
+     * or without a pound sign. The text is read exactly, without going
+     * through a float.
+     *
+     * @param text The text to parse
+     * @return The amount
+     * @throws java.lang.NumberFormatException When the text is not an amount
+     * of pounds and pence, or has fractions of a penny
+     * @since 0.0.1
+     */
+    public static Money parse(final String text) throws NumberFormatException {
+        if(text == null) throw new NumberFormatException("The amount must " +
+                "not be null.");
+        String value = text.trim();
+        boolean negative = value.startsWith("-");
+        if(negative) value = value.substring(1).trim();
+        if(value.startsWith("\u00a3")) value = value.substring(1).trim();
+        int point = value.indexOf('.');
+        String whole = point < 0 ? value : value.substring(0, point);
+        String fraction = point < 0 ? "" : value.substring(point + 1);
+        if(fraction.length() > 2) throw new NumberFormatException("The " +
+                "amount \"" + text + "\" has fractions of a penny.");
+        if(whole.length() == 0 && fraction.length() == 0) {
+            throw new NumberFormatException("The amount \"" + text + "\" " +
+                    "has no digits.");
+        }
+        long pounds = 0;
+        for(int i = 0; i < whole.length(); i++) {
+            char c = whole.charAt(i);
+            if(c == ',' && i > 0) continue;
+            pounds = add(multiply(pounds, 10), digit(c, text));
+        }
+        long pence = 0;
+        for(int i = 0; i < 2; i++) {
+            pence = pence * 10 + (i < fraction.length() ?
+                    digit(fraction.charAt(i), text) : 0);
+        }
+        long total;
+        try {
+            total = add(multiply(pounds, PENCEPERPOUND), pence);
+        } catch(ArithmeticException e) {
+            throw new NumberFormatException("The amount \"" + text + "\" " +
+                    "is too large.");
+        }
+        return ofPence(negative ? -total : total);
+    }
+
+    /**
+     * Get the amount in pence
+     *
+     * @return The amount in pence
+     * @since 0.0.1
+     */
+    public long getPence() {
+        return pence;
+    }
+
+    /**
+     * Get the amount as a decimal number of pounds, for writing to a DECIMAL
+     * column
+     *
+     * @return The amount in pounds, with two decimal places
+     * @since 0.0.1
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(pence, 2);
+    }
+
+    /**
+     * Add another amount to this one
+     *
+     * @param other The amount to add
+     * @return The total
+     * @throws java.lang.ArithmeticException When the total overflows
+     * @throws java.lang.IllegalArgumentException When other is null
+     * @since 0.0.1
+     */
+    public Money plus(final Money other) {
+        if(other == null) throw new IllegalArgumentException("The amount " +
+                "must not be null.");
+        return other.pence == 0 ? this : ofPence(add(pence, other.pence));
+    }
+
+    /**
+     * Take another amount from this one
+     *
+     * @param other The amount to take away
+     * @return The difference
+     * @throws java.lang.ArithmeticException When the difference overflows
+     * @throws java.lang.IllegalArgumentException When other is null
+     * @since 0.0.1
+     */
+    public Money minus(final Money other) {
+        if(other == null) throw new IllegalArgumentException("The amount " +
+                "must not be null.");
+        return other.pence == 0 ? this : ofPence(subtract(pence, other.pence));
+    }
+
+    /**
+     * Multiply this amount by a whole number, such as a number of months
+     *
+     * @param times The number to multiply by
+     * @return The product
+     * @throws java.lang.ArithmeticException When the product overflows
+     * @since 0.0.1
+     */
+    public Money times(final long times) {
+        return ofPence(multiply(pence, times));
+    }
+
+    /**
+     * Multiply this amount by a rate, such as when charging interest,
+     * rounding to the penny
+     *
+     * @param rate The rate, as a fraction
+     * @param mode How to round to the penny
+     * @return The product
+     * @throws java.lang.ArithmeticException When the product does not fit,
+     * or mode is UNNECESSARY and the product is not a whole penny
+     * @since 0.0.1
+     */
+    public Money times(final double rate, final RoundingMode mode) {
+        return ofPence(multiply(pence, rate, mode));
+    }
+
+    /**
+     * Get the interest on this amount for a number of months at an annual
+     * percentage rate, rounding to the penny
+     *
+     * @param annualPercentage The annual rate, as a percentage
+     * @param months The number of months
+     * @param mode How to round to the penny
+     * @return The interest
+     * @throws java.lang.ArithmeticException When the interest does not fit,
+     * or mode is UNNECESSARY and the interest is not a whole penny
+     * @since 0.0.1
+     */
+    public Money interest(final double annualPercentage, final int months,
+            final RoundingMode mode) {
+        return ofPence(interest(pence, annualPercentage, months, mode));
+    }
+
+    /**
+     * Get the amount with the opposite sign
+     *
+     * @return The negated amount
+     * @throws java.lang.ArithmeticException When the amount is the most
+     * negative a long can hold
+     * @since 0.0.1
+     */
+    public Money negate() {
+        return ofPence(subtract(0, pence));
+    }
+
+    /**
+     * Get the sign of the amount
+     *
+     * @return -1, 0 or 1 as the amount is negative, zero or positive
+     * @since 0.0.1
+     */
+    public int signum() {
+        return pence < 0 ? -1 : (pence == 0 ? 0 : 1);
+    }
+
+    /**
+     * Check whether the amount is greater than another
+     *
+     * @param other The amount to compare with
+     * @return True if this amount is greater
+     * @since 0.0.1
+     */
+    public boolean isGreaterThan(final Money other) {
+        return pence > other.pence;
+    }
+
+    /**
+     * Check whether the amount is less than another
+     *
+     * @param other The amount to compare with
+     * @return True if this amount is less
+     * @since 0.0.1
+     */
+    public boolean isLessThan(final Money other) {
+        return pence < other.pence;
+    }
+
+    @Override
+    public int compareTo(final Money other) {
+        return pence < other.pence ? -1 : (pence == other.pence ? 0 : 1);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof Money && ((Money) other).pence == pence;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (pence ^ (pence >>> 32));
+    }
+
+    /**
+     * Get the amount as pounds with two decimal places, such as "1234.50",
+     * which parse() reads back
+     *
+     * @return The amount in pounds
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return toString(pence);
+    }
+
+    /**
+     * Get an amount in pence as pounds with two decimal places
+     *
+     * @param pence The amount in pence
+     * @return The amount in pounds, such as "-0.05"
+     * @since 0.0.1
+     */
+    public static String toString(final long pence) {
+        long pounds = Math.abs(pence / PENCEPERPOUND);
+        long part = Math.abs(pence % PENCEPERPOUND);
+        return (pence < 0 ? "-" : "") + pounds + (part < 10 ? ".0" : ".") +
+                part;
+    }
+
+    /**
+     * Add two amounts in pence
+     *
+     * @param a The first amount
+     * @param b The second amount
+     * @return The total
+     * @throws java.lang.ArithmeticException When the total overflows
+     * @since 0.0.1
+     */
+    public static long add(final long a, final long b) {
+        long total = a + b;
+        if(((a ^ total) & (b ^ total)) < 0) {
+            throw new ArithmeticException("The amount is too large.");
+        }
+        return total;
+    }
+
+    /**
+     * Take one amount in pence from another
+     *
+     * @param a The amount to take from
+     * @param b The amount to take away
+     * @return The difference
+     * @throws java.lang.ArithmeticException When the difference overflows
+     * @since 0.0.1
+     */
+    public static long subtract(final long a, final long b) {
+        long difference = a - b;
+        if(((a ^ b) & (a ^ difference)) < 0) {
+            throw new ArithmeticException("The amount is too large.");
+        }
+        return difference;
+    }
+
+    /**
+     * Multiply an amount in pence by a whole number
+     *
+     * @param pence The amount
+     * @param times The number to multiply by
+     * @return The product
+     * @throws java.lang.ArithmeticException When the product overflows
+     * @since 0.0.1
+     */
+    public static long multiply(final long pence, final long times) {
+        long product = pence * times;
+        if((Math.abs(pence) | Math.abs(times)) >>> 31 != 0 &&
+                ((times != 0 && product / times != pence) ||
+                (pence == Long.MIN_VALUE && times == -1))) {
+            throw new ArithmeticException("The amount is too large.");
+        }
+        return product;
+    }
+
+    /**
+     * Multiply an amount in pence by a rate, rounding to the penny
+     *
+     * @param pence The amount
+     * @param rate The rate, as a fraction
+     * @param mode How to round to the penny
+     * @return The product in pence
+     * @throws java.lang.ArithmeticException When the product does not fit,
+     * or mode is UNNECESSARY and the product is not a whole penny
+     * @throws java.lang.IllegalArgumentException When mode is null
+     * @since 0.0.1
+     */
+    public static long multiply(final long pence, final double rate,
+            final RoundingMode mode) {
+        return round(pence * rate, mode);
+    }
+
+    /**
+     * Get the interest on an amount in pence for a number of months at an
+     * annual percentage rate, rounding to the penny
+     *
+     * @param pence The amount
+     * @param annualPercentage The annual rate, as a percentage
+     * @param months The number of months
+     * @param mode How to round to the penny
+     * @return The interest in pence
+     * @throws java.lang.ArithmeticException When the interest does not fit,
+     * or mode is UNNECESSARY and the interest is not a whole penny
+     * @throws java.lang.IllegalArgumentException When mode is null
+     * @since 0.0.1
+     */
+    public static long interest(final long pence,
+            final double annualPercentage, final int months,
+            final RoundingMode mode) {
+        return round(pence * annualPercentage * months / 1200, mode);
+    }
+
+    /**
+     * Round a number of pence to a whole penny
+     *
+     * @param value The number of pence
+     * @param mode How to round
+     * @return The whole number of pence
+     * @throws java.lang.ArithmeticException When the value does not fit in a
+     * long, or mode is UNNECESSARY and the value is not whole
+     * @throws java.lang.IllegalArgumentException When mode is null
+     * @since 0.0.1
+     */
+    private static long round(final double value, final RoundingMode mode) {
+        if(mode == null) throw new IllegalArgumentException("The rounding " +
+                "mode must not be null.");
+        if(Double.isNaN(value) || value >= 0x1p63 || value < -0x1p63) {
+            throw new ArithmeticException("The amount is too large.");
+        }
+        double floor = Math.floor(value);
+        double fraction = value - floor;
+        if(fraction == 0) return (long) floor;
+        boolean up;
+        switch(mode) {
+            case UP:
+                up = value > 0;
+                break;
+            case DOWN:
+                up = value < 0;
+                break;
+            case CEILING:
+                up = true;
+                break;
+            case FLOOR:
+                up = false;
+                break;
+            case HALF_UP:
+                up = fraction > 0.5 || (fraction == 0.5 && value > 0);
+                break;
+            case HALF_DOWN:
+                up = fraction > 0.5 || (fraction == 0.5 && value < 0);
+                break;
+            case HALF_EVEN:
+                up = fraction > 0.5 ||
+                        (fraction == 0.5 && ((long) floor & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("The amount is not a whole " +
+                        "number of pence.");
+        }
+        return (long) floor + (up ? 1 : 0);
+    }
+
+    /**
+     * Read a digit of an amount
+     *
+     * @param c The character
+     * @param text The whole amount, for the error message
+     * @return The value of the digit
+     * @throws java.lang.NumberFormatException When c is not a digit
+     * @since 0.0.1
+     */
+    private static int digit(final char c, final String text) {
+        if(c < '0' || c > '9') throw new NumberFormatException("The amount " +
+                "\"" + text + "\" is not a number of pounds.");
+        return c - '0';
+    }
+}
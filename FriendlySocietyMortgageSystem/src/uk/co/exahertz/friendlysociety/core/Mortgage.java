@@ -1,11 +1,20 @@
 package uk.co.exahertz.friendlysociety.core;
 
-import java.util.GregorianCalendar;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collection;
 
 /**
- * Details of the mortgage will be stored here.
+ * Details of the mortgage will be stored here.<br>
+ * A mortgage read from a database is given a MortgagePaymentSource, and reads
+ * its payments from it a page at a time as they are asked for, so a mortgage
+ * can be shown without reading years of payments. A mortgage with no source
+ * holds all of its payments itself.<br>
+ * The mortgage keeps a MortgageAccount up to date as payments are read,
+ * added and made, so its balance and arrears are known without going back
+ * over its payments. Every few payments read, a snapshot of the account is
+ * passed to the payment source, which can give it back when the mortgage is
+ * next read; the account then carries on from the snapshot and reads only
+ * the payments after it.
  *
  * @author Niall Scott
  * @version 0.0.1
@@ -16,18 +25,34 @@ import java.util.Iterator;
  * @see Customer
  */
 public class Mortgage {
+    /** The number of payments read from the payment source at a time */
+    public static final int PAYMENTPAGESIZE = 24;
+    /** The least number of payments read between snapshots of the account */
+    public static final int SNAPSHOTINTERVAL = 12;
     private int mortgageID;
     private Customer customer;
     private Customer customerSpouse;
     private Property property;
-    private GregorianCalendar dateOfApplication;
-    private float deposit;
+    private Day dateOfApplication;
+    private Money deposit;
     private int mortgageLengthInMonths;
-    private float amountRequested;
+    private Money amountRequested;
     private MortgageApplicationStatus applicationStatus;
     private MortgagesOffered mortgageType;
-    private GregorianCalendar paymentsBegin;
-    private ArrayList<MortgagePaymentDetails> mortgagePayments;
+    private Day paymentsBegin;
+    private PaymentLedger mortgagePayments;
+    private MortgagePaymentSource paymentSource;
+    private boolean allPaymentsRead;
+    private RateTable rateTable;
+    private MortgageAccount account;
+    /** True when every payment from the payment source is in the account */
+    private boolean accountRead;
+    /** True when the account has been changed other than by reading */
+    private boolean accountChanged;
+    /** The last snapshot of the account given to or by the payment source */
+    private MortgageAccount accountSnapshot;
+    /** The interest charged by the end of each month of the schedule */
+    private long[] interestToDate;
 
     /**
      * Create a new mortgage
@@ -50,11 +75,11 @@ public class Mortgage {
      */
     public Mortgage(final int mortgageID, final Customer customer,
             final Customer customerSpouse, final Property property,
-            final GregorianCalendar dateOfApplication, final float deposit,
-            final int mortgageLengthInMonths, final float amountRequested,
+            final Day dateOfApplication, final Money deposit,
+            final int mortgageLengthInMonths, final Money amountRequested,
             final MortgageApplicationStatus applicationStatus,
             final MortgagesOffered mortgageType,
-            final GregorianCalendar paymentsBegin)
+            final Day paymentsBegin)
             throws IllegalArgumentException
     {
         checkMortgageID(mortgageID);
@@ -77,7 +102,11 @@ public class Mortgage {
         this.applicationStatus = applicationStatus;
         this.mortgageType = mortgageType;
         this.paymentsBegin = paymentsBegin;
-        mortgagePayments = new ArrayList<MortgagePaymentDetails>();
+        mortgagePayments = new PaymentLedger();
+        allPaymentsRead = true;
+        rateTable = RateTable.DEFAULT;
+        account = new MortgageAccount();
+        accountRead = true;
     }
 
     /**
@@ -126,7 +155,7 @@ public class Mortgage {
      * @return The date the application was submitted
      * @since 0.0.1
      */
-    public GregorianCalendar getDateOfApplication() {
+    public Day getDateOfApplication() {
         return dateOfApplication;
     }
 
@@ -136,7 +165,7 @@ public class Mortgage {
      * @return The deposit of the mortgage
      * @since 0.0.1
      */
-    public float getDeposit() {
+    public Money getDeposit() {
         return deposit;
     }
 
@@ -154,7 +183,7 @@ public class Mortgage {
      * Get the amount requested for this mortgage
      * @return
      */
-    public float getAmountRequested() {
+    public Money getAmountRequested() {
         return amountRequested;
     }
 
@@ -184,20 +213,134 @@ public class Mortgage {
      * @return The date the payments begin/began
      * @since 0.0.1
      */
-    public GregorianCalendar getPaymentsBegin() {
+    public Day getPaymentsBegin() {
         return paymentsBegin;
     }
 
     /**
-     * Get a clone of the ArrayList which holds the mortgage payments for this
-     * mortgage
+     * Get the mortgage payments for this mortgage. Any payments not yet read
+     * from the payment source are read first. The payments are built from
+     * the payment ledger, so changing them does not change the mortgage;
+     * getPaymentLedger() reads the payments without building them.
      *
-     * @return A clone of the ArrayList which holds the mortgage payments for
-     * this mortgage
+     * @return The mortgage payments for this mortgage
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read from the payment source
      * @since 0.0.1
      */
-    public ArrayList<MortgagePaymentDetails> getMortgagePayments() {
-        return (ArrayList<MortgagePaymentDetails>)mortgagePayments.clone();
+    public synchronized ArrayList<MortgagePaymentDetails>
+            getMortgagePayments()
+    {
+        readPayments(Integer.MAX_VALUE);
+        ArrayList<MortgagePaymentDetails> payments =
+                new ArrayList<MortgagePaymentDetails>(mortgagePayments.size());
+        for(int i = 0; i < mortgagePayments.size(); i++) {
+            payments.add(mortgagePayments.get(i));
+        }
+        return payments;
+    }
+
+    /**
+     * Get some of the payments of this mortgage, reading only as many pages
+     * from the payment source as are needed
+     *
+     * @param first The index of the first payment, from 0
+     * @param count The most payments to return
+     * @return The payments, which are fewer than count at the end of the
+     * payments
+     * @throws java.lang.IllegalArgumentException When first is negative or
+     * count is less than 1
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read from the payment source
+     * @since 0.0.1
+     */
+    public synchronized ArrayList<MortgagePaymentDetails> getMortgagePayments(
+            final int first, final int count)
+    {
+        if(first < 0) throw new IllegalArgumentException("The first payment " +
+                "must not be less than 0.");
+        if(count < 1) throw new IllegalArgumentException("The number of " +
+                "payments must be at least 1.");
+        int end = first + Math.min(count, Integer.MAX_VALUE - first);
+        readPayments(end);
+        end = Math.min(end, mortgagePayments.size());
+        ArrayList<MortgagePaymentDetails> payments =
+                new ArrayList<MortgagePaymentDetails>();
+        for(int i = first; i < end; i++) {
+            payments.add(mortgagePayments.get(i));
+        }
+        return payments;
+    }
+
+    /**
+     * Get a read-only snapshot of the payment ledger of this mortgage. Any
+     * payments not yet read from the payment source are read first. The
+     * snapshot shares the arrays of the ledger rather than copying them, and
+     * does not change when payments are added or made afterwards.
+     *
+     * @return The payment ledger
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read from the payment source
+     * @since 0.0.1
+     */
+    public synchronized PaymentLedger getPaymentLedger() {
+        readPayments(Integer.MAX_VALUE);
+        return mortgagePayments.snapshot();
+    }
+
+    /**
+     * Get a read-only snapshot of the account of this mortgage. Any payments
+     * not yet in the account are read from the payment source first; after
+     * that the account is kept up to date as payments are added and made.
+     *
+     * @return The account
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read from the payment source
+     * @since 0.0.1
+     */
+    public synchronized MortgageAccount getAccount() {
+        readAccount();
+        return account.snapshot();
+    }
+
+    /**
+     * Get the latest snapshot of the account this mortgage was read with or
+     * passed to its payment source
+     *
+     * @return The snapshot, or null if there is none
+     * @since 0.0.1
+     */
+    public synchronized MortgageAccount getAccountSnapshot() {
+        return accountSnapshot;
+    }
+
+    /**
+     * Get the balance of this mortgage: the amount borrowed and the interest
+     * charged to the month of the latest payment, less the payments made.
+     * Interest is charged as the repayment schedule sets out, so a mortgage
+     * paid to schedule owes the balance the schedule shows. Once the account
+     * is up to date this does not go back over the payments.
+     *
+     * @return The balance
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read from the payment source
+     * @since 0.0.1
+     * @see AmortisationSchedule#getBalance(int)
+     */
+    public synchronized Money getBalance() {
+        readAccount();
+        return Money.ofPence(amountRequested.getPence() +
+                getInterestCharged() - account.getTotalPaid());
+    }
+
+    /**
+     * Check whether every payment has been read from the payment source
+     *
+     * @return True if no more payments will be read
+     * @since 0.0.1
+     */
+    public synchronized boolean isAllPaymentsRead() {
+        return allPaymentsRead;
     }
 
     /**
@@ -206,16 +349,43 @@ public class Mortgage {
      *
      * @param paymentID The mortgage payment ID
      * @return The mortgage payment object, or null if not found
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read from the payment source
      * @since 0.0.1
      */
-    public MortgagePaymentDetails getMortgagePaymentByID(final int paymentID) {
-        MortgagePaymentDetails temp;
+    public synchronized MortgagePaymentDetails getMortgagePaymentByID(
+            final int paymentID) {
+        readPayments(Integer.MAX_VALUE);
+        int index = mortgagePayments.indexOf(paymentID);
+        return index < 0 ? null : mortgagePayments.get(index);
+    }
 
-        for(Iterator it = mortgagePayments.iterator(); it.hasNext();) {
-            temp = (MortgagePaymentDetails)it.next();
-            if(temp.getPaymentID() == paymentID) return temp;
-        }
-        return null;
+    /**
+     * Record the date a payment of this mortgage was made
+     *
+     * @param paymentID The mortgage payment ID
+     * @param paymentMadeDate The date the payment was made
+     * @throws uk.co.exahertz.friendlysociety.core.PaymentAlreadyMadeException
+     * When the payment has already been made
+     * @throws java.lang.IllegalArgumentException When paymentMadeDate is null
+     * or the mortgage has no payment with the ID
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read from the payment source
+     * @since 0.0.1
+     */
+    public synchronized void setPaymentMadeDate(final int paymentID,
+            final Day paymentMadeDate)
+            throws PaymentAlreadyMadeException, IllegalArgumentException
+    {
+        if(paymentMadeDate == null) throw new IllegalArgumentException("The " +
+                "payment made date must not be null.");
+        readPayments(Integer.MAX_VALUE);
+        int index = mortgagePayments.indexOf(paymentID);
+        if(index < 0) throw new IllegalArgumentException("Mortgage " +
+                mortgageID + " has no payment " + paymentID + ".");
+        mortgagePayments.setMadeDay(index, paymentMadeDate.getEpochDay());
+        account.made(paymentID);
+        accountChanged = true;
     }
 
     /**
@@ -247,27 +417,219 @@ public class Mortgage {
      * @throws java.lang.IllegalArgumentException When paymentsBegin is null
      * @since 0.0.1
      */
-    public void setPaymentsBegin(final GregorianCalendar paymentsBegin)
+    public synchronized void setPaymentsBegin(final Day paymentsBegin)
             throws IllegalArgumentException
     {
         checkPaymentsBegin(paymentsBegin);
         this.paymentsBegin = paymentsBegin;
+        interestToDate = null;
+    }
+
+    /**
+     * Set the interest rates the repayment schedule of this mortgage is
+     * worked out with. A mortgage uses RateTable.DEFAULT until it is given
+     * one.
+     *
+     * @param rateTable The rate table
+     * @throws java.lang.IllegalArgumentException When rateTable is null
+     * @since 0.0.1
+     */
+    public synchronized void setRateTable(final RateTable rateTable)
+            throws IllegalArgumentException
+    {
+        if(rateTable == null) throw new IllegalArgumentException("The rate " +
+                "table must not be null.");
+        this.rateTable = rateTable;
+        interestToDate = null;
+    }
+
+    /**
+     * Set where the payments of this mortgage are read from. Any payments
+     * held are forgotten, and are read from the source when they are next
+     * asked for. This is used by a MortgageDatabase when it reads a mortgage.
+     *
+     * @param paymentSource The source of the payments, or null to hold no
+     * payments
+     * @since 0.0.1
+     */
+    public void setPaymentSource(final MortgagePaymentSource paymentSource) {
+        setPaymentSource(paymentSource, null);
+    }
+
+    /**
+     * Set where the payments of this mortgage are read from, carrying on the
+     * account from a snapshot the source kept. Only the payments after the
+     * snapshot are read into the account.
+     *
+     * @param paymentSource The source of the payments, or null to hold no
+     * payments
+     * @param snapshot A snapshot of the account of this mortgage, or null to
+     * read every payment into the account
+     * @since 0.0.1
+     * @see MortgagePaymentSource#putAccountSnapshot(int, MortgageAccount)
+     */
+    public synchronized void setPaymentSource(
+            final MortgagePaymentSource paymentSource,
+            final MortgageAccount snapshot) {
+        this.paymentSource = paymentSource;
+        mortgagePayments.clear();
+        allPaymentsRead = paymentSource == null;
+        if(paymentSource == null || snapshot == null) {
+            account = new MortgageAccount();
+            accountSnapshot = null;
+        } else {
+            account = MortgageAccount.restore(snapshot);
+            accountSnapshot = snapshot.snapshot();
+        }
+        accountRead = allPaymentsRead;
+        accountChanged = false;
     }
 
     /**
-     * Add a new payment for this mortgage
+     * Add a new payment for this mortgage. The payments not yet read from the
+     * payment source are read first, so the payment is added after them.
      *
      * @param mortgagePayment The payment to be added for this mortgage
      * @throws java.lang.IllegalArgumentException When a null mortgagePayment
      * is supplied
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read from the payment source
      * @since 0.0.1
      */
-    public void addMortgagePayment(
+    public synchronized void addMortgagePayment(
             final MortgagePaymentDetails mortgagePayment)
             throws IllegalArgumentException
     {
         checkMortgagePayment(mortgagePayment);
+        readPayments(Integer.MAX_VALUE);
         mortgagePayments.add(mortgagePayment);
+        account.add(mortgagePayment);
+        accountChanged = true;
+    }
+
+    /**
+     * Read pages of payments from the payment source until a number of
+     * payments are held or there are no more. Reading every payment is done
+     * in one page rather than many. Payments after the position of the
+     * account are added to it as well.
+     *
+     * @param count The number of payments wanted
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read
+     * @since 0.0.1
+     */
+    private void readPayments(final int count) {
+        while(!allPaymentsRead && mortgagePayments.size() < count) {
+            int limit = count == Integer.MAX_VALUE ? Integer.MAX_VALUE :
+                    Math.max(PAYMENTPAGESIZE, count - mortgagePayments.size());
+            MortgagePaymentDetails last = mortgagePayments.size() == 0 ? null :
+                    mortgagePayments.get(mortgagePayments.size() - 1);
+            Collection<MortgagePaymentDetails> page =
+                    paymentSource.getMortgagePaymentsPage(mortgageID, last,
+                    limit);
+            if(page == null) throw new IllegalStateException("The payments " +
+                    "of mortgage " + mortgageID + " could not be read.");
+            for(MortgagePaymentDetails payment : page) {
+                mortgagePayments.add(payment);
+                if(!accountRead && isAfterPosition(payment)) {
+                    account.add(payment);
+                    account.setPosition(payment);
+                }
+            }
+            if(page.size() < limit) {
+                allPaymentsRead = true;
+                accountRead = true;
+            }
+            snapshotAccount();
+        }
+    }
+
+    /**
+     * Read the payments after the position of the account from the payment
+     * source into the account, without holding them in the ledger
+     *
+     * @throws java.lang.IllegalStateException When the payments could not be
+     * read
+     * @since 0.0.1
+     */
+    private void readAccount() {
+        if(accountRead) return;
+        Collection<MortgagePaymentDetails> page =
+                paymentSource.getMortgagePaymentsPage(mortgageID,
+                account.getPosition(), Integer.MAX_VALUE);
+        if(page == null) throw new IllegalStateException("The payments " +
+                "of mortgage " + mortgageID + " could not be read.");
+        for(MortgagePaymentDetails payment : page) {
+            account.add(payment);
+            account.setPosition(payment);
+        }
+        accountRead = true;
+        snapshotAccount();
+    }
+
+    /**
+     * Check whether a payment read from the payment source comes after the
+     * position of the account, in the order the source gives payments
+     *
+     * @param payment The payment
+     * @return True if the payment is not yet in the account
+     * @since 0.0.1
+     */
+    private boolean isAfterPosition(final MortgagePaymentDetails payment) {
+        MortgagePaymentDetails position = account.getPosition();
+        if(position == null) return true;
+        int due = payment.getPaymentDueDate().getEpochDay();
+        int positionDue = position.getPaymentDueDate().getEpochDay();
+        if(due != positionDue) return due > positionDue;
+        return payment.getPaymentID() > position.getPaymentID();
+    }
+
+    /**
+     * Pass a snapshot of the account to the payment source if enough
+     * payments have been read since the last one. No snapshot is taken once
+     * the account has been changed other than by reading, as the source does
+     * not hold those changes.
+     *
+     * @since 0.0.1
+     */
+    private void snapshotAccount() {
+        if(paymentSource == null || accountChanged) return;
+        int last = accountSnapshot == null ? 0 :
+                accountSnapshot.getPaymentCount();
+        if(account.getPaymentCount() - last < SNAPSHOTINTERVAL) return;
+        accountSnapshot = account.snapshot();
+        paymentSource.putAccountSnapshot(mortgageID, accountSnapshot);
+    }
+
+    /**
+     * Get the interest the repayment schedule charges up to and including
+     * the month of the latest payment in the account. The interest charged
+     * by each month is worked out the first time it is needed after the
+     * schedule changes.
+     *
+     * @return The interest in pence
+     * @since 0.0.1
+     */
+    private long getInterestCharged() {
+        int lastDueMonth = account.getLastDueMonth();
+        if(lastDueMonth == MortgageAccount.NONE || mortgageType == null) {
+            return 0;
+        }
+        int months = Math.min(mortgageLengthInMonths,
+                lastDueMonth - paymentsBegin.getMonthNumber() + 1);
+        if(months <= 0) return 0;
+        if(interestToDate == null) {
+            AmortisationSchedule schedule =
+                    new AmortisationSchedule(mortgageLengthInMonths);
+            schedule.calculate(this, rateTable);
+            interestToDate = new long[mortgageLengthInMonths];
+            long total = 0;
+            for(int i = 0; i < mortgageLengthInMonths; i++) {
+                total += schedule.getInterest(i);
+                interestToDate[i] = total;
+            }
+        }
+        return interestToDate[months - 1];
     }
 
     /**
@@ -310,7 +672,7 @@ public class Mortgage {
      * @since 0.0.1
      */
     private static void checkDateOfApplication(
-            final GregorianCalendar dateOfApplication)
+            final Day dateOfApplication)
     {
         if(dateOfApplication == null)
             throw new IllegalArgumentException("The date of the application " +
@@ -318,18 +680,22 @@ public class Mortgage {
     }
 
     /**
-     * Check the deposit is not less than 0
+     * Check the deposit is not null or less than 0
      *
      * @param deposit The deposit to be checked
      * @since 0.0.1
      */
-    private static void checkDeposit(final float deposit) {
-        if(deposit < 0) throw new IllegalArgumentException("The deposit must " +
-                "not be less than 0.");
+    private static void checkDeposit(final Money deposit) {
+        if(deposit == null) throw new IllegalArgumentException("The deposit " +
+                "must not be null.");
+        if(deposit.signum() < 0) throw new IllegalArgumentException("The " +
+                "deposit must not be less than 0.");
     }
 
     /**
-     * Check the mortgage length in months is not less than 1
+     * Check the mortgage length in months is not less than 1 or more than
+     * AmortisationSchedule.MAXTERM, the longest term a balance can be
+     * worked out for
      *
      * @param mortgageLengthInMonths The mortgage length in months to be checked
      * @since 0.0.1
@@ -340,17 +706,23 @@ public class Mortgage {
         if(mortgageLengthInMonths < 1)
             throw new IllegalArgumentException("The mortgage length in " +
                     "months must not be less than 1.");
+        if(mortgageLengthInMonths > AmortisationSchedule.MAXTERM)
+            throw new IllegalArgumentException("The mortgage length in " +
+                    "months must not be more than " +
+                    AmortisationSchedule.MAXTERM + ".");
     }
 
     /**
-     * Check the amount requested is greater than 0
+     * Check the amount requested is not null and greater than 0
      *
      * @param amountRequested The amount requested to be checked
      * @since 0.0.1
      */
-    private static void checkAmountRequested(final float amountRequested) {
-        if(amountRequested <= 0) throw new IllegalArgumentException("The " +
-                "amount requested must be greater than 0.");
+    private static void checkAmountRequested(final Money amountRequested) {
+        if(amountRequested == null) throw new IllegalArgumentException("The " +
+                "amount requested must not be null.");
+        if(amountRequested.signum() <= 0) throw new IllegalArgumentException(
+                "The amount requested must be greater than 0.");
     }
 
     /**
@@ -360,7 +732,7 @@ public class Mortgage {
      * @since 0.0.1
      */
     private static void checkPaymentsBegin(
-            final GregorianCalendar paymentsBegin)
+            final Day paymentsBegin)
     {
         if(paymentsBegin == null) throw new IllegalArgumentException("The " +
                 "payments begin must not be null.");
@@ -0,0 +1,462 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.Arrays;
+
+/**
+ * The running state of the account of one mortgage: how many payments have
+ * been raised, the totals due and paid, the month of the latest payment and
+ * the payments which have not been made. It is brought up to date as each
+ * payment is added or made, so how much is owed or in arrears is known
+ * without going back over the payments.<br>
+ * The payments not made are kept in the order they fall due. Most accounts
+ * have only the next payment or two unmade, so arrears and the next payment
+ * due are worked out from the end of that list in a step or two.<br>
+ * The account of a mortgage is changed only through the mortgage. Callers
+ * are given a read-only snapshot, which a payment source may keep so that
+ * the mortgage can carry on from it the next time it is read, rather than
+ * reading every payment again.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see Mortgage#getAccount()
+ * @see MortgagePaymentSource#putAccountSnapshot(int, MortgageAccount)
+ */
+public final class MortgageAccount {
+    /** The day or month returned when there is none */
+    public static final int NONE = Integer.MIN_VALUE;
+    /** The number of unmade payments the arrays hold to begin with */
+    private static final int INITIALCAPACITY = 4;
+    private final boolean readOnly;
+    private int payments;
+    private long totalDue;
+    private long totalPaid;
+    private int lastDueMonth;
+    private int[] unpaidIDs;
+    private int[] unpaidDueDays;
+    private long[] unpaidAmounts;
+    private int unpaid;
+    private long unpaidTotal;
+    /** The last payment read from the payment source, or null */
+    private MortgagePaymentDetails position;
+
+    /**
+     * Create a new account with no payments
+     *
+     * @since 0.0.1
+     */
+    MortgageAccount() {
+        readOnly = false;
+        lastDueMonth = NONE;
+        unpaidIDs = new int[INITIALCAPACITY];
+        unpaidDueDays = new int[INITIALCAPACITY];
+        unpaidAmounts = new long[INITIALCAPACITY];
+    }
+
+    /**
+     * Create a copy of an account
+     *
+     * @param account The account
+     * @param readOnly True if the copy is a snapshot
+     * @since 0.0.1
+     */
+    private MortgageAccount(final MortgageAccount account,
+            final boolean readOnly) {
+        this.readOnly = readOnly;
+        payments = account.payments;
+        totalDue = account.totalDue;
+        totalPaid = account.totalPaid;
+        lastDueMonth = account.lastDueMonth;
+        int capacity = readOnly ? account.unpaid :
+                Math.max(account.unpaid, INITIALCAPACITY);
+        unpaidIDs = Arrays.copyOf(account.unpaidIDs, capacity);
+        unpaidDueDays = Arrays.copyOf(account.unpaidDueDays, capacity);
+        unpaidAmounts = Arrays.copyOf(account.unpaidAmounts, capacity);
+        unpaid = account.unpaid;
+        unpaidTotal = account.unpaidTotal;
+        position = account.position;
+    }
+
+    /**
+     * Get a snapshot of an account as a payment source stored it
+     *
+     * @param payments The number of payments raised
+     * @param totalDue The total of the payments raised, in pence
+     * @param totalPaid The total of the payments made, in pence
+     * @param lastDueMonth The month the latest payment falls due
+     * @param unpaidIDs The IDs of the payments not made, in the order they
+     * fall due
+     * @param unpaidDueDays The epoch day each payment not made falls due
+     * @param unpaidAmounts The amount of each payment not made, in pence
+     * @param position The last payment read from the payment source
+     * @return The read-only snapshot
+     * @throws java.lang.IllegalArgumentException When an array or position
+     * is null, the arrays are not the same length, the payments are not in
+     * the order they fall due, or there are more of them than payments
+     * @since 0.0.1
+     * @see #snapshot()
+     */
+    public static MortgageAccount snapshotOf(final int payments,
+            final long totalDue, final long totalPaid, final int lastDueMonth,
+            final int[] unpaidIDs, final int[] unpaidDueDays,
+            final long[] unpaidAmounts, final MortgagePaymentDetails position)
+            throws IllegalArgumentException
+    {
+        if(unpaidIDs == null || unpaidDueDays == null ||
+                unpaidAmounts == null) {
+            throw new IllegalArgumentException("The payments not made must " +
+                    "not be null.");
+        }
+        if(position == null) throw new IllegalArgumentException("The " +
+                "position must not be null.");
+        int unpaid = unpaidIDs.length;
+        if(unpaidDueDays.length != unpaid || unpaidAmounts.length != unpaid) {
+            throw new IllegalArgumentException("Every payment not made must " +
+                    "have an ID, a due day and an amount.");
+        }
+        if(unpaid > payments) throw new IllegalArgumentException("There " +
+                "must not be more payments not made than payments.");
+        long unpaidTotal = 0;
+        for(int i = 0; i < unpaid; i++) {
+            if(i > 0 && unpaidDueDays[i] < unpaidDueDays[i - 1]) {
+                throw new IllegalArgumentException("The payments not made " +
+                        "must be in the order they fall due.");
+            }
+            unpaidTotal += unpaidAmounts[i];
+        }
+        MortgageAccount account = new MortgageAccount(true);
+        account.payments = payments;
+        account.totalDue = totalDue;
+        account.totalPaid = totalPaid;
+        account.lastDueMonth = lastDueMonth;
+        account.unpaidIDs = unpaidIDs.clone();
+        account.unpaidDueDays = unpaidDueDays.clone();
+        account.unpaidAmounts = unpaidAmounts.clone();
+        account.unpaid = unpaid;
+        account.unpaidTotal = unpaidTotal;
+        account.position = position;
+        return account;
+    }
+
+    /**
+     * Create an account with no payments and no room for any
+     *
+     * @param readOnly True if the account is a snapshot
+     * @since 0.0.1
+     */
+    private MortgageAccount(final boolean readOnly) {
+        this.readOnly = readOnly;
+        lastDueMonth = NONE;
+    }
+
+    /**
+     * Get the number of payments raised
+     *
+     * @return The number of payments
+     * @since 0.0.1
+     */
+    public int getPaymentCount() {
+        return payments;
+    }
+
+    /**
+     * Get the total of the payments raised
+     *
+     * @return The total in pence
+     * @since 0.0.1
+     */
+    public long getTotalDue() {
+        return totalDue;
+    }
+
+    /**
+     * Get the total of the payments which have been made
+     *
+     * @return The total in pence
+     * @since 0.0.1
+     */
+    public long getTotalPaid() {
+        return totalPaid;
+    }
+
+    /**
+     * Get the month the latest payment raised falls due
+     *
+     * @return The month number, or NONE if no payment has been raised
+     * @since 0.0.1
+     * @see Day#getMonthNumber()
+     */
+    public int getLastDueMonth() {
+        return lastDueMonth;
+    }
+
+    /**
+     * Get the number of payments which have not been made
+     *
+     * @return The number of payments
+     * @since 0.0.1
+     */
+    public int getUnpaidCount() {
+        return unpaid;
+    }
+
+    /**
+     * Get the total of the payments which have not been made
+     *
+     * @return The total in pence
+     * @since 0.0.1
+     */
+    public long getUnpaidTotal() {
+        return unpaidTotal;
+    }
+
+    /**
+     * Get the ID of a payment which has not been made
+     *
+     * @param index The place of the payment among those not made, from 0
+     * for the first to fall due
+     * @return The payment ID
+     * @throws java.lang.IndexOutOfBoundsException When index is not less
+     * than getUnpaidCount()
+     * @since 0.0.1
+     */
+    public int getUnpaidID(final int index) {
+        checkUnpaid(index);
+        return unpaidIDs[index];
+    }
+
+    /**
+     * Get the day a payment which has not been made falls due
+     *
+     * @param index The place of the payment among those not made, from 0
+     * for the first to fall due
+     * @return The epoch day
+     * @throws java.lang.IndexOutOfBoundsException When index is not less
+     * than getUnpaidCount()
+     * @since 0.0.1
+     */
+    public int getUnpaidDueDay(final int index) {
+        checkUnpaid(index);
+        return unpaidDueDays[index];
+    }
+
+    /**
+     * Get the amount of a payment which has not been made
+     *
+     * @param index The place of the payment among those not made, from 0
+     * for the first to fall due
+     * @return The amount in pence
+     * @throws java.lang.IndexOutOfBoundsException When index is not less
+     * than getUnpaidCount()
+     * @since 0.0.1
+     */
+    public long getUnpaidAmount(final int index) {
+        checkUnpaid(index);
+        return unpaidAmounts[index];
+    }
+
+    /**
+     * Get the total of the payments in arrears on a day: those due on or
+     * before it which have not been made. Unlike PaymentLedger, a payment
+     * made after the day is not counted, as the account only knows the
+     * payments as they stand now.
+     *
+     * @param epochDay The day
+     * @return The arrears in pence
+     * @since 0.0.1
+     * @see PaymentLedger#getArrears(int)
+     */
+    public long getArrears(final int epochDay) {
+        long total = unpaidTotal;
+        for(int i = unpaid - 1; i >= 0 && unpaidDueDays[i] > epochDay; i--) {
+            total -= unpaidAmounts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of payments in arrears on a day
+     *
+     * @param epochDay The day
+     * @return The number of payments due on or before the day which have
+     * not been made
+     * @since 0.0.1
+     */
+    public int getPaymentsInArrears(final int epochDay) {
+        int count = unpaid;
+        while(count > 0 && unpaidDueDays[count - 1] > epochDay) count--;
+        return count;
+    }
+
+    /**
+     * Get the day the oldest payment which has not been made fell due
+     *
+     * @return The epoch day, or NONE if every payment has been made
+     * @since 0.0.1
+     */
+    public int getOldestUnpaidDay() {
+        return unpaid == 0 ? NONE : unpaidDueDays[0];
+    }
+
+    /**
+     * Get how many days the oldest payment in arrears on a day is overdue
+     *
+     * @param epochDay The day
+     * @return The number of days, or 0 if no payment is in arrears
+     * @since 0.0.1
+     */
+    public int getDaysOverdue(final int epochDay) {
+        if(unpaid == 0 || unpaidDueDays[0] > epochDay) return 0;
+        return epochDay - unpaidDueDays[0];
+    }
+
+    /**
+     * Get the day the next payment which has not been made falls due
+     *
+     * @param epochDay The day to look from
+     * @return The epoch day of the first payment due on or after the day
+     * which has not been made, or NONE if there is none
+     * @since 0.0.1
+     */
+    public int getNextDue(final int epochDay) {
+        int next = NONE;
+        for(int i = unpaid - 1; i >= 0 && unpaidDueDays[i] >= epochDay; i--) {
+            next = unpaidDueDays[i];
+        }
+        return next;
+    }
+
+    /**
+     * Get the last payment read from the payment source, where reading
+     * carries on from
+     *
+     * @return The payment, or null if none has been read
+     * @since 0.0.1
+     */
+    public MortgagePaymentDetails getPosition() {
+        return position;
+    }
+
+    /**
+     * Set the last payment read from the payment source
+     *
+     * @param position The payment
+     * @throws java.lang.UnsupportedOperationException When the account is a
+     * snapshot
+     * @since 0.0.1
+     */
+    void setPosition(final MortgagePaymentDetails position) {
+        checkWritable();
+        this.position = position;
+    }
+
+    /**
+     * Raise a payment
+     *
+     * @param payment The payment
+     * @throws java.lang.UnsupportedOperationException When the account is a
+     * snapshot
+     * @since 0.0.1
+     */
+    void add(final MortgagePaymentDetails payment) {
+        checkWritable();
+        Day due = payment.getPaymentDueDate();
+        long amount = payment.getAmount().getPence();
+        payments++;
+        totalDue += amount;
+        lastDueMonth = Math.max(lastDueMonth, due.getMonthNumber());
+        if(payment.getPaymentMadeDate() != null) {
+            totalPaid += amount;
+            return;
+        }
+        if(unpaid == unpaidIDs.length) {
+            int capacity = Math.max(unpaid * 2, INITIALCAPACITY);
+            unpaidIDs = Arrays.copyOf(unpaidIDs, capacity);
+            unpaidDueDays = Arrays.copyOf(unpaidDueDays, capacity);
+            unpaidAmounts = Arrays.copyOf(unpaidAmounts, capacity);
+        }
+        int dueDay = due.getEpochDay();
+        int i = unpaid;
+        while(i > 0 && unpaidDueDays[i - 1] > dueDay) i--;
+        System.arraycopy(unpaidIDs, i, unpaidIDs, i + 1, unpaid - i);
+        System.arraycopy(unpaidDueDays, i, unpaidDueDays, i + 1, unpaid - i);
+        System.arraycopy(unpaidAmounts, i, unpaidAmounts, i + 1, unpaid - i);
+        unpaidIDs[i] = payment.getPaymentID();
+        unpaidDueDays[i] = dueDay;
+        unpaidAmounts[i] = amount;
+        unpaid++;
+        unpaidTotal += amount;
+    }
+
+    /**
+     * Record that a payment has been made
+     *
+     * @param paymentID The ID of the payment
+     * @return True if the payment was waiting to be made
+     * @throws java.lang.UnsupportedOperationException When the account is a
+     * snapshot
+     * @since 0.0.1
+     */
+    boolean made(final int paymentID) {
+        checkWritable();
+        for(int i = 0; i < unpaid; i++) {
+            if(unpaidIDs[i] == paymentID) {
+                totalPaid += unpaidAmounts[i];
+                unpaidTotal -= unpaidAmounts[i];
+                unpaid--;
+                System.arraycopy(unpaidIDs, i + 1, unpaidIDs, i, unpaid - i);
+                System.arraycopy(unpaidDueDays, i + 1, unpaidDueDays, i,
+                        unpaid - i);
+                System.arraycopy(unpaidAmounts, i + 1, unpaidAmounts, i,
+                        unpaid - i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get a read-only snapshot of the account as it is now
+     *
+     * @return The snapshot
+     * @since 0.0.1
+     */
+    MortgageAccount snapshot() {
+        return readOnly ? this : new MortgageAccount(this, true);
+    }
+
+    /**
+     * Get an account which carries on from a snapshot
+     *
+     * @param snapshot The snapshot
+     * @return A new account which can be changed
+     * @since 0.0.1
+     */
+    static MortgageAccount restore(final MortgageAccount snapshot) {
+        return new MortgageAccount(snapshot, false);
+    }
+
+    /**
+     * Make sure there is a payment not made at an index
+     *
+     * @param index The index
+     * @throws java.lang.IndexOutOfBoundsException When there is not
+     * @since 0.0.1
+     */
+    private void checkUnpaid(final int index) {
+        if(index < 0 || index >= unpaid) throw new IndexOutOfBoundsException(
+                "There is no payment not made at " + index + ".");
+    }
+
+    /**
+     * Make sure the account can be changed
+     *
+     * @throws java.lang.UnsupportedOperationException When the account is a
+     * snapshot
+     * @since 0.0.1
+     */
+    private void checkWritable() {
+        if(readOnly) throw new UnsupportedOperationException("A snapshot " +
+                "of a mortgage account can not be changed.");
+    }
+}
@@ -0,0 +1,251 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.Collection;
+import uk.co.exahertz.friendlysociety.database.MortgageDatabase;
+
+/**
+ * The repayment terms of every mortgage in the book, held in one array per
+ * term rather than one object per mortgage, so that a book of a million
+ * mortgages takes a few tens of megabytes and can be walked quickly by
+ * projections. Mortgages are added in ascending ID order, so any run of
+ * positions in the book is a range of mortgage IDs. A book may be read by
+ * any number of threads once it has been filled.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class MortgageBook {
+    /** The number of mortgages the arrays hold to begin with */
+    private static final int INITIALCAPACITY = 1024;
+    /** The number of mortgages read per query while reading a book */
+    private static final int READPAGESIZE = 1000;
+    private static final MortgagesOffered[] TYPES = MortgagesOffered.values();
+    private int[] mortgageIDs;
+    private long[] amounts;
+    private int[] terms;
+    private byte[] types;
+    private int[] firstMonths;
+    private int size;
+
+    /**
+     * Create a new empty book
+     *
+     * @since 0.0.1
+     */
+    public MortgageBook() {
+        mortgageIDs = new int[INITIALCAPACITY];
+        amounts = new long[INITIALCAPACITY];
+        terms = new int[INITIALCAPACITY];
+        types = new byte[INITIALCAPACITY];
+        firstMonths = new int[INITIALCAPACITY];
+    }
+
+    /**
+     * Read the book of accepted mortgages from a database, a page at a time
+     *
+     * @param database The database to read
+     * @return The book, or null if the database returned an error
+     * @throws java.lang.IllegalArgumentException When database is null
+     * @since 0.0.1
+     */
+    public static MortgageBook read(final MortgageDatabase database)
+            throws IllegalArgumentException
+    {
+        if(database == null) throw new IllegalArgumentException("The " +
+                "database must not be null.");
+        MortgageBook book = new MortgageBook();
+        int afterMortgageID = -1;
+        Collection<Mortgage> page;
+        do {
+            page = database.getMortgagesPage(afterMortgageID, READPAGESIZE);
+            if(page == null) return null;
+            for(Mortgage mortgage : page) {
+                if(mortgage.getApplicationStatus() ==
+                        MortgageApplicationStatus.ACCEPTED &&
+                        mortgage.getMortgageType() != null) {
+                    book.add(mortgage);
+                }
+                afterMortgageID = mortgage.getMortgageID();
+            }
+        } while(page.size() == READPAGESIZE);
+        return book;
+    }
+
+    /**
+     * Add the terms of a mortgage. The amount borrowed is the amount
+     * requested.
+     *
+     * @param mortgage The mortgage
+     * @throws java.lang.IllegalArgumentException When mortgage is null, has
+     * no type, or its ID is not greater than the last added
+     * @since 0.0.1
+     */
+    public void add(final Mortgage mortgage) throws IllegalArgumentException {
+        if(mortgage == null) throw new IllegalArgumentException("The " +
+                "mortgage instance must not be null.");
+        add(mortgage.getMortgageID(),
+                mortgage.getAmountRequested().getPence(),
+                mortgage.getMortgageLengthInMonths(),
+                mortgage.getMortgageType(),
+                RateTable.monthNumber(mortgage.getPaymentsBegin()));
+    }
+
+    /**
+     * Add the terms of a mortgage
+     *
+     * @param mortgageID The ID of the mortgage
+     * @param amount The amount borrowed, in pence
+     * @param term The length of the mortgage in months
+     * @param type The type of mortgage
+     * @param firstMonth The month number of the first payment
+     * @throws java.lang.IllegalArgumentException When type is null, amount is
+     * negative, term is less than 1 or more than AmortisationSchedule.MAXTERM,
+     * or mortgageID is not greater than the last added
+     * @since 0.0.1
+     */
+    public void add(final int mortgageID, final long amount, final int term,
+            final MortgagesOffered type, final int firstMonth)
+            throws IllegalArgumentException
+    {
+        if(type == null) throw new IllegalArgumentException("The mortgage " +
+                "type must not be null.");
+        if(amount < 0) throw new IllegalArgumentException("The amount " +
+                "borrowed must not be negative.");
+        if(term < 1) throw new IllegalArgumentException("The length of the " +
+                "mortgage must be at least 1 month.");
+        if(term > AmortisationSchedule.MAXTERM) {
+            throw new IllegalArgumentException("The length of the mortgage " +
+                    "must be at most " + AmortisationSchedule.MAXTERM +
+                    " months.");
+        }
+        if(size > 0 && mortgageID <= mortgageIDs[size - 1]) {
+            throw new IllegalArgumentException("Mortgages must be added in " +
+                    "ascending ID order.");
+        }
+        if(size == mortgageIDs.length) grow();
+        mortgageIDs[size] = mortgageID;
+        amounts[size] = amount;
+        terms[size] = term;
+        types[size] = (byte) type.ordinal();
+        firstMonths[size] = firstMonth;
+        size++;
+    }
+
+    /**
+     * Get the number of mortgages in the book
+     *
+     * @return The number of mortgages
+     * @since 0.0.1
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the ID of the mortgage at a position in the book
+     *
+     * @param index The position, from 0
+     * @return The mortgage ID
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * book
+     * @since 0.0.1
+     */
+    public int getMortgageID(final int index) {
+        return mortgageIDs[checkIndex(index)];
+    }
+
+    /**
+     * Get the amount borrowed on the mortgage at a position in the book
+     *
+     * @param index The position, from 0
+     * @return The amount in pence
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * book
+     * @since 0.0.1
+     */
+    public long getAmount(final int index) {
+        return amounts[checkIndex(index)];
+    }
+
+    /**
+     * Get the length of the mortgage at a position in the book
+     *
+     * @param index The position, from 0
+     * @return The length in months
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * book
+     * @since 0.0.1
+     */
+    public int getTerm(final int index) {
+        return terms[checkIndex(index)];
+    }
+
+    /**
+     * Get the type of the mortgage at a position in the book
+     *
+     * @param index The position, from 0
+     * @return The type of mortgage
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * book
+     * @since 0.0.1
+     */
+    public MortgagesOffered getType(final int index) {
+        return TYPES[types[checkIndex(index)]];
+    }
+
+    /**
+     * Get the month of the first payment of the mortgage at a position in
+     * the book
+     *
+     * @param index The position, from 0
+     * @return The month number
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * book
+     * @since 0.0.1
+     */
+    public int getFirstMonth(final int index) {
+        return firstMonths[checkIndex(index)];
+    }
+
+    /**
+     * Check a position is in the book
+     *
+     * @param index The position
+     * @return The position
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * book
+     * @since 0.0.1
+     */
+    private int checkIndex(final int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is not " +
+                    "in a book of " + size + " mortgages.");
+        }
+        return index;
+    }
+
+    /**
+     * Double the size of the arrays
+     *
+     * @since 0.0.1
+     */
+    private void grow() {
+        int capacity = mortgageIDs.length * 2;
+        int[] newIDs = new int[capacity];
+        long[] newAmounts = new long[capacity];
+        int[] newTerms = new int[capacity];
+        byte[] newTypes = new byte[capacity];
+        int[] newFirstMonths = new int[capacity];
+        System.arraycopy(mortgageIDs, 0, newIDs, 0, size);
+        System.arraycopy(amounts, 0, newAmounts, 0, size);
+        System.arraycopy(terms, 0, newTerms, 0, size);
+        System.arraycopy(types, 0, newTypes, 0, size);
+        System.arraycopy(firstMonths, 0, newFirstMonths, 0, size);
+        mortgageIDs = newIDs;
+        amounts = newAmounts;
+        terms = newTerms;
+        types = newTypes;
+        firstMonths = newFirstMonths;
+    }
+}
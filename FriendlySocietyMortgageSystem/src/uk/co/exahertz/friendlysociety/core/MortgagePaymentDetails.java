@@ -1,7 +1,5 @@
 package uk.co.exahertz.friendlysociety.core;
 
-import java.util.GregorianCalendar;
-
 /**
  * MortgagePaymentDetails holds details for upcoming mortgage payments and to 
  * hold details of payments made
@@ -12,10 +10,10 @@ import java.util.GregorianCalendar;
  */
 public class MortgagePaymentDetails {
     private int paymentID;
-    private GregorianCalendar paymentDueDate;
-    private GregorianCalendar paymentMadeDate;
+    private Day paymentDueDate;
+    private Day paymentMadeDate;
     private MethodOfPayment methodOfPayment;
-    private float amount;
+    private Money amount;
 
     /**
      * Create a new mortgage payment
@@ -28,9 +26,9 @@ public class MortgagePaymentDetails {
      * supplied
      */
     public MortgagePaymentDetails(final int paymentID,
-            final GregorianCalendar paymentDueDate,
+            final Day paymentDueDate,
             final MethodOfPayment methodOfPayment,
-            final float amount) throws IllegalArgumentException
+            final Money amount) throws IllegalArgumentException
     {
         checkPaymentID(paymentID);
         checkPaymentDueDate(paymentDueDate);
@@ -59,7 +57,7 @@ public class MortgagePaymentDetails {
      * @return The payment due date
      * @since 0.0.1
      */
-    public GregorianCalendar getPaymentDueDate() {
+    public Day getPaymentDueDate() {
         return paymentDueDate;
     }
     
@@ -70,7 +68,7 @@ public class MortgagePaymentDetails {
      * @return The payment made date, or null if the payment is yet to be made
      * @since 0.0.1
      */
-    public GregorianCalendar getPaymentMadeDate() {
+    public Day getPaymentMadeDate() {
         return paymentMadeDate;
     }
     
@@ -103,7 +101,7 @@ public class MortgagePaymentDetails {
      * @return The amount of this payment
      * @since 0.0.1
      */
-    public float getAmount() {
+    public Money getAmount() {
         return amount;
     }
     
@@ -115,10 +113,11 @@ public class MortgagePaymentDetails {
      * When a payment has already been made
      * @since 0.0.1
      */
-    public void setPaymentMadeDate(final GregorianCalendar paymentMadeDate)
+    public void setPaymentMadeDate(final Day paymentMadeDate)
             throws PaymentAlreadyMadeException
     {
-        if(paymentMadeDate != null) throw new PaymentAlreadyMadeException();
+        if(this.paymentMadeDate != null)
+            throw new PaymentAlreadyMadeException();
         this.paymentMadeDate = paymentMadeDate;
     }
     
@@ -136,10 +135,10 @@ public class MortgagePaymentDetails {
      * Set the amount of the payment
      * 
      * @param amount The amount of the payment
-     * @throws java.lang.IllegalArgumentException When a value of 0 or less is 
-     * supplied
+     * @throws java.lang.IllegalArgumentException When null or a value of 0 or
+     * less is supplied
      */
-    public void setAmount(final float amount) throws IllegalArgumentException {
+    public void setAmount(final Money amount) throws IllegalArgumentException {
         checkAmount(amount);
         this.amount = amount;
     }
@@ -164,7 +163,7 @@ public class MortgagePaymentDetails {
      * @since 0.0.1
      */
     private static void checkPaymentDueDate(
-            final GregorianCalendar paymentDueDate) {
+            final Day paymentDueDate) {
         if (paymentDueDate == null) {
             throw new IllegalArgumentException("The " +
                     "payment due must not be null.");
@@ -172,13 +171,17 @@ public class MortgagePaymentDetails {
     }
 
     /**
-     * Check the amount due is greater than 0
+     * Check the amount due is not null and greater than 0
      * 
      * @param amount The amount to be checked
      * @since 0.0.1
      */
-    private static void checkAmount(final float amount) {
-        if (amount <= 0) {
+    private static void checkAmount(final Money amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("The amount must " +
+                    "not be null.");
+        }
+        if (amount.signum() <= 0) {
             throw new IllegalArgumentException("The amount must " +
                     "be greater than 0.");
         }
@@ -0,0 +1,47 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.Collection;
+
+/**
+ * Reads the payments of a mortgage a page at a time, so that a mortgage read
+ * from a database only reads its payments when they are asked for, and keeps
+ * snapshots of the account of a mortgage so that it need not read them all
+ * again to know its balance
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see Mortgage#setPaymentSource(MortgagePaymentSource)
+ */
+public interface MortgagePaymentSource {
+    /**
+     * Get a page of the payments of a mortgage, in order of the date they
+     * are due, and of ID for payments due on the same day
+     *
+     * @param mortgageID The ID of the mortgage
+     * @param after The last payment of the previous page, as it was returned
+     * by this source, or null for the first page
+     * @param limit The most payments to return
+     * @return The payments after the one given, or null if an error occurred
+     * @throws java.lang.IllegalArgumentException When limit is less than 1
+     * @since 0.0.1
+     */
+    public Collection<MortgagePaymentDetails> getMortgagePaymentsPage(
+            final int mortgageID, final MortgagePaymentDetails after,
+            final int limit);
+
+    /**
+     * Keep a snapshot of the account of a mortgage, to be given to the
+     * mortgage the next time it is read so that it only reads the payments
+     * after the snapshot. A mortgage passes a snapshot every few payments as
+     * it reads them. A source which can not tell whether payments have
+     * changed since may ignore snapshots.
+     *
+     * @param mortgageID The ID of the mortgage
+     * @param snapshot The snapshot of its account
+     * @since 0.0.1
+     * @see Mortgage#setPaymentSource(MortgagePaymentSource, MortgageAccount)
+     */
+    public void putAccountSnapshot(final int mortgageID,
+            final MortgageAccount snapshot);
+}
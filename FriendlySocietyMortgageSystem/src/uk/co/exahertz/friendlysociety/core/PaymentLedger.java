@@ -0,0 +1,488 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.Arrays;
+
+/**
+ * The payments of one mortgage, held in one array per column rather than one
+ * object per payment: the payment ID, the epoch day it is due, the epoch day
+ * it was made, the method of payment and the amount in pence. Payments are
+ * kept in the order they were added, which for a mortgage is the order they
+ * fall due.<br>
+ * A payment can be found by its ID without a search, and totals such as the
+ * amount paid or in arrears are worked out straight from the arrays without
+ * creating an object per payment.<br>
+ * The ledger of a mortgage is changed only through the mortgage. Callers are
+ * given a read-only snapshot, which shares the arrays of the ledger rather
+ * than copying them; the ledger copies its arrays the next time it is
+ * changed after a snapshot was taken, so a snapshot never changes.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see Mortgage#getPaymentLedger()
+ */
+public final class PaymentLedger {
+    /** The made day of a payment which has not been made */
+    public static final int NOTMADE = Integer.MIN_VALUE;
+    /** The number of payments the arrays hold to begin with, 2 years */
+    private static final int INITIALCAPACITY = 24;
+    private static final MethodOfPayment[] METHODS = MethodOfPayment.values();
+    private final boolean readOnly;
+    private int[] paymentIDs;
+    private int[] dueDays;
+    private int[] madeDays;
+    private byte[] methods;
+    private long[] amounts;
+    private int size;
+    /** Payment IDs by hash, with -1 for an empty slot */
+    private int[] slotIDs;
+    /** The position of the payment in each slot */
+    private int[] slotPositions;
+    private boolean shared;
+
+    /**
+     * Create a new empty ledger
+     *
+     * @since 0.0.1
+     */
+    public PaymentLedger() {
+        readOnly = false;
+        allocate(INITIALCAPACITY);
+        allocateIndex(INITIALCAPACITY * 2);
+    }
+
+    /**
+     * Create a read-only snapshot of a ledger, sharing its arrays
+     *
+     * @param ledger The ledger
+     * @since 0.0.1
+     */
+    private PaymentLedger(final PaymentLedger ledger) {
+        readOnly = true;
+        paymentIDs = ledger.paymentIDs;
+        dueDays = ledger.dueDays;
+        madeDays = ledger.madeDays;
+        methods = ledger.methods;
+        amounts = ledger.amounts;
+        size = ledger.size;
+        slotIDs = ledger.slotIDs;
+        slotPositions = ledger.slotPositions;
+    }
+
+    /**
+     * Get the number of payments in the ledger
+     *
+     * @return The number of payments
+     * @since 0.0.1
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the position of a payment in the ledger from its ID. Payments
+     * which have not been saved all have the ID 0, and the first of them is
+     * found.
+     *
+     * @param paymentID The ID of the payment
+     * @return The position, or -1 if no payment has the ID
+     * @since 0.0.1
+     */
+    public int indexOf(final int paymentID) {
+        int mask = slotIDs.length - 1;
+        for(int slot = hash(paymentID) & mask; slotIDs[slot] != -1;
+                slot = (slot + 1) & mask) {
+            if(slotIDs[slot] == paymentID) return slotPositions[slot];
+        }
+        return -1;
+    }
+
+    /**
+     * Get the ID of the payment at a position in the ledger
+     *
+     * @param index The position, from 0
+     * @return The payment ID
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * ledger
+     * @since 0.0.1
+     */
+    public int getPaymentID(final int index) {
+        return paymentIDs[checkIndex(index)];
+    }
+
+    /**
+     * Get the day the payment at a position in the ledger is due
+     *
+     * @param index The position, from 0
+     * @return The epoch day the payment is due
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * ledger
+     * @since 0.0.1
+     */
+    public int getDueDay(final int index) {
+        return dueDays[checkIndex(index)];
+    }
+
+    /**
+     * Get the day the payment at a position in the ledger was made
+     *
+     * @param index The position, from 0
+     * @return The epoch day the payment was made, or NOTMADE
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * ledger
+     * @since 0.0.1
+     */
+    public int getMadeDay(final int index) {
+        return madeDays[checkIndex(index)];
+    }
+
+    /**
+     * Check whether the payment at a position in the ledger has been made
+     *
+     * @param index The position, from 0
+     * @return True if the payment has been made
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * ledger
+     * @since 0.0.1
+     */
+    public boolean isMade(final int index) {
+        return madeDays[checkIndex(index)] != NOTMADE;
+    }
+
+    /**
+     * Get the method of the payment at a position in the ledger
+     *
+     * @param index The position, from 0
+     * @return The method of payment, or null if it has none
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * ledger
+     * @since 0.0.1
+     */
+    public MethodOfPayment getMethod(final int index) {
+        byte method = methods[checkIndex(index)];
+        return method < 0 ? null : METHODS[method];
+    }
+
+    /**
+     * Get the amount of the payment at a position in the ledger
+     *
+     * @param index The position, from 0
+     * @return The amount in pence
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * ledger
+     * @since 0.0.1
+     */
+    public long getAmount(final int index) {
+        return amounts[checkIndex(index)];
+    }
+
+    /**
+     * Build the details of the payment at a position in the ledger. The
+     * details are a copy; changing them does not change the ledger.
+     *
+     * @param index The position, from 0
+     * @return The payment
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * ledger
+     * @since 0.0.1
+     */
+    public MortgagePaymentDetails get(final int index) {
+        MortgagePaymentDetails payment = new MortgagePaymentDetails(
+                paymentIDs[checkIndex(index)], Day.ofEpochDay(dueDays[index]),
+                getMethod(index), Money.ofPence(amounts[index]));
+        if(madeDays[index] != NOTMADE) {
+            try {
+                payment.setPaymentMadeDate(Day.ofEpochDay(madeDays[index]));
+            } catch(PaymentAlreadyMadeException e) {
+                // The payment was only just created
+                throw new IllegalStateException(e);
+            }
+        }
+        return payment;
+    }
+
+    /**
+     * Get the total of the payments due
+     *
+     * @return The total in pence
+     * @since 0.0.1
+     */
+    public long getTotalDue() {
+        long total = 0;
+        for(int i = 0; i < size; i++) total += amounts[i];
+        return total;
+    }
+
+    /**
+     * Get the total of the payments which have been made
+     *
+     * @return The total in pence
+     * @since 0.0.1
+     */
+    public long getTotalPaid() {
+        long total = 0;
+        for(int i = 0; i < size; i++) {
+            if(madeDays[i] != NOTMADE) total += amounts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Get the total of the payments in arrears on a day: those due on or
+     * before it which had not been made by the end of it
+     *
+     * @param epochDay The day
+     * @return The arrears in pence
+     * @since 0.0.1
+     */
+    public long getArrears(final int epochDay) {
+        long total = 0;
+        for(int i = 0; i < size; i++) {
+            if(isOverdue(i, epochDay)) total += amounts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of payments in arrears on a day
+     *
+     * @param epochDay The day
+     * @return The number of payments due on or before the day which had not
+     * been made by the end of it
+     * @since 0.0.1
+     */
+    public int getPaymentsInArrears(final int epochDay) {
+        int count = 0;
+        for(int i = 0; i < size; i++) {
+            if(isOverdue(i, epochDay)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get the next payment to fall due which has not been made
+     *
+     * @param epochDay The day to look from
+     * @return The position of the first payment due on or after the day
+     * which has not been made, or -1 if there is none
+     * @since 0.0.1
+     */
+    public int getNextDue(final int epochDay) {
+        for(int i = 0; i < size; i++) {
+            if(dueDays[i] >= epochDay && madeDays[i] == NOTMADE) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Add a payment to the end of the ledger
+     *
+     * @param payment The payment
+     * @throws java.lang.IllegalArgumentException When payment is null
+     * @throws java.lang.UnsupportedOperationException When the ledger is a
+     * snapshot
+     * @since 0.0.1
+     */
+    void add(final MortgagePaymentDetails payment)
+            throws IllegalArgumentException
+    {
+        if(payment == null) throw new IllegalArgumentException("The mortgage " +
+                "payment must not be null.");
+        Day made = payment.getPaymentMadeDate();
+        add(payment.getPaymentID(), payment.getPaymentDueDate().getEpochDay(),
+                made == null ? NOTMADE : made.getEpochDay(),
+                payment.getMethodOfPayment(), payment.getAmount().getPence());
+    }
+
+    /**
+     * Add a payment to the end of the ledger
+     *
+     * @param paymentID The ID of the payment
+     * @param dueDay The epoch day the payment is due
+     * @param madeDay The epoch day the payment was made, or NOTMADE
+     * @param method The method of payment, can be null
+     * @param amount The amount in pence
+     * @throws java.lang.UnsupportedOperationException When the ledger is a
+     * snapshot
+     * @since 0.0.1
+     */
+    void add(final int paymentID, final int dueDay, final int madeDay,
+            final MethodOfPayment method, final long amount) {
+        checkWritable();
+        if(size == paymentIDs.length) allocate(size * 2);
+        paymentIDs[size] = paymentID;
+        dueDays[size] = dueDay;
+        madeDays[size] = madeDay;
+        methods[size] = method == null ? -1 : (byte) method.ordinal();
+        amounts[size] = amount;
+        size++;
+        if(size * 2 > slotIDs.length) {
+            allocateIndex(slotIDs.length * 2);
+        } else {
+            index(paymentID, size - 1);
+        }
+    }
+
+    /**
+     * Record the day a payment was made
+     *
+     * @param index The position of the payment
+     * @param madeDay The epoch day it was made
+     * @throws uk.co.exahertz.friendlysociety.core.PaymentAlreadyMadeException When the
+     * payment has already been made
+     * @throws java.lang.UnsupportedOperationException When the ledger is a
+     * snapshot
+     * @since 0.0.1
+     */
+    void setMadeDay(final int index, final int madeDay)
+            throws PaymentAlreadyMadeException
+    {
+        checkIndex(index);
+        if(madeDays[index] != NOTMADE) throw new PaymentAlreadyMadeException();
+        checkWritable();
+        madeDays[index] = madeDay;
+    }
+
+    /**
+     * Remove every payment
+     *
+     * @throws java.lang.UnsupportedOperationException When the ledger is a
+     * snapshot
+     * @since 0.0.1
+     */
+    void clear() {
+        checkWritable();
+        size = 0;
+        Arrays.fill(slotIDs, -1);
+    }
+
+    /**
+     * Get a read-only snapshot of the ledger as it is now, without copying
+     * its arrays
+     *
+     * @return The snapshot
+     * @since 0.0.1
+     */
+    PaymentLedger snapshot() {
+        if(readOnly) return this;
+        shared = true;
+        return new PaymentLedger(this);
+    }
+
+    /**
+     * Check whether the payment at a position was overdue at the end of a
+     * day
+     *
+     * @param index The position
+     * @param epochDay The day
+     * @return True if it was due by the day and not made by the end of it
+     * @since 0.0.1
+     */
+    private boolean isOverdue(final int index, final int epochDay) {
+        int made = madeDays[index];
+        return dueDays[index] <= epochDay &&
+                (made == NOTMADE || made > epochDay);
+    }
+
+    /**
+     * Make sure the ledger can be changed, copying the arrays a snapshot
+     * shares
+     *
+     * @throws java.lang.UnsupportedOperationException When the ledger is a
+     * snapshot
+     * @since 0.0.1
+     */
+    private void checkWritable() {
+        if(readOnly) throw new UnsupportedOperationException("A snapshot " +
+                "of a payment ledger can not be changed.");
+        if(shared) {
+            allocate(paymentIDs.length);
+            slotIDs = slotIDs.clone();
+            slotPositions = slotPositions.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * Check a position is in the ledger
+     *
+     * @param index The position
+     * @return The position
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * ledger
+     * @since 0.0.1
+     */
+    private int checkIndex(final int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is not " +
+                    "in a ledger of " + size + " payments.");
+        }
+        return index;
+    }
+
+    /**
+     * Replace the arrays with new ones, keeping the payments held
+     *
+     * @param capacity The number of payments the arrays hold
+     * @since 0.0.1
+     */
+    private void allocate(final int capacity) {
+        if(paymentIDs == null) {
+            paymentIDs = new int[capacity];
+            dueDays = new int[capacity];
+            madeDays = new int[capacity];
+            methods = new byte[capacity];
+            amounts = new long[capacity];
+        } else {
+            paymentIDs = Arrays.copyOf(paymentIDs, capacity);
+            dueDays = Arrays.copyOf(dueDays, capacity);
+            madeDays = Arrays.copyOf(madeDays, capacity);
+            methods = Arrays.copyOf(methods, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+    }
+
+    /**
+     * Replace the ID index with a new one of the payments held
+     *
+     * @param capacity The number of slots, a power of 2
+     * @since 0.0.1
+     */
+    private void allocateIndex(final int capacity) {
+        slotIDs = new int[capacity];
+        slotPositions = new int[capacity];
+        Arrays.fill(slotIDs, -1);
+        for(int i = 0; i < size; i++) index(paymentIDs[i], i);
+    }
+
+    /**
+     * Add a payment to the ID index, unless a payment with the same ID is
+     * already there
+     *
+     * @param paymentID The ID of the payment
+     * @param position Its position in the ledger
+     * @since 0.0.1
+     */
+    private void index(final int paymentID, final int position) {
+        int mask = slotIDs.length - 1;
+        int slot = hash(paymentID) & mask;
+        while(slotIDs[slot] != -1) {
+            if(slotIDs[slot] == paymentID) return;
+            slot = (slot + 1) & mask;
+        }
+        slotIDs[slot] = paymentID;
+        slotPositions[slot] = position;
+    }
+
+    /**
+     * Spread the bits of a payment ID, as IDs are mostly consecutive
+     *
+     * @param paymentID The ID of the payment
+     * @return The hash
+     * @since 0.0.1
+     */
+    private static int hash(final int paymentID) {
+        int h = paymentID * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
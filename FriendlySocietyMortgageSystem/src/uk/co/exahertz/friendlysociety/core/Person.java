@@ -1,8 +1,5 @@
 package uk.co.exahertz.friendlysociety.core;
 
-import java.util.GregorianCalendar;
-import java.util.Calendar;
-
 /**
  * The Person abstract class contains all of the properties which are common to
  * both a Customer and a member of Staff.
@@ -17,7 +14,7 @@ public abstract class Person {
     private String title;
     private String forenames;
     private String surname;
-    private GregorianCalendar dateOfBirth;
+    private Day dateOfBirth;
     private boolean isFemale;
     private Address address;
     private String telephone;
@@ -39,8 +36,7 @@ public abstract class Person {
      * @param title The title (eg Mr/Mrs) of the person
      * @param forenames The person's forenames
      * @param surname The person's surname
-     * @param dateOfBirth The date of birth of the person, in GregorianCalendar
-     * form
+     * @param dateOfBirth The date of birth of the person
      * @param isFemale The sex of the person
      * @param address An Address object containing the address details of this
      * person
@@ -52,7 +48,7 @@ public abstract class Person {
      * @since 0.0.1
      */
     public Person(final String title, final String forenames,
-            final String surname, final GregorianCalendar dateOfBirth,
+            final String surname, final Day dateOfBirth,
             final boolean isFemale, final Address address, 
             final String telephone, final String faxNumber, final String email)
             throws IllegalArgumentException
@@ -136,12 +132,12 @@ public abstract class Person {
     }
 
     /**
-     * Get the date of birth of the person as a GregorianCalendar object
+     * Get the date of birth of the person
      *
-     * @return The date of birth of the person as a GregorianCalendar object
+     * @return The date of birth of the person
      * @since 0.0.1
      */
-    public GregorianCalendar getDateOfBirth() {
+    public Day getDateOfBirth() {
         return dateOfBirth;
     }
 
@@ -350,24 +346,15 @@ public abstract class Person {
     }
 
     /**
-     * This method calculates the age of a person. This method was taken
-     * from <a href="http://www.rgagnon.com/javadetails/java-0547.html">
-     * http://www.rgagnon.com/javadetails/java-0547.html</a>
+     * This method calculates the age of a person today. Nothing is allocated,
+     * so ages can be worked out for every customer in a list.
      *
-     * @param dob The instance of Calendar containing the date of birth
+     * @param dob The date of birth
      * @return The length of time, in years, since the person was born
      * @since 0.0.1
      */
-    public static int getYearsSinceBirth(final Calendar dob) {
-        GregorianCalendar now = new GregorianCalendar();
-        int res = now.get(Calendar.YEAR) - dob.get(Calendar.YEAR);
-        if((dob.get(Calendar.MONTH) > now.get(Calendar.MONTH))
-            || (dob.get(Calendar.MONTH) == now.get(Calendar.MONTH)
-            && dob.get(Calendar.DAY_OF_MONTH) > now.get(Calendar.DAY_OF_MONTH)))
-        {
-            res--;
-        }
-        return res;
+    public static int getYearsSinceBirth(final Day dob) {
+        return Day.yearsBetween(dob.getEpochDay(), Day.currentEpochDay());
     }
 
     /**
@@ -425,11 +412,10 @@ public abstract class Person {
     /**
      * Checks the date of birth of the person is sane
      *
-     * @param dateOfBirth The date of birth of the person, in GregorianCalendar
-     * format
+     * @param dateOfBirth The date of birth of the person
      * @since 0.0.1
      */
-    private static void checkDateOfBirth(final GregorianCalendar dateOfBirth) {
+    private static void checkDateOfBirth(final Day dateOfBirth) {
         if(dateOfBirth == null) throw new IllegalArgumentException("The " +
                 "date of birth of the person must not be null.");
         final int tempAge = getYearsSinceBirth(dateOfBirth);
@@ -0,0 +1,134 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Projects the monthly cash flows of a whole mortgage book in parallel. The
+ * book is split into ranges of mortgage IDs, many more ranges than there are
+ * threads so that a thread which finishes early takes another. Each range
+ * works out the schedule of its mortgages one at a time into a schedule of
+ * its own, adds them to its own monthly totals, and the totals of the ranges
+ * are added together once they have all finished. Nothing is shared between
+ * ranges while they run, so no locking is needed.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see CashFlowProjection
+ */
+public final class PortfolioProjector {
+    /** The number of mortgages in each range */
+    public static final int RANGESIZE = 4096;
+    private final ExecutorService executor;
+
+    /**
+     * Create a new projector
+     *
+     * @param executor The threads to project the ranges on, which the caller
+     * shuts down
+     * @throws java.lang.IllegalArgumentException When executor is null
+     * @since 0.0.1
+     */
+    public PortfolioProjector(final ExecutorService executor)
+            throws IllegalArgumentException
+    {
+        if(executor == null) throw new IllegalArgumentException("The " +
+                "executor must not be null.");
+        this.executor = executor;
+    }
+
+    /**
+     * Project the cash flows of every mortgage in a book
+     *
+     * @param book The mortgage book
+     * @param table The interest rates
+     * @param firstMonth The month number of the first month to project
+     * @param months The number of months to project
+     * @return The monthly totals of the book
+     * @throws java.lang.InterruptedException When the thread was interrupted
+     * waiting for the ranges to finish
+     * @throws java.lang.IllegalArgumentException When book or table is null,
+     * or months is less than 1
+     * @since 0.0.1
+     */
+    public CashFlowProjection project(final MortgageBook book,
+            final RateTable table, final int firstMonth, final int months)
+            throws InterruptedException
+    {
+        if(book == null) throw new IllegalArgumentException("The mortgage " +
+                "book must not be null.");
+        if(table == null) throw new IllegalArgumentException("The rate " +
+                "table must not be null.");
+        CashFlowProjection total = new CashFlowProjection(firstMonth, months);
+        ArrayList<Callable<CashFlowProjection>> ranges =
+                new ArrayList<Callable<CashFlowProjection>>();
+        for(int from = 0; from < book.size(); from += RANGESIZE) {
+            ranges.add(new Range(book, table, firstMonth, months, from,
+                    Math.min(book.size(), from + RANGESIZE)));
+        }
+        List<Future<CashFlowProjection>> results = executor.invokeAll(ranges);
+        try {
+            for(Future<CashFlowProjection> result : results) {
+                total.merge(result.get());
+            }
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("A range of the book could not " +
+                    "be projected.", e.getCause());
+        }
+        return total;
+    }
+
+    /**
+     * Projects one range of the book
+     *
+     * @since 0.0.1
+     */
+    private static final class Range implements Callable<CashFlowProjection> {
+        private final MortgageBook book;
+        private final RateTable table;
+        private final int firstMonth;
+        private final int months;
+        private final int from;
+        private final int to;
+
+        /**
+         * Create a new range
+         *
+         * @param book The mortgage book
+         * @param table The interest rates
+         * @param firstMonth The month number of the first month to project
+         * @param months The number of months to project
+         * @param from The position of the first mortgage in the range
+         * @param to The position after the last mortgage in the range
+         * @since 0.0.1
+         */
+        Range(final MortgageBook book, final RateTable table,
+                final int firstMonth, final int months, final int from,
+                final int to) {
+            this.book = book;
+            this.table = table;
+            this.firstMonth = firstMonth;
+            this.months = months;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public CashFlowProjection call() {
+            CashFlowProjection projection = new CashFlowProjection(firstMonth,
+                    months);
+            AmortisationSchedule schedule = new AmortisationSchedule();
+            for(int i = from; i < to; i++) {
+                schedule.calculate(book.getAmount(i), book.getTerm(i),
+                        book.getType(i), book.getFirstMonth(i), table);
+                projection.add(schedule);
+            }
+            return projection;
+        }
+    }
+}
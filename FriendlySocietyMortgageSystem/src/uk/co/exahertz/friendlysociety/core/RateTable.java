@@ -0,0 +1,218 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.Arrays;
+
+/**
+ * The interest rates of the mortgages offered, and the changes to the Bank Of
+ * England base rate which move them. The variable rate is the base rate plus
+ * a margin, a tracker follows the base rate at its own margin, and a fixed
+ * rate mortgage reverts to the variable rate when its fixed period ends.<br>
+ * Months are counted as month numbers, the year times 12 plus the month
+ * from 0, so that a rate can be looked up for any month without a calendar.
+ * A table is immutable; withBaseRate() returns a new table with a change to
+ * the base rate added.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see MortgagesOffered
+ */
+public final class RateTable {
+    /** The rates used until finance supply their own */
+    public static final RateTable DEFAULT = new RateTable(2.7, 2.5, 1.9, 3.9,
+            4.4);
+    /** The length of the fixed period of FIXED_2YEARS, in months */
+    public static final int FIXED2YEARSMONTHS = 24;
+    /** The length of the fixed period of FIXED_5YEARS, in months */
+    public static final int FIXED5YEARSMONTHS = 60;
+    private final double variableMargin;
+    private final double trackerMargin;
+    private final double fixed2YearsRate;
+    private final double fixed5YearsRate;
+    /** The month numbers the base rate changed in, ascending */
+    private final int[] changeMonths;
+    /** The base rate from each month in changeMonths */
+    private final double[] baseRates;
+
+    /**
+     * Create a new rate table. All rates are annual percentages.
+     *
+     * @param baseRate The base rate, before any change added later
+     * @param variableMargin The variable rate above the base rate
+     * @param trackerMargin The tracker rate above the base rate
+     * @param fixed2YearsRate The rate of FIXED_2YEARS in its fixed period
+     * @param fixed5YearsRate The rate of FIXED_5YEARS in its fixed period
+     * @throws java.lang.IllegalArgumentException When a rate is negative
+     * @since 0.0.1
+     */
+    public RateTable(final double baseRate, final double variableMargin,
+            final double trackerMargin, final double fixed2YearsRate,
+            final double fixed5YearsRate) throws IllegalArgumentException
+    {
+        this(variableMargin, trackerMargin, fixed2YearsRate, fixed5YearsRate,
+                new int[] {Integer.MIN_VALUE}, new double[] {baseRate});
+        if(baseRate + variableMargin < 0 || baseRate + trackerMargin < 0 ||
+                fixed2YearsRate < 0 || fixed5YearsRate < 0) {
+            throw new IllegalArgumentException("The interest rates must not " +
+                    "be negative.");
+        }
+    }
+
+    private RateTable(final double variableMargin, final double trackerMargin,
+            final double fixed2YearsRate, final double fixed5YearsRate,
+            final int[] changeMonths, final double[] baseRates) {
+        this.variableMargin = variableMargin;
+        this.trackerMargin = trackerMargin;
+        this.fixed2YearsRate = fixed2YearsRate;
+        this.fixed5YearsRate = fixed5YearsRate;
+        this.changeMonths = changeMonths;
+        this.baseRates = baseRates;
+    }
+
+    /**
+     * Get a copy of this table with the base rate changed from a month on.
+     * A change already made in that month is replaced.
+     *
+     * @param month The month number the new base rate applies from
+     * @param baseRate The new base rate, as an annual percentage
+     * @return The new table
+     * @throws java.lang.IllegalArgumentException When the new base rate
+     * would make the variable or tracker rate negative
+     * @since 0.0.1
+     */
+    public RateTable withBaseRate(final int month, final double baseRate)
+            throws IllegalArgumentException
+    {
+        if(baseRate + variableMargin < 0 || baseRate + trackerMargin < 0) {
+            throw new IllegalArgumentException("The interest rates must not " +
+                    "be negative.");
+        }
+        int index = Arrays.binarySearch(changeMonths, month);
+        int[] months;
+        double[] rates;
+        if(index >= 0) {
+            months = changeMonths.clone();
+            rates = baseRates.clone();
+        } else {
+            index = -index - 1;
+            months = new int[changeMonths.length + 1];
+            rates = new double[baseRates.length + 1];
+            System.arraycopy(changeMonths, 0, months, 0, index);
+            System.arraycopy(baseRates, 0, rates, 0, index);
+            System.arraycopy(changeMonths, index, months, index + 1,
+                    changeMonths.length - index);
+            System.arraycopy(baseRates, index, rates, index + 1,
+                    baseRates.length - index);
+        }
+        months[index] = month;
+        rates[index] = baseRate;
+        return new RateTable(variableMargin, trackerMargin, fixed2YearsRate,
+                fixed5YearsRate, months, rates);
+    }
+
+    /**
+     * Get the base rate in a month
+     *
+     * @param month The month number
+     * @return The base rate, as an annual percentage
+     * @since 0.0.1
+     */
+    public double getBaseRate(final int month) {
+        return baseRates[changeIndex(month)];
+    }
+
+    /**
+     * Get the annual rate of a mortgage in a month
+     *
+     * @param type The type of mortgage
+     * @param firstMonth The month number of the first payment
+     * @param month The month number
+     * @return The rate, as an annual percentage
+     * @throws java.lang.IllegalArgumentException When type is null
+     * @since 0.0.1
+     */
+    public double getRate(final MortgagesOffered type, final int firstMonth,
+            final int month) throws IllegalArgumentException
+    {
+        if(type == null) throw new IllegalArgumentException("The mortgage " +
+                "type must not be null.");
+        return rate(type, month - firstMonth, getBaseRate(month));
+    }
+
+    /**
+     * Get the month number of a date
+     *
+     * @param date The date
+     * @return The year times 12 plus the month from 0
+     * @throws java.lang.IllegalArgumentException When date is null
+     * @since 0.0.1
+     */
+    public static int monthNumber(final Day date)
+            throws IllegalArgumentException
+    {
+        if(date == null) throw new IllegalArgumentException("The date must " +
+                "not be null.");
+        return date.getMonthNumber();
+    }
+
+    /**
+     * Get the rate of a mortgage given the base rate
+     *
+     * @param type The type of mortgage
+     * @param term The number of months since the first payment
+     * @param baseRate The base rate that month
+     * @return The rate, as an annual percentage
+     * @since 0.0.1
+     */
+    double rate(final MortgagesOffered type, final int term,
+            final double baseRate) {
+        switch(type) {
+            case FIXED_2YEARS:
+                if(term < FIXED2YEARSMONTHS) return fixed2YearsRate;
+                break;
+            case FIXED_5YEARS:
+                if(term < FIXED5YEARSMONTHS) return fixed5YearsRate;
+                break;
+            case TRACKER:
+                return baseRate + trackerMargin;
+        }
+        return baseRate + variableMargin;
+    }
+
+    /**
+     * Get the index of the base rate in force in a month
+     *
+     * @param month The month number
+     * @return The index into changeMonths and baseRates
+     * @since 0.0.1
+     */
+    int changeIndex(final int month) {
+        int index = Arrays.binarySearch(changeMonths, month);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Get the month number of the change after one, so that a schedule only
+     * looks up the base rate when it changes
+     *
+     * @param index The index of a change
+     * @return The month of the next change, or Integer.MAX_VALUE if there is
+     * none
+     * @since 0.0.1
+     */
+    int nextChangeMonth(final int index) {
+        return index + 1 < changeMonths.length ? changeMonths[index + 1] :
+                Integer.MAX_VALUE;
+    }
+
+    /**
+     * Get the base rate set by a change
+     *
+     * @param index The index of a change
+     * @return The base rate, as an annual percentage
+     * @since 0.0.1
+     */
+    double baseRateAt(final int index) {
+        return baseRates[index];
+    }
+}
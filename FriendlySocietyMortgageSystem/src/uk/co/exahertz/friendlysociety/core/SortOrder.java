@@ -0,0 +1,15 @@
+package uk.co.exahertz.friendlysociety.core;
+
+/**
+ * The enumeration for the order pages of records are returned in
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public enum SortOrder {
+    /** Lowest ID first */
+    ASCENDING,
+    /** Highest ID first */
+    DESCENDING;
+}
@@ -1,7 +1,5 @@
 package uk.co.exahertz.friendlysociety.core;
 
-import java.util.GregorianCalendar;
-
 /**
  * The StaffMember class contains all of the properties which belong to one
  * member of staff. It is extended from the Person class. Each member of staff
@@ -29,8 +27,7 @@ public class StaffMember extends Person {
      * @param title The title of the member of staff
      * @param forenames The forenames of the member of staff
      * @param surname The surname of the member of staff
-     * @param dateOfBirth The dateOfBirth of the member of staff, in
-     * GregorianCalendar format
+     * @param dateOfBirth The dateOfBirth of the member of staff
      * @param isFemale The gender of the member of staff
      * @param address The address details of this person
      * @param telephone The telephone number of this member of staff
@@ -47,7 +44,7 @@ public class StaffMember extends Person {
      */
     public StaffMember(final int staffID, final String title,
             final String forenames, final String surname,
-            final GregorianCalendar dateOfBirth, final boolean isFemale,
+            final Day dateOfBirth, final boolean isFemale,
             final Address address, final String telephone,
             final String faxNumber, final String email, final boolean isManager,
             final String username, final String password,
@@ -1,7 +1,5 @@
 package uk.co.exahertz.friendlysociety.core;
 
-import java.util.GregorianCalendar;
-
 /**
  * The Survey class contains information on a survey carried out on a property
  * 
@@ -12,8 +10,8 @@ import java.util.GregorianCalendar;
 public class Survey {
     private int surveyID;
     private Surveyor surveyor;
-    private GregorianCalendar surveyDate;
-    private float propertyValue;
+    private Day surveyDate;
+    private Money propertyValue;
     
     /**
      * Create a new instance of a survey. Once a survey has been created, it's
@@ -28,7 +26,7 @@ public class Survey {
      * @since 0.0.1
      */
     public Survey(final int surveyID, final Surveyor surveyor,
-            final GregorianCalendar surveyDate, final float propertyValue)
+            final Day surveyDate, final Money propertyValue)
             throws IllegalArgumentException
     {
         checkSurveyID(surveyID);
@@ -70,7 +68,7 @@ public class Survey {
      * @return The date the survey was carried out
      * @since 0.0.1
      */
-    public GregorianCalendar getSurveyDate(){
+    public Day getSurveyDate(){
         return surveyDate;
     }
     
@@ -80,7 +78,7 @@ public class Survey {
      * @return The value of the property resulting from the survey
      * @since 0.0.1
      */
-    public float getPropertyValue(){
+    public Money getPropertyValue(){
         return propertyValue;
     }
 
@@ -112,19 +110,21 @@ public class Survey {
      * @param surveyDate The survey date to be checked
      * @since 0.0.1
      */
-    private static void checkSurveyDate(final GregorianCalendar surveyDate) {
+    private static void checkSurveyDate(final Day surveyDate) {
         if(surveyDate == null) throw new IllegalArgumentException("The " +
                 "survey date must not be null.");
     }
 
     /**
-     * Check the value of the property is greater than 0
+     * Check the value of the property is not null and greater than 0
      *
      * @param propertyValue The property value to be checked
      * @since 0.0.1
      */
-    private static void checkPropertyValue(final float propertyValue) {
-        if(propertyValue <= 0) throw new IllegalArgumentException("The " +
-                "property value must be greater than 0.");
+    private static void checkPropertyValue(final Money propertyValue) {
+        if(propertyValue == null) throw new IllegalArgumentException("The " +
+                "property value must not be null.");
+        if(propertyValue.signum() <= 0) throw new IllegalArgumentException(
+                "The property value must be greater than 0.");
     }
 }
\ No newline at end of file
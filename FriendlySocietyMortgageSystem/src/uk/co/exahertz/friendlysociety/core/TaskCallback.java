@@ -0,0 +1,37 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives the outcome of a task run in the background by Core.execute().
+ * Both methods are called on the Swing event dispatch thread, so they can
+ * update the form directly. Neither is called if the task was cancelled.
+ *
+ * @param <T> The type of result the task produces
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public abstract class TaskCallback<T> {
+
+    /**
+     * Called when the task has finished without throwing an exception
+     *
+     * @param result The result of the task
+     * @since 0.0.1
+     */
+    public abstract void succeeded(final T result);
+
+    /**
+     * Called when the task threw an exception. By default the exception is
+     * logged.
+     *
+     * @param cause The exception thrown by the task
+     * @since 0.0.1
+     */
+    public void failed(final Throwable cause) {
+        Logger.getLogger(TaskCallback.class.getName()).log(Level.SEVERE,
+                "Background task failed", cause);
+    }
+}
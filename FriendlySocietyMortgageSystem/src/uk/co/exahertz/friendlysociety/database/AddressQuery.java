@@ -0,0 +1,264 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.Arrays;
+import java.util.List;
+import uk.co.exahertz.friendlysociety.core.Address;
+
+/**
+ * A search for the people living at addresses which match the fields given.
+ * Empty fields are left out of the search rather than matched against
+ * everything. The country, town, street name and property name match
+ * anywhere in the field, while the post code matches from the start, so that
+ * a district or sector such as "SW1A" or "SW1A 1" finds every address in it.
+ * Post codes are compared upper case with the spaces removed, in SQL, in
+ * memory and in PostcodeTrie alike, so "sw1a1" finds "SW1A 1AA".
+ * <br>
+ * When an index has already found the addresses with a matching post code,
+ * their IDs can be given in place of the post code.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class AddressQuery {
+    private final String country;
+    private final String town;
+    private final String postCode;
+    private final String postCodeKey;
+    private final String streetName;
+    private final String propertyName;
+    private final int[] addressIDs;
+
+    /**
+     * Create a new address search
+     *
+     * @param country The country to search for, empty or null to match any
+     * @param town The town to search for, empty or null to match any
+     * @param postCode The start of the post code, empty or null to match any
+     * @param streetName The street name to search for, empty or null to match
+     * any
+     * @param propertyName The property name to search for, empty or null to
+     * match any
+     * @since 0.0.1
+     */
+    public AddressQuery(final String country, final String town,
+            final String postCode, final String streetName,
+            final String propertyName)
+    {
+        this(country, town, postCode, streetName, propertyName, null);
+    }
+
+    /**
+     * Create a new address search
+     *
+     * @param country The country to search for
+     * @param town The town to search for
+     * @param postCode The start of the post code
+     * @param streetName The street name to search for
+     * @param propertyName The property name to search for
+     * @param addressIDs The IDs of the addresses with a matching post code, or
+     * null if the post code has not been looked up
+     * @since 0.0.1
+     */
+    private AddressQuery(final String country, final String town,
+            final String postCode, final String streetName,
+            final String propertyName, final int[] addressIDs)
+    {
+        this.country = clean(country);
+        this.town = clean(town);
+        this.postCode = clean(postCode);
+        this.postCodeKey = normalisePostCode(postCode);
+        this.streetName = clean(streetName);
+        this.propertyName = clean(propertyName);
+        this.addressIDs = addressIDs;
+    }
+
+    /**
+     * Get a copy of this search with the post code replaced by the IDs of
+     * the addresses which have a matching post code
+     *
+     * @param ids The IDs of the addresses with a matching post code
+     * @return The new search
+     * @throws java.lang.IllegalArgumentException When ids is null
+     * @since 0.0.1
+     */
+    public AddressQuery withAddressIDs(final int[] ids) {
+        if(ids == null) throw new IllegalArgumentException("The address IDs " +
+                "must not be null.");
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        return new AddressQuery(country, town, "", streetName, propertyName,
+                sorted);
+    }
+
+    /**
+     * Get the start of the post code searched for
+     *
+     * @return The post code, empty if any post code matches
+     * @since 0.0.1
+     */
+    public String getPostCode() {
+        return postCode;
+    }
+
+    /**
+     * Check whether the post code has been looked up as address IDs
+     *
+     * @return True if the search is restricted to a list of address IDs
+     * @since 0.0.1
+     */
+    public boolean hasAddressIDs() {
+        return addressIDs != null;
+    }
+
+    /**
+     * Get the IDs of the addresses which have a matching post code
+     *
+     * @return The address IDs, or null if the post code was not looked up
+     * @since 0.0.1
+     */
+    public int[] getAddressIDs() {
+        return addressIDs == null ? null : addressIDs.clone();
+    }
+
+    /**
+     * Build the WHERE clause for the search, with one predicate for each
+     * field which is not empty, on a query which joins Address as "a"
+     *
+     * @param parameters The list the values of the placeholders are added to
+     * @param addressIDBatch The SQL placeholder list to use for the address
+     * IDs, such as (?, ?, ?)
+     * @param batchIDs The address IDs to bind to the placeholder list, used
+     * only when hasAddressIDs() is true
+     * @return The WHERE clause, or an empty string if every field is empty
+     * @since 0.0.1
+     */
+    String toWhereClause(final List<Object> parameters,
+            final String addressIDBatch, final Object[] batchIDs)
+    {
+        StringBuilder where = new StringBuilder();
+        addContains(where, parameters, "a.country", country);
+        addContains(where, parameters, "a.town", town);
+        addContains(where, parameters, "a.streetName", streetName);
+        addContains(where, parameters, "a.propertyName", propertyName);
+        if(addressIDs != null) {
+            where.append(where.length() == 0 ? " WHERE " : " AND ");
+            where.append("a.addressID IN ").append(addressIDBatch);
+            for(Object id : batchIDs) {
+                parameters.add(id);
+            }
+        } else if(postCodeKey.length() > 0) {
+            where.append(where.length() == 0 ? " WHERE " : " AND ");
+            where.append("a.postCodeKey LIKE ?");
+            parameters.add(escapeLike(postCodeKey) + "%");
+        }
+        return where.toString();
+    }
+
+    /**
+     * Check whether an address matches the search, with the same rules as the
+     * WHERE clause: fields match ignoring case, post codes ignoring spaces as
+     * well, and empty fields match anything
+     *
+     * @param address The address to check
+     * @return True if the address matches every field given
+     * @since 0.0.1
+     */
+    boolean matches(final Address address) {
+        if(addressIDs != null && Arrays.binarySearch(addressIDs,
+                address.getAddressID()) < 0) {
+            return false;
+        }
+        return contains(address.getCountry(), country) &&
+                contains(address.getTown(), town) &&
+                contains(address.getStreetName(), streetName) &&
+                contains(address.getPropertyName(), propertyName) &&
+                (addressIDs != null || normalisePostCode(
+                address.getPostCode()).startsWith(postCodeKey));
+    }
+
+    /**
+     * Normalise a post code to upper case with the spaces removed, as the
+     * postCodeKey column of Address holds it
+     *
+     * @param postCode The post code, can be null
+     * @return The normalised post code
+     * @since 0.0.1
+     */
+    static String normalisePostCode(final String postCode) {
+        if(postCode == null) return "";
+        StringBuilder key = new StringBuilder(postCode.length());
+        for(int i = 0; i < postCode.length(); i++) {
+            char c = postCode.charAt(i);
+            if(c != ' ') key.append(Character.toUpperCase(c));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Check whether a field contains a value, ignoring case
+     *
+     * @param field The field, can be null
+     * @param value The value searched for
+     * @return True if the value is empty or the field contains it
+     * @since 0.0.1
+     */
+    private static boolean contains(final String field, final String value) {
+        return value.length() == 0 ||
+                lower(field).indexOf(value.toLowerCase()) >= 0;
+    }
+
+    /**
+     * Get a field in lower case, treating null as empty
+     *
+     * @param field The field
+     * @return The field in lower case
+     * @since 0.0.1
+     */
+    private static String lower(final String field) {
+        return field == null ? "" : field.toLowerCase();
+    }
+
+    /**
+     * Add a predicate matching a field which contains a value
+     *
+     * @param where The clause being built
+     * @param parameters The list the value is added to
+     * @param column The column to match
+     * @param value The value to search for, nothing is added if it is empty
+     * @since 0.0.1
+     */
+    private static void addContains(final StringBuilder where,
+            final List<Object> parameters, final String column,
+            final String value)
+    {
+        if(value.length() == 0) return;
+        where.append(where.length() == 0 ? " WHERE " : " AND ");
+        where.append(column).append(" LIKE ?");
+        parameters.add("%" + escapeLike(value) + "%");
+    }
+
+    /**
+     * Escape the LIKE wildcards in a value so that it matches literally
+     *
+     * @param value The value to escape
+     * @return The escaped value
+     * @since 0.0.1
+     */
+    private static String escapeLike(final String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    /**
+     * Trim a field, treating null as empty
+     *
+     * @param value The field
+     * @return The trimmed field
+     * @since 0.0.1
+     */
+    private static String clean(final String value) {
+        if(value == null) return "";
+        return value.trim();
+    }
+}
@@ -0,0 +1,317 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes log events to a file from a single background thread. Callers only
+ * add the event to a bounded lock-free queue, so logging never opens a file
+ * or waits on the disk. The writer thread wakes up on an interval, or sooner
+ * when the queue is half full, and writes every queued event in one batch
+ * through a file which is kept open.<br>
+ * When the queue is full, new events are dropped rather than blocking the
+ * caller, and the number dropped is written to the log once there is room.
+ * When the file grows past its maximum size it is rotated: the file becomes
+ * name.1, name.1 becomes name.2 and so on, and the oldest is deleted.<br>
+ * Each event is written as: dd/MM/yyyy HH:mm:ss:SSS event
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class AsyncLogWriter {
+    /** The default maximum number of events waiting to be written */
+    public static final int DEFAULTCAPACITY = 10000;
+    /** The default time between batches, in milliseconds */
+    public static final long DEFAULTFLUSHINTERVAL = 1000;
+    /** The default size a log file may grow to before it is rotated */
+    public static final long DEFAULTMAXFILESIZE = 5L * 1024 * 1024;
+    /** The default number of rotated log files kept */
+    public static final int DEFAULTBACKUPS = 3;
+    private final File file;
+    private final int capacity;
+    private final long flushInterval;
+    private final long maxFileSize;
+    private final int backups;
+    private final ConcurrentLinkedQueue<Event> queue;
+    private final AtomicInteger queued;
+    private final AtomicLong dropped;
+    private final AtomicLong written;
+    private final Thread writer;
+    private volatile boolean running;
+    private BufferedWriter output;
+    private long fileSize;
+
+    /**
+     * Create a new log writer with the default limits and start its thread
+     *
+     * @param fileName The name of the log file
+     * @since 0.0.1
+     */
+    public AsyncLogWriter(final String fileName) {
+        this(fileName, DEFAULTCAPACITY, DEFAULTFLUSHINTERVAL,
+                DEFAULTMAXFILESIZE, DEFAULTBACKUPS);
+    }
+
+    /**
+     * Create a new log writer and start its thread
+     *
+     * @param fileName The name of the log file
+     * @param capacity The maximum number of events waiting to be written
+     * @param flushInterval The time between batches, in milliseconds
+     * @param maxFileSize The size in bytes a log file may grow to before it
+     * is rotated
+     * @param backups The number of rotated log files kept, 0 to truncate the
+     * log instead
+     * @throws java.lang.IllegalArgumentException When fileName is null or
+     * empty, capacity, flushInterval or maxFileSize are not positive, or
+     * backups is negative
+     * @since 0.0.1
+     */
+    public AsyncLogWriter(final String fileName, final int capacity,
+            final long flushInterval, final long maxFileSize,
+            final int backups)
+    {
+        if(fileName == null || fileName.length() == 0) {
+            throw new IllegalArgumentException("The file name must not be " +
+                    "null or empty.");
+        }
+        if(capacity <= 0) throw new IllegalArgumentException("The capacity " +
+                "must be positive.");
+        if(flushInterval <= 0) throw new IllegalArgumentException("The " +
+                "flush interval must be positive.");
+        if(maxFileSize <= 0) throw new IllegalArgumentException("The " +
+                "maximum file size must be positive.");
+        if(backups < 0) throw new IllegalArgumentException("The number of " +
+                "backups must not be negative.");
+        this.file = new File(fileName);
+        this.capacity = capacity;
+        this.flushInterval = flushInterval;
+        this.maxFileSize = maxFileSize;
+        this.backups = backups;
+        queue = new ConcurrentLinkedQueue<Event>();
+        queued = new AtomicInteger();
+        dropped = new AtomicLong();
+        written = new AtomicLong();
+        running = true;
+        writer = new Thread(new Runnable() {
+            public void run() {
+                writeLoop();
+            }
+        }, "Log writer " + fileName);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Add an event to the log. This never blocks; if the queue is full the
+     * event is dropped and counted.
+     *
+     * @param event The event to log
+     * @return True if the event was queued, false if it was dropped
+     * @since 0.0.1
+     */
+    public boolean log(final String event) {
+        if(!running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if(queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        queue.add(new Event(System.currentTimeMillis(), event));
+        if(queued.get() == capacity / 2) LockSupport.unpark(writer);
+        return true;
+    }
+
+    /**
+     * Get the number of events dropped because the queue was full
+     *
+     * @return The number of dropped events
+     * @since 0.0.1
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the number of events written to the log
+     *
+     * @return The number of written events
+     * @since 0.0.1
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Get the number of events waiting to be written
+     *
+     * @return The number of queued events
+     * @since 0.0.1
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Stop accepting events, write every queued event and close the file.
+     * Waits up to a few flush intervals for the writer thread to finish.
+     *
+     * @since 0.0.1
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(4 * flushInterval);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The body of the writer thread: write a batch every interval until the
+     * log is closed, then write whatever is left
+     *
+     * @since 0.0.1
+     */
+    private void writeLoop() {
+        SimpleDateFormat format = new SimpleDateFormat(
+                "dd/MM/yyyy HH:mm:ss:SSS");
+        long reportedDropped = 0;
+        while(running) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(
+                    flushInterval));
+            reportedDropped = writeBatch(format, reportedDropped);
+        }
+        writeBatch(format, reportedDropped);
+        closeFile();
+    }
+
+    /**
+     * Write every queued event and flush the file
+     *
+     * @param format The timestamp format, only used by the writer thread
+     * @param reportedDropped The number of dropped events already reported
+     * @return The number of dropped events reported after this batch
+     * @since 0.0.1
+     */
+    private long writeBatch(final SimpleDateFormat format,
+            final long reportedDropped)
+    {
+        long droppedNow = dropped.get();
+        if(queue.isEmpty() && droppedNow == reportedDropped) {
+            return reportedDropped;
+        }
+        try {
+            Event event;
+            while((event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                write(format.format(new Date(event.time)) + " " +
+                        event.message + "\n");
+                written.incrementAndGet();
+            }
+            if(droppedNow != reportedDropped) {
+                write(format.format(new Date()) + " " +
+                        (droppedNow - reportedDropped) + " log events " +
+                        "dropped as the log queue was full\n");
+            }
+            output.flush();
+            return droppedNow;
+        } catch(IOException e) {
+            // The log is the place errors are reported to, so there is
+            // nowhere left to report this; start again with a new file
+            closeFile();
+            return droppedNow;
+        }
+    }
+
+    /**
+     * Write a line to the log file, opening or rotating it as needed
+     *
+     * @param line The line to write
+     * @throws java.io.IOException When the file could not be written
+     * @since 0.0.1
+     */
+    private void write(final String line) throws IOException {
+        if(output != null && fileSize >= maxFileSize) {
+            closeFile();
+            rotate();
+        }
+        if(output == null) {
+            output = new BufferedWriter(new FileWriter(file, true));
+            fileSize = file.length();
+        }
+        output.write(line);
+        // FileWriter encodes with the default charset, so count the bytes
+        // it will write rather than the characters
+        fileSize += line.getBytes().length;
+    }
+
+    /**
+     * Rename the log file and its backups up by one, deleting the oldest
+     *
+     * @since 0.0.1
+     */
+    private void rotate() {
+        if(backups == 0) {
+            file.delete();
+            return;
+        }
+        new File(file.getPath() + "." + backups).delete();
+        for(int i = backups - 1; i >= 1; i--) {
+            new File(file.getPath() + "." + i).renameTo(
+                    new File(file.getPath() + "." + (i + 1)));
+        }
+        file.renameTo(new File(file.getPath() + ".1"));
+    }
+
+    /**
+     * Close the log file if it is open
+     *
+     * @since 0.0.1
+     */
+    private void closeFile() {
+        if(output == null) return;
+        try {
+            output.close();
+        } catch(IOException e) {
+            // Nothing more can be done with a file which will not close
+        }
+        output = null;
+    }
+
+    /**
+     * An event waiting to be written, with the time it was logged
+     *
+     * @since 0.0.1
+     */
+    private static class Event {
+        private final long time;
+        private final String message;
+
+        /**
+         * Create a new event
+         *
+         * @param time The time the event was logged
+         * @param message The event
+         * @since 0.0.1
+         */
+        Event(final long time, final String message) {
+            this.time = time;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The outcome of adding many records at once: the ID given to each record,
+ * in the order the records were given, and the reason each record which
+ * could not be added failed. A record which failed has an ID of -1, as the
+ * single add methods return.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class BulkAddResult {
+    private int[] ids;
+    private int size;
+    private final TreeMap<Integer, String> errors;
+
+    /**
+     * Create an empty result
+     *
+     * @since 0.0.1
+     */
+    BulkAddResult() {
+        ids = new int[16];
+        errors = new TreeMap<Integer, String>();
+    }
+
+    /**
+     * Add a record to the result, which has failed until it is given an ID
+     *
+     * @return The index of the record
+     * @since 0.0.1
+     */
+    int addRecord() {
+        if(size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        ids[size] = -1;
+        return size++;
+    }
+
+    /**
+     * Record the ID a record was added with
+     *
+     * @param index The index of the record
+     * @param id The ID of the record, or -1 if it was not added
+     * @since 0.0.1
+     */
+    void setID(final int index, final int id) {
+        ids[index] = id;
+        if(id >= 0) errors.remove(index);
+    }
+
+    /**
+     * Record why a record could not be added
+     *
+     * @param index The index of the record
+     * @param error The reason the record failed
+     * @since 0.0.1
+     */
+    void setError(final int index, final String error) {
+        ids[index] = -1;
+        errors.put(index, error);
+    }
+
+    /**
+     * Get the number of records in the result
+     *
+     * @return The number of records given to the bulk add
+     * @since 0.0.1
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the ID a record was added with
+     *
+     * @param index The index of the record
+     * @return The ID of the record, or -1 if it was not added
+     * @throws java.lang.IndexOutOfBoundsException When index is not the index
+     * of a record
+     * @since 0.0.1
+     */
+    public int getID(final int index) {
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException(
+                "There is no record " + index + ".");
+        return ids[index];
+    }
+
+    /**
+     * Get the IDs of every record
+     *
+     * @return The IDs in the order the records were given, with -1 for each
+     * record which was not added
+     * @since 0.0.1
+     */
+    public int[] getIDs() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Get the number of records which were added
+     *
+     * @return The number of records added
+     * @since 0.0.1
+     */
+    public int getAddedCount() {
+        int added = 0;
+        for(int i = 0; i < size; i++) {
+            if(ids[i] >= 0) added++;
+        }
+        return added;
+    }
+
+    /**
+     * Get the number of records which were not added
+     *
+     * @return The number of records which failed
+     * @since 0.0.1
+     */
+    public int getFailedCount() {
+        return size - getAddedCount();
+    }
+
+    /**
+     * Get the reasons records were not added, by the index of the record
+     *
+     * @return The errors, in order of index
+     * @since 0.0.1
+     */
+    public Map<Integer, String> getErrors() {
+        return Collections.unmodifiableMap(errors);
+    }
+}
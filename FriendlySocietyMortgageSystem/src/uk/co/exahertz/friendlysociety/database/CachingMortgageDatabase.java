@@ -0,0 +1,241 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import uk.co.exahertz.friendlysociety.core.*;
+
+/**
+ * A MortgageDatabase which keeps the customers, members of staff and surveyors
+ * looked up by ID in a cache, so that moving between the detail forms does not
+ * go back to the database every time. Each type of entity has its own
+ * least recently used cache, bounded by the estimated size of its entries.<br>
+ * Modifying an entity removes it from the cache, and modifying an address
+ * removes every cached entity which lives at that address. Adding an entity
+ * needs no invalidation, as lookups which found nothing are not cached.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class CachingMortgageDatabase extends ForwardingMortgageDatabase {
+    /** The default maximum size of each cache, in bytes */
+    public static final long DEFAULTCACHESIZE = 4L * 1024 * 1024;
+    /** The estimated size of an entity before its strings are counted */
+    private static final int ENTITYOVERHEAD = 256;
+    private final EntityCache<Customer> customers;
+    private final EntityCache<StaffMember> staff;
+    private final EntityCache<Surveyor> surveyors;
+
+    /**
+     * Create a new caching database with the default cache size
+     *
+     * @param delegate The database to cache
+     * @since 0.0.1
+     */
+    public CachingMortgageDatabase(final MortgageDatabase delegate) {
+        this(delegate, DEFAULTCACHESIZE);
+    }
+
+    /**
+     * Create a new caching database
+     *
+     * @param delegate The database to cache
+     * @param cacheSize The maximum size of each cache, in bytes
+     * @throws java.lang.IllegalArgumentException When delegate is null or
+     * cacheSize is not positive
+     * @since 0.0.1
+     */
+    public CachingMortgageDatabase(final MortgageDatabase delegate,
+            final long cacheSize)
+    {
+        super(delegate);
+        customers = new EntityCache<Customer>("Customers", cacheSize);
+        staff = new EntityCache<StaffMember>("Staff members", cacheSize);
+        surveyors = new EntityCache<Surveyor>("Surveyors", cacheSize);
+    }
+
+    /**
+     * Get the cache of customers, to read its statistics
+     *
+     * @return The customer cache
+     * @since 0.0.1
+     */
+    public EntityCache<Customer> getCustomerCache() {
+        return customers;
+    }
+
+    /**
+     * Get the cache of members of staff, to read its statistics
+     *
+     * @return The staff cache
+     * @since 0.0.1
+     */
+    public EntityCache<StaffMember> getStaffCache() {
+        return staff;
+    }
+
+    /**
+     * Get the cache of surveyors, to read its statistics
+     *
+     * @return The surveyor cache
+     * @since 0.0.1
+     */
+    public EntityCache<Surveyor> getSurveyorCache() {
+        return surveyors;
+    }
+
+    @Override
+    public Customer getCustomerByID(final int customerID) {
+        Customer customer = customers.get(customerID);
+        if(customer != null) return customer;
+        long generation = customers.getGeneration();
+        customer = super.getCustomerByID(customerID);
+        if(customer != null) {
+            customers.put(customerID, customer.getAddressObject()
+                    .getAddressID(), customer, estimatePersonSize(customer,
+                    customer.getNationalInsuranceNumber(),
+                    customer.getSavingsAccountNumber()), generation);
+        }
+        return customer;
+    }
+
+    @Override
+    public StaffMember getStaffMemberByID(final int id) {
+        StaffMember member = staff.get(id);
+        if(member != null) return member;
+        long generation = staff.getGeneration();
+        member = super.getStaffMemberByID(id);
+        if(member != null) {
+            staff.put(id, member.getAddressObject().getAddressID(), member,
+                    estimatePersonSize(member, member.getUsername(),
+                    member.getEncryptedPassword()), generation);
+        }
+        return member;
+    }
+
+    @Override
+    public Surveyor getSurveyorByID(final int id) {
+        Surveyor surveyor = surveyors.get(id);
+        if(surveyor != null) return surveyor;
+        long generation = surveyors.getGeneration();
+        surveyor = super.getSurveyorByID(id);
+        if(surveyor != null) {
+            surveyors.put(id, surveyor.getSurveyorAddressObject()
+                    .getAddressID(), surveyor, estimateSize(
+                    surveyor.getSurveyorName(), surveyor.getTelephoneNumber(),
+                    surveyor.getFaxNumber(), surveyor.getEmailAddress(),
+                    surveyor.getSurveyorAddressObject().toString()),
+                    generation);
+        }
+        return surveyor;
+    }
+
+    @Override
+    public boolean modifyAddress(final Address address) {
+        try {
+            return super.modifyAddress(address);
+        } finally {
+            if(address != null) removeAddress(address.getAddressID());
+        }
+    }
+
+    @Override
+    public boolean modifyCustomer(final Customer customer) {
+        try {
+            return super.modifyCustomer(customer);
+        } finally {
+            if(customer != null) {
+                customers.remove(customer.getID());
+                removeAddress(customer.getAddressObject().getAddressID());
+            }
+        }
+    }
+
+    @Override
+    public boolean modifyEmploymentDetails(final Employment employment,
+            final int customerID) {
+        try {
+            return super.modifyEmploymentDetails(employment, customerID);
+        } finally {
+            if(employment != null) removeAddress(
+                    employment.getEmployerAddressObject().getAddressID());
+        }
+    }
+
+    @Override
+    public boolean modifyStaffMember(final StaffMember staffMember) {
+        try {
+            return super.modifyStaffMember(staffMember);
+        } finally {
+            if(staffMember != null) {
+                staff.remove(staffMember.getID());
+                removeAddress(staffMember.getAddressObject().getAddressID());
+            }
+        }
+    }
+
+    @Override
+    public boolean changeStaffMemberPassword(final StaffMember staffMember) {
+        try {
+            return super.changeStaffMemberPassword(staffMember);
+        } finally {
+            if(staffMember != null) staff.remove(staffMember.getID());
+        }
+    }
+
+    @Override
+    public boolean modifySurveyor(final Surveyor surveyor) {
+        try {
+            return super.modifySurveyor(surveyor);
+        } finally {
+            if(surveyor != null) {
+                surveyors.remove(surveyor.getSurveyorID());
+                removeAddress(surveyor.getSurveyorAddressObject()
+                        .getAddressID());
+            }
+        }
+    }
+
+    /**
+     * Remove every cached entity which lives at an address
+     *
+     * @param addressID The ID of the address which has changed
+     * @since 0.0.1
+     */
+    private void removeAddress(final int addressID) {
+        customers.removeAddress(addressID);
+        staff.removeAddress(addressID);
+        surveyors.removeAddress(addressID);
+    }
+
+    /**
+     * Estimate the size of a person in memory
+     *
+     * @param person The person
+     * @param extra Any further strings held by the subclass
+     * @return The estimated size in bytes
+     * @since 0.0.1
+     */
+    private static long estimatePersonSize(final Person person,
+            final String... extra)
+    {
+        return estimateSize(person.getTitle(), person.getForenames(),
+                person.getSurname(), person.getTelephoneNumber(),
+                person.getFaxNumber(), person.getEmailAddress(),
+                person.getAddressObject().toString()) +
+                estimateSize(extra) - ENTITYOVERHEAD;
+    }
+
+    /**
+     * Estimate the size of an entity in memory from the strings it holds
+     *
+     * @param values The strings held by the entity, which can be null
+     * @return The estimated size in bytes
+     * @since 0.0.1
+     */
+    private static long estimateSize(final String... values) {
+        long size = ENTITYOVERHEAD;
+        for(String value : values) {
+            if(value != null) size += 40 + 2 * value.length();
+        }
+        return size;
+    }
+}
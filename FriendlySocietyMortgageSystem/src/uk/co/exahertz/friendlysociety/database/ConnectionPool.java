@@ -0,0 +1,640 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of JDBC connections. Callers borrow a connection with
+ * getConnection() for the duration of a single operation and hand it back
+ * with releaseConnection(), so several operations can run against the
+ * database at the same time and a dropped connection only fails the call
+ * that was using it.<br>
+ * Connections are validated when they are borrowed, closed when they have
+ * been idle for too long (while more than the minimum number are open) and
+ * recycled once they reach their maximum lifetime.<br>
+ * Each connection keeps its own cache of prepared statements, which callers
+ * reach through prepareStatement().
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class ConnectionPool {
+
+    /** The default time, in milliseconds, a connection may sit idle */
+    public static final long DEFAULTIDLETIMEOUT = 10 * 60 * 1000;
+    /** The default time, in milliseconds, a connection may be kept open */
+    public static final long DEFAULTMAXLIFETIME = 30 * 60 * 1000;
+    /** The default time, in milliseconds, to wait for a free connection */
+    public static final long DEFAULTBORROWTIMEOUT = 30 * 1000;
+    /** The default time, in seconds, allowed for validating a connection */
+    public static final int DEFAULTVALIDATIONTIMEOUT = 5;
+    /** The default number of prepared statements cached per connection */
+    public static final int DEFAULTSTATEMENTCACHESIZE = 50;
+    /**
+     * Connections returned to the pool more recently than this, in
+     * milliseconds, are handed out again without being validated
+     */
+    private static final long VALIDATIONBYPASS = 500;
+    /** How often, in milliseconds, the idle connections are checked */
+    private static final long EVICTIONINTERVAL = 30 * 1000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final LinkedList<PooledConnection> idle;
+    private final IdentityHashMap<Connection, PooledConnection> borrowed;
+    private final Timer evictionTimer;
+    private volatile long idleTimeout;
+    private volatile long maxLifetime;
+    private volatile long borrowTimeout;
+    private volatile int validationTimeout;
+    private volatile int statementCacheSize;
+    private final AtomicLong statementCacheHits;
+    private final AtomicLong statementCacheMisses;
+    private int openConnections;
+    private boolean closed;
+
+    /**
+     * Create a new connection pool and open the minimum number of
+     * connections straight away
+     *
+     * @param url The JDBC URL of the database
+     * @param username The username to connect with
+     * @param password The password to connect with
+     * @param minSize The number of connections to keep open at all times
+     * @param maxSize The maximum number of connections which may be open
+     * @throws java.sql.SQLException When the initial connections could not be
+     * opened
+     * @throws java.lang.IllegalArgumentException When an illegal argument is
+     * supplied
+     * @since 0.0.1
+     */
+    public ConnectionPool(final String url, final String username,
+            final String password, final int minSize, final int maxSize)
+            throws SQLException, IllegalArgumentException
+    {
+        checkURL(url);
+        checkSizes(minSize, maxSize);
+
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        idleTimeout = DEFAULTIDLETIMEOUT;
+        maxLifetime = DEFAULTMAXLIFETIME;
+        borrowTimeout = DEFAULTBORROWTIMEOUT;
+        validationTimeout = DEFAULTVALIDATIONTIMEOUT;
+        statementCacheSize = DEFAULTSTATEMENTCACHESIZE;
+        statementCacheHits = new AtomicLong();
+        statementCacheMisses = new AtomicLong();
+        permits = new Semaphore(maxSize, true);
+        idle = new LinkedList<PooledConnection>();
+        borrowed = new IdentityHashMap<Connection, PooledConnection>();
+
+        try {
+            for(int i = 0; i < minSize; i++) {
+                PooledConnection pooled = openConnection();
+                synchronized(this) {
+                    idle.addLast(pooled);
+                }
+            }
+        } catch(SQLException e) {
+            close();
+            throw e;
+        }
+
+        evictionTimer = new Timer("ConnectionPool eviction", true);
+        evictionTimer.schedule(new TimerTask() {
+            public void run() {
+                evictIdleConnections();
+            }
+        }, EVICTIONINTERVAL, EVICTIONINTERVAL);
+    }
+
+    /**
+     * Borrow a connection from the pool. The connection must be handed back
+     * with releaseConnection() once the caller has finished with it, and must
+     * not be closed by the caller.
+     *
+     * @return A valid connection to the database
+     * @throws java.sql.SQLException When no connection became free within the
+     * borrow timeout or a new connection could not be opened
+     * @since 0.0.1
+     */
+    public Connection getConnection() throws SQLException {
+        if(isClosed()) throw new SQLException("The connection pool has been " +
+                "closed.");
+        try {
+            if(!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS))
+                throw new SQLException("Timed out after " + borrowTimeout +
+                        "ms waiting for a database connection.");
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a " +
+                    "database connection.");
+        }
+
+        try {
+            PooledConnection pooled;
+            while((pooled = takeIdleConnection()) != null) {
+                if(isUsable(pooled)) break;
+                discard(pooled);
+            }
+            if(pooled == null) pooled = openConnection();
+            synchronized(this) {
+                borrowed.put(pooled.getConnection(), pooled);
+            }
+            return pooled.getConnection();
+        } catch(SQLException e) {
+            permits.release();
+            throw e;
+        } catch(RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hand a borrowed connection back to the pool. Any transaction left open
+     * on the connection is rolled back. Passing null, or a connection which
+     * was not borrowed from this pool, does nothing.
+     *
+     * @param connection The connection to hand back
+     * @since 0.0.1
+     */
+    public void releaseConnection(final Connection connection) {
+        if(connection == null) return;
+        PooledConnection pooled;
+        synchronized(this) {
+            pooled = borrowed.remove(connection);
+        }
+        if(pooled == null) return;
+
+        try {
+            boolean reusable = !isClosed() && !connection.isClosed() &&
+                    !isExpired(pooled, System.currentTimeMillis());
+            if(reusable && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if(reusable) {
+                pooled.touch();
+                synchronized(this) {
+                    idle.addFirst(pooled);
+                }
+            } else {
+                discard(pooled);
+            }
+        } catch(SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Get a prepared statement for a connection borrowed from this pool. The
+     * statement comes from the connection's statement cache, so it must not
+     * be closed by the caller, and it is only valid until the connection is
+     * released.
+     *
+     * @param connection A connection borrowed from this pool
+     * @param sql The SQL template, with ? for each parameter
+     * @return The prepared statement, with its parameters cleared
+     * @throws java.sql.SQLException When the statement could not be prepared
+     * @throws java.lang.IllegalArgumentException When the connection is not
+     * currently borrowed from this pool
+     * @since 0.0.1
+     */
+    public PreparedStatement prepareStatement(final Connection connection,
+            final String sql) throws SQLException, IllegalArgumentException
+    {
+        return prepareStatement(connection, sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Get a prepared statement for a connection borrowed from this pool,
+     * stating whether the statement should return generated keys. The
+     * statement must not be closed by the caller.
+     *
+     * @param connection A connection borrowed from this pool
+     * @param sql The SQL template, with ? for each parameter
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or
+     * Statement.NO_GENERATED_KEYS
+     * @return The prepared statement, with its parameters cleared
+     * @throws java.sql.SQLException When the statement could not be prepared
+     * @throws java.lang.IllegalArgumentException When the connection is not
+     * currently borrowed from this pool
+     * @since 0.0.1
+     */
+    public PreparedStatement prepareStatement(final Connection connection,
+            final String sql, final int autoGeneratedKeys)
+            throws SQLException, IllegalArgumentException
+    {
+        PooledConnection pooled;
+        synchronized(this) {
+            pooled = borrowed.get(connection);
+        }
+        if(pooled == null) throw new IllegalArgumentException("The " +
+                "connection is not borrowed from this pool.");
+        return pooled.getStatementCache().prepare(sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Get the number of times a prepared statement was reused from a
+     * connection's statement cache
+     *
+     * @return The number of statement cache hits
+     * @since 0.0.1
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    /**
+     * Get the number of times a statement had to be prepared because it was
+     * not in the connection's statement cache
+     *
+     * @return The number of statement cache misses
+     * @since 0.0.1
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * Close every idle connection and stop the pool handing out any more.
+     * Connections which are still borrowed are closed when they are released.
+     *
+     * @since 0.0.1
+     */
+    public void close() {
+        ArrayList<PooledConnection> toClose;
+        synchronized(this) {
+            if(closed) return;
+            closed = true;
+            toClose = new ArrayList<PooledConnection>(idle);
+            idle.clear();
+        }
+        if(evictionTimer != null) evictionTimer.cancel();
+        for(PooledConnection pooled : toClose) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Get the minimum number of connections the pool keeps open
+     *
+     * @return The minimum number of connections
+     * @since 0.0.1
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Get the maximum number of connections the pool will open
+     *
+     * @return The maximum number of connections
+     * @since 0.0.1
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the number of connections currently open, borrowed or idle
+     *
+     * @return The number of open connections
+     * @since 0.0.1
+     */
+    public synchronized int getOpenConnections() {
+        return openConnections;
+    }
+
+    /**
+     * Get the number of connections currently borrowed from the pool
+     *
+     * @return The number of borrowed connections
+     * @since 0.0.1
+     */
+    public synchronized int getBorrowedConnections() {
+        return borrowed.size();
+    }
+
+    /**
+     * Set how long a connection may sit idle before it is closed, as long as
+     * more than the minimum number of connections are open
+     *
+     * @param idleTimeout The idle timeout in milliseconds
+     * @throws java.lang.IllegalArgumentException When the timeout is not
+     * greater than 0
+     * @since 0.0.1
+     */
+    public void setIdleTimeout(final long idleTimeout)
+            throws IllegalArgumentException
+    {
+        checkTimeout(idleTimeout);
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Set how long a connection may be kept open in total before it is
+     * replaced with a new one
+     *
+     * @param maxLifetime The maximum lifetime in milliseconds
+     * @throws java.lang.IllegalArgumentException When the lifetime is not
+     * greater than 0
+     * @since 0.0.1
+     */
+    public void setMaxLifetime(final long maxLifetime)
+            throws IllegalArgumentException
+    {
+        checkTimeout(maxLifetime);
+        this.maxLifetime = maxLifetime;
+    }
+
+    /**
+     * Set how long getConnection() waits for a free connection before
+     * giving up
+     *
+     * @param borrowTimeout The borrow timeout in milliseconds
+     * @throws java.lang.IllegalArgumentException When the timeout is not
+     * greater than 0
+     * @since 0.0.1
+     */
+    public void setBorrowTimeout(final long borrowTimeout)
+            throws IllegalArgumentException
+    {
+        checkTimeout(borrowTimeout);
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    /**
+     * Set how long the database is given to answer when a connection is
+     * validated
+     *
+     * @param validationTimeout The validation timeout in seconds
+     * @throws java.lang.IllegalArgumentException When the timeout is not
+     * greater than 0
+     * @since 0.0.1
+     */
+    public void setValidationTimeout(final int validationTimeout)
+            throws IllegalArgumentException
+    {
+        checkTimeout(validationTimeout);
+        this.validationTimeout = validationTimeout;
+    }
+
+    /**
+     * Set the number of prepared statements each connection keeps in its
+     * statement cache. Connections which are already open keep their
+     * current cache size.
+     *
+     * @param statementCacheSize The number of statements to cache
+     * @throws java.lang.IllegalArgumentException When the size is less
+     * than 1
+     * @since 0.0.1
+     */
+    public void setStatementCacheSize(final int statementCacheSize)
+            throws IllegalArgumentException
+    {
+        if(statementCacheSize < 1) throw new IllegalArgumentException("The " +
+                "statement cache size must be at least 1.");
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Close connections which have been idle for longer than the idle timeout
+     * or have reached their maximum lifetime, then open new connections until
+     * the minimum number is reached again. This is run periodically by the
+     * eviction timer.
+     *
+     * @since 0.0.1
+     */
+    void evictIdleConnections() {
+        ArrayList<PooledConnection> toClose = new ArrayList<PooledConnection>();
+        long now = System.currentTimeMillis();
+        int toOpen;
+
+        synchronized(this) {
+            if(closed) return;
+            int remaining = openConnections;
+            for(Iterator<PooledConnection> it = idle.iterator(); it.hasNext();) {
+                PooledConnection pooled = it.next();
+                if(isExpired(pooled, now) || (remaining > minSize &&
+                        now - pooled.getLastUsed() > idleTimeout))
+                {
+                    it.remove();
+                    toClose.add(pooled);
+                    remaining--;
+                }
+            }
+            toOpen = minSize - remaining;
+        }
+
+        for(PooledConnection pooled : toClose) {
+            discard(pooled);
+        }
+        try {
+            for(int i = 0; i < toOpen; i++) {
+                PooledConnection pooled = openConnection();
+                synchronized(this) {
+                    idle.addLast(pooled);
+                }
+            }
+        } catch(SQLException e) {
+            // The next borrow will try again, nothing else to do here
+        }
+    }
+
+    /**
+     * Open a new connection to the database and count it against the pool
+     *
+     * @return The new connection wrapped with its pool bookkeeping
+     * @throws java.sql.SQLException When the connection could not be opened
+     * @since 0.0.1
+     */
+    private PooledConnection openConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, username,
+                password);
+        synchronized(this) {
+            openConnections++;
+        }
+        return new PooledConnection(connection, new StatementCache(connection,
+                statementCacheSize, statementCacheHits, statementCacheMisses));
+    }
+
+    /**
+     * Close a connection and stop counting it against the pool
+     *
+     * @param pooled The connection to be closed
+     * @since 0.0.1
+     */
+    private void discard(final PooledConnection pooled) {
+        synchronized(this) {
+            openConnections--;
+        }
+        pooled.close();
+    }
+
+    /**
+     * Take the most recently used idle connection, or null if there are none
+     *
+     * @return The most recently used idle connection or null
+     * @since 0.0.1
+     */
+    private synchronized PooledConnection takeIdleConnection() {
+        if(idle.isEmpty()) return null;
+        return idle.removeFirst();
+    }
+
+    /**
+     * Check an idle connection can be handed out. Connections which were in
+     * use moments ago are trusted, anything else is validated against the
+     * database.
+     *
+     * @param pooled The connection to be checked
+     * @return True if the connection can be handed out
+     * @since 0.0.1
+     */
+    private boolean isUsable(final PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if(isExpired(pooled, now)) return false;
+        if(now - pooled.getLastUsed() < VALIDATIONBYPASS) return true;
+        try {
+            return pooled.getConnection().isValid(validationTimeout);
+        } catch(SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if a connection has reached its maximum lifetime
+     *
+     * @param pooled The connection to be checked
+     * @param now The current time in milliseconds
+     * @return True if the connection should be replaced
+     * @since 0.0.1
+     */
+    private boolean isExpired(final PooledConnection pooled, final long now) {
+        return now - pooled.getCreated() > maxLifetime;
+    }
+
+    /**
+     * Check if the pool has been closed
+     *
+     * @return True if the pool has been closed
+     * @since 0.0.1
+     */
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Check the JDBC URL is not null or blank
+     *
+     * @param url The URL to be checked
+     * @since 0.0.1
+     */
+    private static void checkURL(final String url) {
+        if(url == null || url.trim().length() == 0)
+            throw new IllegalArgumentException("The database URL must not " +
+                    "be null or blank.");
+    }
+
+    /**
+     * Check the minimum size is not negative and the maximum size is at least
+     * 1 and not less than the minimum
+     *
+     * @param minSize The minimum size to be checked
+     * @param maxSize The maximum size to be checked
+     * @since 0.0.1
+     */
+    private static void checkSizes(final int minSize, final int maxSize) {
+        if(minSize < 0) throw new IllegalArgumentException("The minimum " +
+                "pool size must not be less than 0.");
+        if(maxSize < 1 || maxSize < minSize)
+            throw new IllegalArgumentException("The maximum pool size must " +
+                    "be at least 1 and not less than the minimum pool size.");
+    }
+
+    /**
+     * Check a timeout is greater than 0
+     *
+     * @param timeout The timeout to be checked
+     * @since 0.0.1
+     */
+    private static void checkTimeout(final long timeout) {
+        if(timeout <= 0) throw new IllegalArgumentException("The timeout " +
+                "must be greater than 0.");
+    }
+
+    /**
+     * A connection held by the pool, along with its statement cache, when it
+     * was opened and when it was last handed back
+     *
+     * @since 0.0.1
+     */
+    private static final class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statementCache;
+        private final long created;
+        private volatile long lastUsed;
+
+        PooledConnection(final Connection connection,
+                final StatementCache statementCache)
+        {
+            this.connection = connection;
+            this.statementCache = statementCache;
+            created = System.currentTimeMillis();
+            lastUsed = created;
+        }
+
+        Connection getConnection() {
+            return connection;
+        }
+
+        StatementCache getStatementCache() {
+            return statementCache;
+        }
+
+        long getCreated() {
+            return created;
+        }
+
+        long getLastUsed() {
+            return lastUsed;
+        }
+
+        void touch() {
+            lastUsed = System.currentTimeMillis();
+        }
+
+        void close() {
+            statementCache.close();
+            try {
+                connection.close();
+            } catch(SQLException e) {
+                // We're closing anyway, no need to do anything with the error
+            }
+        }
+    }
+}
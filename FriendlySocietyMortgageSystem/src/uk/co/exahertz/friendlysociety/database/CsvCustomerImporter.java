@@ -0,0 +1,319 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import uk.co.exahertz.friendlysociety.core.Address;
+import uk.co.exahertz.friendlysociety.core.Customer;
+import uk.co.exahertz.friendlysociety.core.Day;
+
+/**
+ * Imports customers from a CSV file, such as a portfolio exported by another
+ * lender, through MortgageDatabase.addCustomers. The file is read and added
+ * CHUNKSIZE customers at a time, so a file of any size can be imported.
+ * <p>
+ * The first line names the columns, in any order:
+ * title, forenames, surname, dateOfBirth, isFemale, propertyName, streetName,
+ * town, country, postCode, telephone, nationalInsuranceNumber,
+ * savingsAccountNumber and optionally faxNumber and email. Dates are
+ * dd/MM/yyyy or yyyy-MM-dd, and isFemale is true/false, yes/no, F/M or 1/0.
+ * Fields may be quoted with ", and a quote inside a quoted field is written
+ * twice. A line which cannot be read as a customer is reported as failed and
+ * the rest of the file is still imported.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class CsvCustomerImporter {
+    /** The number of customers read and added at a time */
+    public static final int CHUNKSIZE = 5000;
+    private static final String[] REQUIREDCOLUMNS = {"title", "forenames",
+        "surname", "dateOfBirth", "isFemale", "propertyName", "streetName",
+        "town", "country", "postCode", "telephone", "nationalInsuranceNumber",
+        "savingsAccountNumber"};
+    private final MortgageDatabase database;
+    private Map<String, Integer> columns;
+    private int line;
+
+    /**
+     * Create a new importer
+     *
+     * @param database The database to add the customers to
+     * @throws java.lang.IllegalArgumentException When database is null
+     * @since 0.0.1
+     */
+    public CsvCustomerImporter(final MortgageDatabase database) {
+        if(database == null) throw new IllegalArgumentException("The " +
+                "database must not be null.");
+        this.database = database;
+    }
+
+    /**
+     * Import the customers in a UTF-8 CSV file
+     *
+     * @param fileName The name of the file
+     * @return The IDs of the customers, one for each line after the first,
+     * and the reasons any failed
+     * @throws java.io.IOException When the file could not be read, or its
+     * first line does not name every required column
+     * @since 0.0.1
+     */
+    public BulkAddResult importFile(final String fileName) throws IOException {
+        Reader reader = new InputStreamReader(new FileInputStream(fileName),
+                "UTF-8");
+        try {
+            return importFrom(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Import the customers in CSV text
+     *
+     * @param reader The text to read, which is not closed
+     * @return The IDs of the customers, one for each record after the first,
+     * and the reasons any failed. Errors give the line the record began on.
+     * @throws java.io.IOException When the text could not be read, or its
+     * first line does not name every required column
+     * @throws java.lang.IllegalArgumentException When reader is null
+     * @since 0.0.1
+     */
+    public synchronized BulkAddResult importFrom(final Reader reader)
+            throws IOException
+    {
+        if(reader == null) throw new IllegalArgumentException("The reader " +
+                "must not be null.");
+        BufferedReader input = new BufferedReader(reader);
+        line = 1;
+        ArrayList<String> header = readRecord(input);
+        if(header == null) throw new IOException("The file is empty.");
+        columns = new HashMap<String, Integer>();
+        for(int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        for(String column : REQUIREDCOLUMNS) {
+            if(!columns.containsKey(column.toLowerCase())) {
+                throw new IOException("The file has no " + column +
+                        " column.");
+            }
+        }
+
+        BulkAddResult result = new BulkAddResult();
+        ArrayList<Customer> chunk = new ArrayList<Customer>(CHUNKSIZE);
+        int[] indexes = new int[CHUNKSIZE];
+        int[] lines = new int[CHUNKSIZE];
+        while(true) {
+            int recordLine = line;
+            ArrayList<String> record = readRecord(input);
+            if(record == null) break;
+            if(record.size() == 1 && record.get(0).trim().length() == 0) {
+                continue;
+            }
+            int index = result.addRecord();
+            try {
+                indexes[chunk.size()] = index;
+                lines[chunk.size()] = recordLine;
+                chunk.add(toCustomer(record));
+            } catch(IllegalArgumentException e) {
+                result.setError(index, "Line " + recordLine + ": " +
+                        e.getMessage());
+                continue;
+            }
+            if(chunk.size() == CHUNKSIZE) {
+                addChunk(chunk, indexes, lines, result);
+                chunk.clear();
+            }
+        }
+        if(!chunk.isEmpty()) addChunk(chunk, indexes, lines, result);
+        return result;
+    }
+
+    /**
+     * Add a chunk of customers and copy the outcome into the result
+     *
+     * @param chunk The customers read
+     * @param indexes The index of each customer in the result
+     * @param lines The line each customer began on
+     * @param result The result of the whole import
+     * @since 0.0.1
+     */
+    private void addChunk(final ArrayList<Customer> chunk, final int[] indexes,
+            final int[] lines, final BulkAddResult result)
+    {
+        BulkAddResult added = database.addCustomers(chunk);
+        for(int i = 0; i < chunk.size(); i++) {
+            String error = added.getErrors().get(i);
+            if(error != null) {
+                result.setError(indexes[i], "Line " + lines[i] + ": " +
+                        error);
+            } else {
+                result.setID(indexes[i], added.getID(i));
+            }
+        }
+    }
+
+    /**
+     * Make a customer from a record
+     *
+     * @param record The fields of the record
+     * @return The customer, with an ID of 0
+     * @throws java.lang.IllegalArgumentException When the record is not a
+     * valid customer
+     * @since 0.0.1
+     */
+    private Customer toCustomer(final ArrayList<String> record) {
+        return new Customer(0, field(record, "title"),
+                field(record, "forenames"), field(record, "surname"),
+                toDate(field(record, "dateOfBirth")),
+                toBoolean(field(record, "isFemale")),
+                new Address(0, field(record, "propertyName"),
+                field(record, "streetName"), field(record, "town"),
+                field(record, "country"), field(record, "postCode")),
+                field(record, "telephone"), field(record, "faxNumber"),
+                field(record, "email"),
+                field(record, "nationalInsuranceNumber"),
+                field(record, "savingsAccountNumber"));
+    }
+
+    /**
+     * Get a field of a record by the name of its column
+     *
+     * @param record The fields of the record
+     * @param column The name of the column
+     * @return The trimmed field, or "" if the file has no such column or the
+     * record is too short
+     * @since 0.0.1
+     */
+    private String field(final ArrayList<String> record, final String column) {
+        Integer index = columns.get(column.toLowerCase());
+        if(index == null || index >= record.size()) return "";
+        return record.get(index).trim();
+    }
+
+    /**
+     * Read a date as dd/MM/yyyy or yyyy-MM-dd
+     *
+     * @param text The date
+     * @return The date
+     * @throws java.lang.IllegalArgumentException When text is not a date
+     * @since 0.0.1
+     */
+    private static Day toDate(final String text) {
+        String[] date = text.indexOf('-') > 0 ? text.split("-") :
+                text.split("/");
+        if(date.length == 3) {
+            try {
+                boolean isoOrder = text.indexOf('-') > 0;
+                int year = Integer.parseInt(date[isoOrder ? 0 : 2]);
+                int month = Integer.parseInt(date[1]);
+                int day = Integer.parseInt(date[isoOrder ? 2 : 0]);
+                return Day.of(year, month, day);
+            } catch(NumberFormatException e) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException("The date " + text + " must be " +
+                "dd/MM/yyyy or yyyy-MM-dd.");
+    }
+
+    /**
+     * Read whether a customer is female
+     *
+     * @param text The field
+     * @return True if the customer is female
+     * @throws java.lang.IllegalArgumentException When text is not understood
+     * @since 0.0.1
+     */
+    private static boolean toBoolean(final String text) {
+        String value = text.toLowerCase();
+        if(value.equals("true") || value.equals("yes") || value.equals("f") ||
+                value.equals("female") || value.equals("1")) return true;
+        if(value.equals("false") || value.equals("no") || value.equals("m") ||
+                value.equals("male") || value.equals("0")) return false;
+        throw new IllegalArgumentException("isFemale must be true or false, " +
+                "not " + text + ".");
+    }
+
+    /**
+     * Read one CSV record, which may span lines inside a quoted field
+     *
+     * @param input The text to read
+     * @return The fields of the record, or null at the end of the text
+     * @throws java.io.IOException When the text could not be read
+     * @since 0.0.1
+     */
+    private ArrayList<String> readRecord(final BufferedReader input)
+            throws IOException
+    {
+        int c = input.read();
+        if(c == -1) return null;
+        ArrayList<String> record = new ArrayList<String>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while(c != -1) {
+            if(quoted) {
+                if(c == '"') {
+                    input.mark(1);
+                    if(input.read() == '"') {
+                        field.append('"');
+                    } else {
+                        input.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if(c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if(c == '"') {
+                quoted = true;
+            } else if(c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if(c == '\n') {
+                line++;
+                break;
+            } else if(c != '\r') {
+                field.append((char) c);
+            }
+            c = input.read();
+        }
+        record.add(field.toString());
+        return record;
+    }
+
+    /**
+     * Import a CSV file of customers into the MySQL database
+     *
+     * @param args The name of the file
+     * @since 0.0.1
+     */
+    public static void main(final String[] args) {
+        if(args.length != 1) {
+            System.err.println("Usage: CsvCustomerImporter file.csv");
+            System.exit(1);
+        }
+        MySQL database = null;
+        try {
+            database = new MySQL();
+            BulkAddResult result = new CsvCustomerImporter(database)
+                    .importFile(args[0]);
+            System.out.println("Added " + result.getAddedCount() + " of " +
+                    result.size() + " customers.");
+            for(String error : result.getErrors().values()) {
+                System.out.println(error);
+            }
+        } catch(Exception e) {
+            System.err.println("Could not import " + args[0] + ": " + e);
+            System.exit(1);
+        } finally {
+            if(database != null) database.close();
+        }
+    }
+}
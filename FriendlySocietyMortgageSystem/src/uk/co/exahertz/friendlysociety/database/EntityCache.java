@@ -0,0 +1,260 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A least recently used cache of one type of entity, keyed by its ID. Each
+ * entry has an estimated size in bytes, and the least recently used entries
+ * are evicted once the total size passes the limit, so a cache of large
+ * objects holds fewer of them.<br>
+ * The address ID of each entity is kept with it, so that changing an address
+ * only invalidates the entities which live there.<br>
+ * Every removal moves the cache on to a new generation. A caller reads the
+ * generation before loading an entity and passes it to put(), so an entity
+ * loaded before a write is never cached after the write invalidated it.<br>
+ * All methods are synchronised, so the cache can be shared between threads.
+ *
+ * @param <V> The type of entity cached
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class EntityCache<V> {
+    private final String name;
+    private final long maxSize;
+    private final LinkedHashMap<Integer, Entry<V>> entries;
+    private long size;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Create a new empty cache
+     *
+     * @param name The name of the cache, used when reporting its statistics
+     * @param maxSize The maximum total estimated size of the entries in bytes
+     * @throws java.lang.IllegalArgumentException When maxSize is not positive
+     * @since 0.0.1
+     */
+    EntityCache(final String name, final long maxSize) {
+        if(maxSize < 1) throw new IllegalArgumentException("The maximum " +
+                "cache size must be positive.");
+        this.name = name;
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<Integer, Entry<V>>(16, 0.75f, true);
+    }
+
+    /**
+     * Look up an entity, counting a hit or a miss
+     *
+     * @param id The ID of the entity
+     * @return The entity, or null if it is not cached
+     * @since 0.0.1
+     */
+    synchronized V get(final int id) {
+        Entry<V> entry = entries.get(id);
+        if(entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Get the current generation of the cache, to be passed to put() after
+     * the entity has been loaded
+     *
+     * @return The current generation
+     * @since 0.0.1
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Add an entity to the cache, evicting the least recently used entities
+     * until it fits. The entity is not added if it is larger than the whole
+     * cache, or if anything has been removed since it was loaded.
+     *
+     * @param id The ID of the entity
+     * @param addressID The ID of the address of the entity
+     * @param value The entity
+     * @param entrySize The estimated size of the entity in bytes
+     * @param loadedGeneration The generation read before the entity was loaded
+     * @since 0.0.1
+     */
+    synchronized void put(final int id, final int addressID, final V value,
+            final long entrySize, final long loadedGeneration)
+    {
+        if(loadedGeneration != generation || entrySize > maxSize) return;
+        Entry<V> old = entries.remove(id);
+        if(old != null) size -= old.size;
+        entries.put(id, new Entry<V>(addressID, value, entrySize));
+        size += entrySize;
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while(size > maxSize) {
+            size -= eldest.next().size;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove an entity from the cache
+     *
+     * @param id The ID of the entity
+     * @since 0.0.1
+     */
+    synchronized void remove(final int id) {
+        generation++;
+        Entry<V> entry = entries.remove(id);
+        if(entry != null) size -= entry.size;
+    }
+
+    /**
+     * Remove every entity which lives at an address
+     *
+     * @param addressID The ID of the address
+     * @since 0.0.1
+     */
+    synchronized void removeAddress(final int addressID) {
+        generation++;
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while(iterator.hasNext()) {
+            Entry<V> entry = iterator.next();
+            if(entry.addressID == addressID) {
+                size -= entry.size;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove every entity from the cache. The statistics are kept.
+     *
+     * @since 0.0.1
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Get the name of this cache
+     *
+     * @return The name of this cache
+     * @since 0.0.1
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of entities in the cache
+     *
+     * @return The number of entities in the cache
+     * @since 0.0.1
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    /**
+     * Get the total estimated size of the entities in the cache
+     *
+     * @return The size of the cache in bytes
+     * @since 0.0.1
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the maximum total estimated size of the entities in the cache
+     *
+     * @return The maximum size of the cache in bytes
+     * @since 0.0.1
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the number of lookups which found the entity in the cache
+     *
+     * @return The number of hits
+     * @since 0.0.1
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups which had to go to the database
+     *
+     * @return The number of misses
+     * @since 0.0.1
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of entities evicted to make room for others
+     *
+     * @return The number of evictions
+     * @since 0.0.1
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Get the fraction of lookups which found the entity in the cache
+     *
+     * @return The hit ratio from 0 to 1, or 0 if there have been no lookups
+     * @since 0.0.1
+     */
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        if(lookups == 0) return 0;
+        return (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return name + ": " + entries.size() + " entries, " + size + "/" +
+                maxSize + " bytes, " + hits + " hits, " + misses +
+                " misses, " + evictions + " evictions";
+    }
+
+    /**
+     * An entity in the cache
+     *
+     * @param <V> The type of entity cached
+     * @since 0.0.1
+     */
+    private static class Entry<V> {
+        private final int addressID;
+        private final V value;
+        private final long size;
+
+        /**
+         * Create a new cache entry
+         *
+         * @param addressID The ID of the address of the entity
+         * @param value The entity
+         * @param size The estimated size of the entity in bytes
+         * @since 0.0.1
+         */
+        Entry(final int addressID, final V value, final long size) {
+            this.addressID = addressID;
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
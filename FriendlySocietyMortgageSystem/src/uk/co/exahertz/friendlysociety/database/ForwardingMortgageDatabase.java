@@ -0,0 +1,297 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.Collection;
+import uk.co.exahertz.friendlysociety.core.*;
+
+/**
+ * A MortgageDatabase which passes every call on to another MortgageDatabase.
+ * Decorators such as CachingMortgageDatabase extend this class and override
+ * only the calls they change, so they can wrap any implementation. Mortgages
+ * read through a forwarding database read their payments through it too, so
+ * that the payments pass through every decorator, keeping the account
+ * snapshot the wrapped database read them with.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public abstract class ForwardingMortgageDatabase implements MortgageDatabase {
+    private final MortgageDatabase delegate;
+
+    /**
+     * Create a new forwarding database
+     *
+     * @param delegate The database every call is passed on to
+     * @throws java.lang.IllegalArgumentException When delegate is null
+     * @since 0.0.1
+     */
+    protected ForwardingMortgageDatabase(final MortgageDatabase delegate) {
+        if(delegate == null) throw new IllegalArgumentException("The " +
+                "database must not be null.");
+        this.delegate = delegate;
+    }
+
+    /**
+     * Get the database every call is passed on to
+     *
+     * @return The wrapped database
+     * @since 0.0.1
+     */
+    public MortgageDatabase getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public int addAddress(final Address address) {
+        return delegate.addAddress(address);
+    }
+
+    @Override
+    public int addCreditCheck(final CreditCheck creditCheck,
+            final int customerID) {
+        return delegate.addCreditCheck(creditCheck, customerID);
+    }
+
+    @Override
+    public int addCustomer(final Customer customer) {
+        return delegate.addCustomer(customer);
+    }
+
+    @Override
+    public BulkAddResult addCustomers(final Iterable<Customer> customers) {
+        return delegate.addCustomers(customers);
+    }
+
+    @Override
+    public int addEmployment(final Employment employment,
+            final int customerID) {
+        return delegate.addEmployment(employment, customerID);
+    }
+
+    @Override
+    public int addMortgage(final Mortgage mortgage) {
+        return delegate.addMortgage(mortgage);
+    }
+
+    @Override
+    public int addMortgagePayment(final MortgagePaymentDetails payment,
+            final int mortgageID) {
+        return delegate.addMortgagePayment(payment, mortgageID);
+    }
+
+    @Override
+    public int addProperty(final Property property) {
+        return delegate.addProperty(property);
+    }
+
+    @Override
+    public int addStaffMember(final StaffMember staff) {
+        return delegate.addStaffMember(staff);
+    }
+
+    @Override
+    public int addSurvey(final Survey survey, final int propertyID) {
+        return delegate.addSurvey(survey, propertyID);
+    }
+
+    @Override
+    public int addSurveyor(final Surveyor surveyor) {
+        return delegate.addSurveyor(surveyor);
+    }
+
+    @Override
+    public boolean changeStaffMemberPassword(final StaffMember staffMember) {
+        return delegate.changeStaffMemberPassword(staffMember);
+    }
+
+    @Override
+    public boolean changeMortgageApplicationStatus(final Mortgage mortgage) {
+        return delegate.changeMortgageApplicationStatus(mortgage);
+    }
+
+    @Override
+    public boolean setMortgagePaymentMade(
+            final MortgagePaymentDetails payment, final int mortgageID) {
+        return delegate.setMortgagePaymentMade(payment, mortgageID);
+    }
+
+    @Override
+    public Customer getCustomerByID(final int customerID) {
+        return delegate.getCustomerByID(customerID);
+    }
+
+    @Override
+    public Mortgage getMortgageByID(final int mortgageID) {
+        Mortgage mortgage = delegate.getMortgageByID(mortgageID);
+        if(mortgage != null) {
+            mortgage.setPaymentSource(this, mortgage.getAccountSnapshot());
+        }
+        return mortgage;
+    }
+
+    @Override
+    public Collection<Mortgage> getMortgagesByCustomerID(
+            final int customerID) {
+        Collection<Mortgage> mortgages =
+                delegate.getMortgagesByCustomerID(customerID);
+        if(mortgages != null) {
+            for(Mortgage mortgage : mortgages) {
+                mortgage.setPaymentSource(this, mortgage.getAccountSnapshot());
+            }
+        }
+        return mortgages;
+    }
+
+    @Override
+    public Collection<Mortgage> getMortgagesPage(final int afterMortgageID,
+            final int limit) {
+        Collection<Mortgage> mortgages =
+                delegate.getMortgagesPage(afterMortgageID, limit);
+        if(mortgages != null) {
+            for(Mortgage mortgage : mortgages) {
+                mortgage.setPaymentSource(this, mortgage.getAccountSnapshot());
+            }
+        }
+        return mortgages;
+    }
+
+    @Override
+    public Collection<MortgagePaymentDetails> getMortgagePaymentsPage(
+            final int mortgageID, final MortgagePaymentDetails after,
+            final int limit)
+    {
+        return delegate.getMortgagePaymentsPage(mortgageID, after, limit);
+    }
+
+    @Override
+    public MortgagePaymentRange getMortgagePaymentsByRange(
+            final int firstMortgageID, final int lastMortgageID,
+            final int afterMortgageID, final MortgagePaymentDetails after,
+            final int limit)
+    {
+        return delegate.getMortgagePaymentsByRange(firstMortgageID,
+                lastMortgageID, afterMortgageID, after, limit);
+    }
+
+    @Override
+    public void putAccountSnapshot(final int mortgageID,
+            final MortgageAccount snapshot) {
+        delegate.putAccountSnapshot(mortgageID, snapshot);
+    }
+
+    @Override
+    public StaffMember getStaffMemberByUsername(final String uname) {
+        return delegate.getStaffMemberByUsername(uname);
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddressID(
+            final String addressIDSearched) {
+        return delegate.getCustomersByAddressID(addressIDSearched);
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddress(final String country,
+            final String town, final String postCode, final String streetName,
+            final String propertyName) {
+        return delegate.getCustomersByAddress(country, town, postCode, streetName, propertyName);
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddress(
+            final AddressQuery search) {
+        return delegate.getCustomersByAddress(search);
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByName(final String surnameSearched,
+            final String forenamesSearched) {
+        return delegate.getCustomersByName(surnameSearched, forenamesSearched);
+    }
+
+    @Override
+    public Collection<Customer> getCustomersPage(final int afterCustomerID,
+            final int limit, final SortOrder sort) {
+        return delegate.getCustomersPage(afterCustomerID, limit, sort);
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByIDs(final int[] customerIDs) {
+        return delegate.getCustomersByIDs(customerIDs);
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByIDs(final int[] staffIDs) {
+        return delegate.getStaffMembersByIDs(staffIDs);
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByName(
+            final String surnameSearched, final String forenamesSearched) {
+        return delegate.getStaffMembersByName(surnameSearched, forenamesSearched);
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final String country, final String town, final String postCode,
+            final String streetName, final String propertyName) {
+        return delegate.getStaffMembersByAddress(country, town, postCode, streetName, propertyName);
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final AddressQuery search) {
+        return delegate.getStaffMembersByAddress(search);
+    }
+
+    @Override
+    public boolean modifyAddress(final Address address) {
+        return delegate.modifyAddress(address);
+    }
+
+    @Override
+    public boolean modifyCustomer(final Customer customer) {
+        return delegate.modifyCustomer(customer);
+    }
+
+    @Override
+    public boolean modifyEmploymentDetails(final Employment employment,
+            final int customerID) {
+        return delegate.modifyEmploymentDetails(employment, customerID);
+    }
+
+    @Override
+    public boolean modifyStaffMember(final StaffMember staff) {
+        return delegate.modifyStaffMember(staff);
+    }
+
+    @Override
+    public Collection<Surveyor> getSurveyorsByName(final String name) {
+        return delegate.getSurveyorsByName(name);
+    }
+
+    @Override
+    public Surveyor getSurveyorByID(final int id) {
+        return delegate.getSurveyorByID(id);
+    }
+
+    @Override
+    public StaffMember getStaffMemberByID(final int id) {
+        return delegate.getStaffMemberByID(id);
+    }
+
+    @Override
+    public boolean modifySurveyor(final Surveyor surveyor) {
+        return delegate.modifySurveyor(surveyor);
+    }
+
+    @Override
+    public Collection<CreditCheck> getCreditCheckByCustomerID(final int id) {
+        return delegate.getCreditCheckByCustomerID(id);
+    }
+
+    @Override
+    public Collection<Employment> getEmploymentsByCustomerID(final int id) {
+        return delegate.getEmploymentsByCustomerID(id);
+    }
+}
@@ -0,0 +1,361 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import uk.co.exahertz.friendlysociety.core.*;
+
+/**
+ * A MortgageDatabase which answers customer and staff name searches from
+ * trigram indexes held in memory. A LIKE '%name%' search cannot use an index
+ * in the database, so it scans the whole table; here the index finds the
+ * matching IDs and only those records are fetched, in one batched query.<br>
+ * Address searches by post code are answered from a compressed trie of the
+ * post codes of every customer and member of staff, so a district or sector
+ * such as "SW1A" or "SW1A 1" becomes a list of address IDs without scanning
+ * the Address table. A post code so short that it matches more than
+ * MAXPOSTCODEIDS addresses is passed on to the database instead, as its
+ * indexed prefix search reads them in one range rather than in many batches
+ * of IDs. In the same way, a name search where neither name is long enough
+ * to have a trigram is passed on to the database, as it would match most
+ * records.<br>
+ * The indexes are built when this class is created, and kept up to date as
+ * customers, members of staff and addresses are added and modified through
+ * it. If the
+ * indexes could not be built, or a customer added in bulk could not be read
+ * back to index it, searches are passed on to the database.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class IndexedMortgageDatabase extends ForwardingMortgageDatabase {
+    /** The number of customers read per query while building the index */
+    private static final int LOADPAGESIZE = 1000;
+    /** The most address IDs a post code search is narrowed to by the trie */
+    public static final int MAXPOSTCODEIDS = 2000;
+    private final TrigramIndex customerForenames;
+    private final TrigramIndex customerSurnames;
+    private final TrigramIndex staffForenames;
+    private final TrigramIndex staffSurnames;
+    private final PostcodeTrie postCodes;
+    private volatile boolean customersIndexed;
+    private volatile boolean staffIndexed;
+
+    /**
+     * Create a new indexed database, reading every customer and member of
+     * staff to build the indexes
+     *
+     * @param delegate The database to index
+     * @throws java.lang.IllegalArgumentException When delegate is null
+     * @since 0.0.1
+     */
+    public IndexedMortgageDatabase(final MortgageDatabase delegate) {
+        super(delegate);
+        customerForenames = new TrigramIndex();
+        customerSurnames = new TrigramIndex();
+        staffForenames = new TrigramIndex();
+        staffSurnames = new TrigramIndex();
+        postCodes = new PostcodeTrie();
+        customersIndexed = indexCustomers();
+        staffIndexed = indexStaffMembers();
+    }
+
+    /**
+     * Read every customer into the indexes a page at a time
+     *
+     * @return True if every customer was indexed, false if the database
+     * returned an error
+     * @since 0.0.1
+     */
+    private boolean indexCustomers() {
+        int lastCustomerID = -1;
+        Collection<Customer> page;
+        do {
+            page = super.getCustomersPage(lastCustomerID, LOADPAGESIZE,
+                    SortOrder.ASCENDING);
+            if(page == null) return false;
+            for(Customer customer : page) {
+                indexCustomer(customer.getID(), customer);
+                indexAddress(customer.getAddressObject());
+                lastCustomerID = customer.getID();
+            }
+        } while(page.size() == LOADPAGESIZE);
+        return true;
+    }
+
+    /**
+     * Read every member of staff into the indexes
+     *
+     * @return True if every member of staff was indexed, false if the
+     * database returned an error
+     * @since 0.0.1
+     */
+    private boolean indexStaffMembers() {
+        Collection<StaffMember> staff = super.getStaffMembersByName("", "");
+        if(staff == null) return false;
+        for(StaffMember member : staff) {
+            indexStaffMember(member.getID(), member);
+            indexAddress(member.getAddressObject());
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the customer names are indexed
+     *
+     * @return True if customer name and post code searches are answered
+     * from the indexes
+     * @since 0.0.1
+     */
+    public boolean isCustomersIndexed() {
+        return customersIndexed;
+    }
+
+    /**
+     * Check whether the staff names are indexed
+     *
+     * @return True if staff name and post code searches are answered from
+     * the indexes
+     * @since 0.0.1
+     */
+    public boolean isStaffIndexed() {
+        return staffIndexed;
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByName(final String surnameSearched,
+            final String forenamesSearched) {
+        if(!customersIndexed || surnameSearched == null ||
+                forenamesSearched == null) {
+            return super.getCustomersByName(surnameSearched,
+                    forenamesSearched);
+        }
+        int[] ids = searchNames(customerSurnames, surnameSearched,
+                customerForenames, forenamesSearched);
+        if(ids == null) {
+            return super.getCustomersByName(surnameSearched,
+                    forenamesSearched);
+        }
+        if(ids.length == 0) return new ArrayList<Customer>();
+        return super.getCustomersByIDs(ids);
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByName(
+            final String surnameSearched, final String forenamesSearched) {
+        if(!staffIndexed || surnameSearched == null ||
+                forenamesSearched == null) {
+            return super.getStaffMembersByName(surnameSearched,
+                    forenamesSearched);
+        }
+        int[] ids = searchNames(staffSurnames, surnameSearched,
+                staffForenames, forenamesSearched);
+        if(ids == null) {
+            return super.getStaffMembersByName(surnameSearched,
+                    forenamesSearched);
+        }
+        if(ids.length == 0) return new ArrayList<StaffMember>();
+        return super.getStaffMembersByIDs(ids);
+    }
+
+    /**
+     * Find the records matching both names from the indexes. The longer
+     * names are looked up by their trigrams and the other name is checked
+     * against only the records found.
+     *
+     * @param surnames The index of surnames
+     * @param surnameSearched The surname to search for
+     * @param forenames The index of forenames
+     * @param forenamesSearched The forenames to search for
+     * @return The IDs of the matching records in ascending order, or null if
+     * neither name has a trigram, so the search should be passed on to the
+     * database
+     * @since 0.0.1
+     */
+    private static int[] searchNames(final TrigramIndex surnames,
+            final String surnameSearched, final TrigramIndex forenames,
+            final String forenamesSearched) {
+        if(TrigramIndex.hasTrigram(surnameSearched)) {
+            return forenames.filter(surnames.search(surnameSearched),
+                    forenamesSearched);
+        }
+        if(TrigramIndex.hasTrigram(forenamesSearched)) {
+            return surnames.filter(forenames.search(forenamesSearched),
+                    surnameSearched);
+        }
+        return null;
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddress(final String country,
+            final String town, final String postCode, final String streetName,
+            final String propertyName) {
+        if(country == null || town == null || postCode == null ||
+                streetName == null || propertyName == null) {
+            return super.getCustomersByAddress(country, town, postCode,
+                    streetName, propertyName);
+        }
+        return getCustomersByAddress(new AddressQuery(country, town, postCode,
+                streetName, propertyName));
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddress(
+            final AddressQuery search) {
+        if(!customersIndexed || !usePostCodes(search)) {
+            return super.getCustomersByAddress(search);
+        }
+        int[] addressIDs = postCodes.searchPrefix(search.getPostCode());
+        if(addressIDs.length == 0) return new ArrayList<Customer>();
+        if(addressIDs.length > MAXPOSTCODEIDS) {
+            return super.getCustomersByAddress(search);
+        }
+        return super.getCustomersByAddress(search.withAddressIDs(addressIDs));
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final String country, final String town, final String postCode,
+            final String streetName, final String propertyName) {
+        if(country == null || town == null || postCode == null ||
+                streetName == null || propertyName == null) {
+            return super.getStaffMembersByAddress(country, town, postCode,
+                    streetName, propertyName);
+        }
+        return getStaffMembersByAddress(new AddressQuery(country, town,
+                postCode, streetName, propertyName));
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final AddressQuery search) {
+        if(!staffIndexed || !usePostCodes(search)) {
+            return super.getStaffMembersByAddress(search);
+        }
+        int[] addressIDs = postCodes.searchPrefix(search.getPostCode());
+        if(addressIDs.length == 0) return new ArrayList<StaffMember>();
+        if(addressIDs.length > MAXPOSTCODEIDS) {
+            return super.getStaffMembersByAddress(search);
+        }
+        return super.getStaffMembersByAddress(
+                search.withAddressIDs(addressIDs));
+    }
+
+    /**
+     * Check whether an address search can be narrowed by the post code trie
+     *
+     * @param search The address search
+     * @return True if the search has a post code which has not been looked up
+     * @since 0.0.1
+     */
+    private static boolean usePostCodes(final AddressQuery search) {
+        return search != null && !search.hasAddressIDs() &&
+                search.getPostCode().length() > 0;
+    }
+
+    @Override
+    public int addCustomer(final Customer customer) {
+        int id = super.addCustomer(customer);
+        if(id >= 0) {
+            indexCustomer(id, customer);
+            // The new address ID is only known to the database
+            Customer added = super.getCustomerByID(id);
+            if(added != null) indexAddress(added.getAddressObject());
+        }
+        return id;
+    }
+
+    @Override
+    public BulkAddResult addCustomers(final Iterable<Customer> customers) {
+        BulkAddResult result = super.addCustomers(customers);
+        int[] ids = new int[result.getAddedCount()];
+        int added = 0;
+        for(int i = 0; i < result.size(); i++) {
+            if(result.getID(i) >= 0) ids[added++] = result.getID(i);
+        }
+        // Read the customers back in batches to learn their address IDs
+        Collection<Customer> read = super.getCustomersByIDs(ids);
+        if(read == null) {
+            // The customers are in the database but not the indexes
+            customersIndexed = false;
+            return result;
+        }
+        for(Customer customer : read) {
+            indexCustomer(customer.getID(), customer);
+            indexAddress(customer.getAddressObject());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean modifyCustomer(final Customer customer) {
+        boolean modified = super.modifyCustomer(customer);
+        if(modified) {
+            indexCustomer(customer.getID(), customer);
+            indexAddress(customer.getAddressObject());
+        }
+        return modified;
+    }
+
+    @Override
+    public int addStaffMember(final StaffMember staff) {
+        int id = super.addStaffMember(staff);
+        if(id >= 0) {
+            indexStaffMember(id, staff);
+            StaffMember added = super.getStaffMemberByID(id);
+            if(added != null) indexAddress(added.getAddressObject());
+        }
+        return id;
+    }
+
+    @Override
+    public boolean modifyStaffMember(final StaffMember staff) {
+        boolean modified = super.modifyStaffMember(staff);
+        if(modified) {
+            indexStaffMember(staff.getID(), staff);
+            indexAddress(staff.getAddressObject());
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean modifyAddress(final Address address) {
+        boolean modified = super.modifyAddress(address);
+        if(modified) indexAddress(address);
+        return modified;
+    }
+
+    /**
+     * Index the names of a customer
+     *
+     * @param id The ID of the customer
+     * @param customer The customer
+     * @since 0.0.1
+     */
+    private void indexCustomer(final int id, final Customer customer) {
+        customerForenames.put(id, customer.getForenames());
+        customerSurnames.put(id, customer.getSurname());
+    }
+
+    /**
+     * Index the post code of an address
+     *
+     * @param address The address
+     * @since 0.0.1
+     */
+    private void indexAddress(final Address address) {
+        postCodes.put(address.getAddressID(), address.getPostCode());
+    }
+
+    /**
+     * Index the names of a member of staff
+     *
+     * @param id The ID of the member of staff
+     * @param staff The member of staff
+     * @since 0.0.1
+     */
+    private void indexStaffMember(final int id, final StaffMember staff) {
+        staffForenames.put(id, staff.getForenames());
+        staffSurnames.put(id, staff.getSurname());
+    }
+}
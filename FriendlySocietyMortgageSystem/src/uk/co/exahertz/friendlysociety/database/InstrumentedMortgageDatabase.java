@@ -0,0 +1,741 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.Collection;
+import uk.co.exahertz.friendlysociety.core.*;
+import uk.co.exahertz.friendlysociety.metrics.MetricsRegistry;
+import uk.co.exahertz.friendlysociety.metrics.OperationMetrics;
+
+/**
+ * Records the call count, error count and latency of every call to the
+ * MortgageDatabase it wraps, as operations named after the method, such as
+ * "MortgageDatabase.getCustomersByName". A call has failed if it throws, or
+ * returns -1 or false as the add and modify methods do when the database
+ * could not be changed. Recording costs a few atomic increments per call, so
+ * it can be left on in production.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class InstrumentedMortgageDatabase extends ForwardingMortgageDatabase {
+    /** The prefix of the operation names when none is given */
+    public static final String DEFAULTPREFIX = "MortgageDatabase";
+    private final OperationMetrics addAddress;
+    private final OperationMetrics addCreditCheck;
+    private final OperationMetrics addCustomer;
+    private final OperationMetrics addCustomers;
+    private final OperationMetrics addEmployment;
+    private final OperationMetrics addMortgage;
+    private final OperationMetrics addMortgagePayment;
+    private final OperationMetrics addProperty;
+    private final OperationMetrics addStaffMember;
+    private final OperationMetrics addSurvey;
+    private final OperationMetrics addSurveyor;
+    private final OperationMetrics changeStaffMemberPassword;
+    private final OperationMetrics changeMortgageApplicationStatus;
+    private final OperationMetrics setMortgagePaymentMade;
+    private final OperationMetrics getMortgageByID;
+    private final OperationMetrics getMortgagesByCustomerID;
+    private final OperationMetrics getMortgagesPage;
+    private final OperationMetrics getMortgagePaymentsPage;
+    private final OperationMetrics getMortgagePaymentsByRange;
+    private final OperationMetrics getCustomerByID;
+    private final OperationMetrics getStaffMemberByUsername;
+    private final OperationMetrics getCustomersByAddressID;
+    private final OperationMetrics getCustomersByAddress;
+    private final OperationMetrics getCustomersByName;
+    private final OperationMetrics getCustomersPage;
+    private final OperationMetrics getCustomersByIDs;
+    private final OperationMetrics getStaffMembersByIDs;
+    private final OperationMetrics getStaffMembersByName;
+    private final OperationMetrics getStaffMembersByAddress;
+    private final OperationMetrics modifyAddress;
+    private final OperationMetrics modifyCustomer;
+    private final OperationMetrics modifyEmploymentDetails;
+    private final OperationMetrics modifyStaffMember;
+    private final OperationMetrics getSurveyorsByName;
+    private final OperationMetrics getSurveyorByID;
+    private final OperationMetrics getStaffMemberByID;
+    private final OperationMetrics modifySurveyor;
+    private final OperationMetrics getCreditCheckByCustomerID;
+    private final OperationMetrics getEmploymentsByCustomerID;
+
+    /**
+     * Create a new instrumented database which records into the default
+     * registry
+     *
+     * @param delegate The database to time
+     * @throws java.lang.IllegalArgumentException When delegate is null
+     * @since 0.0.1
+     */
+    public InstrumentedMortgageDatabase(final MortgageDatabase delegate) {
+        this(delegate, MetricsRegistry.getDefault(), DEFAULTPREFIX);
+    }
+
+    /**
+     * Create a new instrumented database
+     *
+     * @param delegate The database to time
+     * @param registry The registry to record into
+     * @param prefix The prefix of the operation names, so that more than one
+     * layer of the database can be timed, such as "MySQL"
+     * @throws java.lang.IllegalArgumentException When any argument is null
+     * @since 0.0.1
+     */
+    public InstrumentedMortgageDatabase(final MortgageDatabase delegate,
+            final MetricsRegistry registry, final String prefix)
+    {
+        super(delegate);
+        if(registry == null) throw new IllegalArgumentException("The " +
+                "registry must not be null.");
+        if(prefix == null) throw new IllegalArgumentException("The prefix " +
+                "must not be null.");
+        addAddress = registry.getOperation(prefix + ".addAddress");
+        addCreditCheck = registry.getOperation(prefix + ".addCreditCheck");
+        addCustomer = registry.getOperation(prefix + ".addCustomer");
+        addCustomers = registry.getOperation(prefix + ".addCustomers");
+        addEmployment = registry.getOperation(prefix + ".addEmployment");
+        addMortgage = registry.getOperation(prefix + ".addMortgage");
+        addMortgagePayment = registry.getOperation(prefix +
+                ".addMortgagePayment");
+        addProperty = registry.getOperation(prefix + ".addProperty");
+        addStaffMember = registry.getOperation(prefix + ".addStaffMember");
+        addSurvey = registry.getOperation(prefix + ".addSurvey");
+        addSurveyor = registry.getOperation(prefix + ".addSurveyor");
+        changeStaffMemberPassword = registry.getOperation(prefix +
+                ".changeStaffMemberPassword");
+        changeMortgageApplicationStatus = registry.getOperation(prefix +
+                ".changeMortgageApplicationStatus");
+        setMortgagePaymentMade = registry.getOperation(prefix +
+                ".setMortgagePaymentMade");
+        getMortgageByID = registry.getOperation(prefix + ".getMortgageByID");
+        getMortgagesByCustomerID = registry.getOperation(prefix +
+                ".getMortgagesByCustomerID");
+        getMortgagesPage = registry.getOperation(prefix + ".getMortgagesPage");
+        getMortgagePaymentsPage = registry.getOperation(prefix +
+                ".getMortgagePaymentsPage");
+        getMortgagePaymentsByRange = registry.getOperation(prefix +
+                ".getMortgagePaymentsByRange");
+        getCustomerByID = registry.getOperation(prefix + ".getCustomerByID");
+        getStaffMemberByUsername = registry.getOperation(prefix +
+                ".getStaffMemberByUsername");
+        getCustomersByAddressID = registry.getOperation(prefix +
+                ".getCustomersByAddressID");
+        getCustomersByAddress = registry.getOperation(prefix +
+                ".getCustomersByAddress");
+        getCustomersByName = registry.getOperation(prefix +
+                ".getCustomersByName");
+        getCustomersPage = registry.getOperation(prefix + ".getCustomersPage");
+        getCustomersByIDs = registry.getOperation(prefix +
+                ".getCustomersByIDs");
+        getStaffMembersByIDs = registry.getOperation(prefix +
+                ".getStaffMembersByIDs");
+        getStaffMembersByName = registry.getOperation(prefix +
+                ".getStaffMembersByName");
+        getStaffMembersByAddress = registry.getOperation(prefix +
+                ".getStaffMembersByAddress");
+        modifyAddress = registry.getOperation(prefix + ".modifyAddress");
+        modifyCustomer = registry.getOperation(prefix + ".modifyCustomer");
+        modifyEmploymentDetails = registry.getOperation(prefix +
+                ".modifyEmploymentDetails");
+        modifyStaffMember = registry.getOperation(prefix +
+                ".modifyStaffMember");
+        getSurveyorsByName = registry.getOperation(prefix +
+                ".getSurveyorsByName");
+        getSurveyorByID = registry.getOperation(prefix + ".getSurveyorByID");
+        getStaffMemberByID = registry.getOperation(prefix +
+                ".getStaffMemberByID");
+        modifySurveyor = registry.getOperation(prefix + ".modifySurveyor");
+        getCreditCheckByCustomerID = registry.getOperation(prefix +
+                ".getCreditCheckByCustomerID");
+        getEmploymentsByCustomerID = registry.getOperation(prefix +
+                ".getEmploymentsByCustomerID");
+    }
+
+    @Override
+    public int addAddress(final Address address) {
+        long started = addAddress.start();
+        boolean failed = true;
+        try {
+            int id = super.addAddress(address);
+            failed = id < 0;
+            return id;
+        } finally {
+            addAddress.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addCreditCheck(final CreditCheck creditCheck,
+            final int customerID)
+    {
+        long started = addCreditCheck.start();
+        boolean failed = true;
+        try {
+            int id = super.addCreditCheck(creditCheck, customerID);
+            failed = id < 0;
+            return id;
+        } finally {
+            addCreditCheck.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addCustomer(final Customer customer) {
+        long started = addCustomer.start();
+        boolean failed = true;
+        try {
+            int id = super.addCustomer(customer);
+            failed = id < 0;
+            return id;
+        } finally {
+            addCustomer.stop(started, failed);
+        }
+    }
+
+    @Override
+    public BulkAddResult addCustomers(final Iterable<Customer> customers) {
+        long started = addCustomers.start();
+        boolean failed = true;
+        try {
+            BulkAddResult result = super.addCustomers(customers);
+            failed = result.getFailedCount() > 0;
+            return result;
+        } finally {
+            addCustomers.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addEmployment(final Employment employment, final int customerID)
+    {
+        long started = addEmployment.start();
+        boolean failed = true;
+        try {
+            int id = super.addEmployment(employment, customerID);
+            failed = id < 0;
+            return id;
+        } finally {
+            addEmployment.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addMortgage(final Mortgage mortgage) {
+        long started = addMortgage.start();
+        boolean failed = true;
+        try {
+            int id = super.addMortgage(mortgage);
+            failed = id < 0;
+            return id;
+        } finally {
+            addMortgage.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addMortgagePayment(final MortgagePaymentDetails payment,
+            final int mortgageID)
+    {
+        long started = addMortgagePayment.start();
+        boolean failed = true;
+        try {
+            int id = super.addMortgagePayment(payment, mortgageID);
+            failed = id < 0;
+            return id;
+        } finally {
+            addMortgagePayment.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addProperty(final Property property) {
+        long started = addProperty.start();
+        boolean failed = true;
+        try {
+            int id = super.addProperty(property);
+            failed = id < 0;
+            return id;
+        } finally {
+            addProperty.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addStaffMember(final StaffMember staff) {
+        long started = addStaffMember.start();
+        boolean failed = true;
+        try {
+            int id = super.addStaffMember(staff);
+            failed = id < 0;
+            return id;
+        } finally {
+            addStaffMember.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addSurvey(final Survey survey, final int propertyID) {
+        long started = addSurvey.start();
+        boolean failed = true;
+        try {
+            int id = super.addSurvey(survey, propertyID);
+            failed = id < 0;
+            return id;
+        } finally {
+            addSurvey.stop(started, failed);
+        }
+    }
+
+    @Override
+    public int addSurveyor(final Surveyor surveyor) {
+        long started = addSurveyor.start();
+        boolean failed = true;
+        try {
+            int id = super.addSurveyor(surveyor);
+            failed = id < 0;
+            return id;
+        } finally {
+            addSurveyor.stop(started, failed);
+        }
+    }
+
+    @Override
+    public boolean changeStaffMemberPassword(final StaffMember staffMember) {
+        long started = changeStaffMemberPassword.start();
+        boolean failed = true;
+        try {
+            boolean succeeded = super.changeStaffMemberPassword(staffMember);
+            failed = !succeeded;
+            return succeeded;
+        } finally {
+            changeStaffMemberPassword.stop(started, failed);
+        }
+    }
+
+    @Override
+    public boolean changeMortgageApplicationStatus(final Mortgage mortgage) {
+        long started = changeMortgageApplicationStatus.start();
+        boolean failed = true;
+        try {
+            boolean succeeded = super.changeMortgageApplicationStatus(
+                    mortgage);
+            failed = !succeeded;
+            return succeeded;
+        } finally {
+            changeMortgageApplicationStatus.stop(started, failed);
+        }
+    }
+
+    @Override
+    public boolean setMortgagePaymentMade(
+            final MortgagePaymentDetails payment, final int mortgageID) {
+        long started = setMortgagePaymentMade.start();
+        boolean failed = true;
+        try {
+            boolean succeeded = super.setMortgagePaymentMade(payment,
+                    mortgageID);
+            failed = !succeeded;
+            return succeeded;
+        } finally {
+            setMortgagePaymentMade.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Mortgage getMortgageByID(final int mortgageID) {
+        long started = getMortgageByID.start();
+        boolean failed = true;
+        try {
+            Mortgage result = super.getMortgageByID(mortgageID);
+            failed = false;
+            return result;
+        } finally {
+            getMortgageByID.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Mortgage> getMortgagesByCustomerID(
+            final int customerID) {
+        long started = getMortgagesByCustomerID.start();
+        boolean failed = true;
+        try {
+            Collection<Mortgage> result = super.getMortgagesByCustomerID(
+                    customerID);
+            failed = false;
+            return result;
+        } finally {
+            getMortgagesByCustomerID.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Mortgage> getMortgagesPage(final int afterMortgageID,
+            final int limit)
+    {
+        long started = getMortgagesPage.start();
+        boolean failed = true;
+        try {
+            Collection<Mortgage> result = super.getMortgagesPage(
+                    afterMortgageID, limit);
+            failed = false;
+            return result;
+        } finally {
+            getMortgagesPage.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<MortgagePaymentDetails> getMortgagePaymentsPage(
+            final int mortgageID, final MortgagePaymentDetails after,
+            final int limit)
+    {
+        long started = getMortgagePaymentsPage.start();
+        boolean failed = true;
+        try {
+            Collection<MortgagePaymentDetails> result =
+                    super.getMortgagePaymentsPage(mortgageID, after, limit);
+            failed = false;
+            return result;
+        } finally {
+            getMortgagePaymentsPage.stop(started, failed);
+        }
+    }
+
+    @Override
+    public MortgagePaymentRange getMortgagePaymentsByRange(
+            final int firstMortgageID, final int lastMortgageID,
+            final int afterMortgageID, final MortgagePaymentDetails after,
+            final int limit)
+    {
+        long started = getMortgagePaymentsByRange.start();
+        boolean failed = true;
+        try {
+            MortgagePaymentRange result = super.getMortgagePaymentsByRange(
+                    firstMortgageID, lastMortgageID, afterMortgageID, after,
+                    limit);
+            failed = false;
+            return result;
+        } finally {
+            getMortgagePaymentsByRange.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Customer getCustomerByID(final int customerID) {
+        long started = getCustomerByID.start();
+        boolean failed = true;
+        try {
+            Customer result = super.getCustomerByID(customerID);
+            failed = false;
+            return result;
+        } finally {
+            getCustomerByID.stop(started, failed);
+        }
+    }
+
+    @Override
+    public StaffMember getStaffMemberByUsername(final String uname) {
+        long started = getStaffMemberByUsername.start();
+        boolean failed = true;
+        try {
+            StaffMember result = super.getStaffMemberByUsername(uname);
+            failed = false;
+            return result;
+        } finally {
+            getStaffMemberByUsername.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddressID(
+            final String addressIDSearched)
+    {
+        long started = getCustomersByAddressID.start();
+        boolean failed = true;
+        try {
+            Collection<Customer> result = super.getCustomersByAddressID(
+                    addressIDSearched);
+            failed = false;
+            return result;
+        } finally {
+            getCustomersByAddressID.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddress(final String country,
+            final String town, final String postCode, final String streetName,
+            final String propertyName)
+    {
+        long started = getCustomersByAddress.start();
+        boolean failed = true;
+        try {
+            Collection<Customer> result = super.getCustomersByAddress(country,
+                    town, postCode, streetName, propertyName);
+            failed = false;
+            return result;
+        } finally {
+            getCustomersByAddress.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddress(
+            final AddressQuery search)
+    {
+        long started = getCustomersByAddress.start();
+        boolean failed = true;
+        try {
+            Collection<Customer> result = super.getCustomersByAddress(search);
+            failed = false;
+            return result;
+        } finally {
+            getCustomersByAddress.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByName(
+            final String surnameSearched, final String forenamesSearched)
+    {
+        long started = getCustomersByName.start();
+        boolean failed = true;
+        try {
+            Collection<Customer> result = super.getCustomersByName(
+                    surnameSearched, forenamesSearched);
+            failed = false;
+            return result;
+        } finally {
+            getCustomersByName.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersPage(final int afterCustomerID,
+            final int limit, final SortOrder sort)
+    {
+        long started = getCustomersPage.start();
+        boolean failed = true;
+        try {
+            Collection<Customer> result = super.getCustomersPage(
+                    afterCustomerID, limit, sort);
+            failed = false;
+            return result;
+        } finally {
+            getCustomersPage.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByIDs(final int[] customerIDs) {
+        long started = getCustomersByIDs.start();
+        boolean failed = true;
+        try {
+            Collection<Customer> result = super.getCustomersByIDs(customerIDs);
+            failed = false;
+            return result;
+        } finally {
+            getCustomersByIDs.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByIDs(final int[] staffIDs) {
+        long started = getStaffMembersByIDs.start();
+        boolean failed = true;
+        try {
+            Collection<StaffMember> result = super.getStaffMembersByIDs(
+                    staffIDs);
+            failed = false;
+            return result;
+        } finally {
+            getStaffMembersByIDs.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByName(
+            final String surnameSearched, final String forenamesSearched)
+    {
+        long started = getStaffMembersByName.start();
+        boolean failed = true;
+        try {
+            Collection<StaffMember> result = super.getStaffMembersByName(
+                    surnameSearched, forenamesSearched);
+            failed = false;
+            return result;
+        } finally {
+            getStaffMembersByName.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final String country, final String town, final String postCode,
+            final String streetName, final String propertyName)
+    {
+        long started = getStaffMembersByAddress.start();
+        boolean failed = true;
+        try {
+            Collection<StaffMember> result = super.getStaffMembersByAddress(
+                    country, town, postCode, streetName, propertyName);
+            failed = false;
+            return result;
+        } finally {
+            getStaffMembersByAddress.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final AddressQuery search)
+    {
+        long started = getStaffMembersByAddress.start();
+        boolean failed = true;
+        try {
+            Collection<StaffMember> result = super.getStaffMembersByAddress(
+                    search);
+            failed = false;
+            return result;
+        } finally {
+            getStaffMembersByAddress.stop(started, failed);
+        }
+    }
+
+    @Override
+    public boolean modifyAddress(final Address address) {
+        long started = modifyAddress.start();
+        boolean failed = true;
+        try {
+            boolean succeeded = super.modifyAddress(address);
+            failed = !succeeded;
+            return succeeded;
+        } finally {
+            modifyAddress.stop(started, failed);
+        }
+    }
+
+    @Override
+    public boolean modifyCustomer(final Customer customer) {
+        long started = modifyCustomer.start();
+        boolean failed = true;
+        try {
+            boolean succeeded = super.modifyCustomer(customer);
+            failed = !succeeded;
+            return succeeded;
+        } finally {
+            modifyCustomer.stop(started, failed);
+        }
+    }
+
+    @Override
+    public boolean modifyEmploymentDetails(final Employment employment,
+            final int customerID)
+    {
+        long started = modifyEmploymentDetails.start();
+        boolean failed = true;
+        try {
+            boolean succeeded = super.modifyEmploymentDetails(employment,
+                    customerID);
+            failed = !succeeded;
+            return succeeded;
+        } finally {
+            modifyEmploymentDetails.stop(started, failed);
+        }
+    }
+
+    @Override
+    public boolean modifyStaffMember(final StaffMember staff) {
+        long started = modifyStaffMember.start();
+        boolean failed = true;
+        try {
+            boolean succeeded = super.modifyStaffMember(staff);
+            failed = !succeeded;
+            return succeeded;
+        } finally {
+            modifyStaffMember.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Surveyor> getSurveyorsByName(final String name) {
+        long started = getSurveyorsByName.start();
+        boolean failed = true;
+        try {
+            Collection<Surveyor> result = super.getSurveyorsByName(name);
+            failed = false;
+            return result;
+        } finally {
+            getSurveyorsByName.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Surveyor getSurveyorByID(final int id) {
+        long started = getSurveyorByID.start();
+        boolean failed = true;
+        try {
+            Surveyor result = super.getSurveyorByID(id);
+            failed = false;
+            return result;
+        } finally {
+            getSurveyorByID.stop(started, failed);
+        }
+    }
+
+    @Override
+    public StaffMember getStaffMemberByID(final int id) {
+        long started = getStaffMemberByID.start();
+        boolean failed = true;
+        try {
+            StaffMember result = super.getStaffMemberByID(id);
+            failed = false;
+            return result;
+        } finally {
+            getStaffMemberByID.stop(started, failed);
+        }
+    }
+
+    @Override
+    public boolean modifySurveyor(final Surveyor surveyor) {
+        long started = modifySurveyor.start();
+        boolean failed = true;
+        try {
+            boolean succeeded = super.modifySurveyor(surveyor);
+            failed = !succeeded;
+            return succeeded;
+        } finally {
+            modifySurveyor.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<CreditCheck> getCreditCheckByCustomerID(final int id) {
+        long started = getCreditCheckByCustomerID.start();
+        boolean failed = true;
+        try {
+            Collection<CreditCheck> result = super.getCreditCheckByCustomerID(
+                    id);
+            failed = false;
+            return result;
+        } finally {
+            getCreditCheckByCustomerID.stop(started, failed);
+        }
+    }
+
+    @Override
+    public Collection<Employment> getEmploymentsByCustomerID(final int id) {
+        long started = getEmploymentsByCustomerID.start();
+        boolean failed = true;
+        try {
+            Collection<Employment> result = super.getEmploymentsByCustomerID(
+                    id);
+            failed = false;
+            return result;
+        } finally {
+            getEmploymentsByCustomerID.stop(started, failed);
+        }
+    }
+}
@@ -0,0 +1,1459 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import uk.co.exahertz.friendlysociety.core.*;
+
+/**
+ * A MortgageDatabase held entirely in memory, so that tests and benchmarks
+ * can run without a MySQL server, and so that a copy of the live database can
+ * answer reads as a replica.<br>
+ * Each table is a map from its primary key, and the lookups the application
+ * makes are served by secondary indexes: address ID to the customers, members
+ * of staff and surveyors living there, customer ID to their credit checks and
+ * employments, username to member of staff, and a trigram index of surveyor
+ * names. Customers and mortgages are kept in primary key order so that
+ * pages can be read from any ID.<br>
+ * It behaves like the MySQL implementation: every entity is copied on the way
+ * in and out, so changing an entity does nothing until it is modified
+ * through the database, an entity's address is always read from the address
+ * table, and text searches ignore case. Dates are stored the way MySQL stores
+ * them. One lock protects every table, so any number of reads can run at
+ * once, while a write has the database to itself.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class MemoryDatabase implements MortgageDatabase {
+    /** The number of customers read per query while copying a database */
+    private static final int LOADPAGESIZE = 1000;
+    /** Orders payments the way MySQL pages them, by due date then ID */
+    private static final Comparator<MortgagePaymentDetails> PAYMENTORDER =
+            new Comparator<MortgagePaymentDetails>() {
+        @Override
+        public int compare(final MortgagePaymentDetails a,
+                final MortgagePaymentDetails b) {
+            int order = a.getPaymentDueDate().compareTo(
+                    b.getPaymentDueDate());
+            if(order != 0) return order;
+            return a.getPaymentID() < b.getPaymentID() ? -1 :
+                    (a.getPaymentID() == b.getPaymentID() ? 0 : 1);
+        }
+    };
+    private final ReentrantReadWriteLock lock;
+    private final HashMap<Integer, Address> addresses;
+    private final TreeMap<Integer, Customer> customers;
+    private final HashMap<Integer, StaffMember> staff;
+    private final HashMap<Integer, Surveyor> surveyors;
+    private final HashMap<Integer, CreditCheck> creditChecks;
+    private final HashMap<Integer, Employment> employments;
+    private final HashMap<Integer, Property> properties;
+    private final HashMap<Integer, Survey> surveys;
+    private final TreeMap<Integer, Mortgage> mortgages;
+    private final HashMap<Integer, MortgagePaymentDetails> payments;
+    private final HashMap<Integer, LinkedHashSet<Integer>> customersByAddress;
+    private final HashMap<Integer, LinkedHashSet<Integer>> staffByAddress;
+    private final HashMap<Integer, LinkedHashSet<Integer>> surveyorsByAddress;
+    private final HashMap<Integer, LinkedHashSet<Integer>> creditChecksByCustomer;
+    private final HashMap<Integer, LinkedHashSet<Integer>> employmentsByCustomer;
+    private final HashMap<Integer, LinkedHashSet<Integer>> surveysByProperty;
+    private final HashMap<Integer, LinkedHashSet<Integer>> paymentsByMortgage;
+    private final HashMap<Integer, MortgageAccount> accountSnapshots;
+    private final HashMap<String, Integer> staffByUsername;
+    private final TrigramIndex surveyorNames;
+    private int lastAddressID;
+    private int lastCustomerID;
+    private int lastStaffID;
+    private int lastSurveyorID;
+    private int lastCreditCheckID;
+    private int lastEmploymentID;
+    private int lastPropertyID;
+    private int lastSurveyID;
+    private int lastMortgageID;
+    private int lastPaymentID;
+
+    /**
+     * Create a new empty database
+     *
+     * @since 0.0.1
+     */
+    public MemoryDatabase() {
+        lock = new ReentrantReadWriteLock();
+        addresses = new HashMap<Integer, Address>();
+        customers = new TreeMap<Integer, Customer>();
+        staff = new HashMap<Integer, StaffMember>();
+        surveyors = new HashMap<Integer, Surveyor>();
+        creditChecks = new HashMap<Integer, CreditCheck>();
+        employments = new HashMap<Integer, Employment>();
+        properties = new HashMap<Integer, Property>();
+        surveys = new HashMap<Integer, Survey>();
+        mortgages = new TreeMap<Integer, Mortgage>();
+        payments = new HashMap<Integer, MortgagePaymentDetails>();
+        customersByAddress = new HashMap<Integer, LinkedHashSet<Integer>>();
+        staffByAddress = new HashMap<Integer, LinkedHashSet<Integer>>();
+        surveyorsByAddress = new HashMap<Integer, LinkedHashSet<Integer>>();
+        creditChecksByCustomer = new HashMap<Integer, LinkedHashSet<Integer>>();
+        employmentsByCustomer = new HashMap<Integer, LinkedHashSet<Integer>>();
+        surveysByProperty = new HashMap<Integer, LinkedHashSet<Integer>>();
+        paymentsByMortgage = new HashMap<Integer, LinkedHashSet<Integer>>();
+        accountSnapshots = new HashMap<Integer, MortgageAccount>();
+        staffByUsername = new HashMap<String, Integer>();
+        surveyorNames = new TrigramIndex();
+    }
+
+    /**
+     * Copy the customers, members of staff and surveyors of another database,
+     * with their addresses, credit checks and employments, keeping their IDs.
+     * This is how a replica of the live database is made.
+     *
+     * @param source The database to copy
+     * @return True if everything was copied, false if the source returned an
+     * error part way through
+     * @throws java.lang.IllegalArgumentException When source is null
+     * @since 0.0.1
+     */
+    public boolean copyFrom(final MortgageDatabase source) {
+        if(source == null) throw new IllegalArgumentException("The source " +
+                "database must not be null.");
+        int afterCustomerID = -1;
+        Collection<Customer> page;
+        do {
+            page = source.getCustomersPage(afterCustomerID, LOADPAGESIZE,
+                    SortOrder.ASCENDING);
+            if(page == null) return false;
+            for(Customer customer : page) {
+                Collection<CreditCheck> checks =
+                        source.getCreditCheckByCustomerID(customer.getID());
+                Collection<Employment> jobs =
+                        source.getEmploymentsByCustomerID(customer.getID());
+                if(checks == null || jobs == null) return false;
+                lock.writeLock().lock();
+                try {
+                    putCustomer(customer.getID(), customer,
+                            putAddress(customer.getAddressObject()));
+                    for(CreditCheck check : checks) {
+                        putCreditCheck(check.getID(), check,
+                                customer.getID());
+                    }
+                    for(Employment job : jobs) {
+                        putEmployment(job.getEmploymentID(), job,
+                                putAddress(job.getEmployerAddressObject()),
+                                customer.getID());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                afterCustomerID = customer.getID();
+            }
+        } while(page.size() == LOADPAGESIZE);
+        Collection<StaffMember> members = source.getStaffMembersByName("", "");
+        Collection<Surveyor> allSurveyors = source.getSurveyorsByName("");
+        if(members == null || allSurveyors == null) return false;
+        lock.writeLock().lock();
+        try {
+            for(StaffMember member : members) {
+                putStaffMember(member.getID(), member,
+                        putAddress(member.getAddressObject()));
+            }
+            for(Surveyor surveyor : allSurveyors) {
+                putSurveyor(surveyor.getSurveyorID(), surveyor,
+                        putAddress(surveyor.getSurveyorAddressObject()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public int addAddress(final Address address) {
+        if(address == null) throw new IllegalArgumentException("The address " +
+                "instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            return insertAddress(address).getAddressID();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int addCreditCheck(final CreditCheck creditCheck,
+            final int customerID) {
+        if(creditCheck == null) throw new IllegalArgumentException("The " +
+                "credit check instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            return putCreditCheck(++lastCreditCheckID, creditCheck,
+                    customerID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int addCustomer(final Customer customer) {
+        if(customer == null) throw new IllegalArgumentException("The " +
+                "customer instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            return putCustomer(++lastCustomerID, customer,
+                    insertAddress(customer.getAddressObject()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add many customers under one lock. A customer which is null or not
+     * valid is reported as failed and the rest are still added.
+     *
+     * @param customers The customers to add
+     * @return The IDs of the customers and the reasons any failed
+     * @throws java.lang.IllegalArgumentException When customers is null
+     * @since 0.0.1
+     */
+    @Override
+    public BulkAddResult addCustomers(final Iterable<Customer> customers) {
+        if(customers == null) throw new IllegalArgumentException("The " +
+                "customers must not be null.");
+        BulkAddResult result = new BulkAddResult();
+        lock.writeLock().lock();
+        try {
+            for(Customer customer : customers) {
+                int index = result.addRecord();
+                if(customer == null) {
+                    result.setError(index, "The customer instance must not " +
+                            "be null.");
+                    continue;
+                }
+                try {
+                    result.setID(index, putCustomer(++lastCustomerID,
+                            customer, insertAddress(
+                            customer.getAddressObject())));
+                } catch(IllegalArgumentException e) {
+                    result.setError(index, e.getMessage());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public int addEmployment(final Employment employment,
+            final int customerID) {
+        if(employment == null) throw new IllegalArgumentException("The " +
+                "employment instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            return putEmployment(++lastEmploymentID, employment,
+                    insertAddress(employment.getEmployerAddressObject()),
+                    customerID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a mortgage. Its customers and property are read back from their
+     * own tables by their IDs, falling back to the ones the mortgage was
+     * created with if they are not in this database.
+     *
+     * @param mortgage The mortgage to add
+     * @return The ID of the new mortgage
+     * @throws java.lang.IllegalArgumentException When mortgage is null
+     * @since 0.0.1
+     */
+    @Override
+    public int addMortgage(final Mortgage mortgage) {
+        if(mortgage == null) throw new IllegalArgumentException("The " +
+                "mortgage instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            int id = ++lastMortgageID;
+            mortgages.put(id, new Mortgage(id, mortgage.getCustomer(),
+                    mortgage.getCustomerSpouse(), mortgage.getProperty(),
+                    mortgage.getDateOfApplication(),
+                    mortgage.getDeposit(),
+                    mortgage.getMortgageLengthInMonths(),
+                    mortgage.getAmountRequested(),
+                    mortgage.getApplicationStatus(),
+                    mortgage.getMortgageType(),
+                    mortgage.getPaymentsBegin()));
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int addMortgagePayment(final MortgagePaymentDetails payment,
+            final int mortgageID) {
+        if(payment == null) throw new IllegalArgumentException("The mortgage " +
+                "payment instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            int id = ++lastPaymentID;
+            MortgagePaymentDetails stored = new MortgagePaymentDetails(id,
+                    payment.getPaymentDueDate(),
+                    payment.getMethodOfPayment(), payment.getAmount());
+            setPaymentMadeDate(stored, payment.getPaymentMadeDate());
+            payments.put(id, stored);
+            index(paymentsByMortgage, mortgageID, id);
+            MortgageAccount snapshot = accountSnapshots.get(mortgageID);
+            if(snapshot != null &&
+                    PAYMENTORDER.compare(stored, snapshot.getPosition()) < 0) {
+                accountSnapshots.remove(mortgageID);
+            }
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean changeMortgageApplicationStatus(final Mortgage mortgage) {
+        if(mortgage == null) throw new IllegalArgumentException("The " +
+                "mortgage instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            Mortgage stored = mortgages.get(mortgage.getMortgageID());
+            if(stored == null) return false;
+            stored.setApplicationStatus(mortgage.getApplicationStatus());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Record that a payment has been made, dropping the snapshot of the
+     * account of its mortgage if the payment is at or before its position
+     *
+     * @param payment The payment, with the date it was made and how
+     * @param mortgageID The ID of the mortgage
+     * @return True if the payment was recorded, false if the mortgage has no
+     * such payment or it has already been made
+     * @throws java.lang.IllegalArgumentException When payment is null or has
+     * not been made
+     * @since 0.0.1
+     */
+    @Override
+    public boolean setMortgagePaymentMade(
+            final MortgagePaymentDetails payment, final int mortgageID) {
+        if(payment == null) throw new IllegalArgumentException("The mortgage " +
+                "payment instance must not be null.");
+        if(payment.getPaymentMadeDate() == null) {
+            throw new IllegalArgumentException("The payment made date must " +
+                    "not be null.");
+        }
+        lock.writeLock().lock();
+        try {
+            LinkedHashSet<Integer> ids = paymentsByMortgage.get(mortgageID);
+            if(ids == null || !ids.contains(payment.getPaymentID())) {
+                return false;
+            }
+            MortgagePaymentDetails old = payments.get(payment.getPaymentID());
+            if(old.getPaymentMade()) return false;
+            MortgagePaymentDetails stored = new MortgagePaymentDetails(
+                    old.getPaymentID(), old.getPaymentDueDate(),
+                    payment.getMethodOfPayment(), old.getAmount());
+            setPaymentMadeDate(stored, payment.getPaymentMadeDate());
+            payments.put(stored.getPaymentID(), stored);
+            MortgageAccount snapshot = accountSnapshots.get(mortgageID);
+            if(snapshot != null &&
+                    PAYMENTORDER.compare(stored, snapshot.getPosition()) <= 0) {
+                accountSnapshots.remove(mortgageID);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Mortgage getMortgageByID(final int mortgageID) {
+        lock.readLock().lock();
+        try {
+            Mortgage mortgage = mortgages.get(mortgageID);
+            return mortgage == null ? null : readMortgage(mortgage);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Mortgage> getMortgagesByCustomerID(
+            final int customerID) {
+        TreeMap<Integer, Mortgage> found = new TreeMap<Integer, Mortgage>();
+        lock.readLock().lock();
+        try {
+            for(Map.Entry<Integer, Mortgage> entry : mortgages.entrySet()) {
+                Mortgage mortgage = entry.getValue();
+                Customer spouse = mortgage.getCustomerSpouse();
+                if(mortgage.getCustomer().getID() == customerID ||
+                        (spouse != null && spouse.getID() == customerID)) {
+                    found.put(entry.getKey(), readMortgage(mortgage));
+                }
+            }
+            return new ArrayList<Mortgage>(found.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Mortgage> getMortgagesPage(final int afterMortgageID,
+            final int limit) {
+        if(limit < 1) throw new IllegalArgumentException("The page size " +
+                "must be positive.");
+        ArrayList<Mortgage> page = new ArrayList<Mortgage>();
+        lock.readLock().lock();
+        try {
+            for(Mortgage mortgage :
+                    mortgages.tailMap(afterMortgageID, false).values()) {
+                if(page.size() == limit) break;
+                page.add(readMortgage(mortgage));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<MortgagePaymentDetails> getMortgagePaymentsPage(
+            final int mortgageID, final MortgagePaymentDetails after,
+            final int limit) {
+        if(limit < 1) throw new IllegalArgumentException("The page size " +
+                "must be positive.");
+        lock.readLock().lock();
+        try {
+            ArrayList<MortgagePaymentDetails> page =
+                    new ArrayList<MortgagePaymentDetails>();
+            for(MortgagePaymentDetails payment : sortedPayments(mortgageID)) {
+                if(page.size() == limit) break;
+                if(after == null || PAYMENTORDER.compare(payment, after) > 0) {
+                    page.add(copyPayment(payment));
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public MortgagePaymentRange getMortgagePaymentsByRange(
+            final int firstMortgageID, final int lastMortgageID,
+            final int afterMortgageID, final MortgagePaymentDetails after,
+            final int limit) {
+        if(limit < 1) throw new IllegalArgumentException("The page size " +
+                "must be positive.");
+        MortgagePaymentRange range = new MortgagePaymentRange();
+        int first = after == null ? firstMortgageID :
+                Math.max(firstMortgageID, afterMortgageID);
+        if(first > lastMortgageID) return range;
+        lock.readLock().lock();
+        try {
+            for(int mortgageID : mortgages.subMap(first, true,
+                    lastMortgageID, true).keySet()) {
+                for(MortgagePaymentDetails payment :
+                        sortedPayments(mortgageID)) {
+                    if(range.size() == limit) return range;
+                    if(after == null || mortgageID != afterMortgageID ||
+                            PAYMENTORDER.compare(payment, after) > 0) {
+                        range.add(mortgageID, copyPayment(payment));
+                    }
+                }
+            }
+            return range;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the payments of a mortgage in the order MySQL pages them. The read
+     * lock must be held.
+     *
+     * @param mortgageID The ID of the mortgage
+     * @return The stored payments, sorted
+     * @since 0.0.1
+     */
+    private ArrayList<MortgagePaymentDetails> sortedPayments(
+            final int mortgageID) {
+        ArrayList<MortgagePaymentDetails> sorted =
+                new ArrayList<MortgagePaymentDetails>();
+        LinkedHashSet<Integer> ids = paymentsByMortgage.get(mortgageID);
+        if(ids != null) {
+            for(int id : ids) sorted.add(payments.get(id));
+        }
+        Collections.sort(sorted, PAYMENTORDER);
+        return sorted;
+    }
+
+    /**
+     * Keep a snapshot of the account of a mortgage. The snapshot is kept only
+     * if the payments it was read from are still the payments stored up to
+     * its position, and is dropped if a payment is added before it.
+     *
+     * @param mortgageID The ID of the mortgage
+     * @param snapshot The snapshot of its account
+     * @throws java.lang.IllegalArgumentException When snapshot is null
+     * @since 0.0.1
+     */
+    @Override
+    public void putAccountSnapshot(final int mortgageID,
+            final MortgageAccount snapshot) {
+        if(snapshot == null) throw new IllegalArgumentException("The " +
+                "snapshot must not be null.");
+        MortgagePaymentDetails position = snapshot.getPosition();
+        if(position == null) return;
+        lock.writeLock().lock();
+        try {
+            LinkedHashSet<Integer> ids = paymentsByMortgage.get(mortgageID);
+            int count = 0;
+            if(ids != null) {
+                for(int id : ids) {
+                    if(PAYMENTORDER.compare(payments.get(id), position) <= 0) {
+                        count++;
+                    }
+                }
+            }
+            if(count == snapshot.getPaymentCount()) {
+                accountSnapshots.put(mortgageID, snapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int addProperty(final Property property) {
+        if(property == null) throw new IllegalArgumentException("The " +
+                "property instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            int id = ++lastPropertyID;
+            properties.put(id, new Property(id,
+                    insertAddress(property.getAddress()), property.getType(),
+                    property.getNumberOfBedrooms()));
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int addStaffMember(final StaffMember staffMember) {
+        if(staffMember == null) throw new IllegalArgumentException("The " +
+                "staff member instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            return putStaffMember(++lastStaffID, staffMember,
+                    insertAddress(staffMember.getAddressObject()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int addSurvey(final Survey survey, final int propertyID) {
+        if(survey == null) throw new IllegalArgumentException("The survey " +
+                "instance must not be null");
+        lock.writeLock().lock();
+        try {
+            int id = ++lastSurveyID;
+            surveys.put(id, new Survey(id, survey.getSurveyor(),
+                    survey.getSurveyDate(),
+                    survey.getPropertyValue()));
+            index(surveysByProperty, propertyID, id);
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int addSurveyor(final Surveyor surveyor) {
+        if(surveyor == null) throw new IllegalArgumentException("The " +
+                "surveyor instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            return putSurveyor(++lastSurveyorID, surveyor,
+                    insertAddress(surveyor.getSurveyorAddressObject()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean changeStaffMemberPassword(final StaffMember staffMember) {
+        if(staffMember == null) throw new IllegalArgumentException("The " +
+                "staff member instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            StaffMember stored = staff.get(staffMember.getID());
+            if(stored == null) return false;
+            stored.setPassword(staffMember.getEncryptedPassword());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Customer getCustomerByID(final int customerID) {
+        lock.readLock().lock();
+        try {
+            Customer customer = customers.get(customerID);
+            return customer == null ? null : readCustomer(customer);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public StaffMember getStaffMemberByUsername(final String uname) {
+        if(uname == null) return null;
+        lock.readLock().lock();
+        try {
+            Integer id = staffByUsername.get(uname.trim().toLowerCase());
+            return id == null ? null : readStaffMember(staff.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddressID(
+            final String addressIDSearched) {
+        ArrayList<Customer> found = new ArrayList<Customer>();
+        int addressID;
+        try {
+            addressID = Integer.parseInt(addressIDSearched.trim());
+        } catch(RuntimeException e) {
+            return found;
+        }
+        lock.readLock().lock();
+        try {
+            LinkedHashSet<Integer> ids = customersByAddress.get(addressID);
+            if(ids != null) {
+                for(Integer id : ids) {
+                    found.add(readCustomer(customers.get(id)));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddress(final String country,
+            final String town, final String postCode, final String streetName,
+            final String propertyName) {
+        if(country == null || town == null || postCode == null ||
+                streetName == null || propertyName == null) {
+            return null;
+        }
+        return getCustomersByAddress(new AddressQuery(country, town, postCode,
+                streetName, propertyName));
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByAddress(
+            final AddressQuery search) {
+        if(search == null) throw new IllegalArgumentException("The address " +
+                "search must not be null.");
+        ArrayList<Customer> found = new ArrayList<Customer>();
+        lock.readLock().lock();
+        try {
+            for(Customer customer : customers.values()) {
+                if(search.matches(addresses.get(customer.getAddressObject()
+                        .getAddressID()))) {
+                    found.add(readCustomer(customer));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByName(final String surnameSearched,
+            final String forenamesSearched) {
+        if(surnameSearched == null || forenamesSearched == null) return null;
+        ArrayList<Customer> found = new ArrayList<Customer>();
+        lock.readLock().lock();
+        try {
+            for(Customer customer : customers.values()) {
+                if(contains(customer.getSurname(), surnameSearched) &&
+                        contains(customer.getForenames(), forenamesSearched)) {
+                    found.add(readCustomer(customer));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersPage(final int afterCustomerID,
+            final int limit, final SortOrder sort) {
+        if(limit < 1) throw new IllegalArgumentException("The page size " +
+                "must be positive.");
+        if(sort == null) throw new IllegalArgumentException("The sort order " +
+                "must not be null.");
+        ArrayList<Customer> page = new ArrayList<Customer>();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Customer> after;
+            if(sort == SortOrder.ASCENDING) {
+                after = customers.tailMap(afterCustomerID, false);
+            } else {
+                after = customers.headMap(afterCustomerID < 0 ?
+                        Integer.MAX_VALUE : afterCustomerID, false)
+                        .descendingMap();
+            }
+            for(Customer customer : after.values()) {
+                if(page.size() == limit) break;
+                page.add(readCustomer(customer));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Customer> getCustomersByIDs(final int[] customerIDs) {
+        if(customerIDs == null) throw new IllegalArgumentException("The " +
+                "customer IDs must not be null.");
+        TreeMap<Integer, Customer> found = new TreeMap<Integer, Customer>();
+        lock.readLock().lock();
+        try {
+            for(int id : customerIDs) {
+                Customer customer = customers.get(id);
+                if(customer != null) found.put(id, readCustomer(customer));
+            }
+            return new ArrayList<Customer>(found.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByName(
+            final String surnameSearched, final String forenamesSearched) {
+        if(surnameSearched == null || forenamesSearched == null) return null;
+        ArrayList<StaffMember> found = new ArrayList<StaffMember>();
+        lock.readLock().lock();
+        try {
+            for(StaffMember member : staff.values()) {
+                if(contains(member.getSurname(), surnameSearched) &&
+                        contains(member.getForenames(), forenamesSearched)) {
+                    found.add(readStaffMember(member));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final String country, final String town, final String postCode,
+            final String streetName, final String propertyName) {
+        if(country == null || town == null || postCode == null ||
+                streetName == null || propertyName == null) {
+            return null;
+        }
+        return getStaffMembersByAddress(new AddressQuery(country, town,
+                postCode, streetName, propertyName));
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final AddressQuery search) {
+        if(search == null) throw new IllegalArgumentException("The address " +
+                "search must not be null.");
+        ArrayList<StaffMember> found = new ArrayList<StaffMember>();
+        lock.readLock().lock();
+        try {
+            for(StaffMember member : staff.values()) {
+                if(search.matches(addresses.get(member.getAddressObject()
+                        .getAddressID()))) {
+                    found.add(readStaffMember(member));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<StaffMember> getStaffMembersByIDs(final int[] staffIDs) {
+        if(staffIDs == null) throw new IllegalArgumentException("The staff " +
+                "IDs must not be null.");
+        TreeMap<Integer, StaffMember> found =
+                new TreeMap<Integer, StaffMember>();
+        lock.readLock().lock();
+        try {
+            for(int id : staffIDs) {
+                StaffMember member = staff.get(id);
+                if(member != null) found.put(id, readStaffMember(member));
+            }
+            return new ArrayList<StaffMember>(found.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean modifyAddress(final Address address) {
+        if(address == null) throw new IllegalArgumentException("The address " +
+                "instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            return updateAddress(address);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean modifyCustomer(final Customer customer) {
+        if(customer == null) throw new IllegalArgumentException("The " +
+                "customer instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            Customer old = customers.get(customer.getID());
+            if(old == null || !updateAddress(customer.getAddressObject())) {
+                return false;
+            }
+            unindex(customersByAddress, old.getAddressObject().getAddressID(),
+                    old.getID());
+            putCustomer(customer.getID(), customer,
+                    addresses.get(customer.getAddressObject().getAddressID()));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean modifyEmploymentDetails(final Employment employment,
+            final int customerID) {
+        if(employment == null) throw new IllegalArgumentException("The " +
+                "employment instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            int id = employment.getEmploymentID();
+            if(!employments.containsKey(id) ||
+                    !updateAddress(employment.getEmployerAddressObject())) {
+                return false;
+            }
+            for(LinkedHashSet<Integer> ids : employmentsByCustomer.values()) {
+                ids.remove(id);
+            }
+            putEmployment(id, employment, addresses.get(employment
+                    .getEmployerAddressObject().getAddressID()), customerID);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean modifyStaffMember(final StaffMember staffMember) {
+        if(staffMember == null) throw new IllegalArgumentException("The " +
+                "staff member instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            StaffMember old = staff.get(staffMember.getID());
+            if(old == null || !updateAddress(staffMember.getAddressObject())) {
+                return false;
+            }
+            unindex(staffByAddress, old.getAddressObject().getAddressID(),
+                    old.getID());
+            staffByUsername.remove(old.getUsername().toLowerCase());
+            // The password is only changed by changeStaffMemberPassword
+            StaffMember updated = copyStaffMember(staffMember.getID(),
+                    staffMember, addresses.get(staffMember.getAddressObject()
+                    .getAddressID()));
+            updated.setPassword(old.getEncryptedPassword());
+            putStaffMember(staffMember.getID(), updated,
+                    updated.getAddressObject());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Surveyor> getSurveyorsByName(final String name) {
+        ArrayList<Surveyor> found = new ArrayList<Surveyor>();
+        lock.readLock().lock();
+        try {
+            for(int id : surveyorNames.search(name)) {
+                found.add(readSurveyor(surveyors.get(id)));
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Surveyor getSurveyorByID(final int id) {
+        lock.readLock().lock();
+        try {
+            Surveyor surveyor = surveyors.get(id);
+            return surveyor == null ? null : readSurveyor(surveyor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public StaffMember getStaffMemberByID(final int id) {
+        lock.readLock().lock();
+        try {
+            StaffMember member = staff.get(id);
+            return member == null ? null : readStaffMember(member);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean modifySurveyor(final Surveyor surveyor) {
+        if(surveyor == null) throw new IllegalArgumentException("The " +
+                "surveyor instance must not be null.");
+        lock.writeLock().lock();
+        try {
+            Surveyor old = surveyors.get(surveyor.getSurveyorID());
+            if(old == null || !updateAddress(
+                    surveyor.getSurveyorAddressObject())) {
+                return false;
+            }
+            unindex(surveyorsByAddress, old.getSurveyorAddressObject()
+                    .getAddressID(), old.getSurveyorID());
+            putSurveyor(surveyor.getSurveyorID(), surveyor, addresses.get(
+                    surveyor.getSurveyorAddressObject().getAddressID()));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<CreditCheck> getCreditCheckByCustomerID(final int id) {
+        ArrayList<CreditCheck> found = new ArrayList<CreditCheck>();
+        lock.readLock().lock();
+        try {
+            LinkedHashSet<Integer> ids = creditChecksByCustomer.get(id);
+            if(ids != null) {
+                for(Integer checkID : ids) {
+                    found.add(copyCreditCheck(checkID,
+                            creditChecks.get(checkID)));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Employment> getEmploymentsByCustomerID(final int id) {
+        ArrayList<Employment> found = new ArrayList<Employment>();
+        lock.readLock().lock();
+        try {
+            LinkedHashSet<Integer> ids = employmentsByCustomer.get(id);
+            if(ids != null) {
+                for(Integer employmentID : ids) {
+                    Employment employment = employments.get(employmentID);
+                    found.add(copyEmployment(employmentID, employment,
+                            readAddress(employment.getEmployerAddressObject())));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of customers in the database
+     *
+     * @return The number of customers
+     * @since 0.0.1
+     */
+    public int getCustomerCount() {
+        lock.readLock().lock();
+        try {
+            return customers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert a copy of an address with the next address ID. Must be called
+     * with the write lock held.
+     *
+     * @param address The address to insert
+     * @return The stored address
+     * @throws java.lang.IllegalArgumentException When address is null
+     * @since 0.0.1
+     */
+    private Address insertAddress(final Address address) {
+        if(address == null) throw new IllegalArgumentException("The address " +
+                "instance must not be null.");
+        Address stored = copyAddress(++lastAddressID, address);
+        addresses.put(stored.getAddressID(), stored);
+        return stored;
+    }
+
+    /**
+     * Store a copy of an address under its own ID, while copying another
+     * database. Must be called with the write lock held.
+     *
+     * @param address The address to store
+     * @return The stored address
+     * @since 0.0.1
+     */
+    private Address putAddress(final Address address) {
+        Address stored = copyAddress(address.getAddressID(), address);
+        addresses.put(stored.getAddressID(), stored);
+        lastAddressID = Math.max(lastAddressID, stored.getAddressID());
+        return stored;
+    }
+
+    /**
+     * Overwrite a stored address. Must be called with the write lock held.
+     *
+     * @param address The new values of the address
+     * @return True if the address exists, false if it does not
+     * @since 0.0.1
+     */
+    private boolean updateAddress(final Address address) {
+        if(address == null) throw new IllegalArgumentException("The address " +
+                "instance must not be null.");
+        if(!addresses.containsKey(address.getAddressID())) return false;
+        addresses.put(address.getAddressID(),
+                copyAddress(address.getAddressID(), address));
+        return true;
+    }
+
+    /**
+     * Store a copy of a customer and index it. Must be called with the write
+     * lock held.
+     *
+     * @param id The ID of the customer
+     * @param customer The customer to store
+     * @param address The stored address of the customer
+     * @return The ID of the customer
+     * @since 0.0.1
+     */
+    private int putCustomer(final int id, final Customer customer,
+            final Address address) {
+        Customer stored = copyCustomer(id, customer, address);
+        customers.put(id, stored);
+        index(customersByAddress, address.getAddressID(), id);
+        lastCustomerID = Math.max(lastCustomerID, id);
+        return id;
+    }
+
+    /**
+     * Store a copy of a member of staff and index it. Must be called with the
+     * write lock held.
+     *
+     * @param id The ID of the member of staff
+     * @param member The member of staff to store
+     * @param address The stored address of the member of staff
+     * @return The ID of the member of staff
+     * @since 0.0.1
+     */
+    private int putStaffMember(final int id, final StaffMember member,
+            final Address address) {
+        StaffMember stored = copyStaffMember(id, member, address);
+        staff.put(id, stored);
+        index(staffByAddress, address.getAddressID(), id);
+        staffByUsername.put(stored.getUsername().toLowerCase(), id);
+        lastStaffID = Math.max(lastStaffID, id);
+        return id;
+    }
+
+    /**
+     * Store a copy of a surveyor and index it. Must be called with the write
+     * lock held.
+     *
+     * @param id The ID of the surveyor
+     * @param surveyor The surveyor to store
+     * @param address The stored address of the surveyor
+     * @return The ID of the surveyor
+     * @since 0.0.1
+     */
+    private int putSurveyor(final int id, final Surveyor surveyor,
+            final Address address) {
+        Surveyor stored = copySurveyor(id, surveyor, address);
+        surveyors.put(id, stored);
+        index(surveyorsByAddress, address.getAddressID(), id);
+        surveyorNames.put(id, stored.getSurveyorName());
+        lastSurveyorID = Math.max(lastSurveyorID, id);
+        return id;
+    }
+
+    /**
+     * Store a copy of a credit check and index it. Must be called with the
+     * write lock held.
+     *
+     * @param id The ID of the credit check
+     * @param creditCheck The credit check to store
+     * @param customerID The ID of the customer checked
+     * @return The ID of the credit check
+     * @since 0.0.1
+     */
+    private int putCreditCheck(final int id, final CreditCheck creditCheck,
+            final int customerID) {
+        creditChecks.put(id, new CreditCheck(id,
+                creditCheck.getCreditCheckDate(),
+                creditCheck.getCreditCheckScore(),
+                creditCheck.getCreditCheckRiskStatus()));
+        index(creditChecksByCustomer, customerID, id);
+        lastCreditCheckID = Math.max(lastCreditCheckID, id);
+        return id;
+    }
+
+    /**
+     * Store a copy of an employment and index it. Must be called with the
+     * write lock held.
+     *
+     * @param id The ID of the employment
+     * @param employment The employment to store
+     * @param address The stored address of the employer
+     * @param customerID The ID of the customer employed
+     * @return The ID of the employment
+     * @since 0.0.1
+     */
+    private int putEmployment(final int id, final Employment employment,
+            final Address address, final int customerID) {
+        Employment stored = new Employment(id, employment.getEmployerName(),
+                address, employment.getEmployerTelephone(),
+                employment.getEmployerFax(), employment.getDateStarted(),
+                employment.getDateEnded(),
+                employment.getHoursPerWeek(),
+                employment.getCurrentAnnualSalery(),
+                employment.isEmploymentPermenant(),
+                employment.isSelfEmployed());
+        employments.put(id, stored);
+        index(employmentsByCustomer, customerID, id);
+        lastEmploymentID = Math.max(lastEmploymentID, id);
+        return id;
+    }
+
+    /**
+     * Read a stored customer with its current address. Must be called with a
+     * lock held.
+     *
+     * @param customer The stored customer
+     * @return A copy of the customer
+     * @since 0.0.1
+     */
+    private Customer readCustomer(final Customer customer) {
+        return copyCustomer(customer.getID(), customer,
+                readAddress(customer.getAddressObject()));
+    }
+
+    /**
+     * Read a stored mortgage with its current customers and property. Its
+     * payments are read from this database when they are asked for, its
+     * account carrying on from the snapshot kept for it if there is one.
+     * Must be called with a lock held.
+     *
+     * @param mortgage The stored mortgage
+     * @return A copy of the mortgage
+     * @since 0.0.1
+     */
+    private Mortgage readMortgage(final Mortgage mortgage) {
+        Customer spouse = mortgage.getCustomerSpouse();
+        Property property = mortgage.getProperty();
+        Property storedProperty = properties.get(property.getPropertyID());
+        if(storedProperty != null) property = storedProperty;
+        Mortgage copy = new Mortgage(mortgage.getMortgageID(),
+                readStoredCustomer(mortgage.getCustomer()),
+                spouse == null ? null : readStoredCustomer(spouse),
+                new Property(property.getPropertyID(),
+                    readAddress(property.getAddress()), property.getType(),
+                    property.getNumberOfBedrooms()),
+                mortgage.getDateOfApplication(),
+                mortgage.getDeposit(), mortgage.getMortgageLengthInMonths(),
+                mortgage.getAmountRequested(),
+                mortgage.getApplicationStatus(), mortgage.getMortgageType(),
+                mortgage.getPaymentsBegin());
+        copy.setPaymentSource(this,
+                accountSnapshots.get(mortgage.getMortgageID()));
+        return copy;
+    }
+
+    /**
+     * Read a customer a mortgage refers to from the customer table, or the
+     * customer as the mortgage was created with if they are not stored. Must
+     * be called with a lock held.
+     *
+     * @param customer The customer of the mortgage
+     * @return A copy of the customer
+     * @since 0.0.1
+     */
+    private Customer readStoredCustomer(final Customer customer) {
+        Customer stored = customers.get(customer.getID());
+        return readCustomer(stored == null ? customer : stored);
+    }
+
+    /**
+     * Read a stored member of staff with their current address. Must be
+     * called with a lock held.
+     *
+     * @param member The stored member of staff
+     * @return A copy of the member of staff
+     * @since 0.0.1
+     */
+    private StaffMember readStaffMember(final StaffMember member) {
+        return copyStaffMember(member.getID(), member,
+                readAddress(member.getAddressObject()));
+    }
+
+    /**
+     * Read a stored surveyor with their current address. Must be called with
+     * a lock held.
+     *
+     * @param surveyor The stored surveyor
+     * @return A copy of the surveyor
+     * @since 0.0.1
+     */
+    private Surveyor readSurveyor(final Surveyor surveyor) {
+        return copySurveyor(surveyor.getSurveyorID(), surveyor,
+                readAddress(surveyor.getSurveyorAddressObject()));
+    }
+
+    /**
+     * Read the current values of an address from the address table. Must be
+     * called with a lock held.
+     *
+     * @param address The address as it was when its owner was stored
+     * @return A copy of the stored address
+     * @since 0.0.1
+     */
+    private Address readAddress(final Address address) {
+        Address stored = addresses.get(address.getAddressID());
+        return copyAddress(address.getAddressID(),
+                stored == null ? address : stored);
+    }
+
+    /**
+     * Add a row to a secondary index
+     *
+     * @param index The index
+     * @param key The value the row is indexed by
+     * @param id The ID of the row
+     * @since 0.0.1
+     */
+    private static void index(final HashMap<Integer, LinkedHashSet<Integer>>
+            index, final int key, final int id) {
+        LinkedHashSet<Integer> ids = index.get(key);
+        if(ids == null) {
+            ids = new LinkedHashSet<Integer>();
+            index.put(key, ids);
+        }
+        ids.add(id);
+    }
+
+    /**
+     * Remove a row from a secondary index
+     *
+     * @param index The index
+     * @param key The value the row was indexed by
+     * @param id The ID of the row
+     * @since 0.0.1
+     */
+    private static void unindex(final HashMap<Integer, LinkedHashSet<Integer>>
+            index, final int key, final int id) {
+        LinkedHashSet<Integer> ids = index.get(key);
+        if(ids == null) return;
+        ids.remove(id);
+        if(ids.isEmpty()) index.remove(key);
+    }
+
+    /**
+     * Check whether a value contains a search term, ignoring case like the
+     * MySQL LIKE operator
+     *
+     * @param value The value, can be null
+     * @param term The search term
+     * @return True if the value contains the term
+     * @since 0.0.1
+     */
+    private static boolean contains(final String value, final String term) {
+        if(value == null) return term.length() == 0;
+        return value.toLowerCase().indexOf(term.toLowerCase()) >= 0;
+    }
+
+    /**
+     * Copy an address
+     *
+     * @param id The ID of the copy
+     * @param address The address to copy
+     * @return The copy
+     * @since 0.0.1
+     */
+    private static Address copyAddress(final int id, final Address address) {
+        return new Address(id, address.getPropertyName(),
+                address.getStreetName(), address.getTown(),
+                address.getCountry(), address.getPostCode());
+    }
+
+    /**
+     * Copy a customer
+     *
+     * @param id The ID of the copy
+     * @param customer The customer to copy
+     * @param address The address of the copy
+     * @return The copy
+     * @since 0.0.1
+     */
+    private static Customer copyCustomer(final int id, final Customer customer,
+            final Address address) {
+        return new Customer(id, customer.getTitle(), customer.getForenames(),
+                customer.getSurname(), customer.getDateOfBirth(),
+                customer.getIsFemale(), address,
+                customer.getTelephoneNumber(), customer.getFaxNumber(),
+                customer.getEmailAddress(),
+                customer.getNationalInsuranceNumber(),
+                customer.getSavingsAccountNumber());
+    }
+
+    /**
+     * Copy a member of staff
+     *
+     * @param id The ID of the copy
+     * @param member The member of staff to copy
+     * @param address The address of the copy
+     * @return The copy
+     * @since 0.0.1
+     */
+    private static StaffMember copyStaffMember(final int id,
+            final StaffMember member, final Address address) {
+        return new StaffMember(id, member.getTitle(), member.getForenames(),
+                member.getSurname(), member.getDateOfBirth(),
+                member.getIsFemale(), address, member.getTelephoneNumber(),
+                member.getFaxNumber(), member.getEmailAddress(),
+                member.getIsManager(), member.getUsername(),
+                member.getEncryptedPassword(), member.getIsStillWithCompany());
+    }
+
+    /**
+     * Copy a surveyor
+     *
+     * @param id The ID of the copy
+     * @param surveyor The surveyor to copy
+     * @param address The address of the copy
+     * @return The copy
+     * @since 0.0.1
+     */
+    private static Surveyor copySurveyor(final int id, final Surveyor surveyor,
+            final Address address) {
+        return new Surveyor(id, surveyor.getSurveyorName(), address,
+                surveyor.getTelephoneNumber(), surveyor.getFaxNumber(),
+                surveyor.getEmailAddress());
+    }
+
+    /**
+     * Copy a credit check
+     *
+     * @param id The ID of the copy
+     * @param creditCheck The credit check to copy
+     * @return The copy
+     * @since 0.0.1
+     */
+    private static CreditCheck copyCreditCheck(final int id,
+            final CreditCheck creditCheck) {
+        return new CreditCheck(id, creditCheck.getCreditCheckDate(),
+                creditCheck.getCreditCheckScore(),
+                creditCheck.getCreditCheckRiskStatus());
+    }
+
+    /**
+     * Copy an employment
+     *
+     * @param id The ID of the copy
+     * @param employment The employment to copy
+     * @param address The employer address of the copy
+     * @return The copy
+     * @since 0.0.1
+     */
+    private static Employment copyEmployment(final int id,
+            final Employment employment, final Address address) {
+        return new Employment(id, employment.getEmployerName(), address,
+                employment.getEmployerTelephone(),
+                employment.getEmployerFax(),
+                employment.getDateStarted(),
+                employment.getDateEnded(),
+                employment.getHoursPerWeek(),
+                employment.getCurrentAnnualSalery(),
+                employment.isEmploymentPermenant(),
+                employment.isSelfEmployed());
+    }
+
+    /**
+     * Copy a mortgage payment, with the date it was made
+     *
+     * @param payment The payment to copy
+     * @return The copy
+     * @since 0.0.1
+     */
+    private static MortgagePaymentDetails copyPayment(
+            final MortgagePaymentDetails payment) {
+        MortgagePaymentDetails copy = new MortgagePaymentDetails(
+                payment.getPaymentID(), payment.getPaymentDueDate(),
+                payment.getMethodOfPayment(), payment.getAmount());
+        setPaymentMadeDate(copy, payment.getPaymentMadeDate());
+        return copy;
+    }
+
+    /**
+     * Set the date a payment that has just been created was made
+     *
+     * @param payment The new payment
+     * @param made The date it was made, or null if it has not been made
+     * @since 0.0.1
+     */
+    private static void setPaymentMadeDate(
+            final MortgagePaymentDetails payment,
+            final Day made) {
+        if(made == null) return;
+        try {
+            payment.setPaymentMadeDate(made);
+        } catch(PaymentAlreadyMadeException e) {
+            // The payment was only just created
+            throw new IllegalStateException(e);
+        }
+    }
+}
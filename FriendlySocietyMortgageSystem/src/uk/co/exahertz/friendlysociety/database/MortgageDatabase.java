@@ -3,11 +3,12 @@ package uk.co.exahertz.friendlysociety.database;
 import java.util.Collection;
 import uk.co.exahertz.friendlysociety.core.*;
 
-public interface MortgageDatabase {
+public interface MortgageDatabase extends MortgagePaymentSource {
     public int addAddress(final Address address);
     public int addCreditCheck(final CreditCheck creditCheck,
             final int customerID);
     public int addCustomer(final Customer customer);
+    public BulkAddResult addCustomers(final Iterable<Customer> customers);
     public int addEmployment(final Employment employment,
             final int customerID);
     public int addMortgage(final Mortgage mortgage);
@@ -18,7 +19,19 @@ public interface MortgageDatabase {
     public int addSurvey(final Survey survey, final int propertyID);
     public int addSurveyor(final Surveyor surveyor);
     public boolean changeStaffMemberPassword(final StaffMember staffMember);
+    public boolean changeMortgageApplicationStatus(final Mortgage mortgage);
+    public boolean setMortgagePaymentMade(
+            final MortgagePaymentDetails payment, final int mortgageID);
     public Customer getCustomerByID(final int customerID);
+    public Mortgage getMortgageByID(final int mortgageID);
+    public Collection<Mortgage> getMortgagesByCustomerID(
+            final int customerID);
+    public Collection<Mortgage> getMortgagesPage(final int afterMortgageID,
+            final int limit);
+    public MortgagePaymentRange getMortgagePaymentsByRange(
+            final int firstMortgageID, final int lastMortgageID,
+            final int afterMortgageID, final MortgagePaymentDetails after,
+            final int limit);
     
     public StaffMember getStaffMemberByUsername(final String uname);
     public Collection<Customer> getCustomersByAddressID
@@ -27,14 +40,22 @@ public interface MortgageDatabase {
     public Collection<Customer> getCustomersByAddress(final String country,
             final String town, final String postCode, final String streetName,
             final String propertyName);
+    public Collection<Customer> getCustomersByAddress(
+            final AddressQuery search);
     public Collection<Customer> getCustomersByName(final String surnameSearched,
             final String forenamesSearched);
+    public Collection<Customer> getCustomersPage(final int afterCustomerID,
+            final int limit, final SortOrder sort);
+    public Collection<Customer> getCustomersByIDs(final int[] customerIDs);
     
     public Collection<StaffMember> getStaffMembersByName(final String surnameSearched,
             final String forenamesSearched);
     public Collection<StaffMember> getStaffMembersByAddress(final String country,
             final String town, final String postCode, final String streetName,
             final String propertyName);
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final AddressQuery search);
+    public Collection<StaffMember> getStaffMembersByIDs(final int[] staffIDs);
     public boolean modifyAddress(final Address address);
     public boolean modifyCustomer(final Customer customer);
     public boolean modifyEmploymentDetails(final Employment employment,
@@ -0,0 +1,89 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import uk.co.exahertz.friendlysociety.core.MortgagePaymentDetails;
+
+/**
+ * A page of the payments of a range of mortgages, in order of mortgage ID,
+ * then of the date they are due, then of payment ID. The next page is read
+ * by passing the mortgage ID and payment of the last row of this one, so the
+ * payments of many mortgages are read in a few queries rather than one query
+ * for each mortgage.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see MortgageDatabase#getMortgagePaymentsByRange(int, int, int,
+ * MortgagePaymentDetails, int)
+ */
+public final class MortgagePaymentRange {
+    private int[] mortgageIDs;
+    private final ArrayList<MortgagePaymentDetails> payments;
+
+    /**
+     * Create an empty page
+     *
+     * @since 0.0.1
+     */
+    MortgagePaymentRange() {
+        mortgageIDs = new int[16];
+        payments = new ArrayList<MortgagePaymentDetails>();
+    }
+
+    /**
+     * Add a payment to the end of the page
+     *
+     * @param mortgageID The ID of the mortgage the payment is for
+     * @param payment The payment
+     * @since 0.0.1
+     */
+    void add(final int mortgageID, final MortgagePaymentDetails payment) {
+        int size = payments.size();
+        if(size == mortgageIDs.length) {
+            mortgageIDs = Arrays.copyOf(mortgageIDs, size * 2);
+        }
+        mortgageIDs[size] = mortgageID;
+        payments.add(payment);
+    }
+
+    /**
+     * Get the number of payments in the page
+     *
+     * @return The number of payments
+     * @since 0.0.1
+     */
+    public int size() {
+        return payments.size();
+    }
+
+    /**
+     * Get the ID of the mortgage a payment is for
+     *
+     * @param index The place of the payment in the page, from 0
+     * @return The mortgage ID
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * page
+     * @since 0.0.1
+     */
+    public int getMortgageID(final int index) {
+        if(index < 0 || index >= payments.size()) {
+            throw new IndexOutOfBoundsException("There is no payment " +
+                    index + ".");
+        }
+        return mortgageIDs[index];
+    }
+
+    /**
+     * Get a payment
+     *
+     * @param index The place of the payment in the page, from 0
+     * @return The payment
+     * @throws java.lang.IndexOutOfBoundsException When index is not in the
+     * page
+     * @since 0.0.1
+     */
+    public MortgagePaymentDetails getPayment(final int index) {
+        return payments.get(index);
+    }
+}
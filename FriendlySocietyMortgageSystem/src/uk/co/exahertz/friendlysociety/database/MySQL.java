@@ -2,11 +2,9 @@ package uk.co.exahertz.friendlysociety.database;
 
 import java.sql.*;
 import java.util.Collection;
-import java.util.GregorianCalendar;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import javax.management.JMException;
 import uk.co.exahertz.friendlysociety.core.*;
 
 /**
@@ -22,11 +20,60 @@ public class MySQL implements MortgageDatabase {
     private static final String DATABASE = "friendly_society";
     private static final String USERNAME = "friend";
     private static final String PASSWORD = "friend";
+    /**
+     * Have the server prepare each statement once, rather than the driver
+     * filling the parameters in on the client and the server parsing every
+     * statement, and have the driver keep the server statements open
+     */
+    private static final String URLOPTIONS = "?useServerPrepStmts=true" +
+            "&cachePrepStmts=true";
     private static final String ERRORFILE = "sql_errors";
-    private Connection connection;
+    /** The log SQL errors are written to, in the background */
+    private static final AsyncLogWriter ERRORLOG = new AsyncLogWriter(
+            ERRORFILE);
+    private static final String SLOWQUERYFILE = "sql_slow";
+    /** Times every statement, and logs those slower than its threshold */
+    private static final SlowQueryLog SLOWQUERIES = new SlowQueryLog(
+            new AsyncLogWriter(SLOWQUERYFILE), SlowQueryLog.DEFAULTTHRESHOLD);
+    /** The default number of connections kept open to the database */
+    public static final int DEFAULTMINCONNECTIONS = 2;
+    /** The default maximum number of connections opened to the database */
+    public static final int DEFAULTMAXCONNECTIONS = 10;
+    /** The number of IDs looked up by each query of a batched fetch */
+    private static final int IDBATCHSIZE = 100;
+    /** The number of customers added in each transaction of a bulk add */
+    public static final int BULKCHUNKSIZE = 500;
+    /** The number of rows inserted by each statement of a bulk add */
+    private static final int BULKROWS = 100;
+    private static final String ADDRESSINSERT = "INSERT INTO Address (" +
+            "propertyName, streetName, town, country, postCode) VALUES ";
+    private static final int ADDRESSCOLUMNS = 5;
+    private static final String CUSTOMERINSERT = "INSERT INTO Customer (" +
+            "title, forenames, surname, dateOfBirth, isFemale, addressID, " +
+            "telephone, faxNumber, email, nationalInsuranceNumber, " +
+            "savingsAccountNumber) VALUES ";
+    private static final int CUSTOMERCOLUMNS = 11;
+    private ConnectionPool pool;
+
+    static {
+        // Write out any errors still queued when the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                ERRORLOG.close();
+                SLOWQUERIES.close();
+            }
+        });
+        try {
+            SLOWQUERIES.publish();
+        } catch (JMException e) {
+            writeSQLError("JMException: Could not publish the slow query " +
+                    "log: " + e.toString());
+        }
+    }
 
     /**
-     * Create a new MySQL connection
+     * Create a new MySQL connection pool with the default pool sizes
      *
      * @throws java.sql.SQLException When a SQLException occurrs
      * @throws java.lang.ClassNotFoundException When the MySQL classes are not
@@ -34,109 +81,200 @@ public class MySQL implements MortgageDatabase {
      * @since 0.0.1
      */
     public MySQL() throws SQLException, ClassNotFoundException {
-        connection = null;
-        Class.forName("com.mysql.jdbc.Driver");
-        connection = DriverManager.getConnection("jdbc:mysql://" + ADDRESS +
-                ":" + PORT + "/" + DATABASE, USERNAME, PASSWORD);
+        this(DEFAULTMINCONNECTIONS, DEFAULTMAXCONNECTIONS);
     }
 
     /**
-     * Close the connection to the database to release the database resources
+     * Create a new MySQL connection pool. Each database operation borrows a
+     * connection from the pool for its duration, so operations from several
+     * threads can run at the same time. The schema is not changed; the pool
+     * is only opened if the database has been migrated to the version of the
+     * schema this version of the application uses.
      *
+     * @param minConnections The number of connections kept open at all times
+     * @param maxConnections The maximum number of connections to open
+     * @throws uk.co.exahertz.friendlysociety.database.SchemaVersionException
+     * When the database has not been migrated to the version this version of
+     * the application uses
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @throws java.lang.ClassNotFoundException When the MySQL classes are not
+     * found
+     * @throws java.lang.IllegalArgumentException When the pool sizes are
+     * invalid
      * @since 0.0.1
+     * @see #migrate()
      */
-    public void close() {
+    public MySQL(final int minConnections, final int maxConnections)
+            throws SQLException, ClassNotFoundException
+    {
+        pool = openPool(minConnections, maxConnections);
         try {
-            connection.close();
-            connection = null;
+            new SchemaMigrator(pool).checkVersion();
         } catch (SQLException e) {
-            // We're closing anyway, no need to do anything with the error
+            pool.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Run every migration the database has not had yet. This is the only
+     * place the application changes the schema, and is run by an
+     * administrator with --migrate.
+     *
+     * @return The version the database is now at
+     * @throws java.sql.SQLException When a migration fails
+     * @throws java.lang.ClassNotFoundException When the MySQL classes are not
+     * found
+     * @since 0.0.1
+     * @see SchemaMigrator#migrate()
+     */
+    public static int migrate() throws SQLException, ClassNotFoundException {
+        ConnectionPool pool = openPool(1, 1);
+        try {
+            return new SchemaMigrator(pool).migrate();
+        } finally {
+            pool.close();
+        }
+    }
+
+    /**
+     * Check that every lookup query is served by its index, whatever version
+     * the schema is at
+     *
+     * @param out Where the result of each check is written
+     * @return True if every query uses its index
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @throws java.lang.ClassNotFoundException When the MySQL classes are not
+     * found
+     * @since 0.0.1
+     * @see SchemaMigrator#check(java.io.PrintStream)
+     */
+    public static boolean checkSchema(final java.io.PrintStream out)
+            throws SQLException, ClassNotFoundException
+    {
+        ConnectionPool pool = openPool(1, 1);
+        try {
+            return new SchemaMigrator(pool).check(out);
+        } finally {
+            pool.close();
         }
     }
 
+    /**
+     * Open a pool of connections to the database
+     *
+     * @param minConnections The number of connections kept open at all times
+     * @param maxConnections The maximum number of connections to open
+     * @return The pool
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @throws java.lang.ClassNotFoundException When the MySQL classes are not
+     * found
+     * @since 0.0.1
+     */
+    private static ConnectionPool openPool(final int minConnections,
+            final int maxConnections)
+            throws SQLException, ClassNotFoundException
+    {
+        Class.forName("com.mysql.jdbc.Driver");
+        return new ConnectionPool("jdbc:mysql://" + ADDRESS + ":" + PORT +
+                "/" + DATABASE + URLOPTIONS, USERNAME, PASSWORD,
+                minConnections, maxConnections);
+    }
+
+    /**
+     * Get the connection pool used by this database, so that its timeouts can
+     * be tuned and its statement cache hits and misses can be monitored
+     *
+     * @return The connection pool used by this database
+     * @since 0.0.1
+     */
+    public ConnectionPool getConnectionPool() {
+        return pool;
+    }
+
+    /**
+     * Close the connections to the database to release the database resources
+     *
+     * @since 0.0.1
+     */
+    public void close() {
+        pool.close();
+    }
+
     @Override
     public int addAddress(final Address address) {
         if (address == null) throw new IllegalArgumentException("The address " +
                     "instance must not be null.");
+        Connection connection = null;
         try {
-            Statement statement = connection.createStatement();
-            statement.executeUpdate("INSERT INTO Address (propertyName, " +
-                    "streetName, town, country, postCode) VALUES ('" +
-                    address.getPropertyName() + "', '" +
-                    address.getStreetName() + "', '" + address.getTown() +
-                    "', '" + address.getCountry() + "', '" +
-                    address.getPostCode() + "')",
-                    Statement.RETURN_GENERATED_KEYS);
-            ResultSet keys = statement.getGeneratedKeys();
-            if (!keys.next()) {
-                return -1;
-            }
-            int key = keys.getInt(1);
-            statement.close();
-            return key;
+            connection = pool.getConnection();
+            return insertAddress(connection, address);
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return -1;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
+    /**
+     * Insert an address using a connection the caller has already borrowed,
+     * so that adding a customer, member of staff etc. only needs one
+     * connection from the pool
+     *
+     * @param connection The connection to insert the address with
+     * @param address The address to be inserted
+     * @return The ID of the address, or -1 if no key was generated
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private int insertAddress(final Connection connection,
+            final Address address) throws SQLException
+    {
+        if (address == null) throw new IllegalArgumentException("The address " +
+                    "instance must not be null.");
+        return insert(connection, ADDRESSINSERT + rowPlaceholders(
+                ADDRESSCOLUMNS, 1), addressRow(address));
+    }
+
     @Override
     public int addCreditCheck(final CreditCheck creditCheck,
             final int customerID) {
         if (creditCheck == null) throw new IllegalArgumentException("The " +
                     "credit check instance must not be null.");
+        Connection connection = null;
         try {
-            Statement statement = connection.createStatement();
-            statement.executeUpdate("INSERT INTO CreditCheck (" +
+            connection = pool.getConnection();
+            return insert(connection, "INSERT INTO CreditCheck (" +
                     "creditCheckDate, creditCheckScore, " +
-                    "creditCheckRiskStatus, customerID) VALUES ('" +
-                    creditCheck.getCreditCheckDate().get(
-                    GregorianCalendar.YEAR) + "-" +
-                    creditCheck.getCreditCheckDate().get(
-                    GregorianCalendar.MONTH) + "-" +
-                    creditCheck.getCreditCheckDate().get(
-                    GregorianCalendar.DAY_OF_MONTH) + "', " +
-                    creditCheck.getCreditCheckScore() + ", '" +
-                    creditCheck.getCreditCheckRiskStatus() + "', " +
-                    customerID + ")", Statement.RETURN_GENERATED_KEYS);
-            ResultSet keys = statement.getGeneratedKeys();
-            if (!keys.next()) {
-                return -1;
-            }
-            int key = keys.getInt(1);
-            statement.close();
-            return key;
+                    "creditCheckRiskStatus, customerID) VALUES (?, ?, ?, ?)",
+                    toSQLDate(creditCheck.getCreditCheckDate()),
+                    creditCheck.getCreditCheckScore(),
+                    creditCheck.getCreditCheckRiskStatus(), customerID);
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return -1;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
+
     public Collection<CreditCheck> getCreditCheckByCustomerID(final int id){
-        
+
         ArrayList<CreditCheck> creditChecks = new ArrayList<CreditCheck>();
-        int creditCheckID;
-        GregorianCalendar creditCheckDate;
-        int creditCheckScore;
-        String creditCheckRiskStatus;
+        Connection connection = null;
         try{
-            Statement statement = connection.createStatement();
-            ResultSet result = statement.executeQuery("SELECT * FROM CreditCheck" +
-                    " WHERE customerID = " + id);
-            
-            while(result.next()){
-                creditCheckID = result.getInt("creditCheckID");
-                creditCheckDate = new GregorianCalendar();
-                creditCheckDate.setTime(result.getDate("creditCheckDate"));
-                creditCheckScore = result.getInt("creditCheckScore");
-                creditCheckRiskStatus = result.getString("creditCheckRiskStatus");
-                
-                creditChecks.add(new CreditCheck(creditCheckID, creditCheckDate, creditCheckScore, creditCheckRiskStatus));
-                
+            connection = pool.getConnection();
+            ResultSet result = query(connection, "SELECT * FROM CreditCheck" +
+                    " WHERE customerID = ?", id);
+
+            try {
+                while(result.next()){
+                    creditChecks.add(RowMapper.mapCreditCheck(result));
+                }
+            } finally {
+                result.close();
             }
-            
-            result.close();
-            statement.close();
             return creditChecks;
         } catch (IllegalArgumentException e) {
             writeSQLError("IllegalArgumentException: SQL returned invalid " +
@@ -145,83 +283,27 @@ public class MySQL implements MortgageDatabase {
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
+
     public Collection<Employment> getEmploymentsByCustomerID(final int id){
-        
+
         ArrayList<Employment> employments = new ArrayList<Employment>();
-        int employmentID;
-        String employerName;
-        int addressID;
-        int employerAddress;
-        String employerTelephone;
-        String employerFax;
-        GregorianCalendar dateStarted;
-        GregorianCalendar dateEnded;
-        float hoursPerWeek;
-        float currentAnnualSalery;
-        boolean permenant;
-        boolean selfEmployed;
-        String propertyName;
-        String streetName;
-        String town;
-        String country;
-        String postCode;
-        Address address;
-        
+        Connection connection = null;
         try{
-            Statement statement = connection.createStatement();
-            ResultSet result = statement.executeQuery("SELECT * FROM Employment" +
-                    " WHERE customer = " + id);
-            
-            while(result.next()){
-                employmentID = result.getInt("employmentID");
-                employerName = result.getString("employerName");
-                addressID =result.getInt("employerAddress");
-                employerAddress = addressID; //simplifty my copy/paste
-                employerTelephone = result.getString("employerTelephone");
-                employerFax = result.getString("employerFax");
-                dateStarted = new GregorianCalendar();
-                dateStarted.setTime(result.getDate("dateStarted"));
-                dateEnded = null;
-                if (dateEnded != null){
-                    dateEnded = new GregorianCalendar();
-                    dateEnded.setTime(result.getDate("dateEnded"));
-                }
-                
-                hoursPerWeek = result.getFloat("hoursPerWeek");
-                currentAnnualSalery = result.getFloat("currentAnnualSalery");
-                permenant = result.getBoolean("permenant");
-                selfEmployed = result.getBoolean("selfEmployed");
-                
-                
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    continue;
+            connection = pool.getConnection();
+            ResultSet result = query(connection, RowMapper.EMPLOYMENTSELECT +
+                    " WHERE e.customer = ?", id);
+
+            try {
+                while(result.next()){
+                    employments.add(RowMapper.mapEmployment(result));
                 }
-                
-                employments.add(new Employment(employmentID, employerName, address, employerTelephone, employerFax, dateStarted, dateEnded, hoursPerWeek, currentAnnualSalery, permenant, selfEmployed));
-                
-                resultAddress.close();
-                statementAddress.close();
-                
-                
+            } finally {
+                result.close();
             }
-            
-            result.close();
-            statement.close();
             return employments;
         } catch (IllegalArgumentException e) {
             writeSQLError("IllegalArgumentException: SQL returned invalid " +
@@ -230,65 +312,158 @@ public class MySQL implements MortgageDatabase {
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
 
     @Override
     public int addCustomer(final Customer customer) {
         if (customer == null) throw new IllegalArgumentException("The customer" +
                     "instance must not be null.");
+        Connection connection = null;
         try {
-            int addressID = addAddress(customer.getAddressObject());
-            if (addressID < 0) {
-                return -1;
+            connection = pool.getConnection();
+            return insertCustomer(connection, customer);
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return -1;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Add many customers, such as a portfolio moved from another lender.
+     * The customers are added BULKCHUNKSIZE at a time, each chunk in one
+     * transaction using multi-row INSERTs for the addresses and then the
+     * customers, and the generated keys of each INSERT are read back in
+     * order. If a chunk fails it is rolled back and its customers are added
+     * one at a time, so only the customers which cannot be added fail.
+     *
+     * @param customers The customers to add
+     * @return The IDs of the customers and the reasons any failed
+     * @throws java.lang.IllegalArgumentException When customers is null
+     * @since 0.0.1
+     */
+    @Override
+    public BulkAddResult addCustomers(final Iterable<Customer> customers) {
+        if (customers == null) throw new IllegalArgumentException("The " +
+                    "customers must not be null.");
+        BulkAddResult result = new BulkAddResult();
+        ArrayList<Customer> chunk = new ArrayList<Customer>(BULKCHUNKSIZE);
+        int[] indexes = new int[BULKCHUNKSIZE];
+        Connection connection = null;
+        SQLException failure = null;
+        try {
+            connection = pool.getConnection();
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            failure = e;
+        }
+        try {
+            for (Customer customer : customers) {
+                int index = result.addRecord();
+                if (customer == null) {
+                    result.setError(index, "The customer instance must not " +
+                            "be null.");
+                } else if (failure != null) {
+                    result.setError(index, failure.toString());
+                } else {
+                    indexes[chunk.size()] = index;
+                    chunk.add(customer);
+                    if (chunk.size() == BULKCHUNKSIZE) {
+                        addCustomerChunk(connection, chunk, indexes, result);
+                        chunk.clear();
+                    }
+                }
             }
-            Statement statement = connection.createStatement();
-            String query = "INSERT INTO Customer (title, forenames, surname, " +
-                    "dateOfBirth, isFemale, addressID, telephone, faxNumber, " +
-                    "email, nationalInsuranceNumber, savingsAccountNumber) " +
-                    "VALUES ('" + customer.getTitle() + "', '" +
-                    customer.getForenames() + "', '" + customer.getSurname() +
-                    "', '" +
-                    customer.getDateOfBirth().get(GregorianCalendar.YEAR) +
-                    "-" +
-                    customer.getDateOfBirth().get(GregorianCalendar.MONTH) +
-                    "-" +
-                    customer.getDateOfBirth().get(
-                    GregorianCalendar.DAY_OF_MONTH) + "', ";
-            if (customer.getIsFemale()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
+            if (!chunk.isEmpty()) {
+                addCustomerChunk(connection, chunk, indexes, result);
             }
-            query = query + ", " + addressID + ", '" +
-                    customer.getTelephoneNumber() + "', ";
-            if(customer.getFaxNumber() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + customer.getFaxNumber() + "'";
+        } finally {
+            pool.releaseConnection(connection);
+        }
+        return result;
+    }
+
+    /**
+     * Add one chunk of a bulk add of customers in one transaction, falling
+     * back to one transaction per customer if the chunk fails
+     *
+     * @param connection The connection to add with, which is not in auto
+     * commit mode
+     * @param chunk The customers to add
+     * @param indexes The index of each customer in the result
+     * @param result The result to record the IDs and errors in
+     * @since 0.0.1
+     */
+    private void addCustomerChunk(final Connection connection,
+            final ArrayList<Customer> chunk, final int[] indexes,
+            final BulkAddResult result)
+    {
+        try {
+            ArrayList<Object[]> rows = new ArrayList<Object[]>(chunk.size());
+            for (Customer customer : chunk) {
+                rows.add(addressRow(customer.getAddressObject()));
             }
-            query = query + ", ";
-            if(customer.getEmailAddress() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + customer.getEmailAddress() + "'";
+            int[] addressIDs = insertRows(connection, ADDRESSINSERT,
+                    ADDRESSCOLUMNS, rows);
+            rows.clear();
+            for (int i = 0; i < chunk.size(); i++) {
+                rows.add(customerRow(chunk.get(i), addressIDs[i]));
             }
-            query = query + ", '" +
-                    customer.getNationalInsuranceNumber() + "', '" +
-                    customer.getSavingsAccountNumber() + "')";
-            statement.executeUpdate(query, Statement.RETURN_GENERATED_KEYS);
-            ResultSet keys = statement.getGeneratedKeys();
-            if (!keys.next()) {
-                return -1;
+            int[] customerIDs = insertRows(connection, CUSTOMERINSERT,
+                    CUSTOMERCOLUMNS, rows);
+            connection.commit();
+            for (int i = 0; i < chunk.size(); i++) {
+                result.setID(indexes[i], customerIDs[i]);
             }
-            int key = keys.getInt(1);
-            statement.close();
-            return key;
+            return;
         } catch (SQLException e) {
-            writeSQLError("SQLException: " + e.toString());
+            writeSQLError("SQLException: " + e.toString() + " adding " +
+                    chunk.size() + " customers, adding them one at a time");
+            rollback(connection);
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                int id = insertCustomer(connection, chunk.get(i));
+                if (id < 0) {
+                    rollback(connection);
+                    result.setError(indexes[i], "No key was generated.");
+                    continue;
+                }
+                connection.commit();
+                result.setID(indexes[i], id);
+            } catch (SQLException e) {
+                writeSQLError("SQLException: " + e.toString());
+                rollback(connection);
+                result.setError(indexes[i], e.toString());
+            }
+        }
+    }
+
+    /**
+     * Insert a customer and their address using a connection the caller has
+     * already borrowed
+     *
+     * @param connection The connection to insert the customer with
+     * @param customer The customer to be inserted
+     * @return The ID of the customer, or -1 if no key was generated
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private int insertCustomer(final Connection connection,
+            final Customer customer) throws SQLException
+    {
+        int addressID = insertAddress(connection, customer.getAddressObject());
+        if (addressID < 0) {
             return -1;
         }
+        return insert(connection, CUSTOMERINSERT + rowPlaceholders(
+                CUSTOMERCOLUMNS, 1), customerRow(customer, addressID));
     }
 
     @Override
@@ -296,409 +471,694 @@ public class MySQL implements MortgageDatabase {
     {
         if (employment == null) throw new IllegalArgumentException("The " +
                     "employment instance must not be null.");
+        Connection connection = null;
         try {
-            int addressID = addAddress(employment.getEmployerAddressObject());
+            connection = pool.getConnection();
+            int addressID = insertAddress(connection, employment.getEmployerAddressObject());
             if (addressID < 0) {
                 return -1;
             }
-            Statement statement = connection.createStatement();
-            String query = "INSERT INTO Employment (employerName, " +
-                    "employerAddress, employerTelephone, employerFax, " +
-                    "dateStarted, dateEnded, hoursPerWeek, " +
+            return insert(connection, "INSERT INTO Employment (" +
+                    "employerName, employerAddress, employerTelephone, " +
+                    "employerFax, dateStarted, dateEnded, hoursPerWeek, " +
                     "currentAnnualSalery, permenant, selfEmployed, customer) " +
-                    "VALUES ('" + employment.getEmployerName() + "', " +
-                    addressID + ", '" + employment.getEmployerTelephone() +
-                    "', '" + employment.getEmployerFax() + "', '" +
-                    employment.getDateStarted().get(GregorianCalendar.YEAR) +
-                    "-" +
-                    employment.getDateStarted().get(GregorianCalendar.MONTH) +
-                    "-" +
-                    employment.getDateStarted().get(
-                    GregorianCalendar.DAY_OF_MONTH) + "', ";
-            if (employment.getDateEnded() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" +
-                        employment.getDateEnded().get(GregorianCalendar.YEAR) +
-                        "-" +
-                        employment.getDateEnded().get(GregorianCalendar.MONTH) +
-                        "-" +
-                        employment.getDateEnded().get(
-                        GregorianCalendar.DAY_OF_MONTH) + "'";
-            }
-            query = query + ", " + employment.getHoursPerWeek() + ", " +
-                    employment.getCurrentAnnualSalery() + ", ";
-            if (employment.isEmploymentPermenant()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
-            }
-            query = query + ", ";
-            if (employment.isSelfEmployed()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
-            }
-            query = query + ", " + customerID + ")";
-            statement.executeUpdate(query, Statement.RETURN_GENERATED_KEYS);
-            ResultSet keys = statement.getGeneratedKeys();
-            if (!keys.next()) {
-                return -1;
-            }
-            int key = keys.getInt(1);
-            statement.close();
-            return key;
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    employment.getEmployerName(), addressID,
+                    employment.getEmployerTelephone(),
+                    employment.getEmployerFax(),
+                    toSQLDate(employment.getDateStarted()),
+                    toSQLDate(employment.getDateEnded()),
+                    employment.getHoursPerWeek(),
+                    employment.getCurrentAnnualSalery(),
+                    employment.isEmploymentPermenant(),
+                    employment.isSelfEmployed(), customerID);
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return -1;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
     @Override
     public int addMortgage(final Mortgage mortgage) {
-        return 0;
-    }
-    
-    @Override
-    public int addMortgagePayment(final MortgagePaymentDetails payment,
-            final int mortgageID)
-    {
-        if(payment == null) throw new IllegalArgumentException("The mortgage " +
-                "payment instance must not be null.");
-        
+        if (mortgage == null) throw new IllegalArgumentException("The " +
+                    "mortgage instance must not be null.");
+        Customer spouse = mortgage.getCustomerSpouse();
+        MortgageApplicationStatus status = mortgage.getApplicationStatus();
+        MortgagesOffered type = mortgage.getMortgageType();
+        Connection connection = null;
         try {
-            Statement statement = connection.createStatement();
-            statement.executeUpdate("INSERT INTO MortgagePaymentDetails (" +
-                    "paymentDueDate, paymentMadeDate, methodOfPayment, " +
-                    "amount, mortgageID) VALUES ('" +
-                    payment.getPaymentDueDate().get(GregorianCalendar.YEAR) +
-                    "-" +
-                    payment.getPaymentDueDate().get(GregorianCalendar.MONTH) +
-                    "-" +
-                    payment.getPaymentDueDate().get(
-                    GregorianCalendar.DAY_OF_MONTH) + "', '" +
-                    payment.getPaymentMadeDate().get(GregorianCalendar.YEAR) +
-                    "-" +
-                    payment.getPaymentMadeDate().get(GregorianCalendar.MONTH) +
-                    "-" +
-                    payment.getPaymentMadeDate().get(
-                    GregorianCalendar.DAY_OF_MONTH) + "', " +
-                    payment.getMethodOfPayment().ordinal() + ", " +
-                    payment.getAmount() + ", " + mortgageID + ")",
-                    Statement.RETURN_GENERATED_KEYS);
-            ResultSet keys = statement.getGeneratedKeys();
-            if(!keys.next()) return -1;
-            int key = keys.getInt(1);
-            statement.close();
-            return key;
+            connection = pool.getConnection();
+            return insert(connection, "INSERT INTO Mortgage (customerID, " +
+                    "spouseID, propertyID, dateOfApplication, deposit, " +
+                    "mortgageLengthInMonths, amountRequested, " +
+                    "applicationStatus, mortgageType, paymentsBegin) VALUES " +
+                    "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    mortgage.getCustomer().getID(),
+                    spouse == null ? null : spouse.getID(),
+                    mortgage.getProperty().getPropertyID(),
+                    toSQLDate(mortgage.getDateOfApplication()),
+                    mortgage.getDeposit(),
+                    mortgage.getMortgageLengthInMonths(),
+                    mortgage.getAmountRequested(),
+                    status == null ? null : status.ordinal(),
+                    type == null ? null : type.ordinal(),
+                    toSQLDate(mortgage.getPaymentsBegin()));
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return -1;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
-    public int addProperty(final Property property) {
-        if (property == null) throw new IllegalArgumentException("The " +
-                    "property instance must not be null.");
+    /**
+     * Write the application status of a mortgage
+     *
+     * @param mortgage The mortgage, with its new status
+     * @return True if the status was written, false if the mortgage does not
+     * exist or an error occurred
+     * @throws java.lang.IllegalArgumentException When mortgage is null
+     * @since 0.0.1
+     */
+    @Override
+    public boolean changeMortgageApplicationStatus(final Mortgage mortgage) {
+        if (mortgage == null) throw new IllegalArgumentException("The " +
+                    "mortgage instance must not be null.");
+        MortgageApplicationStatus status = mortgage.getApplicationStatus();
+        Connection connection = null;
         try {
-            int addressID = addAddress(property.getAddress());
-            if (addressID < 0) {
-                return -1;
-            }
-            Statement statement = connection.createStatement();
-            statement.executeUpdate("INSERT INTO Property (addressID, " +
-                    "propertyType, numberOfBedrooms) VALUES (" +
-                    addressID + ", " + property.getType().ordinal() + ", " +
-                    property.getNumberOfBedrooms() + ")",
-                    Statement.RETURN_GENERATED_KEYS);
-            ResultSet keys = statement.getGeneratedKeys();
-            if (!keys.next()) {
-                return -1;
-            }
-            int key = keys.getInt(1);
-            statement.close();
-            return key;
+            connection = pool.getConnection();
+            return update(connection, "UPDATE Mortgage SET " +
+                    "applicationStatus = ? WHERE mortgageID = ?",
+                    status == null ? null : status.ordinal(),
+                    mortgage.getMortgageID()) == 1;
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
-            return -1;
+            return false;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
+    /**
+     * Get a mortgage with its customers and property. Its payments are read
+     * a page at a time as they are asked for.
+     *
+     * @param mortgageID The ID of the mortgage
+     * @return The mortgage, or null if it does not exist or an error occurred
+     * @since 0.0.1
+     */
     @Override
-    public int addStaffMember(final StaffMember staff) {
-        if (staff == null)  throw new IllegalArgumentException("The staff " +
-                    "member instance must not be null.");
+    public Mortgage getMortgageByID(final int mortgageID) {
+        Connection connection = null;
         try {
-            int addressID = addAddress(staff.getAddressObject());
-            if (addressID < 0) {
-                return -1;
-            }
-            Statement statement = connection.createStatement();
-            String query = "INSERT INTO StaffMember (title, forenames, " +
-                    "surname, dateOfBirth, isFemale, addressID, telephone, " +
-                    "faxNumber, email, isManager, username, password, " +
-                    "stillWithCompany) VALUES ('" + staff.getTitle() + "', '" +
-                    staff.getForenames() + "', '" + staff.getSurname() + "', '" +
-                    staff.getDateOfBirth().get(GregorianCalendar.YEAR) + "-" +
-                    staff.getDateOfBirth().get(GregorianCalendar.MONTH) + "-" +
-                    staff.getDateOfBirth().get(GregorianCalendar.DAY_OF_MONTH) +
-                    "', ";
-            if (staff.getIsFemale()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
-            }
-            query = query + ", " + addressID + ", '" +
-                    staff.getTelephoneNumber() + "', ";
-            if (staff.getFaxNumber() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + staff.getFaxNumber() + "'";
-            }
-            query = query + ", ";
-            if (staff.getEmailAddress() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + staff.getEmailAddress() + "'";
-            }
-            query = query + ", ";
-            if (staff.getIsManager()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
-            }
-            query = query + ", '" + staff.getUsername() + "', '" +
-                    staff.getEncryptedPassword() + "', ";
-            if (staff.getIsStillWithCompany()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
-            }
-            query = query + ")";
-            statement.executeUpdate(query, Statement.RETURN_GENERATED_KEYS);
-            ResultSet keys = statement.getGeneratedKeys();
-            if (!keys.next()) {
-                return -1;
-            }
-            int staffID = keys.getInt(1);
-            statement.close();
-            return staffID;
+            connection = pool.getConnection();
+            ArrayList<Mortgage> mortgages = readMortgages(connection,
+                    query(connection, RowMapper.MORTGAGESELECT +
+                    " WHERE m.mortgageID = ?", mortgageID));
+            return mortgages.isEmpty() ? null : mortgages.get(0);
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
-            return -1;
+            return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getMortgageByID()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
+    /**
+     * Get the mortgages of a customer, including those on which they are the
+     * spouse. Their payments are read a page at a time as they are asked for.
+     *
+     * @param customerID The ID of the customer
+     * @return The mortgages in ascending ID order, or null if an error
+     * occurred
+     * @since 0.0.1
+     */
     @Override
-    public int addSurvey(final Survey survey, final int propertyID) {
-        if (survey == null) throw new IllegalArgumentException("The survey " +
-                    "instance must not be null");
+    public Collection<Mortgage> getMortgagesByCustomerID(
+            final int customerID) {
+        Connection connection = null;
         try {
-            Statement statement = connection.createStatement();
-            statement.executeUpdate("INSERT INTO Survey (surveyor, " +
-                    "surveyDate, propertyValue, propertyID) VALUES (" +
-                    survey.getSurveyor().getSurveyorID() + ", '" +
-                    survey.getSurveyDate().get(GregorianCalendar.YEAR) + "-" +
-                    survey.getSurveyDate().get(GregorianCalendar.MONTH) + "-" +
-                    survey.getSurveyDate().get(GregorianCalendar.DAY_OF_MONTH) +
-                    "', " + survey.getPropertyValue() + ", " + propertyID +
-                    ")", Statement.RETURN_GENERATED_KEYS);
-            ResultSet keys = statement.getGeneratedKeys();
-            if (!keys.next()) {
-                return -1;
-            }
-            int key = keys.getInt(1);
-            statement.close();
-            return key;
+            connection = pool.getConnection();
+            return readMortgages(connection, query(connection,
+                    RowMapper.MORTGAGESELECT + " WHERE m.customerID = ? OR " +
+                    "m.spouseID = ? ORDER BY m.mortgageID", customerID,
+                    customerID));
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
-            return -1;
+            return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getMortgagesByCustomerID()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
+    /**
+     * Get a page of every mortgage ordered by mortgage ID. The next page is
+     * fetched by passing the ID of the last mortgage in this page, so a whole
+     * book can be read without the cost of an offset.
+     *
+     * @param afterMortgageID The ID of the last mortgage on the previous
+     * page, or -1 for the first page
+     * @param limit The maximum number of mortgages on the page
+     * @return The page of mortgages, or null if an error occurred
+     * @throws java.lang.IllegalArgumentException When limit is less than 1
+     * @since 0.0.1
+     */
     @Override
-    public int addSurveyor(final Surveyor surveyor) {
-        if (surveyor == null) throw new IllegalArgumentException("The " +
-                    "surveyor instance must not be null.");
+    public Collection<Mortgage> getMortgagesPage(final int afterMortgageID,
+            final int limit) {
+        if (limit < 1) throw new IllegalArgumentException("The page size " +
+                    "must be positive.");
+        Connection connection = null;
         try {
-            int addressID = addAddress(surveyor.getSurveyorAddressObject());
-            if (addressID < 0) {
-                return -1;
-            }
-            Statement statement = connection.createStatement();
-            statement.executeUpdate("INSERT INTO Surveyors (surveyorName, " +
-                    "addressID, telephone, faxNumber, email) VALUES ('" +
-                    surveyor.getSurveyorName() + "', " + addressID + ", '" +
-                    surveyor.getTelephoneNumber() + "', '" +
-                    surveyor.getFaxNumber() + "', '" +
-                    surveyor.getEmailAddress() + "')");
-            ResultSet keys = statement.getGeneratedKeys();
-            if (!keys.next()) {
-                return -1;
-            }
-            int key = keys.getInt(1);
-            statement.close();
-            return key;
+            connection = pool.getConnection();
+            return readMortgages(connection, query(connection,
+                    RowMapper.MORTGAGESELECT + " WHERE m.mortgageID > ? " +
+                    "ORDER BY m.mortgageID LIMIT ?", afterMortgageID, limit));
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
-            return -1;
+            return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getMortgagesPage()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
-    public Collection<Surveyor> getSurveyorsByName(final String name){
-        
-        ArrayList<Surveyor> surveyors = new ArrayList<Surveyor>();
-        int surveyorID;
-        int addressID;
-        String telephone;
-        String faxNumber;
-        String email;
-        String propertyName;
-        String streetName;
-        String town;
-        String country;
-        String postCode;
-        String surveyorName;
-        Address address;
-        
-        
-        try{
-            Statement statement = connection.createStatement();
-            ResultSet result = statement.executeQuery("SELECT * FROM Surveyors WHERE surveyorName LIKE '%" +
-                    name + "%'");
-            
-            while( result.next() ){
-                surveyorID = result.getInt("surveyorID");
-                surveyorName = result.getString("surveyorName");
-                addressID = result.getInt("addressID");
-                telephone = result.getString("telephone");
-                faxNumber = result.getString("faxNumber");
-                email = result.getString("email");
-                
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    continue;
+
+    /**
+     * Get a page of the payments of a mortgage. The page starts after the
+     * due date and ID of the last payment of the previous page, so each page
+     * is read straight from the index on the mortgage ID and due date.
+     *
+     * @param mortgageID The ID of the mortgage
+     * @param after The last payment of the previous page, or null for the
+     * first page
+     * @param limit The most payments to return
+     * @return The payments, or null if an error occurred
+     * @throws java.lang.IllegalArgumentException When limit is less than 1
+     * @since 0.0.1
+     */
+    @Override
+    public Collection<MortgagePaymentDetails> getMortgagePaymentsPage(
+            final int mortgageID, final MortgagePaymentDetails after,
+            final int limit)
+    {
+        if (limit < 1) throw new IllegalArgumentException("The page size " +
+                    "must be positive.");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            ResultSet result;
+            if (after == null) {
+                result = query(connection, RowMapper.PAYMENTSELECT +
+                        RowMapper.PAYMENTORDER, mortgageID, limit);
+            } else {
+                Date due = toSQLDate(after.getPaymentDueDate());
+                result = query(connection, RowMapper.PAYMENTSELECT +
+                        " AND (paymentDueDate > ? OR (paymentDueDate = ? " +
+                        "AND paymentID > ?))" + RowMapper.PAYMENTORDER,
+                        mortgageID, due, due, after.getPaymentID(), limit);
+            }
+            ArrayList<MortgagePaymentDetails> payments =
+                    new ArrayList<MortgagePaymentDetails>();
+            try {
+                while (result.next()) {
+                    payments.add(RowMapper.mapPayment(result));
                 }
-                
-                surveyors.add(new Surveyor(surveyorID, surveyorName, address, telephone, faxNumber, email));
-                resultAddress.close();
-                statementAddress.close();
+            } finally {
+                result.close();
             }
-            result.close();
-            statement.close();
-            return surveyors;
-        } catch (IllegalArgumentException e ){
-            writeSQLError("IllegalArgumentException: SQL returned invalid " +
-                    "data in getSurveyorByName()");
-            return null;
-        } catch (SQLException e){
+            return payments;
+        } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getMortgagePaymentsPage()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
-        
     }
-    
+
+    /**
+     * Get a page of the payments of a range of mortgages. The page starts
+     * after the mortgage ID, due date and ID of the last payment of the
+     * previous page, so each page is read straight from the index on the
+     * mortgage ID and due date, which InnoDB ends with the payment ID.
+     *
+     * @param firstMortgageID The lowest mortgage ID in the range
+     * @param lastMortgageID The highest mortgage ID in the range
+     * @param afterMortgageID The mortgage ID of the last payment of the
+     * previous page, ignored for the first page
+     * @param after The last payment of the previous page, or null for the
+     * first page
+     * @param limit The most payments to return
+     * @return The payments, or null if an error occurred
+     * @throws java.lang.IllegalArgumentException When limit is less than 1
+     * @since 0.0.1
+     */
+    @Override
+    public MortgagePaymentRange getMortgagePaymentsByRange(
+            final int firstMortgageID, final int lastMortgageID,
+            final int afterMortgageID, final MortgagePaymentDetails after,
+            final int limit)
+    {
+        if (limit < 1) throw new IllegalArgumentException("The page size " +
+                    "must be positive.");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            ResultSet result;
+            if (after == null) {
+                result = query(connection, RowMapper.PAYMENTRANGESELECT +
+                        RowMapper.PAYMENTRANGEORDER, firstMortgageID,
+                        lastMortgageID, limit);
+            } else {
+                Date due = toSQLDate(after.getPaymentDueDate());
+                result = query(connection, RowMapper.PAYMENTRANGESELECT +
+                        " AND (mortgageID > ? OR (mortgageID = ? AND " +
+                        "(paymentDueDate > ? OR (paymentDueDate = ? AND " +
+                        "paymentID > ?))))" + RowMapper.PAYMENTRANGEORDER,
+                        firstMortgageID, lastMortgageID, afterMortgageID,
+                        afterMortgageID, due, due, after.getPaymentID(),
+                        limit);
+            }
+            MortgagePaymentRange range = new MortgagePaymentRange();
+            try {
+                while (result.next()) {
+                    range.add(result.getInt("mortgageID"),
+                            RowMapper.mapPayment(result));
+                }
+            } finally {
+                result.close();
+            }
+            return range;
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getMortgagePaymentsByRange()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Keep a snapshot of the account of a mortgage in the AccountSnapshot
+     * tables. The payments up to the position of the snapshot are counted
+     * and totalled with a locking read in the same transaction as the
+     * snapshot is written, and the snapshot is only kept if they still match
+     * it. The lock holds back any other client adding or changing a payment
+     * up to the position until the snapshot is written, and that client then
+     * deletes the snapshot, so a snapshot is never kept which the payments
+     * no longer match.
+     *
+     * @param mortgageID The ID of the mortgage
+     * @param snapshot The snapshot of its account
+     * @throws java.lang.IllegalArgumentException When snapshot is null
+     * @since 0.0.1
+     */
+    @Override
+    public void putAccountSnapshot(final int mortgageID,
+            final MortgageAccount snapshot) {
+        if (snapshot == null) throw new IllegalArgumentException("The " +
+                    "snapshot must not be null.");
+        MortgagePaymentDetails position = snapshot.getPosition();
+        if (position == null) {
+            return;
+        }
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            connection.setAutoCommit(false);
+            Date due = toSQLDate(position.getPaymentDueDate());
+            ResultSet result = query(connection, "SELECT COUNT(*) AS " +
+                    "payments, SUM(amount) AS totalDue, SUM(IF(" +
+                    "paymentMadeDate IS NULL, 0, amount)) AS totalPaid FROM " +
+                    "MortgagePaymentDetails WHERE mortgageID = ? AND " +
+                    "(paymentDueDate < ? OR (paymentDueDate = ? AND " +
+                    "paymentID <= ?)) LOCK IN SHARE MODE", mortgageID, due,
+                    due, position.getPaymentID());
+            boolean current;
+            try {
+                current = result.next() &&
+                        result.getInt("payments") ==
+                        snapshot.getPaymentCount() &&
+                        pence(result, "totalDue") == snapshot.getTotalDue() &&
+                        pence(result, "totalPaid") == snapshot.getTotalPaid();
+            } finally {
+                result.close();
+            }
+            if (!current) {
+                connection.rollback();
+                return;
+            }
+            update(connection, "REPLACE INTO AccountSnapshot (mortgageID, " +
+                    "paymentCount, totalDue, totalPaid, lastDueMonth, " +
+                    "positionDueDate, positionPaymentID) VALUES (?, ?, ?, " +
+                    "?, ?, ?, ?)", mortgageID, snapshot.getPaymentCount(),
+                    Money.ofPence(snapshot.getTotalDue()),
+                    Money.ofPence(snapshot.getTotalPaid()),
+                    snapshot.getLastDueMonth(), due, position.getPaymentID());
+            update(connection, "DELETE FROM AccountSnapshotUnpaid WHERE " +
+                    "mortgageID = ?", mortgageID);
+            int unpaid = snapshot.getUnpaidCount();
+            for (int start = 0; start < unpaid; start += BULKROWS) {
+                int count = Math.min(BULKROWS, unpaid - start);
+                Object[] parameters = new Object[count * 4];
+                for (int i = 0; i < count; i++) {
+                    parameters[i * 4] = mortgageID;
+                    parameters[i * 4 + 1] = toSQLDate(Day.ofEpochDay(
+                            snapshot.getUnpaidDueDay(start + i)));
+                    parameters[i * 4 + 2] = snapshot.getUnpaidID(start + i);
+                    parameters[i * 4 + 3] = Money.ofPence(
+                            snapshot.getUnpaidAmount(start + i));
+                }
+                update(connection, "INSERT INTO AccountSnapshotUnpaid (" +
+                        "mortgageID, paymentDueDate, paymentID, amount) " +
+                        "VALUES " + rowPlaceholders(4, count), parameters);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            if (connection != null) {
+                rollback(connection);
+            }
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Add a payment to a mortgage, deleting the snapshot of the account of
+     * the mortgage in the same transaction if the payment falls due before
+     * its position
+     *
+     * @param payment The payment
+     * @param mortgageID The ID of the mortgage
+     * @return The ID of the payment, or -1 if it could not be added
+     * @throws java.lang.IllegalArgumentException When payment is null
+     * @since 0.0.1
+     */
+    @Override
+    public int addMortgagePayment(final MortgagePaymentDetails payment,
+            final int mortgageID)
+    {
+        if(payment == null) throw new IllegalArgumentException("The mortgage " +
+                "payment instance must not be null.");
+
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            connection.setAutoCommit(false);
+            Date due = toSQLDate(payment.getPaymentDueDate());
+            int id = insert(connection, "INSERT INTO MortgagePaymentDetails (" +
+                    "paymentDueDate, paymentMadeDate, methodOfPayment, " +
+                    "amount, mortgageID) VALUES (?, ?, ?, ?, ?)", due,
+                    toSQLDate(payment.getPaymentMadeDate()),
+                    payment.getMethodOfPayment().ordinal(),
+                    payment.getAmount(), mortgageID);
+            if (id >= 0) {
+                deleteAccountSnapshot(connection, mortgageID, due, id);
+            }
+            connection.commit();
+            return id;
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            if (connection != null) {
+                rollback(connection);
+            }
+            return -1;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Record that a payment has been made, deleting the snapshot of the
+     * account of the mortgage in the same transaction if the payment is at or
+     * before its position
+     *
+     * @param payment The payment, with the date it was made and how
+     * @param mortgageID The ID of the mortgage
+     * @return True if the payment was recorded, false if the mortgage has no
+     * such payment, it has already been made or an error occurred
+     * @throws java.lang.IllegalArgumentException When payment is null or has
+     * not been made
+     * @since 0.0.1
+     */
+    @Override
+    public boolean setMortgagePaymentMade(
+            final MortgagePaymentDetails payment, final int mortgageID)
+    {
+        if (payment == null) throw new IllegalArgumentException("The mortgage " +
+                "payment instance must not be null.");
+        if (payment.getPaymentMadeDate() == null) {
+            throw new IllegalArgumentException("The payment made date must " +
+                    "not be null.");
+        }
+        MethodOfPayment method = payment.getMethodOfPayment();
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            connection.setAutoCommit(false);
+            if (update(connection, "UPDATE MortgagePaymentDetails SET " +
+                    "paymentMadeDate = ?, methodOfPayment = ? WHERE " +
+                    "paymentID = ? AND mortgageID = ? AND paymentMadeDate " +
+                    "IS NULL", toSQLDate(payment.getPaymentMadeDate()),
+                    method == null ? null : method.ordinal(),
+                    payment.getPaymentID(), mortgageID) != 1) {
+                rollback(connection);
+                return false;
+            }
+            deleteAccountSnapshot(connection, mortgageID,
+                    toSQLDate(payment.getPaymentDueDate()),
+                    payment.getPaymentID());
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            if (connection != null) {
+                rollback(connection);
+            }
+            return false;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Delete the snapshot of the account of a mortgage if a payment at or
+     * before its position has been added or changed
+     *
+     * @param connection The connection to delete on, in the transaction
+     * which added or changed the payment
+     * @param mortgageID The ID of the mortgage
+     * @param due The day the payment falls due
+     * @param paymentID The ID of the payment
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private void deleteAccountSnapshot(final Connection connection,
+            final int mortgageID, final Date due, final int paymentID)
+            throws SQLException
+    {
+        update(connection, "DELETE s, u FROM AccountSnapshot s LEFT JOIN " +
+                "AccountSnapshotUnpaid u ON u.mortgageID = s.mortgageID " +
+                "WHERE s.mortgageID = ? AND (s.positionDueDate > ? OR " +
+                "(s.positionDueDate = ? AND s.positionPaymentID >= ?))",
+                mortgageID, due, due, paymentID);
+    }
+
+    /**
+     * Read a DECIMAL column of pounds as pence, a NULL sum being nothing
+     *
+     * @param result The result set positioned on the row
+     * @param column The name of the column
+     * @return The amount in pence
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static long pence(final ResultSet result, final String column)
+            throws SQLException
+    {
+        Money amount = RowMapper.getMoney(result, column);
+        return amount == null ? 0 : amount.getPence();
+    }
+
+    public int addProperty(final Property property) {
+        if (property == null) throw new IllegalArgumentException("The " +
+                    "property instance must not be null.");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            int addressID = insertAddress(connection, property.getAddress());
+            if (addressID < 0) {
+                return -1;
+            }
+            return insert(connection, "INSERT INTO Property (addressID, " +
+                    "propertyType, numberOfBedrooms) VALUES (?, ?, ?)",
+                    addressID, property.getType().ordinal(),
+                    property.getNumberOfBedrooms());
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return -1;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public int addStaffMember(final StaffMember staff) {
+        if (staff == null)  throw new IllegalArgumentException("The staff " +
+                    "member instance must not be null.");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            int addressID = insertAddress(connection, staff.getAddressObject());
+            if (addressID < 0) {
+                return -1;
+            }
+            return insert(connection, "INSERT INTO StaffMember (title, " +
+                    "forenames, surname, dateOfBirth, isFemale, addressID, " +
+                    "telephone, faxNumber, email, isManager, username, " +
+                    "password, stillWithCompany) VALUES (?, ?, ?, ?, ?, ?, " +
+                    "?, ?, ?, ?, ?, ?, ?)", staff.getTitle(),
+                    staff.getForenames(), staff.getSurname(),
+                    toSQLDate(staff.getDateOfBirth()), staff.getIsFemale(),
+                    addressID, staff.getTelephoneNumber(),
+                    staff.getFaxNumber(), staff.getEmailAddress(),
+                    staff.getIsManager(), staff.getUsername(),
+                    staff.getEncryptedPassword(),
+                    staff.getIsStillWithCompany());
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return -1;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public int addSurvey(final Survey survey, final int propertyID) {
+        if (survey == null) throw new IllegalArgumentException("The survey " +
+                    "instance must not be null");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            return insert(connection, "INSERT INTO Survey (surveyor, " +
+                    "surveyDate, propertyValue, propertyID) VALUES (?, ?, ?, " +
+                    "?)", survey.getSurveyor().getSurveyorID(),
+                    toSQLDate(survey.getSurveyDate()),
+                    survey.getPropertyValue(), propertyID);
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return -1;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public int addSurveyor(final Surveyor surveyor) {
+        if (surveyor == null) throw new IllegalArgumentException("The " +
+                    "surveyor instance must not be null.");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            int addressID = insertAddress(connection, surveyor.getSurveyorAddressObject());
+            if (addressID < 0) {
+                return -1;
+            }
+            return insert(connection, "INSERT INTO Surveyors (" +
+                    "surveyorName, addressID, telephone, faxNumber, email) " +
+                    "VALUES (?, ?, ?, ?, ?)", surveyor.getSurveyorName(),
+                    addressID, surveyor.getTelephoneNumber(),
+                    surveyor.getFaxNumber(), surveyor.getEmailAddress());
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return -1;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    public Collection<Surveyor> getSurveyorsByName(final String name){
+
+        ArrayList<Surveyor> surveyors = new ArrayList<Surveyor>();
+        Connection connection = null;
+        try{
+            connection = pool.getConnection();
+            ResultSet result = query(connection, RowMapper.SURVEYORSELECT +
+                    " WHERE v.surveyorName LIKE ?", "%" + name + "%");
+
+            try {
+                while( result.next() ){
+                    surveyors.add(RowMapper.mapSurveyor(result));
+                }
+            } finally {
+                result.close();
+            }
+            return surveyors;
+        } catch (IllegalArgumentException e ){
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getSurveyorByName()");
+            return null;
+        } catch (SQLException e){
+            writeSQLError("SQLException: " + e.toString());
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+
+    }
+
     @Override
     public boolean changeStaffMemberPassword(final StaffMember staffMember) {
         if(staffMember == null) throw new IllegalArgumentException("The " +
                 "staff member instance must not be null.");
-        
+
+        Connection connection = null;
         try {
-            Statement statement = connection.createStatement();
-            statement.executeUpdate("UPDATE StaffMember SET password='" +
-                    staffMember.getEncryptedPassword() + "' WHERE staffID=" +
+            connection = pool.getConnection();
+            update(connection, "UPDATE StaffMember SET password = ? WHERE " +
+                    "staffID = ?", staffMember.getEncryptedPassword(),
                     staffMember.getID());
-            statement.close();
             return true;
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return false;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
     @Override
     public StaffMember getStaffMemberByID(final int id){
-        int staffID;
-        String title;
-        String forenames;
-        String surname;
-        GregorianCalendar dateOfBirth;
-        boolean isFemale;
-        int addressID;
-        String telephone;
-        String faxNumber;
-        String email;
-        boolean isManager;
-        String username;
-        String password;
-        boolean stillWithCompany;
-        String propertyName;
-        String streetName;
-        String town;
-        String country;
-        String postCode;
-        Address address;
-        StaffMember staff;
-        
-        
-        
+        Connection connection = null;
         try{
-            staff = null;
-             Statement statement = connection.createStatement();
-            ResultSet resultStaff = statement.executeQuery("SELECT * FROM StaffMember" +
-                    " WHERE staffID = " + id);
-            
-            if (resultStaff.absolute(1)){
-                //staffID = resultStaff.getInt("staffID");
-                staffID = id;
-                title = resultStaff.getString("title");
-                forenames = resultStaff.getString("forenames");
-                surname = resultStaff.getString("surname");
-                dateOfBirth = new GregorianCalendar();
-                dateOfBirth.setTime(resultStaff.getDate("dateOfBirth"));
-                isFemale = resultStaff.getBoolean("isFemale");
-                addressID = resultStaff.getInt("addressID");
-                telephone = resultStaff.getString("telephone");
-                faxNumber = resultStaff.getString("faxNumber");
-                email = resultStaff.getString("email");
-                isManager = resultStaff.getBoolean("isManager");
-                username = resultStaff.getString("username");
-                password = resultStaff.getString("password");
-                stillWithCompany = resultStaff.getBoolean("stillWithCompany");
-
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    return null;
-                }
-                resultAddress.close();
-                statementAddress.close();
-                staff = new StaffMember(staffID, title, forenames, surname, dateOfBirth, isFemale, address, telephone, faxNumber, email, isManager, username, password, stillWithCompany);
+            connection = pool.getConnection();
+            ArrayList<StaffMember> staff = readStaffMembers(query(connection,
+                    RowMapper.STAFFSELECT + " WHERE s.staffID = ?", id));
+            if (staff.isEmpty()) {
+                return null;
             }
-            resultStaff.close();
-            statement.close();
-            return staff;
+            return staff.get(0);
         } catch (IllegalArgumentException e){
             writeSQLError("IllegalArgumentException: SQL returned invalid " +
                     "data in getStaffMemberByID()");
@@ -706,59 +1166,30 @@ public class MySQL implements MortgageDatabase {
         } catch ( SQLException e){
              writeSQLError("SQLException: " + e.toString());
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
-        
+
     }
-    
+
     @Override
     public Surveyor getSurveyorByID(final int id){
-        String name;
-        String telephone;
-        String faxNumber;
-        String email;
-        int addressID;
-        String propertyName;
-        String streetName;
-        String town;
-        String country;
-        String postCode;
-        Address address;
         Surveyor surveyor;
-        
+
+        Connection connection = null;
         try{
+            connection = pool.getConnection();
             surveyor = null;
-            Statement statement = connection.createStatement();
-            ResultSet result = statement.executeQuery("SELECT * FROM Surveyors" +
-                    " WHERE surveyorID = " + id);
-            
-            if (result.absolute(1)){
-                name = result.getString("surveyorName");
-                telephone = result.getString("telephone");
-                faxNumber = result.getString("faxNumber");
-                email = result.getString("email");
-                addressID =  result.getInt("addressID");
-                
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    return null;
+            ResultSet result = query(connection, RowMapper.SURVEYORSELECT +
+                    " WHERE v.surveyorID = ?", id);
+
+            try {
+                if (result.next()){
+                    surveyor = RowMapper.mapSurveyor(result);
                 }
-                resultAddress.close();
-                statementAddress.close();
-                surveyor = new Surveyor(id, name, address, telephone, faxNumber, email);
+            } finally {
+                result.close();
             }
-            result.close();
-            statement.close();
             return surveyor;
         } catch ( IllegalArgumentException e){
             writeSQLError("IllegalArgumentException: SQL returned invalid " +
@@ -767,67 +1198,24 @@ public class MySQL implements MortgageDatabase {
         } catch ( SQLException e){
             writeSQLError("SQLException: " + e.toString());
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
-    
+
+
     @Override
     public Customer getCustomerByID(final int customerID) {
-        String title, forenames, surname, telephone, faxNumber, email,
-                nationalInsuranceNumber, savingsAccountNumber, propertyName,
-                streetName, town, country, postCode;
-        int addressID;
-        boolean isFemale;
-        GregorianCalendar dateOfBirth;
-        Customer customer;
-        Address address;
-
+        Connection connection = null;
         try {
-            customer = null;
-            Statement statementCustomer = connection.createStatement();
-            ResultSet resultCustomer = statementCustomer.executeQuery(
-                    "SELECT * FROM Customer WHERE customerID = " + customerID);
-            if (resultCustomer.absolute(1)) {
-                title = resultCustomer.getString("title");
-                forenames = resultCustomer.getString("forenames");
-                surname = resultCustomer.getString("surname");
-                dateOfBirth = new GregorianCalendar();
-                dateOfBirth.setTime(resultCustomer.getDate("dateOfBirth"));
-                isFemale = resultCustomer.getBoolean("isFemale");
-                addressID = resultCustomer.getInt("addressID");
-                telephone = resultCustomer.getString("telephone");
-                faxNumber = resultCustomer.getString("faxNumber");
-                email = resultCustomer.getString("email");
-                nationalInsuranceNumber = resultCustomer.getString(
-                        "nationalInsuranceNumber");
-                savingsAccountNumber = resultCustomer.getString(
-                        "savingsAccountNumber");
-
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    return null;
-                }
-                resultAddress.close();
-                statementAddress.close();
-
-                customer = new Customer(customerID, title, forenames, surname,
-                        dateOfBirth, isFemale, address, telephone, faxNumber,
-                        email, nationalInsuranceNumber, savingsAccountNumber);
+            connection = pool.getConnection();
+            ArrayList<Customer> customers = readCustomers(query(connection,
+                    RowMapper.CUSTOMERSELECT + " WHERE c.customerID = ?",
+                    customerID));
+            if (customers.isEmpty()) {
+                return null;
             }
-            resultCustomer.close();
-            statementCustomer.close();
-            return customer;
+            return customers.get(0);
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return null;
@@ -835,6 +1223,8 @@ public class MySQL implements MortgageDatabase {
             writeSQLError("IllegalArgumentException: SQL returned invalid " +
                     "data in getCustomerByID()");
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
@@ -845,141 +1235,282 @@ public class MySQL implements MortgageDatabase {
         if (surnameSearched == null || forenamesSearched == null) {
             return null;
         }
-        int customerID, addressID;
-        String title, forenames, telephone, faxNumber, email,
-                nationalInsuranceNumber, savingsAccountNumber, surname;
-        GregorianCalendar dateOfBirth;
-        boolean isFemale;
-        Address address;
-        ArrayList<Customer> customers = new ArrayList<Customer>();
-        String propertyName, streetName, town, country, postCode;
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            return readCustomers(query(connection, RowMapper.CUSTOMERSELECT +
+                    " WHERE c.forenames LIKE ? AND c.surname LIKE ?",
+                    "%" + forenamesSearched + "%", "%" + surnameSearched + "%"));
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in searchCustomerByForenames()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
 
+    @Override
+    public Collection<Customer> getCustomersByAddressID(final String addressIDSearched) {
+        Connection connection = null;
         try {
-            Statement statementCustomer = connection.createStatement();
-            ResultSet resultCustomer = statementCustomer.executeQuery(
-                    "SELECT * FROM Customer WHERE forenames LIKE '%" +
-                    forenamesSearched + "%' AND surname LIKE '%" +
-                    surnameSearched + "%';");
+            connection = pool.getConnection();
+            return readCustomers(query(connection, RowMapper.CUSTOMERSELECT +
+                    " WHERE c.addressID = ?", addressIDSearched));
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in searchCustomerByAddressID()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
 
-            while (resultCustomer.next()) {
-                customerID = resultCustomer.getInt("customerID");
-                title = resultCustomer.getString("title");
-                forenames = resultCustomer.getString("forenames");
-                surname = resultCustomer.getString("surname");
-                dateOfBirth = new GregorianCalendar();
-                dateOfBirth.setTime(resultCustomer.getDate("dateOfBirth"));
-                isFemale = resultCustomer.getBoolean("isFemale");
-                addressID = resultCustomer.getInt("addressID");
-                telephone = resultCustomer.getString("telephone");
-                faxNumber = resultCustomer.getString("faxNumber");
-                email = resultCustomer.getString("email");
-                nationalInsuranceNumber = resultCustomer.getString(
-                        "nationalInsuranceNumber");
-                savingsAccountNumber = resultCustomer.getString(
-                        "savingsAccountNumber");
-
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    continue;
-                }
-                customers.add(new Customer(customerID, title, forenames,
-                        surname, dateOfBirth, isFemale, address, telephone,
-                        faxNumber, email, nationalInsuranceNumber,
-                        savingsAccountNumber));
-                resultAddress.close();
-                statementAddress.close();
+    /**
+     * Get a page of customers ordered by customer ID. The page starts after
+     * the customer ID given rather than at an offset, so the database seeks
+     * straight to it on the primary key however deep the page is.
+     *
+     * @param afterCustomerID The ID of the last customer on the previous page,
+     * or -1 for the first page
+     * @param limit The maximum number of customers on the page
+     * @param sort Whether the customer IDs ascend or descend
+     * @return The page of customers, or null if an error occurred
+     * @throws java.lang.IllegalArgumentException When limit is not positive or
+     * sort is null
+     * @since 0.0.1
+     */
+    @Override
+    public Collection<Customer> getCustomersPage(final int afterCustomerID,
+            final int limit, final SortOrder sort) {
+        if (limit < 1) throw new IllegalArgumentException("The page size " +
+                    "must be positive.");
+        if (sort == null) throw new IllegalArgumentException("The sort order " +
+                    "must not be null.");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            if (sort == SortOrder.ASCENDING) {
+                return readCustomers(query(connection, RowMapper.CUSTOMERSELECT +
+                        " WHERE c.customerID > ? ORDER BY c.customerID LIMIT ?",
+                        afterCustomerID, limit));
             }
-            resultCustomer.close();
-            statementCustomer.close();
-            return customers;
+            return readCustomers(query(connection, RowMapper.CUSTOMERSELECT +
+                    " WHERE c.customerID < ? ORDER BY c.customerID DESC LIMIT ?",
+                    afterCustomerID < 0 ? Integer.MAX_VALUE : afterCustomerID,
+                    limit));
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return null;
         } catch (IllegalArgumentException e) {
             writeSQLError("IllegalArgumentException: SQL returned invalid " +
-                    "data in searchCustomerByForenames()");
+                    "data in getCustomersPage()");
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
+    /**
+     * Get the customers with the IDs given. The IDs are looked up in batches
+     * with an IN list, so a search result costs one query per hundred
+     * customers rather than one query per customer.
+     *
+     * @param customerIDs The IDs of the customers
+     * @return The customers found in ascending ID order, or null if an error
+     * occurred
+     * @throws java.lang.IllegalArgumentException When customerIDs is null
+     * @since 0.0.1
+     */
     @Override
-    public Collection<Customer> getCustomersByAddressID(final String addressIDSearched) {
-        int customerID;
-        String title, forenames, telephone, faxNumber, email,
-                nationalInsuranceNumber, savingsAccountNumber, surname;
-        GregorianCalendar dateOfBirth;
-        boolean isFemale;
-        Address address;
+    public Collection<Customer> getCustomersByIDs(final int[] customerIDs) {
+        if (customerIDs == null) throw new IllegalArgumentException("The " +
+                    "customer IDs must not be null.");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            return readCustomersByIDs(connection, customerIDs);
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getCustomersByIDs()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Read the customers with the IDs given, in batches of IDBATCHSIZE
+     *
+     * @param connection The connection to run the queries on
+     * @param customerIDs The IDs of the customers
+     * @return The customers found in ascending ID order
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private ArrayList<Customer> readCustomersByIDs(final Connection connection,
+            final int[] customerIDs) throws SQLException
+    {
         ArrayList<Customer> customers = new ArrayList<Customer>();
-        String propertyName, streetName, town, country, postCode;
-        int addressID;
+        for (int i = 0; i < customerIDs.length; i += IDBATCHSIZE) {
+            customers.addAll(readCustomers(query(connection,
+                    RowMapper.CUSTOMERSELECT + " WHERE c.customerID IN " +
+                    idPlaceholders() + " ORDER BY c.customerID",
+                    idBatch(customerIDs, i))));
+        }
+        return customers;
+    }
 
+    /**
+     * Read every mortgage from the result of a MORTGAGESELECT query, and then
+     * their customers with one query per hundred customers. The result set is
+     * closed once it has been read. Each mortgage reads its payments from
+     * this database, carrying on its account from the snapshot kept for it.
+     *
+     * @param connection The connection to read the customers on
+     * @param result The result set to read the mortgages from
+     * @return The mortgages, in the order of the result set
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private ArrayList<Mortgage> readMortgages(final Connection connection,
+            final ResultSet result) throws SQLException
+    {
+        ArrayList<RowMapper.MortgageRow> rows =
+                new ArrayList<RowMapper.MortgageRow>();
         try {
-            Statement statementCustomer = connection.createStatement();
-            ResultSet resultCustomer = statementCustomer.executeQuery(
-                    "SELECT * FROM Customer WHERE `addressID` = " + addressIDSearched);
+            while (result.next()) {
+                rows.add(RowMapper.mapMortgage(result));
+            }
+        } finally {
+            result.close();
+        }
+        ArrayList<Mortgage> mortgages = new ArrayList<Mortgage>();
+        if (rows.isEmpty()) {
+            return mortgages;
+        }
+        int[] customerIDs = new int[rows.size() * 2];
+        int count = 0;
+        for (RowMapper.MortgageRow row : rows) {
+            customerIDs[count++] = row.getCustomerID();
+            if (row.getSpouseID() >= 0) {
+                customerIDs[count++] = row.getSpouseID();
+            }
+        }
+        HashMap<Integer, Customer> customers = new HashMap<Integer, Customer>();
+        for (Customer customer : readCustomersByIDs(connection,
+                java.util.Arrays.copyOf(customerIDs, count))) {
+            customers.put(customer.getID(), customer);
+        }
+        int[] mortgageIDs = new int[rows.size()];
+        for (RowMapper.MortgageRow row : rows) {
+            Mortgage mortgage = row.toMortgage(customers);
+            mortgageIDs[mortgages.size()] = mortgage.getMortgageID();
+            mortgages.add(mortgage);
+        }
+        HashMap<Integer, MortgageAccount> snapshots =
+                readAccountSnapshots(connection, mortgageIDs);
+        for (Mortgage mortgage : mortgages) {
+            mortgage.setPaymentSource(this,
+                    snapshots.get(mortgage.getMortgageID()));
+        }
+        return mortgages;
+    }
 
-            while (resultCustomer.next()) {
-                customerID = resultCustomer.getInt("customerID");
-                title = resultCustomer.getString("title");
-                forenames = resultCustomer.getString("forenames");
-                surname = resultCustomer.getString("surname");
-                dateOfBirth = new GregorianCalendar();
-                dateOfBirth.setTime(resultCustomer.getDate("dateOfBirth"));
-                isFemale = resultCustomer.getBoolean("isFemale");
-                addressID = resultCustomer.getInt("addressID");
-                telephone = resultCustomer.getString("telephone");
-                faxNumber = resultCustomer.getString("faxNumber");
-                email = resultCustomer.getString("email");
-                nationalInsuranceNumber = resultCustomer.getString(
-                        "nationalInsuranceNumber");
-                savingsAccountNumber = resultCustomer.getString(
-                        "savingsAccountNumber");
-
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    continue;
+    /**
+     * Read the snapshots of the accounts of mortgages, with two queries per
+     * IDBATCHSIZE mortgages. A snapshot whose rows are not valid is left out,
+     * so its mortgage reads every payment instead.
+     *
+     * @param connection The connection to run the queries on
+     * @param mortgageIDs The IDs of the mortgages
+     * @return The snapshots by mortgage ID, with none for a mortgage which
+     * has no snapshot
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private HashMap<Integer, MortgageAccount> readAccountSnapshots(
+            final Connection connection, final int[] mortgageIDs)
+            throws SQLException
+    {
+        HashMap<Integer, MortgageAccount> snapshots =
+                new HashMap<Integer, MortgageAccount>();
+        for (int i = 0; i < mortgageIDs.length; i += IDBATCHSIZE) {
+            Object[] batch = idBatch(mortgageIDs, i);
+            HashMap<Integer, ArrayList<MortgagePaymentDetails>> unpaid =
+                    new HashMap<Integer, ArrayList<MortgagePaymentDetails>>();
+            ResultSet result = query(connection, "SELECT * FROM " +
+                    "AccountSnapshotUnpaid WHERE mortgageID IN " +
+                    idPlaceholders() + " ORDER BY mortgageID, " +
+                    "paymentDueDate, paymentID", batch);
+            try {
+                while (result.next()) {
+                    int mortgageID = result.getInt("mortgageID");
+                    ArrayList<MortgagePaymentDetails> payments =
+                            unpaid.get(mortgageID);
+                    if (payments == null) {
+                        payments = new ArrayList<MortgagePaymentDetails>();
+                        unpaid.put(mortgageID, payments);
+                    }
+                    payments.add(new MortgagePaymentDetails(
+                            result.getInt("paymentID"),
+                            RowMapper.getDay(result, "paymentDueDate"), null,
+                            RowMapper.getMoney(result, "amount")));
                 }
-                customers.add(new Customer(customerID, title, forenames,
-                        surname, dateOfBirth, isFemale, address, telephone,
-                        faxNumber, email, nationalInsuranceNumber,
-                        savingsAccountNumber));
-                resultAddress.close();
-                statementAddress.close();
+            } finally {
+                result.close();
+            }
+            result = query(connection, RowMapper.ACCOUNTSNAPSHOTSELECT +
+                    " WHERE s.mortgageID IN " + idPlaceholders(), batch);
+            try {
+                while (result.next()) {
+                    int mortgageID = result.getInt("mortgageID");
+                    try {
+                        snapshots.put(mortgageID, RowMapper.mapAccountSnapshot(
+                                result, unpaid.get(mortgageID)));
+                    } catch (IllegalArgumentException e) {
+                        writeSQLError("IllegalArgumentException: The " +
+                                "account snapshot of mortgage " + mortgageID +
+                                " is not valid: " + e.getMessage());
+                    }
+                }
+            } finally {
+                result.close();
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Read every customer from the result of a CUSTOMERSELECT query. The
+     * result set is closed once it has been read.
+     *
+     * @param resultCustomer The result set to read the customers from
+     * @return The customers read from the result set
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static ArrayList<Customer> readCustomers(
+            final ResultSet resultCustomer) throws SQLException
+    {
+        ArrayList<Customer> customers = new ArrayList<Customer>();
+        try {
+            while (resultCustomer.next()) {
+                customers.add(RowMapper.mapCustomer(resultCustomer));
             }
+        } finally {
             resultCustomer.close();
-            statementCustomer.close();
-            return customers;
-        } catch (SQLException e) {
-            writeSQLError("SQLException: " + e.toString());
-            return null;
-        } catch (IllegalArgumentException e) {
-            writeSQLError("IllegalArgumentException: SQL returned invalid " +
-                    "data in searchCustomerByAddressID()");
-            return null;
         }
+        return customers;
     }
 
     @Override
@@ -987,21 +1518,6 @@ public class MySQL implements MortgageDatabase {
             final String town, final String postCode, final String streetName,
             final String propertyName) {
 
-        // local variables declaration
-        int customerID;
-        String title;
-        String forenames;
-        String surname;
-        GregorianCalendar dateOfBirth;
-        boolean isFemale;
-        String telephone, faxNumber, email, nationalInsuranceNumber,
-                savingsAccountNumber, propertyName2, streetName2, town2, country2,
-                postCode2;
-        Address address;
-        ArrayList<Customer> customers = new ArrayList<Customer>();
-
-
-
         //check if arguments are not null
         if (country == null || town == null || postCode == null ||
                 streetName == null || propertyName == null) {
@@ -1009,62 +1525,40 @@ public class MySQL implements MortgageDatabase {
         }
 
 
-        //processing work:
+        return getCustomersByAddress(new AddressQuery(country, town, postCode,
+                streetName, propertyName));
+    }
+
+    /**
+     * Get the customers living at addresses which match a search. Only the
+     * fields given are matched, and a post code matches from its start. When
+     * the post code has already been looked up as address IDs, they are
+     * fetched in batches with an IN list.
+     *
+     * @param search The address search
+     * @return The customers found, or null if an error occurred
+     * @throws java.lang.IllegalArgumentException When search is null
+     * @since 0.0.1
+     */
+    @Override
+    public Collection<Customer> getCustomersByAddress(
+            final AddressQuery search) {
+        if (search == null) throw new IllegalArgumentException("The address " +
+                    "search must not be null.");
+        Connection connection = null;
         try {
-            Statement statementAddress = connection.createStatement();
-            String query = "SELECT * FROM Address WHERE";
-            query += " country LIKE '%" + country + "%'";
-            query += " AND town LIKE '%" + town + "%'";
-            query += " AND postCode LIKE '%" + postCode + "%'";
-            query += " AND streetName LIKE '%" + streetName + "%'";
-            query += " AND propertyName LIKE '%" + propertyName + "%';";
-            ResultSet resultAddress = statementAddress.executeQuery(query);
-
-            while (resultAddress.next()) {
-
-                int addressID = resultAddress.getInt("addressID");
-                Statement statementCustomer = connection.createStatement();
-                ResultSet resultCustomer = statementCustomer.executeQuery("SELECT * " +
-                        "FROM Customer WHERE `addressID` = " + addressID + ";");
-
-                while (resultCustomer.next()) {
-                    //customer's info:
-                    customerID = resultCustomer.getInt("customerID");
-                    title = resultCustomer.getString("title");
-                    forenames = resultCustomer.getString("forenames");
-                    surname = resultCustomer.getString("surname");
-                    dateOfBirth = new GregorianCalendar();
-                    dateOfBirth.setTime(resultCustomer.getDate("dateOfBirth"));
-                    isFemale = resultCustomer.getBoolean("isFemale");
-                    //addressID = resultCustomer.getInt("addressID");
-                    telephone = resultCustomer.getString("telephone");
-                    faxNumber = resultCustomer.getString("faxNumber");
-                    email = resultCustomer.getString("email");
-                    nationalInsuranceNumber = resultCustomer.getString(
-                            "nationalInsuranceNumber");
-                    savingsAccountNumber = resultCustomer.getString(
-                            "savingsAccountNumber");
-
-                    //address of the customer:
-                    propertyName2 = resultAddress.getString("propertyName");
-                    streetName2 = resultAddress.getString("streetName");
-                    town2 = resultAddress.getString("town");
-                    country2 = resultAddress.getString("country");
-                    postCode2 = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName2, streetName2,
-                            town2, country2, postCode2);
-
-                    //adding the customer
-                    customers.add(new Customer(customerID, title, forenames,
-                            surname, dateOfBirth, isFemale, address, telephone,
-                            faxNumber, email, nationalInsuranceNumber,
-                            savingsAccountNumber));
-                }
-                statementCustomer.close();
-                resultCustomer.close();
+            connection = pool.getConnection();
+            if (!search.hasAddressIDs()) {
+                return readCustomers(queryAddress(connection,
+                        RowMapper.CUSTOMERSELECT, search, null));
+            }
+            ArrayList<Customer> customers = new ArrayList<Customer>();
+            int[] addressIDs = search.getAddressIDs();
+            for (int i = 0; i < addressIDs.length; i += IDBATCHSIZE) {
+                customers.addAll(readCustomers(queryAddress(connection,
+                        RowMapper.CUSTOMERSELECT, search,
+                        idBatch(addressIDs, i))));
             }
-            resultAddress.close();
-            statementAddress.close();
             return customers;
         } catch (SQLException e) {
             writeSQLError("SQLException:" + e.toString());
@@ -1073,164 +1567,135 @@ public class MySQL implements MortgageDatabase {
             writeSQLError("IllegalArgumentException: SQL returned invalid " +
                     "data in getCustomerByAddress()\n" + e.toString());
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
     public Collection<StaffMember> getStaffMembersByName(final String surnameSearched,
             final String forenamesSearched) {
-        ArrayList<StaffMember> staffMembers = new ArrayList<StaffMember>();
-        int staffID, addressID;
-        String title, forenames, surname;
-        GregorianCalendar dateOfBirth;
-        boolean isFemale, isManager, stillWithCompany;
-        String telephone, faxNumber, email, username, password;
-        String propertyName, streetName, town, country, postCode;
-        Address address;
-
+        Connection connection = null;
         try {
-            Statement statementStaff = connection.createStatement();
-            ResultSet resultStaff = statementStaff.executeQuery(
-                    "SELECT * FROM StaffMember WHERE forenames LIKE '%" +
-                    forenamesSearched + "%' AND surname LIKE '%" +
-                    surnameSearched + "%';");
+            connection = pool.getConnection();
+            return readStaffMembers(query(connection, RowMapper.STAFFSELECT +
+                    " WHERE s.forenames LIKE ? AND s.surname LIKE ?",
+                    "%" + forenamesSearched + "%", "%" + surnameSearched + "%"));
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getStaffMemberByUsername()");
+            return null;
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
 
+    /**
+     * Read every member of staff from the result of a STAFFSELECT query. The
+     * result set is closed once it has been read.
+     *
+     * @param resultStaff The result set to read the members of staff from
+     * @return The members of staff read from the result set
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static ArrayList<StaffMember> readStaffMembers(
+            final ResultSet resultStaff) throws SQLException
+    {
+        ArrayList<StaffMember> staffMembers = new ArrayList<StaffMember>();
+        try {
             while (resultStaff.next()) {
-                staffID = resultStaff.getInt("staffID");
-                title = resultStaff.getString("title");
-                forenames = resultStaff.getString("forenames");
-                surname = resultStaff.getString("surname");
-                dateOfBirth = new GregorianCalendar();
-                dateOfBirth.setTime(resultStaff.getDate("dateOfBirth"));
-                isFemale = resultStaff.getBoolean("isFemale");
-                addressID = resultStaff.getInt("addressID");
-                telephone = resultStaff.getString("telephone");
-                faxNumber = resultStaff.getString("faxNumber");
-                email = resultStaff.getString("email");
-                isManager = resultStaff.getBoolean("isManager");
-                username = resultStaff.getString("username");
-                password = resultStaff.getString("password");
-                stillWithCompany = resultStaff.getBoolean("stillWithCompany");
-
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    continue;
-                }
-                staffMembers.add(new StaffMember(staffID, title, forenames, surname,
-                        dateOfBirth, isFemale, address, telephone, faxNumber,
-                        email, isManager, username, password, stillWithCompany));
-                resultAddress.close();
-                statementAddress.close();
+                staffMembers.add(RowMapper.mapStaffMember(resultStaff));
             }
+        } finally {
             resultStaff.close();
-            statementStaff.close();
+        }
+        return staffMembers;
+    }
+
+    /**
+     * Get the members of staff with the IDs given, looked up in batches with
+     * an IN list
+     *
+     * @param staffIDs The IDs of the members of staff
+     * @return The members of staff found in ascending ID order, or null if an
+     * error occurred
+     * @throws java.lang.IllegalArgumentException When staffIDs is null
+     * @since 0.0.1
+     */
+    @Override
+    public Collection<StaffMember> getStaffMembersByIDs(final int[] staffIDs) {
+        if (staffIDs == null) throw new IllegalArgumentException("The staff " +
+                    "IDs must not be null.");
+        ArrayList<StaffMember> staffMembers = new ArrayList<StaffMember>();
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            for (int i = 0; i < staffIDs.length; i += IDBATCHSIZE) {
+                staffMembers.addAll(readStaffMembers(query(connection,
+                        RowMapper.STAFFSELECT + " WHERE s.staffID IN " +
+                        idPlaceholders() + " ORDER BY s.staffID",
+                        idBatch(staffIDs, i))));
+            }
             return staffMembers;
-        } catch (IllegalArgumentException e) {
-            writeSQLError("IllegalArgumentException: SQL returned invalid " +
-                    "data in getStaffMemberByUsername()");
-            return null;
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return null;
+        } catch (IllegalArgumentException e) {
+            writeSQLError("IllegalArgumentException: SQL returned invalid " +
+                    "data in getStaffMembersByIDs()");
+            return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
     public Collection<StaffMember> getStaffMembersByAddress(final String country,
             final String town, final String postCode, final String streetName,
             final String propertyName) {
-        
-        int staffID;
-        String title,surname,forenames;
-        GregorianCalendar dateOfBirth;
-        boolean isFemale;
-        String faxNumber,telephone,email;
-        boolean isManager;
-        String username,password;
-        boolean stillWithCompany;
-        String propertyName2,streetName2,town2,country2,postCode2;
-        Address address;
-        
-        ArrayList<StaffMember> staffMembers = new ArrayList<StaffMember>();
-
-
 
         //check if arguments are not null
         if (country == null || town == null || postCode == null ||
                 streetName == null || propertyName == null) {
             return null;
         }
-        
 
-        try {
-            Statement statementAddress = connection.createStatement();
-            String query = "SELECT * FROM Address WHERE";
-            query += " country LIKE '%" + country + "%'";
-            query += " AND town LIKE '%" + town + "%'";
-            query += " AND postCode LIKE '%" + postCode + "%'";
-            query += " AND streetName LIKE '%" + streetName + "%'";
-            query += " AND propertyName LIKE '%" + propertyName + "%';";
-            ResultSet resultAddress = statementAddress.executeQuery(query);
-
-
-            while (resultAddress.next()) {
-
-                int addressID = resultAddress.getInt("addressID");
-                Statement statementStaff = connection.createStatement();
-                ResultSet resultStaff = statementStaff.executeQuery("SELECT * " +
-                        "FROM StaffMember WHERE `addressID` = " + addressID + ";");
-
-                while (resultStaff.next()) {
-
-                    staffID = resultStaff.getInt("staffID");
-                    title = resultStaff.getString("title");
-                    forenames = resultStaff.getString("forenames");
-                    surname = resultStaff.getString("surname");
-                    dateOfBirth = new GregorianCalendar();
-                    dateOfBirth.setTime(resultStaff.getDate("dateOfBirth"));
-                    isFemale = resultStaff.getBoolean("isFemale");
-                    addressID = resultStaff.getInt("addressID");
-                    telephone = resultStaff.getString("telephone");
-                    faxNumber = resultStaff.getString("faxNumber");
-                    email = resultStaff.getString("email");
-                    isManager = resultStaff.getBoolean("isManager");
-                    username = resultStaff.getString("username");
-                    password = resultStaff.getString("password");
-                    stillWithCompany = resultStaff.getBoolean("stillWithCompany");
-                    
-                    
-                    propertyName2 = resultAddress.getString("propertyName");
-                    streetName2 = resultAddress.getString("streetName");
-                    town2 = resultAddress.getString("town");
-                    country2 = resultAddress.getString("country");
-                    postCode2 = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName2, streetName2,
-                            town2, country2, postCode2);
-                    
-                    staffMembers.add(new StaffMember(staffID, title, forenames, surname,
-                        dateOfBirth, isFemale, address, telephone, faxNumber,
-                        email, isManager, username, password, stillWithCompany));
 
+        return getStaffMembersByAddress(new AddressQuery(country, town,
+                postCode, streetName, propertyName));
+    }
 
-                }
-                resultStaff.close();
-                statementStaff.close();
+    /**
+     * Get the members of staff living at addresses which match a search. Only
+     * the fields given are matched, and a post code matches from its start.
+     *
+     * @param search The address search
+     * @return The members of staff found, or null if an error occurred
+     * @throws java.lang.IllegalArgumentException When search is null
+     * @since 0.0.1
+     */
+    @Override
+    public Collection<StaffMember> getStaffMembersByAddress(
+            final AddressQuery search) {
+        if (search == null) throw new IllegalArgumentException("The address " +
+                    "search must not be null.");
+        Connection connection = null;
+        try {
+            connection = pool.getConnection();
+            if (!search.hasAddressIDs()) {
+                return readStaffMembers(queryAddress(connection,
+                        RowMapper.STAFFSELECT, search, null));
+            }
+            ArrayList<StaffMember> staffMembers = new ArrayList<StaffMember>();
+            int[] addressIDs = search.getAddressIDs();
+            for (int i = 0; i < addressIDs.length; i += IDBATCHSIZE) {
+                staffMembers.addAll(readStaffMembers(queryAddress(connection,
+                        RowMapper.STAFFSELECT, search,
+                        idBatch(addressIDs, i))));
             }
-            resultAddress.close();
-            statementAddress.close();
             return staffMembers;
-
-
-
         } catch (IllegalArgumentException e){
              writeSQLError("IllegalArgumentException: SQL returned invalid " +
                     "data in getStaffMembersByAddress()\n" + e.toString());
@@ -1238,68 +1703,22 @@ public class MySQL implements MortgageDatabase {
         } catch(SQLException e){
             writeSQLError("SQLException:" + e.toString());
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
 
     @Override
     public StaffMember getStaffMemberByUsername(final String uname) {
-        int staffID, addressID;
-        String title, forenames, surname, telephone, faxNumber, email, 
-                username, password, propertyName, streetName, town, country,
-                postCode;
-        boolean isFemale, isManager, stillWithCompany;
-        GregorianCalendar dateOfBirth;
-        Address address;
-        StaffMember staff;
-
+        Connection connection = null;
         try {
-            staff = null;
-            Statement statementStaff = connection.createStatement();
-            ResultSet resultStaff = statementStaff.executeQuery(
-                    "SELECT * FROM StaffMember WHERE username = '" + uname +
-                    "'");
-            if (resultStaff.absolute(1)) {
-                staffID = resultStaff.getInt("staffID");
-                title = resultStaff.getString("title");
-                forenames = resultStaff.getString("forenames");
-                surname = resultStaff.getString("surname");
-                dateOfBirth = new GregorianCalendar();
-                dateOfBirth.setTime(resultStaff.getDate("dateOfBirth"));
-                isFemale = resultStaff.getBoolean("isFemale");
-                addressID = resultStaff.getInt("addressID");
-                telephone = resultStaff.getString("telephone");
-                faxNumber = resultStaff.getString("faxNumber");
-                email = resultStaff.getString("email");
-                isManager = resultStaff.getBoolean("isManager");
-                username = resultStaff.getString("username");
-                password = resultStaff.getString("password");
-                stillWithCompany = resultStaff.getBoolean("stillWithCompany");
-
-                Statement statementAddress = connection.createStatement();
-                ResultSet resultAddress = statementAddress.executeQuery(
-                        "SELECT * FROM Address WHERE `addressID` = " +
-                        addressID);
-                if (resultAddress.absolute(1)) {
-                    propertyName = resultAddress.getString("propertyName");
-                    streetName = resultAddress.getString("streetName");
-                    town = resultAddress.getString("town");
-                    country = resultAddress.getString("country");
-                    postCode = resultAddress.getString("postCode");
-                    address = new Address(addressID, propertyName, streetName,
-                            town, country, postCode);
-                } else {
-                    return null;
-                }
-                resultAddress.close();
-                statementAddress.close();
-
-                staff = new StaffMember(staffID, title, forenames, surname,
-                        dateOfBirth, isFemale, address, telephone, faxNumber,
-                        email, isManager, username, password, stillWithCompany);
+            connection = pool.getConnection();
+            ArrayList<StaffMember> staff = readStaffMembers(query(connection,
+                    RowMapper.STAFFSELECT + " WHERE s.username = ?", uname));
+            if (staff.isEmpty()) {
+                return null;
             }
-            resultStaff.close();
-            statementStaff.close();
-            return staff;
+            return staff.get(0);
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return null;
@@ -1307,250 +1726,506 @@ public class MySQL implements MortgageDatabase {
             writeSQLError("IllegalArgumentException: SQL returned invalid " +
                     "data in getStaffMembersByName()");
             return null;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
+
     @Override
     public boolean modifyAddress(final Address address) {
         if(address == null) throw new IllegalArgumentException("The address " +
                 "instance must not be null.");
-        
+
+        Connection connection = null;
         try {
-            Statement statement = connection.createStatement();
-            statement.executeUpdate("UPDATE Address SET propertyName='" +
-                    address.getPropertyName() + "', streetName='" +
-                    address.getStreetName() + "', town='" + address.getTown() +
-                    "', country='" + address.getCountry() + "', postCode='" +
-                    address.getPostCode() + "' WHERE addressID=" +
-                    address.getAddressID());
-            statement.close();
+            connection = pool.getConnection();
+            updateAddress(connection, address);
             return true;
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return false;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
+
+    /**
+     * Update an address using a connection the caller has already borrowed
+     *
+     * @param connection The connection to update the address with
+     * @param address The address to be written to the database
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private void updateAddress(final Connection connection,
+            final Address address) throws SQLException
+    {
+        if(address == null) throw new IllegalArgumentException("The address " +
+                "instance must not be null.");
+        update(connection, "UPDATE Address SET propertyName = ?, " +
+                "streetName = ?, town = ?, country = ?, postCode = ? WHERE " +
+                "addressID = ?", address.getPropertyName(),
+                address.getStreetName(), address.getTown(),
+                address.getCountry(), address.getPostCode(),
+                address.getAddressID());
+    }
+
     @Override
     public boolean modifyCustomer(final Customer customer) {
         if (customer == null) throw new IllegalArgumentException("The customer" +
                     "instance must not be null.");
+        Connection connection = null;
         try {
-            if(!modifyAddress(customer.getAddressObject())) return false;
-            Statement statement = connection.createStatement();
-            String query = "UPDATE Customer SET title='" + customer.getTitle() +
-                    "', forenames='" + customer.getForenames() +
-                    "', surname='" + customer.getSurname() +
-                    "', dateOfBirth='" +
-                    customer.getDateOfBirth().get(GregorianCalendar.YEAR) +
-                    "-" +
-                    customer.getDateOfBirth().get(GregorianCalendar.MONTH) +
-                    "-" +
-                    customer.getDateOfBirth().get(
-                    GregorianCalendar.DAY_OF_MONTH) + "', isFemale=";
-            if (customer.getIsFemale()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
-            }
-            query = query + ", addressID=" +
-                    customer.getAddressObject().getAddressID() +
-                    ", telephone='" + customer.getTelephoneNumber() +
-                    "', faxNumber=";
-            if(customer.getFaxNumber() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + customer.getFaxNumber() + "'";
-            }
-            query = query + ", email=";
-            if(customer.getEmailAddress() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + customer.getEmailAddress() + "'";
-            }
-            query = query + ", nationalInsuranceNumber='" +
-                    customer.getNationalInsuranceNumber() +
-                    "', savingsAccountNumber='" +
-                    customer.getSavingsAccountNumber() + "' WHERE customerID=" +
-                    customer.getID();
-            statement.executeUpdate(query);
-            statement.close();
+            connection = pool.getConnection();
+            updateAddress(connection, customer.getAddressObject());
+            update(connection, "UPDATE Customer SET title = ?, " +
+                    "forenames = ?, surname = ?, dateOfBirth = ?, " +
+                    "isFemale = ?, addressID = ?, telephone = ?, " +
+                    "faxNumber = ?, email = ?, nationalInsuranceNumber = ?, " +
+                    "savingsAccountNumber = ? WHERE customerID = ?",
+                    customer.getTitle(), customer.getForenames(),
+                    customer.getSurname(),
+                    toSQLDate(customer.getDateOfBirth()),
+                    customer.getIsFemale(),
+                    customer.getAddressObject().getAddressID(),
+                    customer.getTelephoneNumber(), customer.getFaxNumber(),
+                    customer.getEmailAddress(),
+                    customer.getNationalInsuranceNumber(),
+                    customer.getSavingsAccountNumber(), customer.getID());
             return true;
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
             return false;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
+
     public boolean modifyEmploymentDetails(final Employment employment,
             final int customerID) {
         if(employment == null) throw new IllegalArgumentException("The " +
                 "employment instance must not be null.");
-        
+
+        Connection connection = null;
         try {
-            if(!modifyAddress(employment.getEmployerAddressObject())) return false;
-            Statement statement = connection.createStatement();
-            String query = "UPDATE Employment SET employerName='" +
-                    employment.getEmployerName() + "', employerAddress=" +
-                    employment.getEmployerAddressObject().getAddressID() +
-                    ", employerTelephone='" + employment.getEmployerTelephone() +
-                    "', employerFax='" + employment.getEmployerFax() + "', dateStarted='" +
-                    employment.getDateStarted().get(GregorianCalendar.YEAR) +
-                    "-" +
-                    employment.getDateStarted().get(GregorianCalendar.MONTH) +
-                    "-" +
-                    employment.getDateStarted().get(
-                    GregorianCalendar.DAY_OF_MONTH) + "', dateEnded=";
-            if (employment.getDateEnded() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" +
-                        employment.getDateEnded().get(GregorianCalendar.YEAR) +
-                        "-" +
-                        employment.getDateEnded().get(GregorianCalendar.MONTH) +
-                        "-" +
-                        employment.getDateEnded().get(
-                        GregorianCalendar.DAY_OF_MONTH) + "'";
-            }
-            query = query + ", hoursPerWeek=" + employment.getHoursPerWeek() +
-                    ", currentAnnualSalery=" +
-                    employment.getCurrentAnnualSalery() + ", permenant=";
-            if (employment.isEmploymentPermenant()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
-            }
-            query = query + ", selfEmployed=";
-            if (employment.isSelfEmployed()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
-            }
-            query = query + ", customer=" + customerID +
-                    " WHERE employmentID=" + employment.getEmploymentID();
-            statement.executeUpdate(query);
-            statement.close();
+            connection = pool.getConnection();
+            updateAddress(connection, employment.getEmployerAddressObject());
+            update(connection, "UPDATE Employment SET employerName = ?, " +
+                    "employerAddress = ?, employerTelephone = ?, " +
+                    "employerFax = ?, dateStarted = ?, dateEnded = ?, " +
+                    "hoursPerWeek = ?, currentAnnualSalery = ?, " +
+                    "permenant = ?, selfEmployed = ?, customer = ? WHERE " +
+                    "employmentID = ?", employment.getEmployerName(),
+                    employment.getEmployerAddressObject().getAddressID(),
+                    employment.getEmployerTelephone(),
+                    employment.getEmployerFax(),
+                    toSQLDate(employment.getDateStarted()),
+                    toSQLDate(employment.getDateEnded()),
+                    employment.getHoursPerWeek(),
+                    employment.getCurrentAnnualSalery(),
+                    employment.isEmploymentPermenant(),
+                    employment.isSelfEmployed(), customerID,
+                    employment.getEmploymentID());
             return true;
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
-            return false;  
+            return false;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
+
     public boolean modifySurveyor(final Surveyor surveyor){
         if(surveyor == null) throw new IllegalArgumentException("The staff " +
                 "member instance must not be null.");
-        
+
+        Connection connection = null;
         try {
-            if(!modifyAddress(surveyor.getSurveyorAddressObject())) return false;
-            Statement statement = connection.createStatement();
-            String query = "UPDATE Surveyors SET surveyorName='" + surveyor.getSurveyorName() +
-                    "', telephone='" + surveyor.getTelephoneNumber() + "', addressID=" +
-                    surveyor.getSurveyorAddressObject().getAddressID();
-            query += ", faxNumber=";
-            if (surveyor.getFaxNumber() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + surveyor.getFaxNumber() + "'";
-            }
-            query = query + ", email=";
-            if (surveyor.getEmailAddress() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + surveyor.getEmailAddress() + "'";
-            }
-            query += " WHERE surveyorID=" + surveyor.getSurveyorID();
-            statement.executeUpdate(query);
-            statement.close();
+            connection = pool.getConnection();
+            updateAddress(connection, surveyor.getSurveyorAddressObject());
+            update(connection, "UPDATE Surveyors SET surveyorName = ?, " +
+                    "telephone = ?, addressID = ?, faxNumber = ?, email = ? " +
+                    "WHERE surveyorID = ?", surveyor.getSurveyorName(),
+                    surveyor.getTelephoneNumber(),
+                    surveyor.getSurveyorAddressObject().getAddressID(),
+                    surveyor.getFaxNumber(), surveyor.getEmailAddress(),
+                    surveyor.getSurveyorID());
             return true;
         }  catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
-            return false;  
+            return false;
+        } finally {
+            pool.releaseConnection(connection);
         }
     }
-    
-    
+
+
     @Override
     public boolean modifyStaffMember(final StaffMember staff) {
         if(staff == null) throw new IllegalArgumentException("The staff " +
                 "member instance must not be null.");
-        
+
+        Connection connection = null;
         try {
-            if(!modifyAddress(staff.getAddressObject())) return false;
-            Statement statement = connection.createStatement();
-            String query = "UPDATE StaffMember SET title='" + staff.getTitle() +
-                    "', forenames='" + staff.getForenames() + "', surname='" +
-                    staff.getSurname() + "', dateOfBirth='" +
-                    staff.getDateOfBirth().get(GregorianCalendar.YEAR) + "-" +
-                    staff.getDateOfBirth().get(GregorianCalendar.MONTH) + "-" +
-                    staff.getDateOfBirth().get(GregorianCalendar.DAY_OF_MONTH) +
-                    "', isFemale=";
-            if (staff.getIsFemale()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
+            connection = pool.getConnection();
+            updateAddress(connection, staff.getAddressObject());
+            update(connection, "UPDATE StaffMember SET title = ?, " +
+                    "forenames = ?, surname = ?, dateOfBirth = ?, " +
+                    "isFemale = ?, addressID = ?, telephone = ?, " +
+                    "faxNumber = ?, email = ?, isManager = ?, username = ?, " +
+                    "stillWithCompany = ? WHERE staffID = ?",
+                    staff.getTitle(), staff.getForenames(),
+                    staff.getSurname(), toSQLDate(staff.getDateOfBirth()),
+                    staff.getIsFemale(),
+                    staff.getAddressObject().getAddressID(),
+                    staff.getTelephoneNumber(), staff.getFaxNumber(),
+                    staff.getEmailAddress(), staff.getIsManager(),
+                    staff.getUsername(), staff.getIsStillWithCompany(),
+                    staff.getID());
+            return true;
+        } catch (SQLException e) {
+            writeSQLError("SQLException: " + e.toString());
+            return false;
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Run a query through the connection's statement cache with the
+     * parameters bound in order. The caller must close the result set but
+     * not its statement.
+     *
+     * @param connection The connection to run the query on
+     * @param sql The SQL template, with ? for each parameter
+     * @param parameters The values for the parameters
+     * @return The result of the query
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private ResultSet query(final Connection connection, final String sql,
+            final Object... parameters) throws SQLException
+    {
+        PreparedStatement statement = pool.prepareStatement(connection, sql);
+        bind(statement, parameters);
+        long started = System.nanoTime();
+        ResultSet result = null;
+        try {
+            result = statement.executeQuery();
+        } finally {
+            if (result == null) {
+                SLOWQUERIES.executed(sql, parameters, SlowQueryLog.FAILED,
+                        started);
             }
-            query = query + ", addressID=" +
-                    staff.getAddressObject().getAddressID() + ", telephone='" +
-                    staff.getTelephoneNumber() + "', faxNumber=";
-            if (staff.getFaxNumber() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + staff.getFaxNumber() + "'";
+        }
+        return SLOWQUERIES.queried(sql, parameters, result, started);
+    }
+
+    /**
+     * Run an INSERT through the connection's statement cache with the
+     * parameters bound in order, and return the key it generated
+     *
+     * @param connection The connection to run the insert on
+     * @param sql The SQL template, with ? for each parameter
+     * @param parameters The values for the parameters
+     * @return The generated key, or -1 if no key was generated
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private int insert(final Connection connection, final String sql,
+            final Object... parameters) throws SQLException
+    {
+        PreparedStatement statement = pool.prepareStatement(connection, sql,
+                Statement.RETURN_GENERATED_KEYS);
+        bind(statement, parameters);
+        long started = System.nanoTime();
+        int rows = SlowQueryLog.FAILED;
+        ResultSet keys = null;
+        try {
+            rows = statement.executeUpdate();
+            keys = statement.getGeneratedKeys();
+            if (!keys.next()) {
+                return -1;
             }
-            query = query + ", email=";
-            if (staff.getEmailAddress() == null) {
-                query = query + "NULL";
-            } else {
-                query = query + "'" + staff.getEmailAddress() + "'";
+            return keys.getInt(1);
+        } finally {
+            SLOWQUERIES.executed(sql, parameters, rows, started);
+            if (keys != null) {
+                keys.close();
             }
-            query = query + ", isManager=";
-            if (staff.getIsManager()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
+        }
+    }
+
+    /**
+     * Run multi-row INSERTs of BULKROWS rows at a time through the
+     * connection's statement cache, and return the keys they generated. The
+     * keys of a multi-row INSERT are returned in the order of its rows.
+     *
+     * @param connection The connection to run the inserts on
+     * @param insert The INSERT statement up to and including VALUES
+     * @param columns The number of columns in each row
+     * @param rows The values of each row
+     * @return The generated key of each row, in order
+     * @throws java.sql.SQLException When a SQLException occurrs, or a key was
+     * not generated for every row
+     * @since 0.0.1
+     */
+    private int[] insertRows(final Connection connection, final String insert,
+            final int columns, final ArrayList<Object[]> rows)
+            throws SQLException
+    {
+        int[] keys = new int[rows.size()];
+        for (int start = 0; start < rows.size(); start += BULKROWS) {
+            int count = Math.min(BULKROWS, rows.size() - start);
+            String sql = insert + rowPlaceholders(columns, count);
+            PreparedStatement statement = pool.prepareStatement(connection,
+                    sql, Statement.RETURN_GENERATED_KEYS);
+            Object[] parameters = new Object[columns * count];
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(rows.get(start + i), 0, parameters,
+                        i * columns, columns);
             }
-            query = query + ", username='" + staff.getUsername() +
-                    "', stillWithCompany=";
-            if (staff.getIsStillWithCompany()) {
-                query = query + "1";
-            } else {
-                query = query + "0";
+            bind(statement, parameters);
+            long started = System.nanoTime();
+            int inserted = SlowQueryLog.FAILED;
+            ResultSet generated = null;
+            try {
+                inserted = statement.executeUpdate();
+                generated = statement.getGeneratedKeys();
+                for (int i = 0; i < count; i++) {
+                    if (!generated.next()) {
+                        throw new SQLException("Only " + i + " of " + count +
+                                " keys were generated.");
+                    }
+                    keys[start + i] = generated.getInt(1);
+                }
+            } finally {
+                SLOWQUERIES.executed(sql, parameters, inserted, started);
+                if (generated != null) {
+                    generated.close();
+                }
             }
-            query = query + " WHERE staffID=" + staff.getID();
-            statement.executeUpdate(query);
-            statement.close();
-            return true;
+        }
+        return keys;
+    }
+
+    /**
+     * Get the placeholders for the rows of an INSERT
+     *
+     * @param columns The number of columns in each row
+     * @param rows The number of rows
+     * @return The placeholders, such as (?, ?), (?, ?)
+     * @since 0.0.1
+     */
+    private static String rowPlaceholders(final int columns, final int rows) {
+        StringBuilder row = new StringBuilder("(?");
+        for (int i = 1; i < columns; i++) {
+            row.append(", ?");
+        }
+        row.append(")");
+        StringBuilder placeholders = new StringBuilder(row);
+        for (int i = 1; i < rows; i++) {
+            placeholders.append(", ").append(row);
+        }
+        return placeholders.toString();
+    }
+
+    /**
+     * Get the values of an address for ADDRESSINSERT
+     *
+     * @param address The address
+     * @return The values, in the order of the columns
+     * @since 0.0.1
+     */
+    private static Object[] addressRow(final Address address) {
+        return new Object[] {address.getPropertyName(),
+                address.getStreetName(), address.getTown(),
+                address.getCountry(), address.getPostCode()};
+    }
+
+    /**
+     * Get the values of a customer for CUSTOMERINSERT
+     *
+     * @param customer The customer
+     * @param addressID The ID of the customer's address
+     * @return The values, in the order of the columns
+     * @since 0.0.1
+     */
+    private static Object[] customerRow(final Customer customer,
+            final int addressID) {
+        return new Object[] {customer.getTitle(), customer.getForenames(),
+                customer.getSurname(), toSQLDate(customer.getDateOfBirth()),
+                customer.getIsFemale(), addressID,
+                customer.getTelephoneNumber(), customer.getFaxNumber(),
+                customer.getEmailAddress(),
+                customer.getNationalInsuranceNumber(),
+                customer.getSavingsAccountNumber()};
+    }
+
+    /**
+     * Roll back the transaction open on a connection, logging rather than
+     * throwing any error, as the caller is already handling one
+     *
+     * @param connection The connection to roll back
+     * @since 0.0.1
+     */
+    private static void rollback(final Connection connection) {
+        try {
+            connection.rollback();
         } catch (SQLException e) {
             writeSQLError("SQLException: " + e.toString());
-            return false;  
         }
     }
 
-    
-    
     /**
-     * Output an SQL error to file when an SQL error occurrs. The format will be
-     * written as (current times used): dd/mm/yyyy hh:mm:ss:msmsms error
-     * @param error
+     * Run an UPDATE or DELETE through the connection's statement cache with
+     * the parameters bound in order
+     *
+     * @param connection The connection to run the update on
+     * @param sql The SQL template, with ? for each parameter
+     * @param parameters The values for the parameters
+     * @return The number of rows changed
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
      */
-    private static void writeSQLError(final String error) {
+    private int update(final Connection connection, final String sql,
+            final Object... parameters) throws SQLException
+    {
+        PreparedStatement statement = pool.prepareStatement(connection, sql);
+        bind(statement, parameters);
+        long started = System.nanoTime();
+        int rows = SlowQueryLog.FAILED;
         try {
-            BufferedWriter output = new BufferedWriter(
-                    new FileWriter(ERRORFILE, true));
-            GregorianCalendar now = new GregorianCalendar();
-            output.write(now.get(GregorianCalendar.DAY_OF_MONTH) + "/" +
-                    now.get(GregorianCalendar.MONTH) + "/" +
-                    now.get(GregorianCalendar.YEAR) + " " +
-                    now.get(GregorianCalendar.HOUR_OF_DAY) + ":" +
-                    now.get(GregorianCalendar.MINUTE) + ":" +
-                    now.get(GregorianCalendar.SECOND) + ":" +
-                    now.get(GregorianCalendar.MILLISECOND) + " " + error +
-                    "\n");
-            output.close();
-        } catch (IOException e) {
-            // We're already tried to report an error and failed, why try to
-            // recover?
+            rows = statement.executeUpdate();
+            return rows;
+        } finally {
+            SLOWQUERIES.executed(sql, parameters, rows, started);
+        }
+    }
+
+    /**
+     * Run a query which joins Address as "a", restricted by an address search
+     *
+     * @param connection The connection to run the query on
+     * @param select The SELECT and FROM clauses of the query
+     * @param search The address search
+     * @param addressIDs The batch of address IDs to match, or null when the
+     * search has no address IDs
+     * @return The result of the query
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private ResultSet queryAddress(final Connection connection,
+            final String select, final AddressQuery search,
+            final Object[] addressIDs) throws SQLException
+    {
+        ArrayList<Object> parameters = new ArrayList<Object>();
+        String where = search.toWhereClause(parameters, idPlaceholders(),
+                addressIDs);
+        return query(connection, select + where, parameters.toArray());
+    }
+
+    /**
+     * Get the placeholder list for a batch of IDs. Every batch has the same
+     * number of placeholders, so all batches share one cached statement.
+     *
+     * @return The placeholders, such as (?, ?, ?)
+     * @since 0.0.1
+     */
+    private static String idPlaceholders() {
+        StringBuilder placeholders = new StringBuilder("(?");
+        for (int i = 1; i < IDBATCHSIZE; i++) {
+            placeholders.append(", ?");
+        }
+        return placeholders.append(")").toString();
+    }
+
+    /**
+     * Get the parameters for one batch of IDs. A short final batch is padded
+     * with -1, which is never a valid ID.
+     *
+     * @param ids All of the IDs
+     * @param start The index of the first ID in this batch
+     * @return The IDBATCHSIZE parameters for the batch
+     * @since 0.0.1
+     */
+    private static Object[] idBatch(final int[] ids, final int start) {
+        Object[] batch = new Object[IDBATCHSIZE];
+        for (int i = 0; i < IDBATCHSIZE; i++) {
+            batch[i] = start + i < ids.length ? ids[start + i] : -1;
+        }
+        return batch;
+    }
+
+    /**
+     * Bind parameters to a prepared statement in order. Null values are
+     * bound as SQL NULL, and amounts of money as exact decimals.
+     *
+     * @param statement The statement to bind the parameters to
+     * @param parameters The values for the parameters
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static void bind(final PreparedStatement statement,
+            final Object... parameters) throws SQLException
+    {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] == null) {
+                statement.setNull(i + 1, Types.VARCHAR);
+            } else if (parameters[i] instanceof Money) {
+                statement.setBigDecimal(i + 1,
+                        ((Money) parameters[i]).toBigDecimal());
+            } else {
+                statement.setObject(i + 1, parameters[i]);
+            }
+        }
+    }
+
+    /**
+     * Convert a date to the value written to a DATE column
+     *
+     * @param date The date to be converted, can be null
+     * @return The date as a java.sql.Date, or null if date is null
+     * @since 0.0.1
+     */
+    private static Date toSQLDate(final Day date) {
+        if (date == null) {
+            return null;
         }
+        return Date.valueOf(date.toString());
+    }
+
+    /**
+     * Get the log SQL errors are written to, to read its counters or to log
+     * other database events
+     *
+     * @return The SQL error log
+     * @since 0.0.1
+     */
+    public static AsyncLogWriter getErrorLog() {
+        return ERRORLOG;
+    }
+
+    /**
+     * Get the log which times every statement, to change its threshold or
+     * to list the statements which have taken the most time
+     *
+     * @return The slow query log
+     * @since 0.0.1
+     */
+    public static SlowQueryLog getSlowQueryLog() {
+        return SLOWQUERIES;
+    }
+
+    /**
+     * Output an SQL error to file when an SQL error occurrs. The error is
+     * queued and written by the log's own thread, so this never waits on the
+     * disk. The format will be written as (current times used):
+     * dd/mm/yyyy hh:mm:ss:msmsms error
+     *
+     * @param error The error to log
+     */
+    private static void writeSQLError(final String error) {
+        ERRORLOG.log(error);
     }
 }
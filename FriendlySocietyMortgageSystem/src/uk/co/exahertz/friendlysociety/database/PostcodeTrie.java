@@ -0,0 +1,232 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A compressed trie (radix tree) from post codes to the IDs of the addresses
+ * which have them. Each edge holds a run of characters rather than a single
+ * one, so the shared area and district at the start of post codes is stored
+ * once. Looking up a prefix such as "SW1A" walks the edges for its
+ * characters and collects every address below, without looking at any other
+ * post code.<br>
+ * Post codes are normalised to upper case with the spaces removed, so
+ * "sw1a 1" and "SW1A1" find the same addresses, as AddressQuery matches them
+ * in SQL and in memory.<br>
+ * The trie can be searched by many threads at once while it is updated.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+class PostcodeTrie {
+    private final Node root;
+    private final HashMap<Integer, String> postCodes;
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * Create a new empty trie
+     *
+     * @since 0.0.1
+     */
+    PostcodeTrie() {
+        root = new Node("");
+        postCodes = new HashMap<Integer, String>();
+        lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Add an address to the trie, moving it if it is already in the trie
+     * under a different post code
+     *
+     * @param addressID The ID of the address
+     * @param postCode The post code of the address
+     * @since 0.0.1
+     */
+    void put(final int addressID, final String postCode) {
+        String key = normalise(postCode);
+        lock.writeLock().lock();
+        try {
+            String old = postCodes.put(addressID, key);
+            if(key.equals(old)) return;
+            if(old != null) {
+                Node node = find(old, true);
+                if(node != null && node.ids != null) node.ids.remove(addressID);
+            }
+            insert(key).addID(addressID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find every address whose post code starts with a prefix
+     *
+     * @param prefix The start of the post code
+     * @return The IDs of the matching addresses in ascending order
+     * @since 0.0.1
+     */
+    int[] searchPrefix(final String prefix) {
+        String key = normalise(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = find(key, false);
+            if(node == null) return new int[0];
+            int[] found = new int[postCodes.size()];
+            int count = 0;
+            LinkedList<Node> stack = new LinkedList<Node>();
+            stack.add(node);
+            while(!stack.isEmpty()) {
+                Node next = stack.removeLast();
+                if(next.ids != null) {
+                    for(Integer id : next.ids) {
+                        found[count++] = id;
+                    }
+                }
+                if(next.children != null) stack.addAll(next.children.values());
+            }
+            found = Arrays.copyOf(found, count);
+            Arrays.sort(found);
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of addresses in the trie
+     *
+     * @return The number of addresses
+     * @since 0.0.1
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return postCodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the node for a key. Must be called with a lock held.
+     *
+     * @param key The normalised key
+     * @param exact True to find only the node for exactly this key, false to
+     * find the highest node whose path starts with the key
+     * @return The node, or null if there is none
+     * @since 0.0.1
+     */
+    private Node find(final String key, final boolean exact) {
+        Node node = root;
+        int i = 0;
+        while(i < key.length()) {
+            Node child = node.children == null ? null :
+                    node.children.get(key.charAt(i));
+            if(child == null) return null;
+            int length = Math.min(child.label.length(), key.length() - i);
+            if(!child.label.regionMatches(0, key, i, length)) return null;
+            if(exact && length < child.label.length()) return null;
+            i += length;
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Find or create the node for a key, splitting an edge where the key
+     * leaves it part way along. Must be called with the write lock held.
+     *
+     * @param key The normalised key
+     * @return The node for the key
+     * @since 0.0.1
+     */
+    private Node insert(final String key) {
+        Node node = root;
+        int i = 0;
+        while(i < key.length()) {
+            char first = key.charAt(i);
+            Node child = node.children == null ? null :
+                    node.children.get(first);
+            if(child == null) {
+                child = new Node(key.substring(i));
+                node.addChild(child);
+                return child;
+            }
+            int common = 0;
+            int length = Math.min(child.label.length(), key.length() - i);
+            while(common < length &&
+                    child.label.charAt(common) == key.charAt(i + common)) {
+                common++;
+            }
+            if(common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.addChild(child);
+                node.children.put(first, split);
+                child = split;
+            }
+            i += common;
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Normalise a post code to upper case with no spaces
+     *
+     * @param postCode The post code, can be null
+     * @return The normalised post code
+     * @since 0.0.1
+     * @see AddressQuery#normalisePostCode(String)
+     */
+    private static String normalise(final String postCode) {
+        return AddressQuery.normalisePostCode(postCode);
+    }
+
+    /**
+     * A node of the trie, reached by the characters of its label
+     *
+     * @since 0.0.1
+     */
+    private static class Node {
+        private String label;
+        private HashMap<Character, Node> children;
+        private HashSet<Integer> ids;
+
+        /**
+         * Create a new node
+         *
+         * @param label The characters on the edge leading to this node
+         * @since 0.0.1
+         */
+        Node(final String label) {
+            this.label = label;
+        }
+
+        /**
+         * Add a child node, keyed by the first character of its label
+         *
+         * @param child The child node
+         * @since 0.0.1
+         */
+        void addChild(final Node child) {
+            if(children == null) children = new HashMap<Character, Node>(4);
+            children.put(child.label.charAt(0), child);
+        }
+
+        /**
+         * Add an address which has exactly the post code of this node
+         *
+         * @param id The ID of the address
+         * @since 0.0.1
+         */
+        void addID(final int id) {
+            if(ids == null) ids = new HashSet<Integer>(2);
+            ids.add(id);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The totals of every run of one SQL template, kept by SlowQueryLog so that
+ * the statements costing the database the most time can be found.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class QueryStatistics {
+    private static final double NANOSPERMILLI = 1000000.0;
+    private final String sql;
+    private final AtomicLong count;
+    private final AtomicLong slowCount;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maxNanos;
+
+    /**
+     * Create the statistics of a template
+     *
+     * @param sql The SQL template
+     * @since 0.0.1
+     */
+    QueryStatistics(final String sql) {
+        this.sql = sql;
+        count = new AtomicLong();
+        slowCount = new AtomicLong();
+        totalNanos = new AtomicLong();
+        maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Count a run of the template
+     *
+     * @param nanos How long the run took
+     * @param slow True if the run was over the slow query threshold
+     * @since 0.0.1
+     */
+    void record(final long nanos, final boolean slow) {
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        if(slow) slowCount.incrementAndGet();
+        long current = maxNanos.get();
+        while(nanos > current && !maxNanos.compareAndSet(current, nanos)) {
+            current = maxNanos.get();
+        }
+    }
+
+    /**
+     * Get the SQL template, with ? for each parameter
+     *
+     * @return The template
+     * @since 0.0.1
+     */
+    public String getSQL() {
+        return sql;
+    }
+
+    /**
+     * Get the number of times the template has been run
+     *
+     * @return The count
+     * @since 0.0.1
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the number of runs which were over the slow query threshold
+     *
+     * @return The count of slow runs
+     * @since 0.0.1
+     */
+    public long getSlowCount() {
+        return slowCount.get();
+    }
+
+    /**
+     * Get the time spent running the template
+     *
+     * @return The total time in milliseconds
+     * @since 0.0.1
+     */
+    public double getTotalMillis() {
+        return totalNanos.get() / NANOSPERMILLI;
+    }
+
+    /**
+     * Get the mean time of a run of the template
+     *
+     * @return The mean time in milliseconds, or 0 if it has not been run
+     * @since 0.0.1
+     */
+    public double getMeanMillis() {
+        long n = count.get();
+        return n == 0 ? 0 : totalNanos.get() / NANOSPERMILLI / n;
+    }
+
+    /**
+     * Get the time of the slowest run of the template
+     *
+     * @return The longest time in milliseconds
+     * @since 0.0.1
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / NANOSPERMILLI;
+    }
+
+    /**
+     * Get the total time in nanoseconds, to sort templates by
+     *
+     * @return The total time in nanoseconds
+     * @since 0.0.1
+     */
+    long getTotalNanos() {
+        return totalNanos.get();
+    }
+}
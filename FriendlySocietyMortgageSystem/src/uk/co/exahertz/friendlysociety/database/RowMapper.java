@@ -0,0 +1,417 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import uk.co.exahertz.friendlysociety.core.*;
+
+/**
+ * Builds the domain objects from the rows of a ResultSet. Each row must come
+ * from a query which joins the entity to its Address, so that the entity and
+ * its address are both built from the one row without another round trip to
+ * the database.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+final class RowMapper {
+    /** The Address columns selected alongside each entity */
+    static final String ADDRESSCOLUMNS = "a.propertyName, a.streetName, " +
+            "a.town, a.country, a.postCode";
+    /** Select customers joined to their address */
+    static final String CUSTOMERSELECT = "SELECT c.*, " + ADDRESSCOLUMNS +
+            " FROM Customer c INNER JOIN Address a ON a.addressID = " +
+            "c.addressID";
+    /** Select members of staff joined to their address */
+    static final String STAFFSELECT = "SELECT s.*, " + ADDRESSCOLUMNS +
+            " FROM StaffMember s INNER JOIN Address a ON a.addressID = " +
+            "s.addressID";
+    /** Select surveyors joined to their address */
+    static final String SURVEYORSELECT = "SELECT v.*, " + ADDRESSCOLUMNS +
+            " FROM Surveyors v INNER JOIN Address a ON a.addressID = " +
+            "v.addressID";
+    /** Select employments joined to the address of the employer */
+    static final String EMPLOYMENTSELECT = "SELECT e.*, " + ADDRESSCOLUMNS +
+            " FROM Employment e INNER JOIN Address a ON a.addressID = " +
+            "e.employerAddress";
+    /** Select mortgages joined to their property and its address */
+    static final String MORTGAGESELECT = "SELECT m.*, p.addressID, " +
+            "p.propertyType, p.numberOfBedrooms, " + ADDRESSCOLUMNS +
+            " FROM Mortgage m INNER JOIN Property p ON p.propertyID = " +
+            "m.propertyID INNER JOIN Address a ON a.addressID = p.addressID";
+    /** Select the payments of a mortgage */
+    static final String PAYMENTSELECT = "SELECT * FROM " +
+            "MortgagePaymentDetails WHERE mortgageID = ?";
+    /** The order of the payments of a mortgage, which the index follows */
+    static final String PAYMENTORDER = " ORDER BY paymentDueDate, " +
+            "paymentID LIMIT ?";
+    /** Select the payments of a range of mortgage IDs */
+    static final String PAYMENTRANGESELECT = "SELECT * FROM " +
+            "MortgagePaymentDetails WHERE mortgageID BETWEEN ? AND ?";
+    /**
+     * Select the snapshots of accounts joined to the payment each was read up
+     * to, which must still be due on the same day
+     */
+    static final String ACCOUNTSNAPSHOTSELECT = "SELECT s.*, p.* FROM " +
+            "AccountSnapshot s INNER JOIN MortgagePaymentDetails p ON " +
+            "p.paymentID = s.positionPaymentID AND p.mortgageID = " +
+            "s.mortgageID AND p.paymentDueDate = s.positionDueDate";
+    /**
+     * The order of the payments of a range of mortgages, which the index
+     * follows as it ends with the primary key
+     */
+    static final String PAYMENTRANGEORDER = " ORDER BY mortgageID, " +
+            "paymentDueDate, paymentID LIMIT ?";
+
+    /**
+     * This class only has static methods
+     *
+     * @since 0.0.1
+     */
+    private RowMapper() {
+    }
+
+    /**
+     * Build the address from the current row
+     *
+     * @param result The result set positioned on the row
+     * @param idColumn The column which holds the ID of the address
+     * @return The address
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static Address mapAddress(final ResultSet result, final String idColumn)
+            throws SQLException
+    {
+        return new Address(result.getInt(idColumn),
+                result.getString("propertyName"),
+                result.getString("streetName"), result.getString("town"),
+                result.getString("country"), result.getString("postCode"));
+    }
+
+    /**
+     * Build the customer from the current row of a CUSTOMERSELECT query
+     *
+     * @param result The result set positioned on the row
+     * @return The customer
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static Customer mapCustomer(final ResultSet result) throws SQLException {
+        return new Customer(result.getInt("customerID"),
+                result.getString("title"), result.getString("forenames"),
+                result.getString("surname"), getDay(result,
+                "dateOfBirth"), result.getBoolean("isFemale"),
+                mapAddress(result, "addressID"),
+                result.getString("telephone"), result.getString("faxNumber"),
+                result.getString("email"),
+                result.getString("nationalInsuranceNumber"),
+                result.getString("savingsAccountNumber"));
+    }
+
+    /**
+     * Build the member of staff from the current row of a STAFFSELECT query
+     *
+     * @param result The result set positioned on the row
+     * @return The member of staff
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static StaffMember mapStaffMember(final ResultSet result)
+            throws SQLException
+    {
+        return new StaffMember(result.getInt("staffID"),
+                result.getString("title"), result.getString("forenames"),
+                result.getString("surname"), getDay(result,
+                "dateOfBirth"), result.getBoolean("isFemale"),
+                mapAddress(result, "addressID"),
+                result.getString("telephone"), result.getString("faxNumber"),
+                result.getString("email"), result.getBoolean("isManager"),
+                result.getString("username"), result.getString("password"),
+                result.getBoolean("stillWithCompany"));
+    }
+
+    /**
+     * Build the surveyor from the current row of a SURVEYORSELECT query
+     *
+     * @param result The result set positioned on the row
+     * @return The surveyor
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static Surveyor mapSurveyor(final ResultSet result) throws SQLException {
+        return new Surveyor(result.getInt("surveyorID"),
+                result.getString("surveyorName"),
+                mapAddress(result, "addressID"),
+                result.getString("telephone"), result.getString("faxNumber"),
+                result.getString("email"));
+    }
+
+    /**
+     * Build the employment from the current row of an EMPLOYMENTSELECT query
+     *
+     * @param result The result set positioned on the row
+     * @return The employment
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static Employment mapEmployment(final ResultSet result)
+            throws SQLException
+    {
+        return new Employment(result.getInt("employmentID"),
+                result.getString("employerName"),
+                mapAddress(result, "employerAddress"),
+                result.getString("employerTelephone"),
+                result.getString("employerFax"),
+                getDay(result, "dateStarted"),
+                getDay(result, "dateEnded"),
+                result.getFloat("hoursPerWeek"),
+                getMoney(result, "currentAnnualSalery"),
+                result.getBoolean("permenant"),
+                result.getBoolean("selfEmployed"));
+    }
+
+    /**
+     * Build the credit check from the current row of a query on the
+     * CreditCheck table
+     *
+     * @param result The result set positioned on the row
+     * @return The credit check
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static CreditCheck mapCreditCheck(final ResultSet result)
+            throws SQLException
+    {
+        return new CreditCheck(result.getInt("creditCheckID"),
+                getDay(result, "creditCheckDate"),
+                result.getInt("creditCheckScore"),
+                result.getString("creditCheckRiskStatus"));
+    }
+
+    /**
+     * Build the payment from the current row of a query on the
+     * MortgagePaymentDetails table
+     *
+     * @param result The result set positioned on the row
+     * @return The payment
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static MortgagePaymentDetails mapPayment(final ResultSet result)
+            throws SQLException
+    {
+        MortgagePaymentDetails payment = new MortgagePaymentDetails(
+                result.getInt("paymentID"),
+                getDay(result, "paymentDueDate"),
+                getEnum(result, "methodOfPayment", MethodOfPayment.values()),
+                getMoney(result, "amount"));
+        Day made = getDay(result, "paymentMadeDate");
+        if (made != null) {
+            try {
+                payment.setPaymentMadeDate(made);
+            } catch (PaymentAlreadyMadeException e) {
+                // The payment was only just created
+                throw new IllegalStateException(e);
+            }
+        }
+        return payment;
+    }
+
+    /**
+     * Read the current row of a MORTGAGESELECT query. The mortgage itself
+     * is built once its customers have been read.
+     *
+     * @param result The result set positioned on the row
+     * @return The row
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static MortgageRow mapMortgage(final ResultSet result)
+            throws SQLException
+    {
+        return new MortgageRow(result);
+    }
+
+    /**
+     * Read an INT column holding the ordinal of an enum
+     *
+     * @param <E> The type of the enum
+     * @param result The result set positioned on the row
+     * @param column The name of the column
+     * @param values The values of the enum
+     * @return The value, or null if the column is NULL
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @throws java.lang.IllegalArgumentException When the column is not an
+     * ordinal of the enum
+     * @since 0.0.1
+     */
+    static <E extends Enum<E>> E getEnum(final ResultSet result,
+            final String column, final E[] values) throws SQLException
+    {
+        int ordinal = result.getInt(column);
+        if (result.wasNull()) {
+            return null;
+        }
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("The " + column + " " +
+                    ordinal + " is not valid.");
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Map a row of an ACCOUNTSNAPSHOTSELECT query to a snapshot of an account
+     *
+     * @param result The result set positioned on the row
+     * @param unpaid The payments not made stored with the snapshot, in the
+     * order they fall due, or null if there are none
+     * @return The snapshot
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @throws java.lang.IllegalArgumentException When the row does not make
+     * a valid snapshot
+     * @since 0.0.1
+     */
+    static MortgageAccount mapAccountSnapshot(final ResultSet result,
+            final List<MortgagePaymentDetails> unpaid) throws SQLException
+    {
+        int count = unpaid == null ? 0 : unpaid.size();
+        int[] ids = new int[count];
+        int[] dueDays = new int[count];
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            MortgagePaymentDetails payment = unpaid.get(i);
+            ids[i] = payment.getPaymentID();
+            dueDays[i] = payment.getPaymentDueDate().getEpochDay();
+            amounts[i] = payment.getAmount().getPence();
+        }
+        return MortgageAccount.snapshotOf(result.getInt("paymentCount"),
+                getMoney(result, "totalDue").getPence(),
+                getMoney(result, "totalPaid").getPence(),
+                result.getInt("lastDueMonth"), ids, dueDays, amounts,
+                mapPayment(result));
+    }
+
+    /**
+     * Read a DECIMAL column as an amount of money, without going through a
+     * float
+     *
+     * @param result The result set positioned on the row
+     * @param column The name of the column
+     * @return The amount, or null if the column is NULL
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static Money getMoney(final ResultSet result, final String column)
+            throws SQLException
+    {
+        return Money.valueOf(result.getBigDecimal(column));
+    }
+
+    /**
+     * Read a DATE column as a day. The column is read as the yyyy-MM-dd text
+     * MySQL returns, so that no calendar is created per row and the date is
+     * not moved by the time zone.
+     *
+     * @param result The result set positioned on the row
+     * @param column The name of the column
+     * @return The date, or null if the column is NULL
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    static Day getDay(final ResultSet result, final String column)
+            throws SQLException
+    {
+        String date = result.getString(column);
+        if (date == null) {
+            return null;
+        }
+        return Day.parse(date);
+    }
+
+    /**
+     * A row of a MORTGAGESELECT query, held until the customers it refers to
+     * have been read, as a mortgage cannot be built without them
+     *
+     * @since 0.0.1
+     */
+    static final class MortgageRow {
+        private final int mortgageID;
+        private final int customerID;
+        private final int spouseID;
+        private final Property property;
+        private final Day dateOfApplication;
+        private final Money deposit;
+        private final int mortgageLengthInMonths;
+        private final Money amountRequested;
+        private final MortgageApplicationStatus applicationStatus;
+        private final MortgagesOffered mortgageType;
+        private final Day paymentsBegin;
+
+        /**
+         * Read a row
+         *
+         * @param result The result set positioned on the row
+         * @throws java.sql.SQLException When a SQLException occurrs
+         * @since 0.0.1
+         */
+        private MortgageRow(final ResultSet result) throws SQLException {
+            mortgageID = result.getInt("mortgageID");
+            customerID = result.getInt("customerID");
+            int spouse = result.getInt("spouseID");
+            spouseID = result.wasNull() ? -1 : spouse;
+            property = new Property(result.getInt("propertyID"),
+                    mapAddress(result, "addressID"),
+                    getEnum(result, "propertyType", PropertyType.values()),
+                    result.getInt("numberOfBedrooms"));
+            dateOfApplication = getDay(result, "dateOfApplication");
+            deposit = getMoney(result, "deposit");
+            mortgageLengthInMonths = result.getInt("mortgageLengthInMonths");
+            amountRequested = getMoney(result, "amountRequested");
+            applicationStatus = getEnum(result, "applicationStatus",
+                    MortgageApplicationStatus.values());
+            mortgageType = getEnum(result, "mortgageType",
+                    MortgagesOffered.values());
+            paymentsBegin = getDay(result, "paymentsBegin");
+        }
+
+        /**
+         * Get the ID of the customer of the mortgage
+         *
+         * @return The customer ID
+         * @since 0.0.1
+         */
+        int getCustomerID() {
+            return customerID;
+        }
+
+        /**
+         * Get the ID of the spouse of the customer
+         *
+         * @return The spouse's customer ID, or -1 if there is no spouse
+         * @since 0.0.1
+         */
+        int getSpouseID() {
+            return spouseID;
+        }
+
+        /**
+         * Build the mortgage
+         *
+         * @param customers The customers read for the rows, by ID
+         * @return The mortgage
+         * @throws java.lang.IllegalArgumentException When the customer of
+         * the mortgage is not in customers
+         * @since 0.0.1
+         */
+        Mortgage toMortgage(final Map<Integer, Customer> customers) {
+            return new Mortgage(mortgageID, customers.get(customerID),
+                    spouseID < 0 ? null : customers.get(spouseID), property,
+                    dateOfApplication, deposit, mortgageLengthInMonths,
+                    amountRequested, applicationStatus, mortgageType,
+                    paymentsBegin);
+        }
+    }
+}
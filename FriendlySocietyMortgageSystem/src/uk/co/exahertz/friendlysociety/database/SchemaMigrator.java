@@ -0,0 +1,745 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import uk.co.exahertz.friendlysociety.core.ArrearsEngine;
+import uk.co.exahertz.friendlysociety.core.Mortgage;
+
+/**
+ * Creates and upgrades the tables and indexes the application uses. The
+ * schema is changed by numbered migrations, each run once and in order, and
+ * the version reached is kept in the SchemaVersion table, so migrating an
+ * empty database creates everything and migrating an older one brings it up
+ * to date. Migrating is an administrative step, run with --migrate; the
+ * application only checks the version when it starts, and will not run
+ * against a schema of another version. A MySQL named lock is held while
+ * migrating so that two administrators migrating together do not both
+ * migrate.<br>
+ * Tables are created with IF NOT EXISTS and an index is only added if there
+ * is not already one of the same name, so a database built by hand before
+ * this class existed is adopted rather than rejected.<br>
+ * The indexes are chosen for the exact queries run by MySQL, and check()
+ * runs EXPLAIN on each of those queries to confirm the index is used.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class SchemaMigrator {
+    /** The name of the MySQL lock held while migrating */
+    private static final String LOCKNAME = "friendly_society_schema";
+    /** The time to wait for another instance to finish, in seconds */
+    private static final int LOCKTIMEOUT = 60;
+    private static final String TABLEOPTIONS =
+            " ENGINE=InnoDB DEFAULT CHARSET=utf8";
+    private static final String VERSIONTABLE = "CREATE TABLE IF NOT EXISTS " +
+            "SchemaVersion (version INT NOT NULL PRIMARY KEY, description " +
+            "VARCHAR(200) NOT NULL, appliedAt DATETIME NOT NULL)" +
+            TABLEOPTIONS;
+    /** Every migration, in order of version */
+    private static final Migration[] MIGRATIONS = {
+        new Migration(1, "Create the tables",
+            sql("CREATE TABLE IF NOT EXISTS Address (" +
+                    "addressID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "propertyName VARCHAR(30) NOT NULL, " +
+                    "streetName VARCHAR(30) NOT NULL, " +
+                    "town VARCHAR(30) NOT NULL, " +
+                    "country VARCHAR(30) NOT NULL, " +
+                    "postCode VARCHAR(30) NOT NULL)" + TABLEOPTIONS),
+            sql("CREATE TABLE IF NOT EXISTS Customer (" +
+                    "customerID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "title VARCHAR(5) NOT NULL, " +
+                    "forenames VARCHAR(30) NOT NULL, " +
+                    "surname VARCHAR(30) NOT NULL, " +
+                    "dateOfBirth DATE NOT NULL, " +
+                    "isFemale BOOLEAN NOT NULL, " +
+                    "addressID INT NOT NULL, " +
+                    "telephone VARCHAR(15) NOT NULL, " +
+                    "faxNumber VARCHAR(15), " +
+                    "email VARCHAR(100), " +
+                    "nationalInsuranceNumber CHAR(9) NOT NULL, " +
+                    "savingsAccountNumber VARCHAR(30))" + TABLEOPTIONS),
+            sql("CREATE TABLE IF NOT EXISTS StaffMember (" +
+                    "staffID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "title VARCHAR(5) NOT NULL, " +
+                    "forenames VARCHAR(30) NOT NULL, " +
+                    "surname VARCHAR(30) NOT NULL, " +
+                    "dateOfBirth DATE NOT NULL, " +
+                    "isFemale BOOLEAN NOT NULL, " +
+                    "addressID INT NOT NULL, " +
+                    "telephone VARCHAR(15) NOT NULL, " +
+                    "faxNumber VARCHAR(15), " +
+                    "email VARCHAR(100), " +
+                    "isManager BOOLEAN NOT NULL, " +
+                    "username VARCHAR(15) NOT NULL, " +
+                    "password VARCHAR(100) NOT NULL, " +
+                    "stillWithCompany BOOLEAN NOT NULL)" + TABLEOPTIONS),
+            sql("CREATE TABLE IF NOT EXISTS Surveyors (" +
+                    "surveyorID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "surveyorName VARCHAR(60) NOT NULL, " +
+                    "addressID INT NOT NULL, " +
+                    "telephone VARCHAR(15) NOT NULL, " +
+                    "faxNumber VARCHAR(15), " +
+                    "email VARCHAR(100))" + TABLEOPTIONS),
+            sql("CREATE TABLE IF NOT EXISTS Employment (" +
+                    "employmentID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "employerName VARCHAR(30) NOT NULL, " +
+                    "employerAddress INT NOT NULL, " +
+                    "employerTelephone VARCHAR(15), " +
+                    "employerFax VARCHAR(15), " +
+                    "dateStarted DATE NOT NULL, " +
+                    "dateEnded DATE, " +
+                    "hoursPerWeek FLOAT NOT NULL, " +
+                    "currentAnnualSalery DECIMAL(12,2) NOT NULL, " +
+                    "permenant BOOLEAN NOT NULL, " +
+                    "selfEmployed BOOLEAN NOT NULL, " +
+                    "customer INT NOT NULL)" + TABLEOPTIONS),
+            sql("CREATE TABLE IF NOT EXISTS CreditCheck (" +
+                    "creditCheckID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "creditCheckDate DATE NOT NULL, " +
+                    "creditCheckScore INT NOT NULL, " +
+                    "creditCheckRiskStatus VARCHAR(10) NOT NULL, " +
+                    "customerID INT NOT NULL)" + TABLEOPTIONS),
+            sql("CREATE TABLE IF NOT EXISTS Property (" +
+                    "propertyID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "addressID INT NOT NULL, " +
+                    "propertyType INT NOT NULL, " +
+                    "numberOfBedrooms INT NOT NULL)" + TABLEOPTIONS),
+            sql("CREATE TABLE IF NOT EXISTS Survey (" +
+                    "surveyID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "surveyor INT NOT NULL, " +
+                    "surveyDate DATE NOT NULL, " +
+                    "propertyValue DECIMAL(12,2) NOT NULL, " +
+                    "propertyID INT NOT NULL)" + TABLEOPTIONS),
+            sql("CREATE TABLE IF NOT EXISTS MortgagePaymentDetails (" +
+                    "paymentID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "paymentDueDate DATE NOT NULL, " +
+                    "paymentMadeDate DATE, " +
+                    "methodOfPayment INT NOT NULL, " +
+                    "amount DECIMAL(12,2) NOT NULL, " +
+                    "mortgageID INT NOT NULL)" + TABLEOPTIONS)),
+        new Migration(2, "Index the lookup paths",
+            // getCustomersByAddressID, and the join from Address when
+            // searching customers by address
+            index("Customer", "customerAddress", false, "addressID"),
+            // The join from Address when searching staff by address
+            index("StaffMember", "staffAddress", false, "addressID"),
+            // Log in; usernames must also be unique for it to be safe
+            index("StaffMember", "staffUsername", true, "username"),
+            // getEmploymentsByCustomerID
+            index("Employment", "employmentCustomer", false, "customer"),
+            // getCreditCheckByCustomerID selects every column, so the index
+            // holds them all and the query never reads the table
+            index("CreditCheck", "creditCheckCustomer", false, "customerID",
+                    "creditCheckDate", "creditCheckScore",
+                    "creditCheckRiskStatus"),
+            // The payments of a mortgage, in the order they are due
+            index("MortgagePaymentDetails", "paymentMortgage", false,
+                    "mortgageID", "paymentDueDate"),
+            // AddressQuery matches postcodes by prefix
+            index("Address", "addressPostCode", false, "postCode")),
+        new Migration(3, "Create the Mortgage table",
+            sql("CREATE TABLE IF NOT EXISTS Mortgage (" +
+                    "mortgageID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "customerID INT NOT NULL, " +
+                    "spouseID INT, " +
+                    "propertyID INT NOT NULL, " +
+                    "dateOfApplication DATE NOT NULL, " +
+                    "deposit DECIMAL(12,2) NOT NULL, " +
+                    "mortgageLengthInMonths INT NOT NULL, " +
+                    "amountRequested DECIMAL(12,2) NOT NULL, " +
+                    "applicationStatus INT, " +
+                    "mortgageType INT, " +
+                    "paymentsBegin DATE NOT NULL)" + TABLEOPTIONS),
+            // getMortgagesByCustomerID looks in both columns, which MySQL
+            // merges from the two indexes
+            index("Mortgage", "mortgageCustomer", false, "customerID"),
+            index("Mortgage", "mortgageSpouse", false, "spouseID")),
+        new Migration(4, "Keep snapshots of mortgage accounts",
+            // One row per mortgage, with the payment it was read up to
+            sql("CREATE TABLE IF NOT EXISTS AccountSnapshot (" +
+                    "mortgageID INT NOT NULL PRIMARY KEY, " +
+                    "paymentCount INT NOT NULL, " +
+                    "totalDue DECIMAL(14,2) NOT NULL, " +
+                    "totalPaid DECIMAL(14,2) NOT NULL, " +
+                    "lastDueMonth INT NOT NULL, " +
+                    "positionDueDate DATE NOT NULL, " +
+                    "positionPaymentID INT NOT NULL)" + TABLEOPTIONS),
+            // The payments not made, read in the order they fall due
+            sql("CREATE TABLE IF NOT EXISTS AccountSnapshotUnpaid (" +
+                    "mortgageID INT NOT NULL, " +
+                    "paymentDueDate DATE NOT NULL, " +
+                    "paymentID INT NOT NULL, " +
+                    "amount DECIMAL(12,2) NOT NULL, " +
+                    "PRIMARY KEY (mortgageID, paymentDueDate, paymentID))" +
+                    TABLEOPTIONS)),
+        new Migration(5, "Index normalised post codes",
+            // AddressQuery matches the start of the post code upper case
+            // with the spaces removed, as PostcodeTrie does
+            column("Address", "postCodeKey", "VARCHAR(30) AS (UPPER(" +
+                    "REPLACE(postCode, ' ', ''))) STORED"),
+            index("Address", "addressPostCodeKey", false, "postCodeKey"))
+    };
+    /** The queries check() runs EXPLAIN on, with the index each must use */
+    private static final IndexCheck[] CHECKS = {
+        new IndexCheck("Customer.addressID", RowMapper.CUSTOMERSELECT +
+                " WHERE c.addressID = ?", "Customer", "c", "customerAddress",
+                1),
+        new IndexCheck("Address.postCodeKey", RowMapper.CUSTOMERSELECT +
+                " WHERE a.postCodeKey LIKE ?", "Address", "a",
+                "addressPostCodeKey", "SW1A%"),
+        new IndexCheck("StaffMember.username", RowMapper.STAFFSELECT +
+                " WHERE s.username = ?", "StaffMember", "s", "staffUsername",
+                "nobody"),
+        new IndexCheck("Employment.customer", RowMapper.EMPLOYMENTSELECT +
+                " WHERE e.customer = ?", "Employment", "e",
+                "employmentCustomer", 1),
+        new IndexCheck("CreditCheck.customerID", "SELECT * FROM CreditCheck" +
+                " WHERE customerID = ?", "CreditCheck", "CreditCheck",
+                "creditCheckCustomer", 1),
+        new IndexCheck("MortgagePaymentDetails.mortgageID",
+                RowMapper.PAYMENTSELECT + RowMapper.PAYMENTORDER,
+                "MortgagePaymentDetails", "MortgagePaymentDetails",
+                "paymentMortgage", 1, Mortgage.PAYMENTPAGESIZE),
+        new IndexCheck("MortgagePaymentDetails.mortgageID range",
+                RowMapper.PAYMENTRANGESELECT + RowMapper.PAYMENTRANGEORDER,
+                "MortgagePaymentDetails", "MortgagePaymentDetails",
+                "paymentMortgage", 1, ArrearsEngine.PAGESIZE,
+                ArrearsEngine.PAYMENTPAGESIZE),
+        new IndexCheck("Mortgage.customerID", RowMapper.MORTGAGESELECT +
+                " WHERE m.customerID = ? OR m.spouseID = ?", "Mortgage", "m",
+                "mortgageCustomer,mortgageSpouse", 1, 1)
+    };
+    private final ConnectionPool pool;
+
+    /**
+     * Create a new migrator
+     *
+     * @param pool The pool to borrow a connection to the database from
+     * @throws java.lang.IllegalArgumentException When pool is null
+     * @since 0.0.1
+     */
+    public SchemaMigrator(final ConnectionPool pool) {
+        if(pool == null) throw new IllegalArgumentException("The connection " +
+                "pool must not be null.");
+        this.pool = pool;
+    }
+
+    /**
+     * Get the version of the schema this version of the application expects
+     *
+     * @return The version of the last migration
+     * @since 0.0.1
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS[MIGRATIONS.length - 1].version;
+    }
+
+    /**
+     * Get the version the database has been migrated to, without changing
+     * the schema
+     *
+     * @return The version, or 0 if the database has never been migrated
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    public int getVersion() throws SQLException {
+        Connection connection = pool.getConnection();
+        try {
+            return readVersion(connection);
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Check that the database has been migrated to the version this version
+     * of the application uses, without changing the schema
+     *
+     * @throws uk.co.exahertz.friendlysociety.database.SchemaVersionException
+     * When the database is at another version
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    public void checkVersion() throws SchemaVersionException, SQLException {
+        int version = getVersion();
+        if(version != getLatestVersion()) {
+            throw new SchemaVersionException(version, getLatestVersion());
+        }
+    }
+
+    /**
+     * Run every migration the database has not had yet, in order. MySQL
+     * commits each change to the schema as it is made, so each migration is
+     * recorded as soon as it has been run, and one which fails part way is
+     * run again from the start next time; every step can safely be repeated.
+     *
+     * @return The version the database is now at
+     * @throws java.sql.SQLException When a migration fails, or another
+     * instance held the lock for longer than LOCKTIMEOUT
+     * @since 0.0.1
+     */
+    public int migrate() throws SQLException {
+        Connection connection = pool.getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                statement.execute(VERSIONTABLE);
+                lock(connection);
+                try {
+                    int version = readVersion(statement);
+                    for(Migration migration : MIGRATIONS) {
+                        if(migration.version <= version) continue;
+                        for(Step step : migration.steps) {
+                            step.apply(connection);
+                        }
+                        record(connection, migration);
+                        version = migration.version;
+                    }
+                    return version;
+                } finally {
+                    unlock(connection);
+                }
+            } finally {
+                statement.close();
+            }
+        } finally {
+            pool.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Check that every lookup query is served by its index, by checking the
+     * index exists and running EXPLAIN on the query. The optimiser may scan a
+     * table with only a handful of rows rather than use an index, so the
+     * check is only meaningful once the database holds realistic data, such
+     * as a book from MortgageBookGenerator.
+     *
+     * @param out Where the result of each check is written
+     * @return True if every query uses its index
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    public boolean check(final PrintStream out) throws SQLException {
+        if(out == null) throw new IllegalArgumentException("The output must " +
+                "not be null.");
+        boolean passed = true;
+        Connection connection = pool.getConnection();
+        try {
+            out.println("Schema version " + readVersion(connection) +
+                    ", expected " + getLatestVersion());
+            for(IndexCheck check : CHECKS) {
+                StringBuilder details = new StringBuilder();
+                boolean ok = check.run(connection, details);
+                passed &= ok;
+                out.println(String.format("%-8s %-36s %s", ok ? "OK" :
+                        "FAILED", check.description, details));
+            }
+        } finally {
+            pool.releaseConnection(connection);
+        }
+        return passed;
+    }
+
+    /**
+     * Take the migration lock, waiting for another instance to release it
+     *
+     * @param connection The connection to take the lock on
+     * @throws java.sql.SQLException When the lock was not taken in time
+     * @since 0.0.1
+     */
+    private static void lock(final Connection connection)
+            throws SQLException
+    {
+        PreparedStatement statement = connection.prepareStatement(
+                "SELECT GET_LOCK(?, ?)");
+        try {
+            statement.setString(1, LOCKNAME);
+            statement.setInt(2, LOCKTIMEOUT);
+            ResultSet result = statement.executeQuery();
+            try {
+                if(!result.next() || result.getInt(1) != 1) {
+                    throw new SQLException("Another instance is still " +
+                            "migrating the schema.");
+                }
+            } finally {
+                result.close();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Release the migration lock
+     *
+     * @param connection The connection holding the lock
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static void unlock(final Connection connection)
+            throws SQLException
+    {
+        PreparedStatement statement = connection.prepareStatement(
+                "SELECT RELEASE_LOCK(?)");
+        try {
+            statement.setString(1, LOCKNAME);
+            statement.executeQuery().close();
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Read the version the database has been migrated to
+     *
+     * @param statement A statement on the database
+     * @return The version, or 0 if no migration has been run
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static int readVersion(final Statement statement)
+            throws SQLException
+    {
+        ResultSet result = statement.executeQuery("SELECT MAX(version) FROM " +
+                "SchemaVersion");
+        try {
+            return result.next() ? result.getInt(1) : 0;
+        } finally {
+            result.close();
+        }
+    }
+
+    /**
+     * Read the version the database has been migrated to, without creating
+     * the SchemaVersion table if it is not there
+     *
+     * @param connection The connection to the database
+     * @return The version, or 0 if no migration has been run
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static int readVersion(final Connection connection)
+            throws SQLException
+    {
+        PreparedStatement exists = connection.prepareStatement("SELECT 1 " +
+                "FROM information_schema.TABLES WHERE TABLE_SCHEMA = " +
+                "DATABASE() AND TABLE_NAME = 'SchemaVersion'");
+        try {
+            ResultSet result = exists.executeQuery();
+            try {
+                if(!result.next()) return 0;
+            } finally {
+                result.close();
+            }
+        } finally {
+            exists.close();
+        }
+        Statement statement = connection.createStatement();
+        try {
+            return readVersion(statement);
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Record that a migration has been run
+     *
+     * @param connection The connection to the database
+     * @param migration The migration
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static void record(final Connection connection,
+            final Migration migration) throws SQLException
+    {
+        PreparedStatement statement = connection.prepareStatement("INSERT " +
+                "INTO SchemaVersion (version, description, appliedAt) " +
+                "VALUES (?, ?, NOW())");
+        try {
+            statement.setInt(1, migration.version);
+            statement.setString(2, migration.description);
+            statement.executeUpdate();
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Check whether a table already has a column
+     *
+     * @param connection The connection to the database
+     * @param table The table
+     * @param name The name of the column
+     * @return True if the column exists
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static boolean columnExists(final Connection connection,
+            final String table, final String name) throws SQLException
+    {
+        PreparedStatement statement = connection.prepareStatement("SELECT " +
+                "1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = " +
+                "DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?");
+        try {
+            statement.setString(1, table);
+            statement.setString(2, name);
+            ResultSet result = statement.executeQuery();
+            try {
+                return result.next();
+            } finally {
+                result.close();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Check whether a table already has an index
+     *
+     * @param connection The connection to the database
+     * @param table The table
+     * @param name The name of the index
+     * @return True if the index exists
+     * @throws java.sql.SQLException When a SQLException occurrs
+     * @since 0.0.1
+     */
+    private static boolean indexExists(final Connection connection,
+            final String table, final String name) throws SQLException
+    {
+        PreparedStatement statement = connection.prepareStatement("SELECT " +
+                "1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = " +
+                "DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?");
+        try {
+            statement.setString(1, table);
+            statement.setString(2, name);
+            ResultSet result = statement.executeQuery();
+            try {
+                return result.next();
+            } finally {
+                result.close();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Create a step which runs a statement
+     *
+     * @param sql The statement, which must be safe to run twice
+     * @return The step
+     * @since 0.0.1
+     */
+    private static Step sql(final String sql) {
+        return new Step() {
+            @Override
+            public void apply(final Connection connection)
+                    throws SQLException
+            {
+                Statement statement = connection.createStatement();
+                try {
+                    statement.execute(sql);
+                } finally {
+                    statement.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Create a step which adds an index if the table does not already have
+     * an index of the same name
+     *
+     * @param table The table to index
+     * @param name The name of the index
+     * @param unique True if the indexed values must be unique
+     * @param columns The columns of the index, in order
+     * @return The step
+     * @since 0.0.1
+     */
+    private static Step index(final String table, final String name,
+            final boolean unique, final String... columns)
+    {
+        final StringBuilder sql = new StringBuilder("ALTER TABLE ")
+                .append(table).append(unique ? " ADD UNIQUE INDEX " :
+                " ADD INDEX ").append(name).append(" (");
+        for(int i = 0; i < columns.length; i++) {
+            if(i > 0) sql.append(", ");
+            sql.append(columns[i]);
+        }
+        sql.append(")");
+        return new Step() {
+            @Override
+            public void apply(final Connection connection)
+                    throws SQLException
+            {
+                if(indexExists(connection, table, name)) return;
+                sql(sql.toString()).apply(connection);
+            }
+        };
+    }
+
+    /**
+     * Create a step which adds a column if the table does not already have a
+     * column of the same name
+     *
+     * @param table The table to add the column to
+     * @param name The name of the column
+     * @param definition The type and options of the column
+     * @return The step
+     * @since 0.0.1
+     */
+    private static Step column(final String table, final String name,
+            final String definition)
+    {
+        final String sql = "ALTER TABLE " + table + " ADD COLUMN " + name +
+                " " + definition;
+        return new Step() {
+            @Override
+            public void apply(final Connection connection)
+                    throws SQLException
+            {
+                if(columnExists(connection, table, name)) return;
+                sql(sql).apply(connection);
+            }
+        };
+    }
+
+    /**
+     * One change to the schema, which must be safe to run more than once
+     *
+     * @since 0.0.1
+     */
+    private interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * A numbered set of changes to the schema
+     *
+     * @since 0.0.1
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final Step[] steps;
+
+        /**
+         * Create a new migration
+         *
+         * @param version The version the migration brings the schema to
+         * @param description What the migration does
+         * @param steps The changes, in order
+         * @since 0.0.1
+         */
+        Migration(final int version, final String description,
+                final Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = steps;
+        }
+    }
+
+    /**
+     * A lookup query and the index it should use
+     *
+     * @since 0.0.1
+     */
+    private static final class IndexCheck {
+        private final String description;
+        private final String sql;
+        private final String table;
+        private final String alias;
+        private final String index;
+        private final Object[] parameters;
+
+        /**
+         * Create a new check
+         *
+         * @param description The lookup path being checked
+         * @param sql The query, exactly as MySQL runs it
+         * @param table The table which should use the index
+         * @param alias The name of the table in the query
+         * @param index The name of the index, or the names of the indexes an
+         * index merge reads, separated by commas
+         * @param parameters A value for each of the query's parameters
+         * @since 0.0.1
+         */
+        IndexCheck(final String description, final String sql,
+                final String table, final String alias, final String index,
+                final Object... parameters) {
+            this.description = description;
+            this.sql = sql;
+            this.table = table;
+            this.alias = alias;
+            this.index = index;
+            this.parameters = parameters;
+        }
+
+        /**
+         * Run the check
+         *
+         * @param connection The connection to the database
+         * @param details Receives the index used and the plan, or why the
+         * check failed
+         * @return True if the query uses the index
+         * @throws java.sql.SQLException When a SQLException occurrs
+         * @since 0.0.1
+         */
+        boolean run(final Connection connection, final StringBuilder details)
+                throws SQLException
+        {
+            for(String name : index.split(",")) {
+                if(!indexExists(connection, table, name)) {
+                    details.append("index ").append(name)
+                            .append(" is missing");
+                    return false;
+                }
+            }
+            PreparedStatement statement = connection.prepareStatement(
+                    "EXPLAIN " + sql);
+            try {
+                for(int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                ResultSet result = statement.executeQuery();
+                try {
+                    while(result.next()) {
+                        String extra = result.getString("Extra");
+                        // A unique lookup which finds nothing is resolved
+                        // through the index before the plan is made
+                        if(extra != null && extra.contains(
+                                "no matching row in const table")) {
+                            details.append("uses ").append(index)
+                                    .append(" (").append(extra).append(')');
+                            return true;
+                        }
+                        if(!alias.equals(result.getString("table"))) {
+                            continue;
+                        }
+                        String key = result.getString("key");
+                        details.append("uses ").append(key == null ?
+                                "no index" : key).append(" (type ")
+                                .append(result.getString("type"));
+                        if(extra != null) details.append(", ").append(extra);
+                        details.append(')');
+                        return index.equals(key);
+                    }
+                    details.append("no plan for ").append(alias);
+                    return false;
+                } finally {
+                    result.close();
+                }
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
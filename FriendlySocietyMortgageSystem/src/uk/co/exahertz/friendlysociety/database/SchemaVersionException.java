@@ -0,0 +1,59 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.sql.SQLException;
+
+/**
+ * A SchemaVersionException is thrown when the database has not been migrated
+ * to the version of the schema this version of the application uses. The
+ * application never changes the schema when it starts; it is migrated by
+ * running the application with --migrate.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see SchemaMigrator#checkVersion()
+ */
+public class SchemaVersionException extends SQLException {
+    private static final long serialVersionUID = 1L;
+    private final int version;
+    private final int expected;
+
+    /**
+     * Create a new SchemaVersionException
+     *
+     * @param version The version the database is at
+     * @param expected The version this version of the application uses
+     * @since 0.0.1
+     */
+    public SchemaVersionException(final int version, final int expected) {
+        super(version < expected ? "The database schema is at version " +
+                version + " but this version of the application needs " +
+                "version " + expected + ". Run the application with " +
+                "--migrate to upgrade it." : "The database schema is at " +
+                "version " + version + " which is newer than version " +
+                expected + " used by this version of the application. " +
+                "Upgrade the application.");
+        this.version = version;
+        this.expected = expected;
+    }
+
+    /**
+     * Get the version the database is at
+     *
+     * @return The version, or 0 if the database has never been migrated
+     * @since 0.0.1
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the version this version of the application uses
+     *
+     * @return The version
+     * @since 0.0.1
+     */
+    public int getExpectedVersion() {
+        return expected;
+    }
+}
@@ -0,0 +1,445 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import uk.co.exahertz.friendlysociety.metrics.MetricsRegistry;
+
+/**
+ * Times every statement the database layer runs. Every run is added to the
+ * totals of its SQL template, so the templates costing the most time can be
+ * listed on demand, and any statement over the threshold is written to a log
+ * with its template, a summary of its parameters, the number of rows it
+ * returned or changed, how long it took and the Core method which caused it.
+ * <br>
+ * A query is timed until it returns its result set, unless it is slow, when
+ * it is timed until its result set has been read and closed so that the log
+ * can give the number of rows. A statement which throws is timed until it
+ * throws, counted as failed, and logged as failed if it was slow, so that
+ * lock wait and socket timeouts are not lost. Only a slow statement pays for
+ * counting rows
+ * and finding its caller. The parameter summary gives the value of numbers and
+ * booleans, such as IDs, but only the type and length of anything else, so
+ * no customer's personal details are written to the log.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class SlowQueryLog implements SlowQueryLogMBean {
+    /** The default time a statement may take before it is logged, in ms */
+    public static final long DEFAULTTHRESHOLD = 250;
+    /** The default number of templates listed by getReport() */
+    public static final int DEFAULTTOP = 20;
+    /** The number of rows given for a statement which threw an exception */
+    public static final int FAILED = -1;
+    /** The longest SQL written to the log before it is cut short */
+    private static final int MAXSQLLENGTH = 300;
+    /** The most parameters summarised in each log entry */
+    private static final int MAXPARAMETERS = 10;
+    private static final double NANOSPERMILLI = 1000000.0;
+    private static final String CORECLASS =
+            "uk.co.exahertz.friendlysociety.core.Core";
+    private final AsyncLogWriter log;
+    private final ConcurrentHashMap<String, QueryStatistics> templates;
+    private final AtomicLong statements;
+    private final AtomicLong slow;
+    private final AtomicLong failed;
+    private volatile long thresholdNanos;
+
+    /**
+     * Create a new slow query log
+     *
+     * @param log The log the slow statements are written to
+     * @param thresholdMillis The time a statement may take before it is
+     * logged, in milliseconds
+     * @throws java.lang.IllegalArgumentException When log is null or
+     * thresholdMillis is negative
+     * @since 0.0.1
+     */
+    public SlowQueryLog(final AsyncLogWriter log, final long thresholdMillis) {
+        if(log == null) throw new IllegalArgumentException("The log must " +
+                "not be null.");
+        this.log = log;
+        templates = new ConcurrentHashMap<String, QueryStatistics>();
+        statements = new AtomicLong();
+        slow = new AtomicLong();
+        failed = new AtomicLong();
+        setThresholdMillis(thresholdMillis);
+    }
+
+    /**
+     * Time a query which has just returned its result set
+     *
+     * @param sql The SQL template of the query
+     * @param parameters The parameters bound to the query
+     * @param result The result set of the query
+     * @param started The System.nanoTime() just before the query was run
+     * @return The result set to read, which must be closed
+     * @since 0.0.1
+     */
+    ResultSet queried(final String sql, final Object[] parameters,
+            final ResultSet result, final long started)
+    {
+        long elapsed = System.nanoTime() - started;
+        if(elapsed < thresholdNanos) {
+            record(sql, elapsed, false);
+            return result;
+        }
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class},
+                new CountingResultSet(result, sql, parameters, started));
+    }
+
+    /**
+     * Time an INSERT, UPDATE or DELETE which has just finished, or any
+     * statement which has just thrown an exception
+     *
+     * @param sql The SQL template of the statement
+     * @param parameters The parameters bound to the statement
+     * @param rows The number of rows changed, or FAILED if the statement threw
+     * @param started The System.nanoTime() just before the statement was run
+     * @since 0.0.1
+     */
+    void executed(final String sql, final Object[] parameters,
+            final int rows, final long started)
+    {
+        long elapsed = System.nanoTime() - started;
+        if(rows == FAILED) failed.incrementAndGet();
+        if(elapsed < thresholdNanos) {
+            record(sql, elapsed, false);
+        } else {
+            logSlow(sql, parameters, rows, elapsed);
+        }
+    }
+
+    @Override
+    public long getThresholdMillis() {
+        return Math.round(thresholdNanos / NANOSPERMILLI);
+    }
+
+    /**
+     * Set the time a statement may take before it is logged
+     *
+     * @param threshold The threshold in milliseconds, 0 to log every
+     * statement
+     * @throws java.lang.IllegalArgumentException When threshold is negative
+     * @since 0.0.1
+     */
+    @Override
+    public void setThresholdMillis(final long threshold) {
+        if(threshold < 0) throw new IllegalArgumentException("The threshold " +
+                "must not be negative.");
+        thresholdNanos = threshold * 1000000L;
+    }
+
+    @Override
+    public long getStatementCount() {
+        return statements.get();
+    }
+
+    @Override
+    public long getSlowCount() {
+        return slow.get();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Get the templates which have taken the most time in total
+     *
+     * @param n The most templates to return
+     * @return The templates, the most costly first
+     * @since 0.0.1
+     */
+    public List<QueryStatistics> getTopQueries(final int n) {
+        List<QueryStatistics> list = new ArrayList<QueryStatistics>(
+                templates.values());
+        Collections.sort(list, new Comparator<QueryStatistics>() {
+            @Override
+            public int compare(final QueryStatistics a,
+                    final QueryStatistics b) {
+                long x = a.getTotalNanos();
+                long y = b.getTotalNanos();
+                return x > y ? -1 : (x < y ? 1 : 0);
+            }
+        });
+        return list.size() > n ? list.subList(0, Math.max(n, 0)) : list;
+    }
+
+    /**
+     * Get a report of the DEFAULTTOP templates which have taken the most time
+     *
+     * @return The report
+     * @since 0.0.1
+     */
+    @Override
+    public String getReport() {
+        return getReport(DEFAULTTOP);
+    }
+
+    /**
+     * Get a report of the templates which have taken the most time, one line
+     * each, with their count, slow count and total, mean and longest times
+     *
+     * @param n The most templates to list
+     * @return The report
+     * @since 0.0.1
+     */
+    public String getReport(final int n) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d statements, %d over %d ms, %d " +
+                "failed%n", getStatementCount(), getSlowCount(),
+                getThresholdMillis(), getFailedCount()));
+        report.append(String.format("%10s %8s %12s %10s %10s  %s%n", "Count",
+                "Slow", "Total ms", "Mean ms", "Max ms", "SQL"));
+        for(QueryStatistics statistics : getTopQueries(n)) {
+            report.append(String.format("%10d %8d %12.1f %10.2f %10.2f  %s%n",
+                    statistics.getCount(), statistics.getSlowCount(),
+                    statistics.getTotalMillis(), statistics.getMeanMillis(),
+                    statistics.getMaxMillis(),
+                    abbreviate(statistics.getSQL())));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Forget the totals of every template
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public void reset() {
+        templates.clear();
+        statements.set(0);
+        slow.set(0);
+        failed.set(0);
+    }
+
+    /**
+     * Register this log with the platform MBean server as
+     * uk.co.exahertz.friendlysociety:type=SlowQueryLog, so its threshold can
+     * be changed and its report read with jconsole
+     *
+     * @throws javax.management.JMException When the log could not be
+     * registered
+     * @since 0.0.1
+     */
+    public void publish() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsRegistry.JMXDOMAIN +
+                ":type=SlowQueryLog");
+        if(server.isRegistered(name)) server.unregisterMBean(name);
+        server.registerMBean(this, name);
+    }
+
+    /**
+     * Write out the slow statements still queued and stop the log's thread
+     *
+     * @since 0.0.1
+     */
+    public void close() {
+        log.close();
+    }
+
+    /**
+     * Add a run to the totals of its template
+     *
+     * @param sql The SQL template
+     * @param nanos How long the run took
+     * @param isSlow True if the run was over the threshold
+     * @since 0.0.1
+     */
+    private void record(final String sql, final long nanos,
+            final boolean isSlow) {
+        QueryStatistics statistics = templates.get(sql);
+        if(statistics == null) {
+            statistics = new QueryStatistics(sql);
+            QueryStatistics existing = templates.putIfAbsent(sql, statistics);
+            if(existing != null) statistics = existing;
+        }
+        statistics.record(nanos, isSlow);
+        statements.incrementAndGet();
+        if(isSlow) slow.incrementAndGet();
+    }
+
+    /**
+     * Record a statement over the threshold and write it to the log
+     *
+     * @param sql The SQL template
+     * @param parameters The parameters bound to the statement
+     * @param rows The number of rows returned or changed, or FAILED
+     * @param nanos How long the statement took
+     * @since 0.0.1
+     */
+    private void logSlow(final String sql, final Object[] parameters,
+            final int rows, final long nanos)
+    {
+        record(sql, nanos, true);
+        log.log(String.format("%.1f ms, %s, %s: %s %s",
+                nanos / NANOSPERMILLI, rows == FAILED ? "failed" :
+                rows + " rows", caller(), abbreviate(sql),
+                summarise(parameters)));
+    }
+
+    /**
+     * Find the Core method which ran a statement from the stack of the
+     * current thread. When the statement was not run through Core, such as by
+     * an import, the first method outside the database implementations is
+     * given instead.
+     *
+     * @return The method, such as Core.getCustomersByName
+     * @since 0.0.1
+     */
+    private static String caller() {
+        String fallback = null;
+        for(StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if(className.equals(CORECLASS)) {
+                return "Core." + frame.getMethodName();
+            }
+            if(fallback == null && isCaller(className)) {
+                fallback = className.substring(className.lastIndexOf('.') +
+                        1) + "." + frame.getMethodName();
+            }
+        }
+        return fallback == null ? "unknown" : fallback;
+    }
+
+    /**
+     * Check whether a class on the stack could have asked for a statement,
+     * rather than being part of the JDK or of a MortgageDatabase
+     *
+     * @param className The name of the class
+     * @return True if the class is a caller of the database
+     * @since 0.0.1
+     */
+    private static boolean isCaller(final String className) {
+        if(className.startsWith("java.") || className.startsWith("javax.") ||
+                className.startsWith("sun.") ||
+                className.startsWith("com.sun.") ||
+                className.startsWith("jdk.") ||
+                className.contains("$Proxy") ||
+                className.startsWith(SlowQueryLog.class.getName())) {
+            return false;
+        }
+        try {
+            return !MortgageDatabase.class.isAssignableFrom(Class.forName(
+                    className, false, SlowQueryLog.class.getClassLoader()));
+        } catch(ClassNotFoundException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Summarise the parameters of a statement without giving away personal
+     * details
+     *
+     * @param parameters The parameters
+     * @return The summary, such as [12, String(5), Date]
+     * @since 0.0.1
+     */
+    static String summarise(final Object[] parameters) {
+        StringBuilder summary = new StringBuilder("[");
+        int shown = Math.min(parameters.length, MAXPARAMETERS);
+        for(int i = 0; i < shown; i++) {
+            if(i > 0) summary.append(", ");
+            Object parameter = parameters[i];
+            if(parameter == null || parameter instanceof Number ||
+                    parameter instanceof Boolean) {
+                summary.append(parameter);
+            } else if(parameter instanceof String) {
+                summary.append("String(").append(((String) parameter)
+                        .length()).append(')');
+            } else {
+                summary.append(parameter.getClass().getSimpleName());
+            }
+        }
+        if(parameters.length > shown) {
+            summary.append(", ").append(parameters.length - shown)
+                    .append(" more");
+        }
+        return summary.append(']').toString();
+    }
+
+    /**
+     * Cut short a long SQL template, such as a multi-row INSERT
+     *
+     * @param sql The template
+     * @return The template, or its start and its length if it is too long
+     * @since 0.0.1
+     */
+    private static String abbreviate(final String sql) {
+        if(sql.length() <= MAXSQLLENGTH) return sql;
+        return sql.substring(0, MAXSQLLENGTH) + "... (" + sql.length() +
+                " characters)";
+    }
+
+    /**
+     * Counts the rows read from the result set of a slow query, and logs the
+     * query when the result set is closed
+     *
+     * @since 0.0.1
+     */
+    private final class CountingResultSet implements InvocationHandler {
+        private final ResultSet result;
+        private final String sql;
+        private final Object[] parameters;
+        private final long started;
+        private int rows;
+        private boolean closed;
+
+        /**
+         * Create a new counting handler
+         *
+         * @param result The result set of the query
+         * @param sql The SQL template of the query
+         * @param parameters The parameters bound to the query
+         * @param started The System.nanoTime() just before the query was run
+         * @since 0.0.1
+         */
+        CountingResultSet(final ResultSet result, final String sql,
+                final Object[] parameters, final long started) {
+            this.result = result;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.started = started;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+                final Object[] args) throws Throwable
+        {
+            String name = method.getName();
+            try {
+                Object value = method.invoke(result, args);
+                if(name.equals("next") && Boolean.TRUE.equals(value)) rows++;
+                return value;
+            } catch(InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if(name.equals("close") && !closed) {
+                    closed = true;
+                    logSlow(sql, parameters, rows, System.nanoTime() -
+                            started);
+                }
+            }
+        }
+    }
+}
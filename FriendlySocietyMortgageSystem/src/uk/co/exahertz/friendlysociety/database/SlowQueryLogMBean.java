@@ -0,0 +1,18 @@
+package uk.co.exahertz.friendlysociety.database;
+
+/**
+ * The management interface of the slow query log, as published over JMX
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface SlowQueryLogMBean {
+    public long getThresholdMillis();
+    public void setThresholdMillis(long threshold);
+    public long getStatementCount();
+    public long getSlowCount();
+    public long getFailedCount();
+    public String getReport();
+    public void reset();
+}
@@ -0,0 +1,120 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A least recently used cache of the prepared statements for one connection,
+ * keyed by their SQL template. Reusing the statement lets the driver and
+ * server skip parsing the SQL again on every call. When the cache is full the
+ * least recently used statement is closed to make room.<br>
+ * A connection is only ever used by the thread which borrowed it, so the
+ * cache itself is not synchronised.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+class StatementCache {
+    private final Connection connection;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    /**
+     * Create a new statement cache for a connection
+     *
+     * @param connection The connection the statements are prepared on
+     * @param capacity The maximum number of statements to keep prepared
+     * @param hits The counter to increment when a statement is reused
+     * @param misses The counter to increment when a statement is prepared
+     * @since 0.0.1
+     */
+    StatementCache(final Connection connection, final int capacity,
+            final AtomicLong hits, final AtomicLong misses)
+    {
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f,
+                true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<String, PreparedStatement> eldest)
+            {
+                if(size() <= capacity) return false;
+                closeStatement(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the prepared statement for a SQL template, preparing it if it is not
+     * already in the cache. The statement must not be closed by the caller.
+     *
+     * @param sql The SQL template, with ? for each parameter
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or
+     * Statement.NO_GENERATED_KEYS
+     * @return The prepared statement, with its parameters cleared
+     * @throws java.sql.SQLException When the statement could not be prepared
+     * @since 0.0.1
+     */
+    PreparedStatement prepare(final String sql, final int autoGeneratedKeys)
+            throws SQLException
+    {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ?
+                "+" + sql : sql;
+        PreparedStatement statement = statements.get(key);
+        if(statement != null) {
+            hits.incrementAndGet();
+            statement.clearParameters();
+            return statement;
+        }
+        misses.incrementAndGet();
+        statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, statement);
+        return statement;
+    }
+
+    /**
+     * Get the number of statements currently prepared
+     *
+     * @return The number of statements in the cache
+     * @since 0.0.1
+     */
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * Close every statement in the cache
+     *
+     * @since 0.0.1
+     */
+    void close() {
+        for(PreparedStatement statement : statements.values()) {
+            closeStatement(statement);
+        }
+        statements.clear();
+    }
+
+    /**
+     * Close a statement, ignoring any error
+     *
+     * @param statement The statement to be closed
+     * @since 0.0.1
+     */
+    private static void closeStatement(final PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch(SQLException e) {
+            // The statement is being thrown away, nothing else to do
+        }
+    }
+}
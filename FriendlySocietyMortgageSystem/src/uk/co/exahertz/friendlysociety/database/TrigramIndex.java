@@ -0,0 +1,245 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An inverted index from each three letter sequence (trigram) to the IDs of
+ * the records whose value contains it. A substring search intersects the
+ * records of each trigram in the search term, then checks the few records
+ * left, rather than scanning every value. Matching ignores case, like the
+ * MySQL LIKE operator.<br>
+ * The index can be searched by many threads at once while it is updated.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+class TrigramIndex {
+    /** The length of the shortest term which has a trigram */
+    static final int MINTERM = 3;
+    private final HashMap<String, HashSet<Integer>> postings;
+    private final HashMap<Integer, String> values;
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * Create a new empty index
+     *
+     * @since 0.0.1
+     */
+    TrigramIndex() {
+        postings = new HashMap<String, HashSet<Integer>>();
+        values = new HashMap<Integer, String>();
+        lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Add a record to the index, replacing its old value if it is already
+     * indexed
+     *
+     * @param id The ID of the record
+     * @param value The value to index, null is indexed as an empty value
+     * @since 0.0.1
+     */
+    void put(final int id, final String value) {
+        String normalised = normalise(value);
+        lock.writeLock().lock();
+        try {
+            String old = values.put(id, normalised);
+            if(old != null) {
+                for(String trigram : trigrams(old)) {
+                    HashSet<Integer> ids = postings.get(trigram);
+                    ids.remove(id);
+                    if(ids.isEmpty()) postings.remove(trigram);
+                }
+            }
+            for(String trigram : trigrams(normalised)) {
+                HashSet<Integer> ids = postings.get(trigram);
+                if(ids == null) {
+                    ids = new HashSet<Integer>();
+                    postings.put(trigram, ids);
+                }
+                ids.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find every record whose value contains a search term
+     *
+     * @param term The search term, an empty term matches every record
+     * @return The IDs of the matching records in ascending order
+     * @since 0.0.1
+     */
+    int[] search(final String term) {
+        String normalised = normalise(term);
+        lock.readLock().lock();
+        try {
+            Collection<Integer> candidates;
+            if(normalised.length() < MINTERM) {
+                // Too short to have a trigram, so check every value
+                candidates = values.keySet();
+            } else {
+                candidates = intersect(trigrams(normalised));
+            }
+            int[] found = new int[candidates.size()];
+            int count = 0;
+            for(Integer id : candidates) {
+                if(values.get(id).indexOf(normalised) >= 0) {
+                    found[count++] = id;
+                }
+            }
+            found = Arrays.copyOf(found, count);
+            Arrays.sort(found);
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keep the records whose value contains a search term, without scanning
+     * the rest of the index
+     *
+     * @param ids The IDs of the records to check, in ascending order
+     * @param term The search term, an empty term matches every record
+     * @return The IDs of the records which are indexed and whose value
+     * contains the term, in ascending order
+     * @since 0.0.1
+     */
+    int[] filter(final int[] ids, final String term) {
+        String normalised = normalise(term);
+        lock.readLock().lock();
+        try {
+            int[] found = new int[ids.length];
+            int count = 0;
+            for(int id : ids) {
+                String value = values.get(id);
+                if(value != null && value.indexOf(normalised) >= 0) {
+                    found[count++] = id;
+                }
+            }
+            return Arrays.copyOf(found, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check whether a search term is long enough to be looked up by its
+     * trigrams, rather than by checking every value
+     *
+     * @param term The search term, can be null
+     * @return True if the term has at least one trigram
+     * @since 0.0.1
+     */
+    static boolean hasTrigram(final String term) {
+        return normalise(term).length() >= MINTERM;
+    }
+
+    /**
+     * Get the number of records in the index
+     *
+     * @return The number of records indexed
+     * @since 0.0.1
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return values.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the records which contain every trigram, starting from the
+     * rarest trigram so the candidate set is as small as possible. Must be
+     * called with the read lock held.
+     *
+     * @param trigrams The trigrams to intersect
+     * @return The IDs of the records containing all of the trigrams
+     * @since 0.0.1
+     */
+    private HashSet<Integer> intersect(final HashSet<String> trigrams) {
+        HashSet<Integer> smallest = null;
+        for(String trigram : trigrams) {
+            HashSet<Integer> ids = postings.get(trigram);
+            if(ids == null) return new HashSet<Integer>();
+            if(smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        HashSet<Integer> result = new HashSet<Integer>(smallest);
+        for(String trigram : trigrams) {
+            HashSet<Integer> ids = postings.get(trigram);
+            if(ids == smallest) continue;
+            Iterator<Integer> iterator = result.iterator();
+            while(iterator.hasNext()) {
+                if(!ids.contains(iterator.next())) iterator.remove();
+            }
+            if(result.isEmpty()) break;
+        }
+        return result;
+    }
+
+    /**
+     * Get every trigram in a value
+     *
+     * @param value The normalised value
+     * @return The distinct trigrams in the value
+     * @since 0.0.1
+     */
+    private static HashSet<String> trigrams(final String value) {
+        HashSet<String> trigrams = new HashSet<String>();
+        for(int i = 0; i + 3 <= value.length(); i++) {
+            trigrams.add(value.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Normalise a value so that matching ignores case and surrounding spaces
+     *
+     * @param value The value, can be null
+     * @return The normalised value
+     * @since 0.0.1
+     */
+    private static String normalise(final String value) {
+        if(value == null) return "";
+        return value.trim().toLowerCase();
+    }
+
+    /**
+     * Intersect two ascending arrays of IDs
+     *
+     * @param first The first array, in ascending order
+     * @param second The second array, in ascending order
+     * @return The IDs in both arrays, in ascending order
+     * @since 0.0.1
+     */
+    static int[] intersect(final int[] first, final int[] second) {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while(i < first.length && j < second.length) {
+            if(first[i] < second[j]) {
+                i++;
+            } else if(first[i] > second[j]) {
+                j++;
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,212 @@
+package uk.co.exahertz.friendlysociety.generator;
+
+import java.util.Collections;
+import java.util.List;
+import uk.co.exahertz.friendlysociety.core.*;
+
+/**
+ * One customer of a generated mortgage book and everything on file about
+ * them: their employment, credit check, the property they are buying and its
+ * survey, their mortgage and its payments. The records all have an ID of 0;
+ * a BookSink gives them IDs as it stores them.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class BookEntry {
+    private final int number;
+    private final Customer customer;
+    private final Employment employment;
+    private final CreditCheck creditCheck;
+    private final Property property;
+    private final int surveyorIndex;
+    private final Day surveyDate;
+    private final Money propertyValue;
+    private final Mortgage mortgage;
+    private final List<MortgagePaymentDetails> payments;
+
+    /**
+     * Create a new entry
+     *
+     * @param number The number of the entry in the book, from 0
+     * @param customer The customer
+     * @param employment The employment of the customer
+     * @param creditCheck The credit check of the customer
+     * @param property The property being bought
+     * @param surveyorIndex The index of the surveyor who surveyed the
+     * property, in the surveyors of the book
+     * @param surveyDate The date the property was surveyed
+     * @param propertyValue The value of the property found by the survey
+     * @param mortgage The mortgage on the property
+     * @param payments The payments due on the mortgage
+     * @since 0.0.1
+     */
+    BookEntry(final int number, final Customer customer,
+            final Employment employment, final CreditCheck creditCheck,
+            final Property property, final int surveyorIndex,
+            final Day surveyDate, final Money propertyValue,
+            final Mortgage mortgage,
+            final List<MortgagePaymentDetails> payments)
+    {
+        this.number = number;
+        this.customer = customer;
+        this.employment = employment;
+        this.creditCheck = creditCheck;
+        this.property = property;
+        this.surveyorIndex = surveyorIndex;
+        this.surveyDate = surveyDate;
+        this.propertyValue = propertyValue;
+        this.mortgage = mortgage;
+        this.payments = Collections.unmodifiableList(payments);
+    }
+
+    /**
+     * Get the number of the entry in the book
+     *
+     * @return The number of the entry, from 0
+     * @since 0.0.1
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Get the customer
+     *
+     * @return The customer
+     * @since 0.0.1
+     */
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Get the employment of the customer
+     *
+     * @return The employment
+     * @since 0.0.1
+     */
+    public Employment getEmployment() {
+        return employment;
+    }
+
+    /**
+     * Get the credit check of the customer
+     *
+     * @return The credit check
+     * @since 0.0.1
+     */
+    public CreditCheck getCreditCheck() {
+        return creditCheck;
+    }
+
+    /**
+     * Get the property being bought
+     *
+     * @return The property
+     * @since 0.0.1
+     */
+    public Property getProperty() {
+        return property;
+    }
+
+    /**
+     * Get the index of the surveyor who surveyed the property
+     *
+     * @return The index of the surveyor in the surveyors of the book
+     * @since 0.0.1
+     */
+    public int getSurveyorIndex() {
+        return surveyorIndex;
+    }
+
+    /**
+     * Get the date the property was surveyed
+     *
+     * @return The survey date
+     * @since 0.0.1
+     */
+    public Day getSurveyDate() {
+        return surveyDate;
+    }
+
+    /**
+     * Get the value of the property found by the survey
+     *
+     * @return The property value
+     * @since 0.0.1
+     */
+    public Money getPropertyValue() {
+        return propertyValue;
+    }
+
+    /**
+     * Get the survey of the property, by the surveyor given
+     *
+     * @param surveyor The surveyor at getSurveyorIndex(), as stored
+     * @return The survey
+     * @since 0.0.1
+     */
+    public Survey getSurvey(final Surveyor surveyor) {
+        return new Survey(0, surveyor, surveyDate, propertyValue);
+    }
+
+    /**
+     * Get the mortgage, which refers to the customer and property of this
+     * entry before they were given IDs
+     *
+     * @return The mortgage
+     * @since 0.0.1
+     */
+    public Mortgage getMortgage() {
+        return mortgage;
+    }
+
+    /**
+     * Get the mortgage, referring to a stored customer and property
+     *
+     * @param customerID The ID the customer was stored with
+     * @param propertyID The ID the property was stored with
+     * @return The mortgage
+     * @since 0.0.1
+     */
+    public Mortgage getMortgage(final int customerID, final int propertyID) {
+        return new Mortgage(0, new Customer(customerID, customer.getTitle(),
+                customer.getForenames(), customer.getSurname(),
+                customer.getDateOfBirth(), customer.getIsFemale(),
+                customer.getAddressObject(), customer.getTelephoneNumber(),
+                customer.getFaxNumber(), customer.getEmailAddress(),
+                customer.getNationalInsuranceNumber(),
+                customer.getSavingsAccountNumber()), null,
+                new Property(propertyID, property.getAddress(),
+                property.getType(), property.getNumberOfBedrooms()),
+                mortgage.getDateOfApplication(), mortgage.getDeposit(),
+                mortgage.getMortgageLengthInMonths(),
+                mortgage.getAmountRequested(), mortgage.getApplicationStatus(),
+                mortgage.getMortgageType(), mortgage.getPaymentsBegin());
+    }
+
+    /**
+     * Get the payments due on the mortgage up to the reference date, oldest
+     * first. Payments which were missed have no made date.
+     *
+     * @return The payments
+     * @since 0.0.1
+     */
+    public List<MortgagePaymentDetails> getPayments() {
+        return payments;
+    }
+
+    /**
+     * Get the number of records in the entry, counting each address once
+     *
+     * @return The number of records
+     * @since 0.0.1
+     */
+    public int getRecordCount() {
+        // The customer, employment, property and their three addresses, the
+        // credit check, survey and mortgage
+        return 9 + payments.size();
+    }
+}
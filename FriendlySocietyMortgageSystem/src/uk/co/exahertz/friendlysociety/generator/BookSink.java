@@ -0,0 +1,54 @@
+package uk.co.exahertz.friendlysociety.generator;
+
+import java.io.IOException;
+import java.util.List;
+import uk.co.exahertz.friendlysociety.core.Surveyor;
+
+/**
+ * Somewhere a generated mortgage book is written to. The generator opens the
+ * sink with the surveyors of the book, writes the entries in chunks and then
+ * closes it.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface BookSink {
+
+    /**
+     * Start writing a book
+     *
+     * @param surveyors The surveyors of the book, which the surveys of its
+     * entries refer to by index
+     * @throws java.io.IOException When the sink could not be opened
+     * @since 0.0.1
+     */
+    public void open(final List<Surveyor> surveyors) throws IOException;
+
+    /**
+     * Write a chunk of entries. An ordered sink is given the chunks one at a
+     * time and in order; any other sink may be given chunks from several
+     * threads at once.
+     *
+     * @param entries The entries, in order
+     * @throws java.io.IOException When the entries could not be written
+     * @since 0.0.1
+     */
+    public void write(final List<BookEntry> entries) throws IOException;
+
+    /**
+     * Finish writing the book
+     *
+     * @throws java.io.IOException When the sink could not be closed
+     * @since 0.0.1
+     */
+    public void close() throws IOException;
+
+    /**
+     * Check whether the sink must be given chunks in order
+     *
+     * @return True if chunks must be written one at a time and in order
+     * @since 0.0.1
+     */
+    public boolean isOrdered();
+}
@@ -0,0 +1,394 @@
+package uk.co.exahertz.friendlysociety.generator;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import uk.co.exahertz.friendlysociety.core.*;
+
+/**
+ * Writes a generated mortgage book as one tab separated file per table, in
+ * the format LOAD DATA INFILE reads by default, with a load.sql script which
+ * loads them all. Records are given IDs from 1 in the order they are written,
+ * so the files should be loaded into empty tables. Null values are written as
+ * \N, dates as yyyy-MM-dd, booleans as 1 or 0 and enums as their ordinal, as
+ * MySQL stores them.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class BulkLoadWriter implements BookSink {
+    /** The name of the script which loads the files */
+    public static final String LOADSCRIPT = "load.sql";
+    private static final String NULL = "\\N";
+    private final File directory;
+    private final StringBuilder row;
+    private Table addresses;
+    private Table surveyors;
+    private Table customers;
+    private Table employments;
+    private Table creditChecks;
+    private Table properties;
+    private Table surveys;
+    private Table mortgages;
+    private Table payments;
+    private int lastAddressID;
+    private int lastCustomerID;
+    private int lastEmploymentID;
+    private int lastCreditCheckID;
+    private int lastPropertyID;
+    private int lastSurveyID;
+    private int lastMortgageID;
+    private int lastPaymentID;
+
+    /**
+     * Create a new writer
+     *
+     * @param directory The directory to write the files to, which is created
+     * if it does not exist
+     * @throws java.lang.IllegalArgumentException When directory is null
+     * @since 0.0.1
+     */
+    public BulkLoadWriter(final File directory) {
+        if(directory == null) throw new IllegalArgumentException("The " +
+                "directory must not be null.");
+        this.directory = directory;
+        row = new StringBuilder(256);
+    }
+
+    @Override
+    public void open(final List<Surveyor> bookSurveyors) throws IOException {
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        addresses = new Table("Address", "addressID", "propertyName",
+                "streetName", "town", "country", "postCode");
+        surveyors = new Table("Surveyors", "surveyorID", "surveyorName",
+                "addressID", "telephone", "faxNumber", "email");
+        customers = new Table("Customer", "customerID", "title", "forenames",
+                "surname", "dateOfBirth", "isFemale", "addressID", "telephone",
+                "faxNumber", "email", "nationalInsuranceNumber",
+                "savingsAccountNumber");
+        employments = new Table("Employment", "employmentID", "employerName",
+                "employerAddress", "employerTelephone", "employerFax",
+                "dateStarted", "dateEnded", "hoursPerWeek",
+                "currentAnnualSalery", "permenant", "selfEmployed", "customer");
+        creditChecks = new Table("CreditCheck", "creditCheckID",
+                "creditCheckDate", "creditCheckScore", "creditCheckRiskStatus",
+                "customerID");
+        properties = new Table("Property", "propertyID", "addressID",
+                "propertyType", "numberOfBedrooms");
+        surveys = new Table("Survey", "surveyID", "surveyor", "surveyDate",
+                "propertyValue", "propertyID");
+        mortgages = new Table("Mortgage", "mortgageID", "customerID",
+                "spouseID", "propertyID", "dateOfApplication", "deposit",
+                "mortgageLengthInMonths", "amountRequested",
+                "applicationStatus", "mortgageType", "paymentsBegin");
+        payments = new Table("MortgagePaymentDetails", "paymentID",
+                "paymentDueDate", "paymentMadeDate", "methodOfPayment",
+                "amount", "mortgageID");
+        int surveyorID = 0;
+        for(Surveyor surveyor : bookSurveyors) {
+            int addressID = writeAddress(surveyor.getSurveyorAddressObject());
+            surveyors.write(row().field(++surveyorID)
+                    .field(surveyor.getSurveyorName()).field(addressID)
+                    .field(surveyor.getTelephoneNumber())
+                    .field(surveyor.getFaxNumber())
+                    .field(surveyor.getEmailAddress()));
+        }
+    }
+
+    @Override
+    public void write(final List<BookEntry> entries) throws IOException {
+        for(BookEntry entry : entries) {
+            Customer customer = entry.getCustomer();
+            int addressID = writeAddress(customer.getAddressObject());
+            int customerID = ++lastCustomerID;
+            customers.write(row().field(customerID).field(customer.getTitle())
+                    .field(customer.getForenames())
+                    .field(customer.getSurname())
+                    .field(customer.getDateOfBirth())
+                    .field(customer.getIsFemale()).field(addressID)
+                    .field(customer.getTelephoneNumber())
+                    .field(customer.getFaxNumber())
+                    .field(customer.getEmailAddress())
+                    .field(customer.getNationalInsuranceNumber())
+                    .field(customer.getSavingsAccountNumber()));
+
+            Employment employment = entry.getEmployment();
+            addressID = writeAddress(employment.getEmployerAddressObject());
+            employments.write(row().field(++lastEmploymentID)
+                    .field(employment.getEmployerName()).field(addressID)
+                    .field(employment.getEmployerTelephone())
+                    .field(employment.getEmployerFax())
+                    .field(employment.getDateStarted())
+                    .field(employment.getDateEnded())
+                    .field(employment.getHoursPerWeek())
+                    .field(employment.getCurrentAnnualSalery())
+                    .field(employment.isEmploymentPermenant())
+                    .field(employment.isSelfEmployed()).field(customerID));
+
+            CreditCheck creditCheck = entry.getCreditCheck();
+            creditChecks.write(row().field(++lastCreditCheckID)
+                    .field(creditCheck.getCreditCheckDate())
+                    .field(creditCheck.getCreditCheckScore())
+                    .field(creditCheck.getCreditCheckRiskStatus())
+                    .field(customerID));
+
+            Property property = entry.getProperty();
+            addressID = writeAddress(property.getAddress());
+            int propertyID = ++lastPropertyID;
+            properties.write(row().field(propertyID).field(addressID)
+                    .field(property.getType().ordinal())
+                    .field(property.getNumberOfBedrooms()));
+
+            // Surveyors were given IDs from 1 in the order of their index
+            surveys.write(row().field(++lastSurveyID)
+                    .field(1 + entry.getSurveyorIndex())
+                    .field(entry.getSurveyDate())
+                    .field(entry.getPropertyValue()).field(propertyID));
+
+            Mortgage mortgage = entry.getMortgage();
+            int mortgageID = ++lastMortgageID;
+            mortgages.write(row().field(mortgageID).field(customerID)
+                    .field((String) null).field(propertyID)
+                    .field(mortgage.getDateOfApplication())
+                    .field(mortgage.getDeposit())
+                    .field(mortgage.getMortgageLengthInMonths())
+                    .field(mortgage.getAmountRequested())
+                    .field(mortgage.getApplicationStatus().ordinal())
+                    .field(mortgage.getMortgageType().ordinal())
+                    .field(mortgage.getPaymentsBegin()));
+
+            for(MortgagePaymentDetails payment : entry.getPayments()) {
+                payments.write(row().field(++lastPaymentID)
+                        .field(payment.getPaymentDueDate())
+                        .field(payment.getPaymentMadeDate())
+                        .field(payment.getMethodOfPayment().ordinal())
+                        .field(payment.getAmount()).field(mortgageID));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Table[] tables = {addresses, surveyors, customers, employments,
+            creditChecks, properties, surveys, mortgages, payments};
+        IOException failure = null;
+        for(Table table : tables) {
+            if(table == null) continue;
+            try {
+                table.close();
+            } catch(IOException e) {
+                if(failure == null) failure = e;
+            }
+        }
+        if(failure != null) throw failure;
+        if(addresses == null) return;
+
+        Writer script = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(new File(directory, LOADSCRIPT)),
+                "UTF-8"));
+        try {
+            // In the order the foreign keys need
+            for(Table table : tables) {
+                script.write(table.loadStatement());
+            }
+        } finally {
+            script.close();
+        }
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return true;
+    }
+
+    /**
+     * Write an address
+     *
+     * @param address The address to write
+     * @return The ID given to the address
+     * @throws java.io.IOException When the address could not be written
+     * @since 0.0.1
+     */
+    private int writeAddress(final Address address) throws IOException {
+        int addressID = ++lastAddressID;
+        addresses.write(row().field(addressID)
+                .field(address.getPropertyName())
+                .field(address.getStreetName()).field(address.getTown())
+                .field(address.getCountry()).field(address.getPostCode()));
+        return addressID;
+    }
+
+    /**
+     * Start a new row
+     *
+     * @return A builder for the fields of the row
+     * @since 0.0.1
+     */
+    private Row row() {
+        row.setLength(0);
+        return new Row(row);
+    }
+
+    /**
+     * Builds one tab separated row
+     *
+     * @since 0.0.1
+     */
+    private static final class Row {
+        private final StringBuilder text;
+
+        private Row(final StringBuilder text) {
+            this.text = text;
+        }
+
+        /**
+         * Start the next field, with a tab if it is not the first
+         *
+         * @return The text of the row
+         * @since 0.0.1
+         */
+        private StringBuilder next() {
+            if(text.length() > 0) text.append('\t');
+            return text;
+        }
+
+        private Row field(final int value) {
+            next().append(value);
+            return this;
+        }
+
+        private Row field(final boolean value) {
+            next().append(value ? '1' : '0');
+            return this;
+        }
+
+        private Row field(final float value) {
+            return pence(Math.round(value * 100.0));
+        }
+
+        private Row field(final Money value) {
+            if(value == null) {
+                next().append(NULL);
+                return this;
+            }
+            return pence(value.getPence());
+        }
+
+        /**
+         * Add an amount in hundredths, to two decimal places and never in
+         * scientific notation
+         *
+         * @param pence The amount in hundredths
+         * @return This row
+         * @since 0.0.1
+         */
+        private Row pence(long pence) {
+            StringBuilder field = next();
+            if(pence < 0) {
+                field.append('-');
+                pence = -pence;
+            }
+            field.append(pence / 100).append('.');
+            if(pence % 100 < 10) field.append('0');
+            field.append(pence % 100);
+            return this;
+        }
+
+        private Row field(final Day date) {
+            StringBuilder field = next();
+            if(date == null) {
+                field.append(NULL);
+                return this;
+            }
+            int month = date.getMonth();
+            int day = date.getDayOfMonth();
+            field.append(date.getYear())
+                    .append(month < 10 ? "-0" : "-").append(month)
+                    .append(day < 10 ? "-0" : "-").append(day);
+            return this;
+        }
+
+        private Row field(final String value) {
+            StringBuilder field = next();
+            if(value == null) {
+                field.append(NULL);
+                return this;
+            }
+            for(int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch(c) {
+                    case '\\': field.append("\\\\"); break;
+                    case '\t': field.append("\\t"); break;
+                    case '\n': field.append("\\n"); break;
+                    case '\r': field.append("\\r"); break;
+                    default: field.append(c);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * The file of one table
+     *
+     * @since 0.0.1
+     */
+    private final class Table {
+        private final String name;
+        private final String[] columns;
+        private final File file;
+        private final Writer writer;
+
+        private Table(final String name, final String... columns)
+                throws IOException
+        {
+            this.name = name;
+            this.columns = columns;
+            file = new File(directory, name + ".txt");
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(file), "UTF-8"), 1 << 16);
+        }
+
+        /**
+         * Write a row to the file
+         *
+         * @param row The row, which is finished
+         * @throws java.io.IOException When the row could not be written
+         * @since 0.0.1
+         */
+        private void write(final Row row) throws IOException {
+            writer.append(row.text).append('\n');
+        }
+
+        private void close() throws IOException {
+            writer.close();
+        }
+
+        /**
+         * Get the statement which loads the file into its table
+         *
+         * @return The LOAD DATA statement
+         * @since 0.0.1
+         */
+        private String loadStatement() {
+            StringBuilder statement = new StringBuilder("LOAD DATA LOCAL " +
+                    "INFILE '");
+            statement.append(file.getAbsolutePath().replace('\\', '/')
+                    .replace("'", "''"));
+            statement.append("' INTO TABLE ").append(name)
+                    .append(" CHARACTER SET utf8 (");
+            for(int i = 0; i < columns.length; i++) {
+                if(i > 0) statement.append(", ");
+                statement.append(columns[i]);
+            }
+            return statement.append(");\n").toString();
+        }
+    }
+}
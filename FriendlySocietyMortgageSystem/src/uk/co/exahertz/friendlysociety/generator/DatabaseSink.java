@@ -0,0 +1,95 @@
+package uk.co.exahertz.friendlysociety.generator;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import uk.co.exahertz.friendlysociety.core.MortgagePaymentDetails;
+import uk.co.exahertz.friendlysociety.core.Surveyor;
+import uk.co.exahertz.friendlysociety.database.MortgageDatabase;
+
+/**
+ * Writes a generated mortgage book into any MortgageDatabase through its add
+ * methods, so the database gives every record its ID. Chunks may be written
+ * from several threads at once, so the database must be safe to share
+ * between threads, as MySQL and MemoryDatabase are. An entry whose customer
+ * could not be added is skipped and counted as failed.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class DatabaseSink implements BookSink {
+    private final MortgageDatabase database;
+    private final AtomicInteger failed;
+    private Surveyor[] surveyors;
+
+    /**
+     * Create a new sink
+     *
+     * @param database The database to write to
+     * @throws java.lang.IllegalArgumentException When database is null
+     * @since 0.0.1
+     */
+    public DatabaseSink(final MortgageDatabase database) {
+        if(database == null) throw new IllegalArgumentException("The " +
+                "database must not be null.");
+        this.database = database;
+        failed = new AtomicInteger();
+    }
+
+    @Override
+    public void open(final List<Surveyor> surveyors) {
+        this.surveyors = new Surveyor[surveyors.size()];
+        for(int i = 0; i < this.surveyors.length; i++) {
+            Surveyor surveyor = surveyors.get(i);
+            int id = database.addSurveyor(surveyor);
+            this.surveyors[i] = new Surveyor(Math.max(id, 0),
+                    surveyor.getSurveyorName(),
+                    surveyor.getSurveyorAddressObject(),
+                    surveyor.getTelephoneNumber(), surveyor.getFaxNumber(),
+                    surveyor.getEmailAddress());
+        }
+    }
+
+    @Override
+    public void write(final List<BookEntry> entries) {
+        for(BookEntry entry : entries) {
+            int customerID = database.addCustomer(entry.getCustomer());
+            if(customerID < 0) {
+                failed.incrementAndGet();
+                continue;
+            }
+            database.addEmployment(entry.getEmployment(), customerID);
+            database.addCreditCheck(entry.getCreditCheck(), customerID);
+            int propertyID = database.addProperty(entry.getProperty());
+            if(propertyID < 0) continue;
+            database.addSurvey(entry.getSurvey(
+                    surveyors[entry.getSurveyorIndex()]), propertyID);
+            int mortgageID = database.addMortgage(entry.getMortgage(customerID,
+                    propertyID));
+            // A database which does not store mortgages returns 0
+            if(mortgageID <= 0) continue;
+            for(MortgagePaymentDetails payment : entry.getPayments()) {
+                database.addMortgagePayment(payment, mortgageID);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return false;
+    }
+
+    /**
+     * Get the number of entries whose customer could not be added
+     *
+     * @return The number of entries skipped
+     * @since 0.0.1
+     */
+    public int getFailedCount() {
+        return failed.get();
+    }
+}
@@ -0,0 +1,557 @@
+package uk.co.exahertz.friendlysociety.generator;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import uk.co.exahertz.friendlysociety.core.AmortisationSchedule;
+import uk.co.exahertz.friendlysociety.core.Day;
+import uk.co.exahertz.friendlysociety.core.MethodOfPayment;
+import uk.co.exahertz.friendlysociety.core.MortgageApplicationStatus;
+import uk.co.exahertz.friendlysociety.core.MortgagesOffered;
+
+/**
+ * The distributions the mortgage book generator draws from. The defaults
+ * describe a building society lending across the UK; each can be changed
+ * with a setter, or read from a properties file with load(), using the keys
+ * given on each setter. The same seed and settings, including the reference
+ * date, always give the same mortgage book.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class GeneratorSettings {
+    private String[] postCodeAreas = {"EC", "B", "LS", "G", "S", "BD", "M",
+        "EH", "L", "BS", "CF", "LE", "CV", "BT", "NG", "NE", "BN", "HU", "PL",
+        "DE"};
+    private String[] towns = {"London", "Birmingham", "Leeds", "Glasgow",
+        "Sheffield", "Bradford", "Manchester", "Edinburgh", "Liverpool",
+        "Bristol", "Cardiff", "Leicester", "Coventry", "Belfast", "Nottingham",
+        "Newcastle", "Brighton", "Hull", "Plymouth", "Derby"};
+    private double[] postCodeAreaWeights = {18, 8, 6, 5, 5, 4, 7, 4, 5, 4, 3,
+        3, 3, 3, 3, 3, 3, 2, 2, 2};
+    private int districtsPerArea = 20;
+    private double salaryMedian = 29000;
+    private double salarySpread = 0.45;
+    private double creditScoreMean = 640;
+    private double creditScoreDeviation = 110;
+    private int lowRiskScore = 700;
+    private int mediumRiskScore = 500;
+    private int[] termYears = {10, 15, 20, 25, 30, 35};
+    private double[] termYearWeights = {4, 8, 16, 45, 20, 7};
+    private double[] mortgageTypeWeights = {35, 40, 15, 10};
+    private double[] interestRates = {3.9, 4.4, 5.2, 4.6};
+    private double[] statusWeights = {5, 8, 80, 7};
+    private double[] paymentMethodWeights = {1, 85, 4, 10};
+    private double propertyValueMedian = 215000;
+    private double propertyValueSpread = 0.5;
+    private double minLoanToValue = 0.5;
+    private double maxLoanToValue = 0.95;
+    private double incomeMultiple = 4.5;
+    private int historyMonths = 120;
+    private double missedPaymentRate = 0.01;
+    private double surveyorsPerCustomer = 0.001;
+    private Day referenceDate;
+
+    /**
+     * Create settings with the default distributions, and the first day of
+     * this month as the reference date
+     *
+     * @since 0.0.1
+     */
+    public GeneratorSettings() {
+        Day today = Day.today();
+        referenceDate = Day.of(today.getYear(), today.getMonth(), 1);
+    }
+
+    /**
+     * Read the settings in a properties file, leaving any setting the file
+     * does not have at its current value
+     *
+     * @param fileName The name of the properties file
+     * @throws java.io.IOException When the file could not be read
+     * @throws java.lang.IllegalArgumentException When a value is not valid
+     * @since 0.0.1
+     */
+    public void load(final String fileName) throws IOException {
+        Properties properties = new Properties();
+        InputStream input = new FileInputStream(fileName);
+        try {
+            properties.load(input);
+        } finally {
+            input.close();
+        }
+        if(properties.containsKey("postcode.areas")) {
+            setPostCodeAreas(list(properties, "postcode.areas"),
+                    list(properties, "postcode.towns"),
+                    numbers(properties, "postcode.weights"));
+        }
+        if(properties.containsKey("postcode.districts")) {
+            setDistrictsPerArea(Integer.parseInt(
+                    properties.getProperty("postcode.districts").trim()));
+        }
+        if(properties.containsKey("salary.median")) {
+            setSalary(number(properties, "salary.median"),
+                    number(properties, "salary.spread"));
+        }
+        if(properties.containsKey("creditscore.mean")) {
+            setCreditScore(number(properties, "creditscore.mean"),
+                    number(properties, "creditscore.deviation"));
+        }
+        if(properties.containsKey("term.years")) {
+            double[] years = numbers(properties, "term.years");
+            int[] terms = new int[years.length];
+            for(int i = 0; i < years.length; i++) {
+                terms[i] = (int) years[i];
+            }
+            setTermYears(terms, numbers(properties, "term.weights"));
+        }
+        if(properties.containsKey("mortgagetype.weights")) {
+            setMortgageTypes(numbers(properties, "mortgagetype.weights"),
+                    numbers(properties, "mortgagetype.rates"));
+        }
+        if(properties.containsKey("status.weights")) {
+            setStatusWeights(numbers(properties, "status.weights"));
+        }
+        if(properties.containsKey("paymentmethod.weights")) {
+            setPaymentMethodWeights(numbers(properties,
+                    "paymentmethod.weights"));
+        }
+        if(properties.containsKey("property.median")) {
+            setPropertyValue(number(properties, "property.median"),
+                    number(properties, "property.spread"));
+        }
+        if(properties.containsKey("ltv.min")) {
+            setLoanToValue(number(properties, "ltv.min"),
+                    number(properties, "ltv.max"));
+        }
+        if(properties.containsKey("history.months")) {
+            setHistoryMonths(Integer.parseInt(
+                    properties.getProperty("history.months").trim()));
+        }
+        if(properties.containsKey("payments.missedrate")) {
+            setMissedPaymentRate(number(properties, "payments.missedrate"));
+        }
+        if(properties.containsKey("reference.date")) {
+            String[] date = properties.getProperty("reference.date").trim()
+                    .split("-");
+            if(date.length != 3) throw new IllegalArgumentException("The " +
+                    "reference date must be in the format yyyy-MM-dd.");
+            setReferenceDate(Day.of(Integer.parseInt(date[0]),
+                    Integer.parseInt(date[1]), Integer.parseInt(date[2])));
+        }
+    }
+
+    /**
+     * Set the post code areas customers live in, and how many customers live
+     * in each. Keys: postcode.areas, postcode.towns, postcode.weights, each a
+     * comma separated list.
+     *
+     * @param areas The post code areas, such as "LS"
+     * @param areaTowns The town of each area
+     * @param weights The share of customers in each area
+     * @throws java.lang.IllegalArgumentException When the arrays are null or
+     * of different lengths
+     * @since 0.0.1
+     */
+    public void setPostCodeAreas(final String[] areas,
+            final String[] areaTowns, final double[] weights)
+    {
+        if(areas == null || areaTowns == null || weights == null ||
+                areas.length != areaTowns.length ||
+                areas.length != weights.length) {
+            throw new IllegalArgumentException("There must be one town and " +
+                    "one weight for each post code area.");
+        }
+        new WeightedChoice(weights);
+        this.postCodeAreas = areas.clone();
+        this.towns = areaTowns.clone();
+        this.postCodeAreaWeights = weights.clone();
+    }
+
+    /**
+     * Set the number of districts in each post code area. Key:
+     * postcode.districts.
+     *
+     * @param districts The number of districts
+     * @throws java.lang.IllegalArgumentException When districts is not
+     * between 1 and 99
+     * @since 0.0.1
+     */
+    public void setDistrictsPerArea(final int districts) {
+        if(districts < 1 || districts > 99) {
+            throw new IllegalArgumentException("The number of districts " +
+                    "must be between 1 and 99.");
+        }
+        this.districtsPerArea = districts;
+    }
+
+    /**
+     * Set the distribution of salaries, which is log-normal. Keys:
+     * salary.median, salary.spread.
+     *
+     * @param median The median salary
+     * @param spread The standard deviation of the log of the salary
+     * @throws java.lang.IllegalArgumentException When median is not positive
+     * or spread is negative
+     * @since 0.0.1
+     */
+    public void setSalary(final double median, final double spread) {
+        if(median <= 0 || spread < 0) throw new IllegalArgumentException(
+                "The median salary must be positive and the spread must not " +
+                "be negative.");
+        this.salaryMedian = median;
+        this.salarySpread = spread;
+    }
+
+    /**
+     * Set the distribution of credit scores, which is normal and limited to
+     * 1 to 1000. Keys: creditscore.mean, creditscore.deviation.
+     *
+     * @param mean The mean score
+     * @param deviation The standard deviation of the score
+     * @throws java.lang.IllegalArgumentException When deviation is negative
+     * @since 0.0.1
+     */
+    public void setCreditScore(final double mean, final double deviation) {
+        if(deviation < 0) throw new IllegalArgumentException("The standard " +
+                "deviation must not be negative.");
+        this.creditScoreMean = mean;
+        this.creditScoreDeviation = deviation;
+    }
+
+    /**
+     * Set the terms mortgages are taken out over. Keys: term.years,
+     * term.weights.
+     *
+     * @param years The terms in years
+     * @param weights The share of mortgages with each term
+     * @throws java.lang.IllegalArgumentException When the arrays are null or
+     * of different lengths, or a term is not positive or is longer than
+     * AmortisationSchedule.MAXTERM months
+     * @since 0.0.1
+     */
+    public void setTermYears(final int[] years, final double[] weights) {
+        if(years == null || weights == null ||
+                years.length != weights.length) {
+            throw new IllegalArgumentException("There must be one weight for " +
+                    "each term.");
+        }
+        for(int year : years) {
+            if(year < 1) throw new IllegalArgumentException("The terms must " +
+                    "be positive.");
+            if(year > AmortisationSchedule.MAXTERM / 12) {
+                throw new IllegalArgumentException("The terms must be at " +
+                        "most " + AmortisationSchedule.MAXTERM / 12 +
+                        " years.");
+            }
+        }
+        new WeightedChoice(weights);
+        this.termYears = years.clone();
+        this.termYearWeights = weights.clone();
+    }
+
+    /**
+     * Set the share of each type of mortgage and its annual interest rate,
+     * in the order of MortgagesOffered. Keys: mortgagetype.weights,
+     * mortgagetype.rates.
+     *
+     * @param weights The share of mortgages of each type
+     * @param rates The annual interest rate of each type, in percent
+     * @throws java.lang.IllegalArgumentException When the arrays are null or
+     * do not have one value for each type
+     * @since 0.0.1
+     */
+    public void setMortgageTypes(final double[] weights, final double[] rates)
+    {
+        int types = MortgagesOffered.values().length;
+        if(weights == null || rates == null || weights.length != types ||
+                rates.length != types) {
+            throw new IllegalArgumentException("There must be one weight and " +
+                    "one rate for each type of mortgage.");
+        }
+        new WeightedChoice(weights);
+        this.mortgageTypeWeights = weights.clone();
+        this.interestRates = rates.clone();
+    }
+
+    /**
+     * Set the share of mortgages with each application status, in the order
+     * of MortgageApplicationStatus. Only accepted mortgages have payments.
+     * Key: status.weights.
+     *
+     * @param weights The share of mortgages with each status
+     * @throws java.lang.IllegalArgumentException When weights is null or does
+     * not have one weight for each status
+     * @since 0.0.1
+     */
+    public void setStatusWeights(final double[] weights) {
+        if(weights == null ||
+                weights.length != MortgageApplicationStatus.values().length) {
+            throw new IllegalArgumentException("There must be one weight for " +
+                    "each application status.");
+        }
+        new WeightedChoice(weights);
+        this.statusWeights = weights.clone();
+    }
+
+    /**
+     * Set the share of mortgages paid by each method of payment, in the order
+     * of MethodOfPayment. Key: paymentmethod.weights.
+     *
+     * @param weights The share of mortgages paid by each method
+     * @throws java.lang.IllegalArgumentException When weights is null or does
+     * not have one weight for each method
+     * @since 0.0.1
+     */
+    public void setPaymentMethodWeights(final double[] weights) {
+        if(weights == null ||
+                weights.length != MethodOfPayment.values().length) {
+            throw new IllegalArgumentException("There must be one weight for " +
+                    "each method of payment.");
+        }
+        new WeightedChoice(weights);
+        this.paymentMethodWeights = weights.clone();
+    }
+
+    /**
+     * Set the distribution of property values, which is log-normal. Keys:
+     * property.median, property.spread.
+     *
+     * @param median The median property value
+     * @param spread The standard deviation of the log of the value
+     * @throws java.lang.IllegalArgumentException When median is not positive
+     * or spread is negative
+     * @since 0.0.1
+     */
+    public void setPropertyValue(final double median, final double spread) {
+        if(median <= 0 || spread < 0) throw new IllegalArgumentException(
+                "The median value must be positive and the spread must not " +
+                "be negative.");
+        this.propertyValueMedian = median;
+        this.propertyValueSpread = spread;
+    }
+
+    /**
+     * Set the range of loan to value ratios, which are uniform. Keys: ltv.min,
+     * ltv.max.
+     *
+     * @param min The smallest loan to value ratio
+     * @param max The largest loan to value ratio
+     * @throws java.lang.IllegalArgumentException When the range is not within
+     * 0 to 1
+     * @since 0.0.1
+     */
+    public void setLoanToValue(final double min, final double max) {
+        if(min <= 0 || max > 1 || min > max) {
+            throw new IllegalArgumentException("The loan to value range " +
+                    "must be within 0 to 1.");
+        }
+        this.minLoanToValue = min;
+        this.maxLoanToValue = max;
+    }
+
+    /**
+     * Set how far back mortgages may have been taken out, which decides how
+     * many payments each has. Key: history.months.
+     *
+     * @param months The age of the oldest mortgage in months
+     * @throws java.lang.IllegalArgumentException When months is negative
+     * @since 0.0.1
+     */
+    public void setHistoryMonths(final int months) {
+        if(months < 0) throw new IllegalArgumentException("The history must " +
+                "not be negative.");
+        this.historyMonths = months;
+    }
+
+    /**
+     * Set the share of payments which are due but have not been made. Key:
+     * payments.missedrate.
+     *
+     * @param rate The share of missed payments, from 0 to 1
+     * @throws java.lang.IllegalArgumentException When rate is not within 0
+     * to 1
+     * @since 0.0.1
+     */
+    public void setMissedPaymentRate(final double rate) {
+        if(rate < 0 || rate > 1) throw new IllegalArgumentException("The " +
+                "missed payment rate must be within 0 to 1.");
+        this.missedPaymentRate = rate;
+    }
+
+    /**
+     * Set the date the mortgage book is generated as of. Ages, application
+     * dates and payment histories are all worked out back from this date.
+     * Key: reference.date, in the format yyyy-MM-dd.
+     *
+     * @param date The reference date
+     * @throws java.lang.IllegalArgumentException When date is null
+     * @since 0.0.1
+     */
+    public void setReferenceDate(final Day date) {
+        if(date == null) throw new IllegalArgumentException("The reference " +
+                "date must not be null.");
+        this.referenceDate = date;
+    }
+
+    String[] getPostCodeAreas() {
+        return postCodeAreas;
+    }
+
+    String[] getTowns() {
+        return towns;
+    }
+
+    double[] getPostCodeAreaWeights() {
+        return postCodeAreaWeights;
+    }
+
+    int getDistrictsPerArea() {
+        return districtsPerArea;
+    }
+
+    double getSalaryMedian() {
+        return salaryMedian;
+    }
+
+    double getSalarySpread() {
+        return salarySpread;
+    }
+
+    double getCreditScoreMean() {
+        return creditScoreMean;
+    }
+
+    double getCreditScoreDeviation() {
+        return creditScoreDeviation;
+    }
+
+    int getLowRiskScore() {
+        return lowRiskScore;
+    }
+
+    int getMediumRiskScore() {
+        return mediumRiskScore;
+    }
+
+    int[] getTermYears() {
+        return termYears;
+    }
+
+    double[] getTermYearWeights() {
+        return termYearWeights;
+    }
+
+    double[] getMortgageTypeWeights() {
+        return mortgageTypeWeights;
+    }
+
+    double[] getInterestRates() {
+        return interestRates;
+    }
+
+    double[] getStatusWeights() {
+        return statusWeights;
+    }
+
+    double[] getPaymentMethodWeights() {
+        return paymentMethodWeights;
+    }
+
+    double getPropertyValueMedian() {
+        return propertyValueMedian;
+    }
+
+    double getPropertyValueSpread() {
+        return propertyValueSpread;
+    }
+
+    double getMinLoanToValue() {
+        return minLoanToValue;
+    }
+
+    double getMaxLoanToValue() {
+        return maxLoanToValue;
+    }
+
+    double getIncomeMultiple() {
+        return incomeMultiple;
+    }
+
+    int getHistoryMonths() {
+        return historyMonths;
+    }
+
+    double getMissedPaymentRate() {
+        return missedPaymentRate;
+    }
+
+    double getSurveyorsPerCustomer() {
+        return surveyorsPerCustomer;
+    }
+
+    Day getReferenceDate() {
+        return referenceDate;
+    }
+
+    /**
+     * Read a number from a properties file
+     *
+     * @param properties The properties read from the file
+     * @param key The key of the number
+     * @return The number
+     * @throws java.lang.IllegalArgumentException When the key is missing or
+     * is not a number
+     * @since 0.0.1
+     */
+    private static double number(final Properties properties,
+            final String key) {
+        String value = properties.getProperty(key);
+        if(value == null) throw new IllegalArgumentException("The setting " +
+                key + " is missing.");
+        return Double.parseDouble(value.trim());
+    }
+
+    /**
+     * Read a comma separated list of numbers from a properties file
+     *
+     * @param properties The properties read from the file
+     * @param key The key of the list
+     * @return The numbers
+     * @throws java.lang.IllegalArgumentException When the key is missing or a
+     * value is not a number
+     * @since 0.0.1
+     */
+    private static double[] numbers(final Properties properties,
+            final String key) {
+        String[] values = list(properties, key);
+        double[] numbers = new double[values.length];
+        for(int i = 0; i < values.length; i++) {
+            numbers[i] = Double.parseDouble(values[i]);
+        }
+        return numbers;
+    }
+
+    /**
+     * Read a comma separated list from a properties file
+     *
+     * @param properties The properties read from the file
+     * @param key The key of the list
+     * @return The trimmed values
+     * @throws java.lang.IllegalArgumentException When the key is missing
+     * @since 0.0.1
+     */
+    private static String[] list(final Properties properties,
+            final String key) {
+        String value = properties.getProperty(key);
+        if(value == null) throw new IllegalArgumentException("The setting " +
+                key + " is missing.");
+        String[] values = value.split(",");
+        for(int i = 0; i < values.length; i++) {
+            values[i] = values[i].trim();
+        }
+        return values;
+    }
+}
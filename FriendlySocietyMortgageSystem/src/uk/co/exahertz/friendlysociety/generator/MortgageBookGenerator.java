@@ -0,0 +1,621 @@
+package uk.co.exahertz.friendlysociety.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import uk.co.exahertz.friendlysociety.core.*;
+import uk.co.exahertz.friendlysociety.database.MemoryDatabase;
+import uk.co.exahertz.friendlysociety.database.MySQL;
+
+/**
+ * Generates a synthetic mortgage book of any size: customers with their
+ * employment, credit check, property, survey, mortgage and payment history,
+ * and the surveyors who surveyed the properties. Every entry is worked out
+ * from the seed and its number alone, so the same seed and settings always
+ * give the same book however many threads generate it, and any entry can be
+ * generated on its own.
+ * <p>
+ * It can be run from the command line:
+ * <pre>java uk.co.exahertz.friendlysociety.generator.MortgageBookGenerator
+ *     customers [--seed n] [--threads n] [--settings file]
+ *     [--bulk directory | --memory | --mysql]</pre>
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class MortgageBookGenerator {
+    /** The number of entries generated and written at a time */
+    public static final int CHUNKSIZE = 1000;
+    /** The smallest number of surveyors in a book */
+    public static final int MINSURVEYORS = 10;
+    private static final String[] FEMALEFORENAMES = {"Olivia", "Amelia",
+        "Isla", "Ava", "Mia", "Ivy", "Lily", "Isabella", "Rosie", "Sophia",
+        "Grace", "Freya", "Florence", "Willow", "Evie", "Emily", "Poppy",
+        "Ella", "Elsie", "Evelyn", "Sarah", "Margaret", "Susan", "Helen",
+        "Claire", "Emma", "Rachel", "Joanne", "Karen", "Anne"};
+    private static final String[] MALEFORENAMES = {"Oliver", "George",
+        "Harry", "Noah", "Jack", "Leo", "Arthur", "Muhammad", "Oscar",
+        "Charlie", "Henry", "Thomas", "Alfie", "Theo", "Archie", "Joshua",
+        "James", "William", "Isaac", "Edward", "David", "John", "Michael",
+        "Paul", "Andrew", "Mark", "Richard", "Peter", "Stephen", "Robert"};
+    private static final String[] SURNAMES = {"Smith", "Jones", "Williams",
+        "Taylor", "Brown", "Davies", "Evans", "Wilson", "Thomas", "Johnson",
+        "Roberts", "Robinson", "Thompson", "Wright", "Walker", "White",
+        "Edwards", "Hughes", "Green", "Hall", "Lewis", "Harris", "Clarke",
+        "Patel", "Jackson", "Wood", "Turner", "Martin", "Cooper", "Hill",
+        "Ward", "Morris", "Moore", "Clark", "Lee", "King", "Baker", "Harrison",
+        "Morgan", "Allen", "James", "Scott", "Phillips", "Watson", "Davis",
+        "Parker", "Price", "Bennett", "Young", "Griffiths", "Mitchell", "Kelly",
+        "Cook", "Carter", "Richardson", "Bailey", "Collins", "Bell", "Shaw",
+        "Murphy", "Miller", "Cox", "Richards", "Khan", "Marshall", "Anderson",
+        "Simpson", "Ellis", "Adams", "Singh", "Begum", "Wilkinson", "Foster",
+        "Chapman", "Powell", "Webb", "Rogers", "Gray", "Mason", "Ali", "Hunt",
+        "Hussain", "Campbell", "Matthews", "Owen", "Palmer", "Holmes", "Mills",
+        "Barnes", "Knight", "Lloyd", "Butler", "Russell", "Barker", "Fisher",
+        "Stevens", "Jenkins", "Murray", "Dixon", "Harvey"};
+    private static final String[] STREETS = {"High Street", "Station Road",
+        "Main Street", "Park Road", "Church Road", "Church Street",
+        "London Road", "Victoria Road", "Green Lane", "Manor Road",
+        "Church Lane", "Park Avenue", "The Avenue", "The Crescent",
+        "Queens Road", "New Road", "Grange Road", "Kings Road", "Kingsway",
+        "Windsor Road", "Highfield Road", "Mill Lane", "Alexander Road",
+        "York Road", "St. John's Road", "Main Road", "Broadway",
+        "King Street", "The Green", "Springfield Road"};
+    private static final String[] HOUSENAMES = {"Rose Cottage", "The Old " +
+        "School", "Orchard House", "The Coach House", "Ivy Cottage",
+        "The Willows", "Hillside", "Meadow View"};
+    private static final String[] EMPLOYERS = {"Exahertz Ltd", "Northwind",
+        "Acme Trading", "Globex", "Initech", "Umbrella Holdings",
+        "Stark Engineering", "Wayne Logistics", "Tyrell Systems", "Soylent",
+        "City Council", "NHS Trust", "County Police", "Royal Mail",
+        "Greggs", "Tesco Stores", "Network Rail", "University"};
+    private static final String[] BUSINESSSTREETS = {"Business Park",
+        "Trading Estate", "Enterprise Way", "Commerce Road", "Innovation Park",
+        "Industrial Estate"};
+    private static final String NILETTERS = "ABCEGHJKLMNPRSTWXYZ";
+    private static final String UNITLETTERS = "ABDEFGHJLNPQRSTUWXYZ";
+    private static final double[] PROPERTYTYPEWEIGHTS = {20, 30, 8, 22, 20};
+    private final long seed;
+    private final int customers;
+    private final int surveyors;
+    private final GeneratorSettings settings;
+    private final Day referenceDate;
+    private final WeightedChoice areas;
+    private final WeightedChoice terms;
+    private final WeightedChoice types;
+    private final WeightedChoice statuses;
+    private final WeightedChoice methods;
+    private final WeightedChoice propertyTypes;
+
+    /**
+     * Create a new generator. The settings are read now, so changing them
+     * later does not change the book.
+     *
+     * @param seed The seed the book is worked out from
+     * @param customers The number of customers in the book
+     * @param settings The distributions to draw from
+     * @throws java.lang.IllegalArgumentException When customers is negative
+     * or settings is null
+     * @since 0.0.1
+     */
+    public MortgageBookGenerator(final long seed, final int customers,
+            final GeneratorSettings settings)
+    {
+        if(customers < 0) throw new IllegalArgumentException("The number of " +
+                "customers must not be negative.");
+        if(settings == null) throw new IllegalArgumentException("The " +
+                "settings must not be null.");
+        this.seed = seed;
+        this.customers = customers;
+        this.settings = settings;
+        surveyors = Math.max(MINSURVEYORS, (int) Math.ceil(customers *
+                settings.getSurveyorsPerCustomer()));
+        referenceDate = settings.getReferenceDate();
+        areas = new WeightedChoice(settings.getPostCodeAreaWeights());
+        terms = new WeightedChoice(settings.getTermYearWeights());
+        types = new WeightedChoice(settings.getMortgageTypeWeights());
+        statuses = new WeightedChoice(settings.getStatusWeights());
+        methods = new WeightedChoice(settings.getPaymentMethodWeights());
+        propertyTypes = new WeightedChoice(PROPERTYTYPEWEIGHTS);
+    }
+
+    /**
+     * Get the number of customers in the book
+     *
+     * @return The number of entries
+     * @since 0.0.1
+     */
+    public int getCustomerCount() {
+        return customers;
+    }
+
+    /**
+     * Get the surveyors of the book
+     *
+     * @return The surveyors, each with an ID of 0
+     * @since 0.0.1
+     */
+    public List<Surveyor> getSurveyors() {
+        List<Surveyor> list = new ArrayList<Surveyor>(surveyors);
+        for(int n = 0; n < surveyors; n++) {
+            list.add(getSurveyor(n));
+        }
+        return list;
+    }
+
+    /**
+     * Get one surveyor of the book
+     *
+     * @param n The index of the surveyor
+     * @return The surveyor, with an ID of 0
+     * @throws java.lang.IllegalArgumentException When n is not the index of a
+     * surveyor of the book
+     * @since 0.0.1
+     */
+    public Surveyor getSurveyor(final int n) {
+        if(n < 0 || n >= surveyors) throw new IllegalArgumentException("The " +
+                "surveyor index must be in the range of 0 to " +
+                (surveyors - 1) + ".");
+        Random random = new Random(mix(-1L - n));
+        String name = pick(random, SURNAMES) + " & " + pick(random, SURNAMES);
+        return new Surveyor(0, name, businessAddress(random),
+                telephone(random, "01"), "",
+                "surveys" + n + "@example.com");
+    }
+
+    /**
+     * Get one entry of the book
+     *
+     * @param n The number of the entry
+     * @return The entry
+     * @throws java.lang.IllegalArgumentException When n is not the number of
+     * an entry of the book
+     * @since 0.0.1
+     */
+    public BookEntry getEntry(final int n) {
+        if(n < 0 || n >= customers) throw new IllegalArgumentException("The " +
+                "entry number must be in the range of 0 to " +
+                (customers - 1) + ".");
+        Random random = new Random(mix(n));
+
+        // The customer, who lives at the property being bought
+        int area = areas.choose(random);
+        boolean isFemale = random.nextBoolean();
+        String forenames = pick(random, isFemale ? FEMALEFORENAMES :
+                MALEFORENAMES);
+        String surname = pick(random, SURNAMES);
+        Day dateOfBirth = referenceDate.plusDays(
+                -(21 + random.nextInt(50)) * 365 - random.nextInt(365));
+        String propertyName = random.nextInt(20) == 0 ?
+                pick(random, HOUSENAMES) :
+                String.valueOf(1 + random.nextInt(250));
+        String street = pick(random, STREETS);
+        String postCode = postCode(random, area);
+        Customer customer = new Customer(0, title(random, isFemale),
+                forenames, surname, dateOfBirth, isFemale,
+                new Address(0, propertyName, street,
+                settings.getTowns()[area], "United Kingdom", postCode),
+                telephone(random, "07"), "", (forenames + "." + surname + n +
+                "@example.com").toLowerCase(), nationalInsuranceNumber(random),
+                String.valueOf(10000000 + random.nextInt(90000000)));
+
+        // When they applied, and the checks made before the application
+        Day applied = referenceDate.plusDays(
+                -random.nextInt(settings.getHistoryMonths() * 30 + 1));
+        Employment employment = employment(random, applied);
+        double salary = employment.getCurrentAnnualSalery().getPence() /
+                (double) Money.PENCEPERPOUND;
+        int score = (int) Math.max(1, Math.min(1000, Math.round(
+                settings.getCreditScoreMean() + random.nextGaussian() *
+                settings.getCreditScoreDeviation())));
+        String risk = score >= settings.getLowRiskScore() ? "low" :
+                score >= settings.getMediumRiskScore() ? "medium" : "high";
+        CreditCheck creditCheck = new CreditCheck(0, applied.plusDays(
+                -random.nextInt(14)), score, risk);
+
+        // The property and its survey
+        PropertyType type = PropertyType.values()[
+                propertyTypes.choose(random)];
+        int bedrooms = type == PropertyType.FLAT ? 1 + random.nextInt(2) :
+                2 + random.nextInt(4);
+        Property property = new Property(0, new Address(0, propertyName,
+                street, settings.getTowns()[area], "United Kingdom", postCode),
+                type, bedrooms);
+        long value = (long) Math.max(30000, roundTo(1000,
+                settings.getPropertyValueMedian() * Math.exp(
+                random.nextGaussian() * settings.getPropertyValueSpread())));
+        Day surveyed = applied.plusDays(7 + random.nextInt(14));
+        int surveyor = random.nextInt(surveyors);
+
+        // The mortgage, which the customer's income can limit below the
+        // loan to value
+        double loanToValue = settings.getMinLoanToValue() +
+                random.nextDouble() * (settings.getMaxLoanToValue() -
+                settings.getMinLoanToValue());
+        long amount = (long) Math.max(5000, roundTo(100, Math.min(
+                value * loanToValue, salary * settings.getIncomeMultiple())));
+        int months = settings.getTermYears()[terms.choose(random)] * 12;
+        MortgagesOffered mortgageType = MortgagesOffered.values()[
+                types.choose(random)];
+        MortgageApplicationStatus status = MortgageApplicationStatus.values()[
+                statuses.choose(random)];
+        Day paymentsBegin = Day.of(applied.getYear(), applied.getMonth(), 1)
+                .plusMonths(2);
+        Mortgage mortgage = new Mortgage(0, customer, null, property, applied,
+                Money.ofPounds(value - amount), months, Money.ofPounds(amount),
+                status, mortgageType, paymentsBegin);
+
+        List<MortgagePaymentDetails> payments =
+                new ArrayList<MortgagePaymentDetails>();
+        if(status == MortgageApplicationStatus.ACCEPTED) {
+            payments(random, payments, mortgage.getAmountRequested(), months,
+                    settings.getInterestRates()[mortgageType.ordinal()],
+                    paymentsBegin);
+        }
+        return new BookEntry(n, customer, employment, creditCheck, property,
+                surveyor, surveyed, Money.ofPounds(value), mortgage, payments);
+    }
+
+    /**
+     * Generate the book and write it to a sink. The entries are generated in
+     * chunks by several threads; an ordered sink is given the chunks in
+     * order, one at a time.
+     *
+     * @param threads The number of threads to generate entries with
+     * @param sink The sink to write to
+     * @param reporter Counts the entries written, or null
+     * @throws java.io.IOException When the sink failed
+     * @throws java.lang.InterruptedException When the thread was interrupted
+     * waiting for the book to be written
+     * @throws java.lang.IllegalArgumentException When threads is less than 1
+     * or sink is null
+     * @since 0.0.1
+     */
+    public void generate(final int threads, final BookSink sink,
+            final ThroughputReporter reporter)
+            throws IOException, InterruptedException
+    {
+        if(threads < 1) throw new IllegalArgumentException("The number of " +
+                "threads must be at least 1.");
+        if(sink == null) throw new IllegalArgumentException("The sink must " +
+                "not be null.");
+        sink.open(getSurveyors());
+        if(reporter != null) reporter.start();
+        Generation generation = new Generation(sink, reporter);
+        try {
+            Thread[] workers = new Thread[threads];
+            for(int i = 0; i < threads; i++) {
+                workers[i] = new Thread(generation, "Generator " + i);
+                workers[i].start();
+            }
+            try {
+                for(Thread worker : workers) {
+                    worker.join();
+                }
+            } catch(InterruptedException e) {
+                generation.fail(e);
+                throw e;
+            }
+        } finally {
+            if(reporter != null) reporter.stop();
+            sink.close();
+        }
+        Throwable failure = generation.failure.get();
+        if(failure instanceof IOException) throw (IOException) failure;
+        if(failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if(failure instanceof Error) throw (Error) failure;
+    }
+
+    /**
+     * The state shared by the threads generating a book
+     *
+     * @since 0.0.1
+     */
+    private final class Generation implements Runnable {
+        private final BookSink sink;
+        private final ThroughputReporter reporter;
+        private final int chunks;
+        private final AtomicInteger nextChunk;
+        private final AtomicReference<Throwable> failure;
+        private final Object turn;
+        private int writtenChunks;
+
+        private Generation(final BookSink sink,
+                final ThroughputReporter reporter) {
+            this.sink = sink;
+            this.reporter = reporter;
+            chunks = (customers + CHUNKSIZE - 1) / CHUNKSIZE;
+            nextChunk = new AtomicInteger();
+            failure = new AtomicReference<Throwable>();
+            turn = new Object();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while(failure.get() == null) {
+                    int chunk = nextChunk.getAndIncrement();
+                    if(chunk >= chunks) return;
+                    int first = chunk * CHUNKSIZE;
+                    int last = Math.min(customers, first + CHUNKSIZE);
+                    List<BookEntry> entries =
+                            new ArrayList<BookEntry>(last - first);
+                    long records = 0;
+                    for(int n = first; n < last; n++) {
+                        BookEntry entry = getEntry(n);
+                        entries.add(entry);
+                        records += entry.getRecordCount();
+                    }
+                    if(sink.isOrdered()) {
+                        synchronized(turn) {
+                            while(writtenChunks != chunk) {
+                                if(failure.get() != null) return;
+                                turn.wait();
+                            }
+                            sink.write(entries);
+                            writtenChunks++;
+                            turn.notifyAll();
+                        }
+                    } else {
+                        sink.write(entries);
+                    }
+                    if(reporter != null) reporter.add(entries.size(), records);
+                }
+            } catch(Throwable t) {
+                fail(t);
+            }
+        }
+
+        /**
+         * Stop every thread after a failure, keeping the first failure
+         *
+         * @param t The failure
+         * @since 0.0.1
+         */
+        private void fail(final Throwable t) {
+            failure.compareAndSet(null, t);
+            synchronized(turn) {
+                turn.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Generate the employment of a customer, which started before they
+     * applied
+     *
+     * @param random The random numbers of the entry
+     * @param applied The date the customer applied
+     * @return The employment
+     * @since 0.0.1
+     */
+    private Employment employment(final Random random,
+            final Day applied) {
+        boolean partTime = random.nextInt(7) == 0;
+        double salary = Math.max(8000, roundTo(100,
+                settings.getSalaryMedian() * Math.exp(random.nextGaussian() *
+                settings.getSalarySpread())));
+        if(partTime) salary = Math.max(8000, roundTo(100, salary / 2));
+        return new Employment(0, pick(random, EMPLOYERS),
+                businessAddress(random), telephone(random, "01"), "",
+                applied.plusDays(-90 - random.nextInt(20 * 365)), null,
+                partTime ? 20f : 37.5f, Money.ofPounds((long) salary),
+                random.nextInt(10) != 0, random.nextInt(12) == 0);
+    }
+
+    /**
+     * Generate the payments due on an accepted mortgage up to the reference
+     * date, each of the monthly repayment at the rate given
+     *
+     * @param random The random numbers of the entry
+     * @param payments The list to add the payments to
+     * @param amount The amount borrowed
+     * @param months The term of the mortgage in months
+     * @param annualRate The annual interest rate in percent
+     * @param paymentsBegin The date the first payment is due
+     * @since 0.0.1
+     */
+    private void payments(final Random random,
+            final List<MortgagePaymentDetails> payments, final Money amount,
+            final int months, final double annualRate,
+            final Day paymentsBegin)
+    {
+        double rate = annualRate / 1200;
+        long pence = amount.getPence();
+        double repayment = rate == 0 ? (double) pence / months :
+                pence * rate / (1 - Math.pow(1 + rate, -months));
+        Money instalment = Money.ofPence(Math.round(repayment));
+        MethodOfPayment method = MethodOfPayment.values()[
+                methods.choose(random)];
+        for(int i = 0; i < months; i++) {
+            int dueDay = Day.addMonths(paymentsBegin.getEpochDay(), i);
+            if(dueDay > referenceDate.getEpochDay()) break;
+            Day due = Day.ofEpochDay(dueDay);
+            MortgagePaymentDetails payment = new MortgagePaymentDetails(0, due,
+                    method, instalment);
+            if(random.nextDouble() >= settings.getMissedPaymentRate()) {
+                try {
+                    payment.setPaymentMadeDate(due.plusDays(
+                            random.nextInt(4)));
+                } catch(PaymentAlreadyMadeException e) {
+                    // The payment was only just created
+                    throw new IllegalStateException(e);
+                }
+            }
+            payments.add(payment);
+        }
+    }
+
+    /**
+     * Generate an address on a business park in a random area
+     *
+     * @param random The random numbers of the record
+     * @return The address
+     * @since 0.0.1
+     */
+    private Address businessAddress(final Random random) {
+        int area = areas.choose(random);
+        return new Address(0, "Unit " + (1 + random.nextInt(60)),
+                pick(random, BUSINESSSTREETS), settings.getTowns()[area],
+                "United Kingdom", postCode(random, area));
+    }
+
+    /**
+     * Generate a post code in an area, such as "LS14 3AB"
+     *
+     * @param random The random numbers of the record
+     * @param area The index of the area
+     * @return The post code
+     * @since 0.0.1
+     */
+    private String postCode(final Random random, final int area) {
+        return settings.getPostCodeAreas()[area] +
+                (1 + random.nextInt(settings.getDistrictsPerArea())) + " " +
+                random.nextInt(10) + pick(random, UNITLETTERS) +
+                pick(random, UNITLETTERS);
+    }
+
+    /**
+     * Mix the seed and a record number into a seed for the record, using the
+     * SplitMix64 finaliser
+     *
+     * @param n The record number
+     * @return The seed of the record
+     * @since 0.0.1
+     */
+    private long mix(final long n) {
+        long z = seed + n * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String title(final Random random, final boolean isFemale) {
+        if(random.nextInt(50) == 0) return "Dr";
+        if(!isFemale) return "Mr";
+        switch(random.nextInt(3)) {
+            case 0: return "Mrs";
+            case 1: return "Ms";
+            default: return "Miss";
+        }
+    }
+
+    private static String telephone(final Random random, final String prefix) {
+        return prefix + (100000000 + random.nextInt(900000000));
+    }
+
+    /**
+     * Generate a National Insurance number in the format AB123456C
+     *
+     * @param random The random numbers of the entry
+     * @return The National Insurance number
+     * @since 0.0.1
+     */
+    private static String nationalInsuranceNumber(final Random random) {
+        return "" + pick(random, NILETTERS) + pick(random, NILETTERS) +
+                (100000 + random.nextInt(900000)) + (char) ('A' +
+                random.nextInt(4));
+    }
+
+    private static String pick(final Random random, final String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static char pick(final Random random, final String letters) {
+        return letters.charAt(random.nextInt(letters.length()));
+    }
+
+    private static double roundTo(final int unit, final double value) {
+        return Math.round(value / unit) * (double) unit;
+    }
+
+    /**
+     * Generate a mortgage book from the command line
+     *
+     * @param args The number of customers, then the options
+     * @since 0.0.1
+     */
+    public static void main(final String[] args) {
+        if(args.length == 0) usage();
+        int customers = 0;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String settingsFile = null;
+        String bulk = null;
+        boolean mysql = false;
+        try {
+            customers = Integer.parseInt(args[0]);
+            for(int i = 1; i < args.length; i++) {
+                if(args[i].equals("--seed") && i + 1 < args.length) {
+                    seed = Long.parseLong(args[++i]);
+                } else if(args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if(args[i].equals("--settings") &&
+                        i + 1 < args.length) {
+                    settingsFile = args[++i];
+                } else if(args[i].equals("--bulk") && i + 1 < args.length) {
+                    bulk = args[++i];
+                } else if(args[i].equals("--mysql")) {
+                    mysql = true;
+                } else if(!args[i].equals("--memory")) {
+                    usage();
+                }
+            }
+        } catch(NumberFormatException e) {
+            usage();
+        }
+
+        try {
+            GeneratorSettings settings = new GeneratorSettings();
+            if(settingsFile != null) settings.load(settingsFile);
+            MortgageBookGenerator generator = new MortgageBookGenerator(seed,
+                    customers, settings);
+            ThroughputReporter reporter = new ThroughputReporter(System.out,
+                    ThroughputReporter.DEFAULTINTERVAL);
+            if(bulk != null) {
+                generator.generate(threads, new BulkLoadWriter(new File(bulk)),
+                        reporter);
+                System.out.println("Load the files with " + new File(bulk,
+                        BulkLoadWriter.LOADSCRIPT));
+            } else if(mysql) {
+                MySQL database = new MySQL();
+                try {
+                    DatabaseSink sink = new DatabaseSink(database);
+                    generator.generate(threads, sink, reporter);
+                    System.out.println(sink.getFailedCount() + " entries " +
+                            "could not be added.");
+                } finally {
+                    database.close();
+                }
+            } else {
+                MemoryDatabase database = new MemoryDatabase();
+                generator.generate(threads, new DatabaseSink(database),
+                        reporter);
+                System.out.println(database.getCustomerCount() +
+                        " customers in memory.");
+            }
+        } catch(Exception e) {
+            System.err.println("Could not generate the mortgage book: " + e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Print how to run the generator and exit
+     *
+     * @since 0.0.1
+     */
+    private static void usage() {
+        System.err.println("Usage: MortgageBookGenerator customers " +
+                "[--seed n] [--threads n] [--settings file] " +
+                "[--bulk directory | --memory | --mysql]");
+        System.exit(1);
+    }
+}
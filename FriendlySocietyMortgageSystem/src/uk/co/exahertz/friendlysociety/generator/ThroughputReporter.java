@@ -0,0 +1,138 @@
+package uk.co.exahertz.friendlysociety.generator;
+
+import java.io.PrintStream;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the entries and records a generator has written, and prints the
+ * progress and rate at a fixed interval from a background timer, then a
+ * summary when it is stopped.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class ThroughputReporter {
+    /** The default time between progress reports in milliseconds */
+    public static final long DEFAULTINTERVAL = 5000;
+    private final PrintStream out;
+    private final long interval;
+    private final AtomicLong entries;
+    private final AtomicLong records;
+    private Timer timer;
+    private long started;
+    private long lastReported;
+    private long lastRecords;
+
+    /**
+     * Create a new reporter
+     *
+     * @param out Where to print the reports, or null to print nothing
+     * @param interval The time between progress reports in milliseconds
+     * @throws java.lang.IllegalArgumentException When interval is not
+     * positive
+     * @since 0.0.1
+     */
+    public ThroughputReporter(final PrintStream out, final long interval) {
+        if(interval <= 0) throw new IllegalArgumentException("The interval " +
+                "must be greater than 0.");
+        this.out = out;
+        this.interval = interval;
+        entries = new AtomicLong();
+        records = new AtomicLong();
+    }
+
+    /**
+     * Start timing and printing progress reports
+     *
+     * @since 0.0.1
+     */
+    public synchronized void start() {
+        started = System.nanoTime();
+        lastReported = started;
+        if(out == null) return;
+        timer = new Timer("Generator progress", true);
+        timer.scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                report();
+            }
+        }, interval, interval);
+    }
+
+    /**
+     * Count entries which have been written
+     *
+     * @param entryCount The number of entries
+     * @param recordCount The number of records in the entries
+     * @since 0.0.1
+     */
+    public void add(final int entryCount, final long recordCount) {
+        entries.addAndGet(entryCount);
+        records.addAndGet(recordCount);
+    }
+
+    /**
+     * Stop printing progress reports and print a summary
+     *
+     * @since 0.0.1
+     */
+    public synchronized void stop() {
+        if(timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+        if(out == null) return;
+        double seconds = Math.max(getElapsedSeconds(), 1e-9);
+        out.printf("Wrote %d entries, %d records in %.1f s: %.0f entries/s, " +
+                "%.0f records/s%n", entries.get(), records.get(), seconds,
+                entries.get() / seconds, records.get() / seconds);
+    }
+
+    /**
+     * Get the number of entries written
+     *
+     * @return The number of entries
+     * @since 0.0.1
+     */
+    public long getEntryCount() {
+        return entries.get();
+    }
+
+    /**
+     * Get the number of records written
+     *
+     * @return The number of records
+     * @since 0.0.1
+     */
+    public long getRecordCount() {
+        return records.get();
+    }
+
+    /**
+     * Get the time since the reporter was started
+     *
+     * @return The elapsed time in seconds
+     * @since 0.0.1
+     */
+    public synchronized double getElapsedSeconds() {
+        return (System.nanoTime() - started) / 1e9;
+    }
+
+    /**
+     * Print the progress, and the rate since the last report
+     *
+     * @since 0.0.1
+     */
+    private synchronized void report() {
+        long now = System.nanoTime();
+        long total = records.get();
+        double seconds = (now - lastReported) / 1e9;
+        out.printf("%d entries, %d records, %.0f records/s%n", entries.get(),
+                total, (total - lastRecords) / seconds);
+        lastReported = now;
+        lastRecords = total;
+    }
+}
@@ -0,0 +1,70 @@
+package uk.co.exahertz.friendlysociety.generator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Chooses an index at random, each index in proportion to its weight. The
+ * cumulative weights are worked out once, so each choice is a binary search.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+class WeightedChoice {
+    private final double[] cumulative;
+
+    /**
+     * Create a new weighted choice
+     *
+     * @param weights The weight of each index, none of which may be negative
+     * @throws java.lang.IllegalArgumentException When weights is null or
+     * empty, a weight is negative or every weight is 0
+     * @since 0.0.1
+     */
+    WeightedChoice(final double[] weights) {
+        if(weights == null || weights.length == 0) {
+            throw new IllegalArgumentException("The weights must not be " +
+                    "null or empty.");
+        }
+        cumulative = new double[weights.length];
+        double total = 0;
+        for(int i = 0; i < weights.length; i++) {
+            if(weights[i] < 0) throw new IllegalArgumentException("The " +
+                    "weights must not be negative.");
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if(total <= 0) throw new IllegalArgumentException("At least one " +
+                "weight must be greater than 0.");
+    }
+
+    /**
+     * Choose an index
+     *
+     * @param random The source of randomness
+     * @return The index chosen
+     * @since 0.0.1
+     */
+    int choose(final Random random) {
+        double point = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, point);
+        if(index < 0) index = -index - 1;
+        // Skip past indexes with no weight which share the cumulative total
+        while(index < cumulative.length - 1 &&
+                cumulative[index] <= point) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Get the number of indexes to choose from
+     *
+     * @return The number of weights
+     * @since 0.0.1
+     */
+    int size() {
+        return cumulative.length;
+    }
+}
@@ -6,9 +6,9 @@
 
 package uk.co.exahertz.friendlysociety.gui;
 
+import java.util.concurrent.Callable;
 import uk.co.exahertz.friendlysociety.core.*;
 import javax.swing.JOptionPane;
-import java.util.GregorianCalendar;
 
 /**
  *
@@ -249,11 +249,11 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         return;
     }
 
-    GregorianCalendar dateObject;
+    Day dateObject;
     try {
-        dateObject = new GregorianCalendar(Integer.parseInt(date[2]),
+        dateObject = Day.of(Integer.parseInt(date[2]),
                 Integer.parseInt(date[1]), Integer.parseInt(date[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The credit check could not be " +
                 "added to the database as the date was not in the format " +
                 "DD/MM/YYYY.","Error", JOptionPane.ERROR_MESSAGE);
@@ -269,27 +269,46 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         return;
     }
     
+    final uk.co.exahertz.friendlysociety.core.CreditCheck creditCheck;
     try {
-        if(core.addCreditCheck(
-                new uk.co.exahertz.friendlysociety.core.CreditCheck(0,
-                dateObject, checkScore, (String)jComboBox1.getSelectedItem()),
-                customer.getID()) >= 0) {
-            JOptionPane.showMessageDialog(null, "The credit check was " +
-                    "successfully added to the database.", "Success",
-                    JOptionPane.PLAIN_MESSAGE);
-            dispose();
-            return;
-        } else {
-            JOptionPane.showMessageDialog(null, "The credit check failed " +
-                    "to be added to the database.", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        creditCheck = new uk.co.exahertz.friendlysociety.core.CreditCheck(0,
+                dateObject, checkScore, (String)jComboBox1.getSelectedItem());
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
+
+    final int customerID = customer.getID();
+    jButtonSubmit.setEnabled(false);
+    core.execute(this, new Callable<Integer>() {
+        public Integer call() {
+            return core.addCreditCheck(creditCheck, customerID);
+        }
+    }, new TaskCallback<Integer>() {
+        @Override
+        public void succeeded(Integer id) {
+            jButtonSubmit.setEnabled(true);
+            if(id >= 0) {
+                JOptionPane.showMessageDialog(null, "The credit check was " +
+                        "successfully added to the database.", "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The credit check failed " +
+                        "to be added to the database.", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButtonSubmit.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButtonSubmitActionPerformed
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -7,9 +7,9 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import uk.co.exahertz.friendlysociety.core.*;
 import javax.swing.JOptionPane;
-import java.util.GregorianCalendar;
 
 /**
  *
@@ -425,18 +425,18 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         return;
     }
 
-    GregorianCalendar startDateObject;
+    Day startDateObject;
     try {
-        startDateObject = new GregorianCalendar(Integer.parseInt(startDate[2]),
+        startDateObject = Day.of(Integer.parseInt(startDate[2]),
                 Integer.parseInt(startDate[1]), Integer.parseInt(startDate[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The employment details could " +
                 "not be added to the database as the start date is not in " +
                 "the format DD/MM/YYYY.", "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
     
-    GregorianCalendar endDateObject = null;
+    Day endDateObject = null;
     if(jTextFieldEnded.getText().length() != 0) {
         String[] endDate = jTextFieldStarted.getText().split("/");
         if(startDate.length != 3) {
@@ -447,9 +447,9 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         }
 
         try {
-            startDateObject = new GregorianCalendar(Integer.parseInt(endDate[2]),
+            startDateObject = Day.of(Integer.parseInt(endDate[2]),
                 Integer.parseInt(endDate[1]), Integer.parseInt(endDate[0]));
-        } catch(NumberFormatException e) {
+        } catch(IllegalArgumentException e) {
             JOptionPane.showMessageDialog(null, "The employment details could " +
                 "not be added to the database as the end date is not in the " +
                 "format DD/MM/YYYY.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -458,7 +458,7 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
     }
     
     float hoursPerWeek;
-    float annualSalary;
+    Money annualSalary;
     
     try {
         hoursPerWeek = Float.parseFloat(jTextFieldHoursPerWeek.getText().trim());
@@ -471,35 +471,56 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
     }
     
     try {
-        annualSalary = Float.parseFloat(jTextFieldSalary.getText().trim());
+        annualSalary = Money.parse(jTextFieldSalary.getText());
     } catch(NumberFormatException e) {
         JOptionPane.showMessageDialog(null, "The annual salary must be in a " +
                 "currency format.", "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
     
+    final Employment employment;
     try {
-        if(core.addEmployment(new Employment(0, jTextFieldName.getText(),
+        employment = new Employment(0, jTextFieldName.getText(),
                 address, jTextFieldPhone.getText(), jTextFieldFax.getText(),
                 startDateObject, endDateObject, hoursPerWeek, annualSalary,
                 jCheckBoxPermanent.isSelected(),
-                jCheckBoxSelfEmployed.isSelected()), customer.getID()) >= 0) {
-            JOptionPane.showMessageDialog(null, "The employment details " +
-                    "were successfully added to the database.", "Error",
-                    JOptionPane.PLAIN_MESSAGE);
-            dispose();
-            return;
-        } else {
-            JOptionPane.showMessageDialog(null, "The employment details " +
-                    "failed to be added to the database.", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+                jCheckBoxSelfEmployed.isSelected());
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
+
+    final int customerID = customer.getID();
+    jButtonSubmit.setEnabled(false);
+    core.execute(this, new Callable<Integer>() {
+        public Integer call() {
+            return core.addEmployment(employment, customerID);
+        }
+    }, new TaskCallback<Integer>() {
+        @Override
+        public void succeeded(Integer id) {
+            jButtonSubmit.setEnabled(true);
+            if(id >= 0) {
+                JOptionPane.showMessageDialog(null, "The employment details " +
+                        "were successfully added to the database.", "Error",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The employment details " +
+                        "failed to be added to the database.", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButtonSubmit.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButtonSubmitActionPerformed
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
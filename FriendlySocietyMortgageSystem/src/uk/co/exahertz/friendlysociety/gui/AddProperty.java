@@ -7,6 +7,7 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import uk.co.exahertz.friendlysociety.core.*;
 import javax.swing.JOptionPane;
 
@@ -304,24 +305,45 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         propertyType = PropertyType.OTHER;
     }
     
+    final Property property;
     try {
-        if(core.addProperty(new Property(0, address, propertyType,
-                numberOfBedrooms)) >= 0) {
-            JOptionPane.showMessageDialog(null, "The property was " +
-                    "successfully added to the database.", "Success",
-                    JOptionPane.PLAIN_MESSAGE);
-            dispose();
-            return;
-        } else {
-            JOptionPane.showMessageDialog(null, "The property failed to be " +
-                    "added to the database.", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        property = new Property(0, address, propertyType,
+                numberOfBedrooms);
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
+        return;
     }
+
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Integer>() {
+        public Integer call() {
+            return core.addProperty(property);
+        }
+    }, new TaskCallback<Integer>() {
+        @Override
+        public void succeeded(Integer result) {
+            jButton1.setEnabled(true);
+            if(result >= 0) {
+                JOptionPane.showMessageDialog(null, "The property was " +
+                        "successfully added to the database.", "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The property failed " +
+                        "to be added to the database.", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
 
 private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
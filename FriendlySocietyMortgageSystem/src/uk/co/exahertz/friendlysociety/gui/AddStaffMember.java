@@ -7,9 +7,9 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import uk.co.exahertz.friendlysociety.core.*;
 import javax.swing.JOptionPane;
-import java.util.GregorianCalendar;
 
 /**
  *
@@ -394,11 +394,11 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         return;
     }
 
-    GregorianCalendar dobObject;
+    Day dobObject;
     try {
-        dobObject = new GregorianCalendar(Integer.parseInt(dob[2]),
+        dobObject = Day.of(Integer.parseInt(dob[2]),
                 Integer.parseInt(dob[1]), Integer.parseInt(dob[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The member of staff could not " +
                 "be added to the database as the Date Of Birth is not in " +
                 "the correct format. The correct format is DD/MM/YYYY.",
@@ -426,29 +426,52 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
             jTextSurname.getText() + dob[2];
     username = username.toLowerCase();
     
+    final StaffMember staffMember;
     try {
-        if(core.addStaffMember(new StaffMember(0, (String)jComboTitle.getSelectedItem(),
-            jTextForenames.getText(), jTextSurname.getText(), dobObject,
-            isFemale, address, jTextTelephone.getText(), jTextFax.getText(),
-            jTextEmail.getText(), isManager, username,
-            LoginScreen.encrypt(new String(jPasswordField1.getPassword())),
-            stillWithCompany)) >= 0)
-        {
-            JOptionPane.showMessageDialog(null, "The member of staff was " +
-                "successfully added with the username " + username,
-                "Success", JOptionPane.PLAIN_MESSAGE);
-            dispose();
-            return;
-        } else {
-            JOptionPane.showMessageDialog(null, "The member of staff failed " +
-                    "to be added to the database", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        staffMember = new StaffMember(0,
+                (String)jComboTitle.getSelectedItem(),
+                jTextForenames.getText(), jTextSurname.getText(), dobObject,
+                isFemale, address, jTextTelephone.getText(),
+                jTextFax.getText(), jTextEmail.getText(), isManager,
+                username,
+                LoginScreen.encrypt(new String(jPasswordField1.getPassword())),
+                stillWithCompany);
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
+
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Integer>() {
+        public Integer call() {
+            return core.addStaffMember(staffMember);
+        }
+    }, new TaskCallback<Integer>() {
+        @Override
+        public void succeeded(Integer result) {
+            jButton1.setEnabled(true);
+            if(result >= 0) {
+                JOptionPane.showMessageDialog(null, "The member of staff " +
+                        "was successfully added with the username " +
+                        staffMember.getUsername(), "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The member of staff " +
+                        "failed to be added to the database", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
 
 private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
@@ -6,9 +6,9 @@
 
 package uk.co.exahertz.friendlysociety.gui;
 
+import java.util.concurrent.Callable;
 import uk.co.exahertz.friendlysociety.core.*;
 import javax.swing.JOptionPane;
-import java.util.GregorianCalendar;
 
 /**
  *
@@ -37,6 +37,58 @@ public class AddSurvey extends javax.swing.JFrame {
         super.dispose();
     }
 
+    /**
+     * Add the survey once its surveyor has been found, leaving the submit
+     * button disabled until the database has answered
+     *
+     * @param surveyor The surveyor who carried out the survey
+     * @param date The date of the survey
+     * @param value The value the surveyor gave the property
+     * @since 0.0.1
+     */
+    private void addSurvey(final Surveyor surveyor, final Day date,
+            final Money value) {
+        final Survey survey;
+        try {
+            survey = new Survey(0, surveyor, date, value);
+        } catch(IllegalArgumentException e) {
+            jButton1.setEnabled(true);
+            JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        final int propertyID = property.getPropertyID();
+        core.execute(this, new Callable<Integer>() {
+            public Integer call() {
+                return core.addSurvey(survey, propertyID);
+            }
+        }, new TaskCallback<Integer>() {
+            @Override
+            public void succeeded(Integer result) {
+                jButton1.setEnabled(true);
+                if(result >= 0) {
+                    JOptionPane.showMessageDialog(null, "The survey was " +
+                            "successfully added to the database.",
+                            "Success", JOptionPane.PLAIN_MESSAGE);
+                    dispose();
+                } else {
+                    JOptionPane.showMessageDialog(null, "The survey failed " +
+                            "to be added to the database.", "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+
+            @Override
+            public void failed(Throwable cause) {
+                jButton1.setEnabled(true);
+                super.failed(cause);
+                JOptionPane.showMessageDialog(null, "Exception: " +
+                        cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
     /** This method is called from within the constructor to
      * initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is
@@ -205,20 +257,14 @@ private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 }//GEN-LAST:event_jButton2ActionPerformed
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
-    Surveyor surveyor;
+    final int surveyorID;
     try {
-        surveyor = core.getSurveyorByID(Integer.parseInt(
-                jTextField1.getText().trim()));
+        surveyorID = Integer.parseInt(jTextField1.getText().trim());
     } catch(NumberFormatException e) {
         JOptionPane.showMessageDialog(null, "The surveyor ID must be an "+
                 "integer.", "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
-    if(surveyor == null) {
-        JOptionPane.showMessageDialog(null, "The surveyor was not found",
-                "Error", JOptionPane.ERROR_MESSAGE);
-        return;
-    }
     String[] date = jTextField2.getText().split("/");
     if(date.length != 3) {
         JOptionPane.showMessageDialog(null, "The survey could not be added " +
@@ -227,46 +273,54 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         return;
     }
 
-    GregorianCalendar dateObject;
+    final Day dateObject;
     try {
-        dateObject = new GregorianCalendar(Integer.parseInt(date[2]),
+        dateObject = Day.of(Integer.parseInt(date[2]),
                 Integer.parseInt(date[1]), Integer.parseInt(date[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The survey could not be added " +
                 "to the database as the date was not in the format DD/MM/YYYY.",
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
     
-    float value;
+    final Money value;
     try {
-        value = Float.parseFloat(jTextField3.getText().trim());
+        value = Money.parse(jTextField3.getText());
     } catch(NumberFormatException e) {
         JOptionPane.showMessageDialog(null, "The property value entered " +
                 "was not in currency format.");
         return;
     }
     
-    try {
-        if(core.addSurvey(new Survey(0, surveyor, dateObject, value),
-                property.getPropertyID()) >= 0) {
-            JOptionPane.showMessageDialog(null, "The survey was successfully " +
-                    "added to the database.", "Success",
-                    JOptionPane.PLAIN_MESSAGE);
-            dispose();
-            return;
-        } else {
-            JOptionPane.showMessageDialog(null, "The survey failed to be " +
-                    "added to the database.", "Error",
-                    JOptionPane.ERROR_MESSAGE);
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Surveyor>() {
+        public Surveyor call() {
+            return core.getSurveyorByID(surveyorID);
         }
-    } catch(IllegalArgumentException e) {
-        JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        return;
-    }
+    }, new TaskCallback<Surveyor>() {
+        @Override
+        public void succeeded(Surveyor surveyor) {
+            if(surveyor == null) {
+                jButton1.setEnabled(true);
+                JOptionPane.showMessageDialog(null, "The surveyor was not " +
+                        "found", "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                addSurvey(surveyor, dateObject, value);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
 
+
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton jButton1;
     private javax.swing.JButton jButton2;
@@ -7,10 +7,12 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.Address;
 import uk.co.exahertz.friendlysociety.core.Core;
 import uk.co.exahertz.friendlysociety.core.Surveyor;
+import uk.co.exahertz.friendlysociety.core.TaskCallback;
 
 /**
  *
@@ -337,28 +339,46 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         return;
     }
 
-    try{
-        if (core.addSurveyor(
-                new Surveyor(0, 
-                nameTextField.getText(), address, telTextField.getText(), 
-                faxTextField.getText(), emailTextField.getText())) >= 0 )
-        {
-            JOptionPane.showMessageDialog(null, "The surveyor was added" +
-                    "successfully",
-                "Success", JOptionPane.PLAIN_MESSAGE);
-            dispose();
-            return;
-        }
-        else {
-            JOptionPane.showMessageDialog(null, "The surveyor failed " +
-                    "to be added to the database", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        } 
-    }catch(IllegalArgumentException e) {
+    final Surveyor surveyor;
+    try {
+        surveyor = new Surveyor(0, nameTextField.getText(), address,
+                telTextField.getText(), faxTextField.getText(),
+                emailTextField.getText());
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
+
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Integer>() {
+        public Integer call() {
+            return core.addSurveyor(surveyor);
+        }
+    }, new TaskCallback<Integer>() {
+        @Override
+        public void succeeded(Integer result) {
+            jButton1.setEnabled(true);
+            if(result >= 0) {
+                JOptionPane.showMessageDialog(null, "The surveyor was added" +
+                        "successfully", "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The surveyor failed " +
+                        "to be added to the database", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
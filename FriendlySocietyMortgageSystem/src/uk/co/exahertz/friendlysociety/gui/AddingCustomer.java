@@ -7,7 +7,7 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
-import java.util.GregorianCalendar;
+import java.util.concurrent.Callable;
 import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.*;
 
@@ -452,11 +452,11 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         return;
     }
 
-    GregorianCalendar dobObject;
+    Day dobObject;
     try {
-        dobObject = new GregorianCalendar(Integer.parseInt(dob[2]),
+        dobObject = Day.of(Integer.parseInt(dob[2]),
                 Integer.parseInt(dob[1]), Integer.parseInt(dob[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The member of staff could not " +
                 "be added to the database as the Date Of Birth is not in " +
                 "the correct format. The correct format is DD/MM/YYYY.",
@@ -471,32 +471,51 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         isFemale = false;
     }
 
+    final Customer customer;
     try {
-        int id = core.addCustomer(new Customer(0,
-             (String)jComboTitle.getSelectedItem(),
-            jTextForenames.getText(), jTextSurname.getText(), dobObject,
-            isFemale, address, jTextTelephone.getText(), jTextFax.getText(),
-            jTextEmail.getText(), jTextNIN.getText(),
-            jTextAccountNumber.getText()));
-
-        if(id >= 0)
-        {
-            JOptionPane.showMessageDialog(null, 
-                    (String)jComboTitle.getSelectedItem() + " " +
-                 jTextSurname.getText() + "  was " +
-                "successfully added to the database with an ID of " + id + ".",
-                "Success", JOptionPane.PLAIN_MESSAGE);
-            dispose();
-        } else {
-            JOptionPane.showMessageDialog(null, "The customer failed " +
-                    "to be added to the database", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        customer = new Customer(0,
+                (String)jComboTitle.getSelectedItem(),
+                jTextForenames.getText(), jTextSurname.getText(), dobObject,
+                isFemale, address, jTextTelephone.getText(),
+                jTextFax.getText(), jTextEmail.getText(), jTextNIN.getText(),
+                jTextAccountNumber.getText());
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
+
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Integer>() {
+        public Integer call() {
+            return core.addCustomer(customer);
+        }
+    }, new TaskCallback<Integer>() {
+        @Override
+        public void succeeded(Integer result) {
+            jButton1.setEnabled(true);
+            if(result >= 0) {
+                JOptionPane.showMessageDialog(null, customer.getTitle() +
+                        " " + customer.getSurname() + "  was " +
+                        "successfully added to the database with an ID " +
+                        "of " + result + ".", "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The customer failed " +
+                        "to be added to the database", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -6,6 +6,7 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.*;
 
@@ -189,14 +190,40 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
             return;
         }
         
-        core.getLoggedInAs().setPassword(LoginScreen.encrypt(newPassword));
-        core.changeStaffMemberPassword(core.getLoggedInAs());
-        JOptionPane.showMessageDialog(null, "The password was successfully " +
-                "changed.", "Success", JOptionPane.PLAIN_MESSAGE);
+        final StaffMember staff = core.getLoggedInAs();
+        staff.setPassword(LoginScreen.encrypt(newPassword));
         oldPassword = "";
         newPassword = "";
         newPassword2 = "";
-        dispose();
+        jButton1.setEnabled(false);
+        core.execute(this, new Callable<Boolean>() {
+            public Boolean call() {
+                return core.changeStaffMemberPassword(staff);
+            }
+        }, new TaskCallback<Boolean>() {
+            @Override
+            public void succeeded(Boolean changed) {
+                jButton1.setEnabled(true);
+                if(changed) {
+                    JOptionPane.showMessageDialog(null, "The password was " +
+                            "successfully changed.", "Success",
+                            JOptionPane.PLAIN_MESSAGE);
+                    dispose();
+                } else {
+                    JOptionPane.showMessageDialog(null, "The password " +
+                            "failed to be changed in the database.", "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+
+            @Override
+            public void failed(Throwable cause) {
+                jButton1.setEnabled(true);
+                super.failed(cause);
+                JOptionPane.showMessageDialog(null, "Exception: " +
+                        cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
 }//GEN-LAST:event_jButton1ActionPerformed
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton jButton1;
@@ -8,9 +8,10 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.Collection;
+import java.util.concurrent.Callable;
 import uk.co.exahertz.friendlysociety.core.*;
 import javax.swing.JOptionPane;
-import java.util.GregorianCalendar;
 
 /**
  *
@@ -35,10 +36,9 @@ public class CustomerDetails extends javax.swing.JFrame {
         jComboTitle.setSelectedItem(customer.getTitle());
         jTextForenames.setText(customer.getForenames());
         jTextSurname.setText(customer.getSurname());
-        GregorianCalendar dob = customer.getDateOfBirth();
-        jTextDOB.setText(dob.get(GregorianCalendar.DAY_OF_MONTH) + "/" +
-                dob.get(GregorianCalendar.MONTH) + "/" +
-                dob.get(GregorianCalendar.YEAR));
+        Day dob = customer.getDateOfBirth();
+        jTextDOB.setText(dob.getDayOfMonth() + "/" + dob.getMonth() + "/" +
+                dob.getYear());
         if(customer.getIsFemale()) {
             jComboGender.setSelectedItem("Female");
         } else {
@@ -499,11 +499,11 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         return;
     }
 
-    GregorianCalendar dobObject;
+    Day dobObject;
     try {
-        dobObject = new GregorianCalendar(Integer.parseInt(dob[2]),
+        dobObject = Day.of(Integer.parseInt(dob[2]),
                 Integer.parseInt(dob[1]), Integer.parseInt(dob[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The member of staff could not " +
                 "be added to the database as the Date Of Birth is not in " +
                 "the correct format. The correct format is DD/MM/YYYY.",
@@ -518,39 +518,101 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         isFemale = false;
     }
     
+    final Customer changed;
     try {
-        if(core.modifyCustomer(new Customer(customer.getID(),
-             (String)jComboTitle.getSelectedItem(),
-            jTextForenames.getText(), jTextSurname.getText(), dobObject,
-            isFemale, address, jTextTelephone.getText(), jTextFax.getText(),
-            jTextEmail.getText(), jTextNINumber.getText(),
-            jTextSavingsAccount.getText())))
-        {
-            JOptionPane.showMessageDialog(null, "The customer details were " +
-                    "successfully changed.", "Success",
-                    JOptionPane.PLAIN_MESSAGE);
-            dispose();
-        } else {
-            JOptionPane.showMessageDialog(null, "The customer failed " +
-                    "to be added to the database", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        changed = new Customer(customer.getID(),
+                (String)jComboTitle.getSelectedItem(),
+                jTextForenames.getText(), jTextSurname.getText(), dobObject,
+                isFemale, address, jTextTelephone.getText(),
+                jTextFax.getText(), jTextEmail.getText(),
+                jTextNINumber.getText(), jTextSavingsAccount.getText());
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
-    return;
+
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Boolean>() {
+        public Boolean call() {
+            return core.modifyCustomer(changed);
+        }
+    }, new TaskCallback<Boolean>() {
+        @Override
+        public void succeeded(Boolean result) {
+            jButton1.setEnabled(true);
+            if(result) {
+                JOptionPane.showMessageDialog(null, "The customer details " +
+                        "were successfully changed.", "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The customer failed " +
+                        "to be added to the database", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
 
 private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton3ActionPerformed
-    ViewCustomerEmployments vce = new ViewCustomerEmployments(core, core.getEmploymentsByCustomerID(customer.getID()),customer);
-    vce.setVisible(true);
+    final int customerID = customer.getID();
+    jButton3.setEnabled(false);
+    core.execute(this, new Callable<Collection<Employment>>() {
+        public Collection<Employment> call() {
+            return core.getEmploymentsByCustomerID(customerID);
+        }
+    }, new TaskCallback<Collection<Employment>>() {
+        @Override
+        public void succeeded(Collection<Employment> result) {
+            jButton3.setEnabled(true);
+            ViewCustomerEmployments vce = new ViewCustomerEmployments(core,
+                    result, customer);
+            vce.setVisible(true);
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton3.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton3ActionPerformed
 
 private void jButtonCreditCheckActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButtonCreditCheckActionPerformed
-    ViewCustomerCreditChecks vccc = new ViewCustomerCreditChecks(core, core.getCreditCheckByCustomerID(customer.getID()), customer);
-    vccc.setVisible(true);
+    final int customerID = customer.getID();
+    jButtonCreditCheck.setEnabled(false);
+    core.execute(this, new Callable<Collection<CreditCheck>>() {
+        public Collection<CreditCheck> call() {
+            return core.getCreditCheckByCustomerID(customerID);
+        }
+    }, new TaskCallback<Collection<CreditCheck>>() {
+        @Override
+        public void succeeded(Collection<CreditCheck> result) {
+            jButtonCreditCheck.setEnabled(true);
+            ViewCustomerCreditChecks vccc = new ViewCustomerCreditChecks(
+                    core, result, customer);
+            vccc.setVisible(true);
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButtonCreditCheck.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButtonCreditCheckActionPerformed
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -6,9 +6,9 @@
 
 package uk.co.exahertz.friendlysociety.gui;
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.*;
-import java.util.GregorianCalendar;
 
 /**
  *
@@ -44,19 +44,17 @@ public class EmploymentDetails extends javax.swing.JFrame {
         jTextFieldEmployerName.setText(employment.getEmployerName());
         jTextFieldPhone.setText(employment.getEmployerTelephone());
         jTextFieldFax.setText(employment.getEmployerFax());
-        jTextFieldStarted.setText(employment.getDateStarted().get(
-                GregorianCalendar.DAY_OF_MONTH) + "/" +
-                employment.getDateStarted().get(GregorianCalendar.MONTH) + "/" +
-                employment.getDateStarted().get(GregorianCalendar.YEAR));
-        if(employment.getDateEnded() != null) {
-            jTextFieldEnded.setText(employment.getDateEnded().get(
-                    GregorianCalendar.DAY_OF_MONTH) + "/" +
-                    employment.getDateEnded().get(GregorianCalendar.MONTH) +
-                    "/" + employment.getDateEnded().get(GregorianCalendar.YEAR));
+        Day started = employment.getDateStarted();
+        jTextFieldStarted.setText(started.getDayOfMonth() + "/" +
+                started.getMonth() + "/" + started.getYear());
+        Day ended = employment.getDateEnded();
+        if(ended != null) {
+            jTextFieldEnded.setText(ended.getDayOfMonth() + "/" +
+                    ended.getMonth() + "/" + ended.getYear());
         }
         jTextFieldHours.setText(Float.toString(employment.getHoursPerWeek()));
-        jTextFieldSalary.setText(Float.toString(
-                employment.getCurrentAnnualSalery()));
+        jTextFieldSalary.setText(
+                employment.getCurrentAnnualSalery().toString());
         jCheckBoxPermenant.setSelected(employment.isEmploymentPermenant());
         jCheckBoxSelfEmployed.setSelected(employment.isSelfEmployed());
         jTextFieldName.setText(
@@ -462,18 +460,18 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         return;
     }
 
-    GregorianCalendar startDateObject;
+    Day startDateObject;
     try {
-        startDateObject = new GregorianCalendar(Integer.parseInt(startDate[2]),
+        startDateObject = Day.of(Integer.parseInt(startDate[2]),
                 Integer.parseInt(startDate[1]), Integer.parseInt(startDate[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The employment details could " +
                 "not be added to the database as the start date is not in " +
                 "the format DD/MM/YYYY.", "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
     
-    GregorianCalendar endDateObject = null;
+    Day endDateObject = null;
     if(jTextFieldEnded.getText().length() != 0) {
         String[] endDate = jTextFieldStarted.getText().split("/");
         if(startDate.length != 3) {
@@ -484,9 +482,9 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         }
 
         try {
-            startDateObject = new GregorianCalendar(Integer.parseInt(endDate[2]),
+            startDateObject = Day.of(Integer.parseInt(endDate[2]),
                 Integer.parseInt(endDate[1]), Integer.parseInt(endDate[0]));
-        } catch(NumberFormatException e) {
+        } catch(IllegalArgumentException e) {
             JOptionPane.showMessageDialog(null, "The employment details could " +
                 "not be added to the database as the end date is not in the " +
                 "format DD/MM/YYYY.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -495,7 +493,7 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
     }
     
     float hoursPerWeek;
-    float annualSalary;
+    Money annualSalary;
     
     try {
         hoursPerWeek = Float.parseFloat(jTextFieldHours.getText().trim());
@@ -508,35 +506,56 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
     }
     
     try {
-        annualSalary = Float.parseFloat(jTextFieldSalary.getText().trim());
+        annualSalary = Money.parse(jTextFieldSalary.getText());
     } catch(NumberFormatException e) {
         JOptionPane.showMessageDialog(null, "The annual salary must be in a " +
                 "currency format.", "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
     
+    final Employment changed;
     try {
-        if(core.modifyEmploymentDetails(new Employment(employment.getEmploymentID(),
+        changed = new Employment(employment.getEmploymentID(),
                 jTextFieldName.getText(), address, jTextFieldPhone.getText(),
                 jTextFieldFax.getText(), startDateObject, endDateObject,
                 hoursPerWeek, annualSalary, jCheckBoxPermenant.isSelected(),
-                jCheckBoxSelfEmployed.isSelected()), customer.getID())) {
-            JOptionPane.showMessageDialog(null, "The employment details " +
-                    "were successfully added to the database.", "Error",
-                    JOptionPane.PLAIN_MESSAGE);
-            dispose();
-            return;
-        } else {
-            JOptionPane.showMessageDialog(null, "The employment details " +
-                    "failed to be added to the database.", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+                jCheckBoxSelfEmployed.isSelected());
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
+
+    final int customerID = customer.getID();
+    jButtonSubmit.setEnabled(false);
+    core.execute(this, new Callable<Boolean>() {
+        public Boolean call() {
+            return core.modifyEmploymentDetails(changed, customerID);
+        }
+    }, new TaskCallback<Boolean>() {
+        @Override
+        public void succeeded(Boolean result) {
+            jButtonSubmit.setEnabled(true);
+            if(result) {
+                JOptionPane.showMessageDialog(null, "The employment details " +
+                        "were successfully added to the database.", "Error",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The employment details " +
+                        "failed to be added to the database.", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButtonSubmit.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButtonSubmitActionPerformed
   
     // Variables declaration - do not modify//GEN-BEGIN:variables
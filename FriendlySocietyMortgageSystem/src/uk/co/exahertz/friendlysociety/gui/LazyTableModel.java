@@ -0,0 +1,263 @@
+package uk.co.exahertz.friendlysociety.gui;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A read only table model which formats the cells of a row only when the table
+ * first asks for them, which is when the row scrolls into view. Only the most
+ * recently displayed rows are kept formatted, so a large result set costs
+ * the memory of the objects themselves rather than a copy of every cell. A
+ * PagedRowSource also bounds the objects held, reading pages again as they
+ * scroll back into view.<br>
+ * Replacing the rows fires a single change event rather than one per row.
+ *
+ * @param <T> The type of object shown on each row
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    /** The default number of formatted rows kept in memory */
+    public static final int DEFAULTFORMATTEDROWS = 500;
+    private final String[] columnNames;
+    private final RowFormatter<T> formatter;
+    private final LinkedHashMap<Integer, Object[]> formattedRows;
+    private RowSource<T> source;
+
+    /**
+     * Supplies the rows of a LazyTableModel by their index
+     *
+     * @param <T> The type of object shown on each row
+     * @since 0.0.1
+     */
+    public interface RowSource<T> {
+        /**
+         * Get the number of rows
+         *
+         * @return The number of rows
+         * @since 0.0.1
+         */
+        public int size();
+
+        /**
+         * Get a row
+         *
+         * @param index The index of the row, from 0 to size() - 1
+         * @return The object shown on the row, or null if it is still being
+         * read, when its cells are shown empty
+         * @since 0.0.1
+         */
+        public T get(final int index);
+    }
+
+    /**
+     * Turns the object on a row into the values of its cells
+     *
+     * @param <T> The type of object shown on each row
+     * @since 0.0.1
+     */
+    public interface RowFormatter<T> {
+        /**
+         * Format the cells of a row
+         *
+         * @param row The object shown on the row
+         * @return The value of each column, in column order
+         * @since 0.0.1
+         */
+        public Object[] format(final T row);
+    }
+
+    /**
+     * Create a new empty table model keeping the default number of rows
+     * formatted
+     *
+     * @param columnNames The names of the columns
+     * @param formatter The formatter for the cells of each row
+     * @since 0.0.1
+     */
+    public LazyTableModel(final String[] columnNames,
+            final RowFormatter<T> formatter)
+    {
+        this(columnNames, formatter, DEFAULTFORMATTEDROWS);
+    }
+
+    /**
+     * Create a new empty table model
+     *
+     * @param columnNames The names of the columns
+     * @param formatter The formatter for the cells of each row
+     * @param formattedRows The maximum number of formatted rows kept in memory
+     * @throws java.lang.IllegalArgumentException When the column names or
+     * formatter are null, or formattedRows is not positive
+     * @since 0.0.1
+     */
+    public LazyTableModel(final String[] columnNames,
+            final RowFormatter<T> formatter, final int formattedRows)
+    {
+        if(columnNames == null) throw new IllegalArgumentException("The " +
+                "column names must not be null.");
+        if(formatter == null) throw new IllegalArgumentException("The row " +
+                "formatter must not be null.");
+        if(formattedRows < 1) throw new IllegalArgumentException("The " +
+                "number of formatted rows must be positive.");
+        this.columnNames = columnNames.clone();
+        this.formatter = formatter;
+        this.formattedRows = new LinkedHashMap<Integer, Object[]>(16, 0.75f,
+                true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<Integer, Object[]> eldest)
+            {
+                return size() > formattedRows;
+            }
+        };
+        source = listSource(new ArrayList<T>());
+    }
+
+    /**
+     * Replace every row in the table with the rows from a new source
+     *
+     * @param source The source of the new rows
+     * @throws java.lang.IllegalArgumentException When source is null
+     * @since 0.0.1
+     */
+    public void setSource(final RowSource<T> source) {
+        if(source == null) throw new IllegalArgumentException("The row " +
+                "source must not be null.");
+        this.source = source;
+        formattedRows.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Replace every row in the table with the objects in a collection
+     *
+     * @param rows The objects to show, in order. A null collection empties
+     * the table.
+     * @since 0.0.1
+     */
+    public void setRows(final Collection<? extends T> rows) {
+        ArrayList<T> list = new ArrayList<T>();
+        if(rows != null) list.addAll(rows);
+        setSource(listSource(list));
+    }
+
+    /**
+     * Add rows to the end of the table. This only works when the rows were
+     * set with setRows() or appendRows().
+     *
+     * @param rows The objects to add, in order
+     * @throws java.lang.IllegalStateException When the table is showing a
+     * source which was not created from a collection
+     * @since 0.0.1
+     */
+    public void appendRows(final Collection<? extends T> rows) {
+        if(!(source instanceof ListSource)) throw new IllegalStateException(
+                "Rows can only be appended to a table set from a collection.");
+        if(rows == null || rows.isEmpty()) return;
+        List<T> list = ((ListSource<T>) source).list;
+        int first = list.size();
+        list.addAll(rows);
+        fireTableRowsInserted(first, list.size() - 1);
+    }
+
+    /**
+     * Remove every row from the table
+     *
+     * @since 0.0.1
+     */
+    public void clear() {
+        setRows(null);
+    }
+
+    /**
+     * Get the object shown on a row
+     *
+     * @param rowIndex The index of the row
+     * @return The object shown on the row, or null if it is still being read
+     * @since 0.0.1
+     */
+    public T getRow(final int rowIndex) {
+        return source.get(rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return source.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(final int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(final int rowIndex, final int columnIndex) {
+        Object[] row = formattedRows.get(rowIndex);
+        if(row == null) {
+            T value = source.get(rowIndex);
+            if(value == null) return null;
+            row = formatter.format(value);
+            formattedRows.put(rowIndex, row);
+        }
+        return row[columnIndex];
+    }
+
+    @Override
+    public boolean isCellEditable(final int rowIndex, final int columnIndex) {
+        return false;
+    }
+
+    /**
+     * Create a row source backed by a list
+     *
+     * @param <T> The type of object shown on each row
+     * @param list The list of rows, which must not be changed while shown
+     * @return The row source
+     * @since 0.0.1
+     */
+    public static <T> RowSource<T> listSource(final List<T> list) {
+        if(list == null) throw new IllegalArgumentException("The list must " +
+                "not be null.");
+        return new ListSource<T>(list);
+    }
+
+    /**
+     * A row source backed by a list
+     *
+     * @param <T> The type of object shown on each row
+     * @since 0.0.1
+     */
+    private static class ListSource<T> implements RowSource<T> {
+        private final List<T> list;
+
+        /**
+         * Create a new row source backed by a list
+         *
+         * @param list The list of rows
+         * @since 0.0.1
+         */
+        ListSource(final List<T> list) {
+            this.list = list;
+        }
+
+        public int size() {
+            return list.size();
+        }
+
+        public T get(final int index) {
+            return list.get(index);
+        }
+    }
+}
@@ -6,6 +6,7 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.*;
 import java.io.UnsupportedEncodingException;
@@ -185,20 +186,40 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         JOptionPane.showMessageDialog(null, "Please enter valid username " +
                 "and password", "Error", JOptionPane.ERROR_MESSAGE);
         return;
-    } else {
-        if (!core.logIn(username, encrypt(password))) {
-            JOptionPane.showMessageDialog(null, "Please enter a valid " +
-                    "username and password", "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-        } else {
-            jTextField1.setText("");
-            Main main = new Main(core, this);
-            main.setVisible(true);
-            setVisible(false);
-        }
     }
+    final String user = username;
+    final String encrypted = encrypt(password);
     jPasswordField1.setText("");
     password = "";
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Boolean>() {
+        public Boolean call() {
+            return core.logIn(user, encrypted);
+        }
+    }, new TaskCallback<Boolean>() {
+        @Override
+        public void succeeded(Boolean loggedIn) {
+            jButton1.setEnabled(true);
+            if (!loggedIn) {
+                JOptionPane.showMessageDialog(null, "Please enter a valid " +
+                        "username and password", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } else {
+                jTextField1.setText("");
+                Main main = new Main(core, LoginScreen.this);
+                main.setVisible(true);
+                setVisible(false);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
 
 private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
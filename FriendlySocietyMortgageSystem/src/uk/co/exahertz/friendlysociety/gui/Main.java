@@ -6,6 +6,7 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.*;
 import uk.co.exahertz.friendlysociety.gui.*;
@@ -316,25 +317,43 @@ private void button1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST
 }//GEN-LAST:event_button1ActionPerformed
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
+    final int customerID;
     try {
-        int customerID = Integer.parseInt(jTextQuickQuery.getText());
-        Customer customer = core.getCustomerByID(customerID);
-        if(customer == null) {
-            JOptionPane.showMessageDialog(null, "Cutomer ID not found or is " +
-                  "invalid");
-            jTextQuickQuery.setText("");
-            return;
-        }
-        CustomerOption options = new CustomerOption(core, customer);
-        options.setVisible(true);
+        customerID = Integer.parseInt(jTextQuickQuery.getText());
     } catch(NumberFormatException e) {
         
           JOptionPane.showMessageDialog(null, "Please enter valid cutomer " +
                   "ID");
           jTextQuickQuery.setText("");
-                   
+          return;
     }
     jTextQuickQuery.setText("");
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Customer>() {
+        public Customer call() {
+            return core.getCustomerByID(customerID);
+        }
+    }, new TaskCallback<Customer>() {
+        @Override
+        public void succeeded(Customer customer) {
+            jButton1.setEnabled(true);
+            if(customer == null) {
+                JOptionPane.showMessageDialog(null, "Cutomer ID not found " +
+                        "or is invalid");
+                return;
+            }
+            CustomerOption options = new CustomerOption(core, customer);
+            options.setVisible(true);
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
 
 private void jMenuItem10ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jMenuItem10ActionPerformed
@@ -6,6 +6,8 @@
 
 package uk.co.exahertz.friendlysociety.gui;
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
+import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.*;
 
 /**
@@ -15,14 +17,20 @@ import uk.co.exahertz.friendlysociety.core.*;
 public class MakeMortgagePayment extends javax.swing.JFrame {
     private Core core;
     private Customer customer;
+    private Mortgage mortgage;
+    private MortgagePaymentDetails payment;
     /** Creates new form MakeMortgagePayment */
-    public MakeMortgagePayment(final Core core, final Customer customer) {
+    public MakeMortgagePayment(final Core core, final Customer customer,
+            final Mortgage mortgage) {
        if(core == null) throw new IllegalArgumentException("The core " +
                 "instance must not be null.");
         if(customer == null) throw new IllegalArgumentException("The " +
                 "customer instance must not be null.");
+        if(mortgage == null) throw new IllegalArgumentException("The " +
+                "mortgage instance must not be null.");
         this.core = core;
         this.customer = customer;
+        this.mortgage = mortgage;
         setIconImage(Toolkit.getDefaultToolkit().getImage(
         CustomerOption.class.getResource("images/friendlyicon.jpg")));
         initComponents();
@@ -30,7 +38,57 @@ public class MakeMortgagePayment extends javax.swing.JFrame {
         setLocation(450, 300);
         jLabelName.setText("Make mortgage payment for " +
                 customer.getFullNameAndTitle() + ";");
+        jTextField1.setEditable(false);
+        jTextField4.setEditable(false);
+        Day today = Day.today();
+        jTextField2.setText(today.getDayOfMonth() + "/" + today.getMonth() +
+                "/" + today.getYear());
+        jButton1.setEnabled(false);
         core.addForm(this);
+        loadPayment();
+    }
+
+    /**
+     * Read the payments of the mortgage in the background and show the
+     * earliest which has not been made
+     *
+     * @since 0.0.1
+     */
+    private void loadPayment() {
+        core.execute(this, new Callable<MortgagePaymentDetails>() {
+            public MortgagePaymentDetails call() {
+                PaymentLedger ledger = mortgage.getPaymentLedger();
+                int index = ledger.getNextDue(Integer.MIN_VALUE);
+                return index < 0 ? null : ledger.get(index);
+            }
+        }, new TaskCallback<MortgagePaymentDetails>() {
+            @Override
+            public void succeeded(MortgagePaymentDetails due) {
+                if(due == null) {
+                    JOptionPane.showMessageDialog(null, "The mortgage has " +
+                            "no payments left to make.", "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                payment = due;
+                Day dueDate = due.getPaymentDueDate();
+                jTextField1.setText(dueDate.getDayOfMonth() + "/" +
+                        dueDate.getMonth() + "/" + dueDate.getYear());
+                jTextField4.setText(due.getAmount().toString());
+                if(due.getMethodOfPayment() != null) {
+                    jComboBox1.setSelectedIndex(
+                            due.getMethodOfPayment().ordinal());
+                }
+                jButton1.setEnabled(true);
+            }
+
+            @Override
+            public void failed(Throwable cause) {
+                super.failed(cause);
+                JOptionPane.showMessageDialog(null, "Exception: " +
+                        cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
     @Override
@@ -211,9 +269,60 @@ private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 }//GEN-LAST:event_jButton2ActionPerformed
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
-    MortgageDetails md = new MortgageDetails(core, customer);
-    md.setVisible(true);
-    dispose();
+    String[] date = jTextField2.getText().split("/");
+    final Day made;
+    try {
+        if(date.length != 3) throw new IllegalArgumentException();
+        made = Day.of(Integer.parseInt(date[2].trim()),
+                Integer.parseInt(date[1].trim()),
+                Integer.parseInt(date[0].trim()));
+    } catch(IllegalArgumentException e) {
+        JOptionPane.showMessageDialog(null, "The payment could not be made " +
+                "as the payment made date was not in the format DD/MM/YYYY.",
+                "Error", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+    final int paymentID = payment.getPaymentID();
+    final MethodOfPayment method = MethodOfPayment.values()[
+            jComboBox1.getSelectedIndex()];
+    jButton1.setEnabled(false);
+    core.execute(this, new Callable<Boolean>() {
+        public Boolean call() throws PaymentAlreadyMadeException {
+            return core.makeMortgagePayment(mortgage, paymentID, made,
+                    method);
+        }
+    }, new TaskCallback<Boolean>() {
+        @Override
+        public void succeeded(Boolean recorded) {
+            if(!recorded) {
+                jButton1.setEnabled(true);
+                JOptionPane.showMessageDialog(null, "The payment failed to " +
+                        "be saved to the database.", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(null, "The payment was " +
+                    "successfully saved to the database.", "Success",
+                    JOptionPane.PLAIN_MESSAGE);
+            MortgageDetails md = new MortgageDetails(core, customer);
+            md.setVisible(true);
+            dispose();
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton1.setEnabled(true);
+            if(cause instanceof PaymentAlreadyMadeException) {
+                JOptionPane.showMessageDialog(null, "The payment has " +
+                        "already been made.", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton1ActionPerformed
     
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -9,9 +9,10 @@ package uk.co.exahertz.friendlysociety.gui;
 import java.awt.Toolkit;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
+import uk.co.exahertz.friendlysociety.core.TaskCallback;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 import uk.co.exahertz.friendlysociety.core.Core;
 import uk.co.exahertz.friendlysociety.core.Surveyor;
@@ -23,7 +24,7 @@ import uk.co.exahertz.friendlysociety.core.Surveyor;
 public class ManageSurveyors extends javax.swing.JFrame {
 
     private Core core;
-    private DefaultTableModel myModel;
+    private LazyTableModel<Surveyor> myModel;
     
     
     /** Creates new form ManageSurveyor */
@@ -38,13 +39,8 @@ public class ManageSurveyors extends javax.swing.JFrame {
         }
         this.core = core;
 
-        myModel = new DefaultTableModel() {
-
-            @Override
-            public boolean isCellEditable(int row, int col) {
-                return false;
-            }
-        };
+        myModel = new LazyTableModel<Surveyor>(RowFormatters.SURVEYORCOLUMNS,
+                RowFormatters.SURVEYOR);
 
 
         table.setModel(myModel);
@@ -238,16 +234,23 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
     int[] selectedRows = table.getSelectedRows();
     if ( selectedRows.length == 1){//work just if one row is selected
         int selectedRow = selectedRows[0];
-        String surveyorID = myModel.getValueAt(selectedRow, 0).toString();
+        final String surveyorID = myModel.getValueAt(selectedRow, 0).toString();
         
         //Customer customer = core.getCustomerByID(Integer.parseInt(customerID));
-        Surveyor surveyor = core.getSurveyorByID(Integer.parseInt(surveyorID));
-        
-        //code to display surveyor detail here
-        SurveyorDetails surveyorDetails = new SurveyorDetails(core, surveyor);
-        surveyorDetails.setVisible(true);
-        
-        dispose();
+        core.execute(this, new Callable<Surveyor>() {
+            public Surveyor call() {
+                return core.getSurveyorByID(Integer.parseInt(surveyorID));
+            }
+        }, new TaskCallback<Surveyor>() {
+            @Override
+            public void succeeded(Surveyor surveyor) {
+                //code to display surveyor detail here
+                SurveyorDetails surveyorDetails = new SurveyorDetails(core, surveyor);
+                surveyorDetails.setVisible(true);
+
+                dispose();
+            }
+        });
     }
 }//GEN-LAST:event_jButton1ActionPerformed
 
@@ -292,20 +295,20 @@ private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 
     
     private void fillModel(){
-        Collection<Surveyor> surveyors= core.getSurveyorsByName("");
-        Surveyor[] surveyorsArray = surveyors.toArray(new Surveyor[0]);
-        
-        setRowsInModel(surveyorsArray);
+        core.execute(this, new Callable<Collection<Surveyor>>() {
+            public Collection<Surveyor> call() {
+                return core.getSurveyorsByName("");
+            }
+        }, new TaskCallback<Collection<Surveyor>>() {
+            @Override
+            public void succeeded(Collection<Surveyor> surveyors) {
+                setRowsInModel(surveyors);
+            }
+        });
     }
     
     
     private void initModel() {
-        myModel.addColumn("ID");
-        myModel.addColumn("Name");
-        myModel.addColumn("Address");
-        myModel.addColumn("Telephone number");
-        myModel.addColumn("Fax number");
-        myModel.addColumn("email");
         
         TableColumn column = null;
         for (int i = 0; i < 5; i++) {
@@ -347,32 +350,10 @@ private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         
     }
     
-    private void emptyModel() {
-        while (myModel.getRowCount() != 0) {
-            myModel.removeRow(0);
-        }
-    }
     
     
-    private void setRowsInModel(Surveyor[] surveyors) {
-
-        emptyModel();
-
-
-        //setting rows:
-        for (int i = 0; i < surveyors.length; i++) {
-            Object[] data = new Object[6];
-            data[0] = surveyors[i].getSurveyorID();
-            data[1] = surveyors[i].getSurveyorName();
-            data[2] = surveyors[i].getSurveyorAddressObject().toString();
-            data[3] = surveyors[i].getTelephoneNumber();
-            data[4] = surveyors[i].getFaxNumber();
-            data[5] = surveyors[i].getEmailAddress();
-            
-            
-
-            myModel.addRow(data);
-        }
+    private void setRowsInModel(Collection<Surveyor> surveyors) {
+        myModel.setRows(surveyors);
     }
 
 }
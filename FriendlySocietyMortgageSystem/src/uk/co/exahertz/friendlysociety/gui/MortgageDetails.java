@@ -7,6 +7,9 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.*;
 
 /**
@@ -17,6 +20,7 @@ public class MortgageDetails extends javax.swing.JFrame {
 
     private Core core;
     private Customer customer;
+    private Mortgage mortgage;
     /** Creates new form MortgageDetails */
     public MortgageDetails(final Core core, final Customer customer) {
        if(core == null) throw new IllegalArgumentException("The core " +
@@ -30,7 +34,101 @@ public class MortgageDetails extends javax.swing.JFrame {
         CustomerOption.class.getResource("images/friendlyicon.jpg")));
         initComponents();
         setResizable(false);    //disables maximize button
+        jTextCustomer.setEditable(false);
+        jTextSpouse.setEditable(false);
+        jTextProperty.setEditable(false);
+        jTextDateApplication.setEditable(false);
+        jTextDeposit.setEditable(false);
+        jTextLength.setEditable(false);
+        jTextAmount.setEditable(false);
+        jTextStartDate.setEditable(false);
+        jComboType.setEnabled(false);
+        jButton1.setEnabled(false);
+        jButton2.setEnabled(false);
         core.addForm(this);
+        loadMortgage();
+    }
+
+    /**
+     * Read the mortgages of the customer in the background and show the
+     * latest of them
+     *
+     * @since 0.0.1
+     */
+    private void loadMortgage() {
+        final int customerID = customer.getID();
+        core.execute(this, new Callable<Collection<Mortgage>>() {
+            public Collection<Mortgage> call() {
+                return core.getMortgagesByCustomerID(customerID);
+            }
+        }, new TaskCallback<Collection<Mortgage>>() {
+            @Override
+            public void succeeded(Collection<Mortgage> mortgages) {
+                if(mortgages == null) {
+                    JOptionPane.showMessageDialog(null, "The mortgages of " +
+                            "the customer could not be read from the " +
+                            "database.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                for(Mortgage next : mortgages) {
+                    if(mortgage == null ||
+                            next.getMortgageID() > mortgage.getMortgageID()) {
+                        mortgage = next;
+                    }
+                }
+                if(mortgage == null) {
+                    JOptionPane.showMessageDialog(null, "The customer has " +
+                            "no mortgage.", "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                showMortgage();
+            }
+
+            @Override
+            public void failed(Throwable cause) {
+                super.failed(cause);
+                JOptionPane.showMessageDialog(null, "Exception: " +
+                        cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    /**
+     * Fill the form from the mortgage
+     *
+     * @since 0.0.1
+     */
+    private void showMortgage() {
+        jTextCustomer.setText(mortgage.getCustomer().getFullNameAndTitle());
+        Customer spouse = mortgage.getCustomerSpouse();
+        jTextSpouse.setText(spouse == null ? "" :
+                spouse.getFullNameAndTitle());
+        jTextProperty.setText(mortgage.getProperty().getAddress().toString());
+        jTextDateApplication.setText(format(mortgage.getDateOfApplication()));
+        jTextDeposit.setText(mortgage.getDeposit().toString());
+        jTextLength.setText(Integer.toString(
+                mortgage.getMortgageLengthInMonths()));
+        jTextAmount.setText(mortgage.getAmountRequested().toString());
+        jTextStartDate.setText(format(mortgage.getPaymentsBegin()));
+        MortgageApplicationStatus status = mortgage.getApplicationStatus();
+        if(status != null) jComboStatus.setSelectedIndex(status.ordinal());
+        MortgagesOffered type = mortgage.getMortgageType();
+        if(type != null) jComboType.setSelectedIndex(type.ordinal());
+        jButton1.setEnabled(true);
+        jButton2.setEnabled(true);
+    }
+
+    /**
+     * Write a date as DD/MM/YYYY
+     *
+     * @param day The date
+     * @return The date as text
+     * @since 0.0.1
+     */
+    private static String format(final Day day) {
+        return day.getDayOfMonth() + "/" + day.getMonth() + "/" +
+                day.getYear();
     }
     
     @Override
@@ -329,14 +427,47 @@ private void jTextStartDateActionPerformed(java.awt.event.ActionEvent evt) {//GE
 }//GEN-LAST:event_jTextStartDateActionPerformed
 
 private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton1ActionPerformed
-    MakeMortgagePayment mmp = new MakeMortgagePayment(core, customer);
+    MakeMortgagePayment mmp = new MakeMortgagePayment(core, customer,
+            mortgage);
     mmp.setVisible(true);
     dispose();
     
 }//GEN-LAST:event_jButton1ActionPerformed
 
 private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
-
+    final MortgageApplicationStatus previous = mortgage.getApplicationStatus();
+    mortgage.setApplicationStatus(MortgageApplicationStatus.values()[
+            jComboStatus.getSelectedIndex()]);
+    jButton2.setEnabled(false);
+    core.execute(this, new Callable<Boolean>() {
+        public Boolean call() {
+            return core.changeMortgageApplicationStatus(mortgage);
+        }
+    }, new TaskCallback<Boolean>() {
+        @Override
+        public void succeeded(Boolean changed) {
+            jButton2.setEnabled(true);
+            if(changed) {
+                JOptionPane.showMessageDialog(null, "The application status " +
+                        "was successfully saved to the database.", "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+            } else {
+                mortgage.setApplicationStatus(previous);
+                JOptionPane.showMessageDialog(null, "The application status " +
+                        "failed to be saved to the database.", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButton2.setEnabled(true);
+            mortgage.setApplicationStatus(previous);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButton2ActionPerformed
 
 private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton3ActionPerformed
@@ -0,0 +1,250 @@
+package uk.co.exahertz.friendlysociety.gui;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import javax.swing.JFrame;
+import uk.co.exahertz.friendlysociety.core.Core;
+import uk.co.exahertz.friendlysociety.core.TaskCallback;
+
+/**
+ * A row source which reads its rows a page at a time from a keyset paged
+ * query, such as Core.getCustomersPage(), and keeps only the most recently
+ * shown pages in memory. The key each page was read after is kept, so a page
+ * which has been dropped is read again when it scrolls back into view; until
+ * it arrives its rows are null, which LazyTableModel shows as empty cells.
+ * <br>
+ * Pages are read with Core.execute(), and every method must be called on the
+ * Swing event dispatch thread.
+ *
+ * @param <T> The type of object shown on each row
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class PagedRowSource<T> implements LazyTableModel.RowSource<T> {
+    /** The default number of pages kept in memory */
+    public static final int DEFAULTPAGES = 10;
+    private final Core core;
+    private final JFrame owner;
+    private final LazyTableModel<T> model;
+    private final PageLoader<T> loader;
+    private final int pageSize;
+    private final ArrayList<Integer> pageKeys;
+    private final LinkedHashMap<Integer, List<T>> pages;
+    private final HashSet<Integer> loading;
+    private int lastKey;
+    private int size;
+    private boolean lastPage;
+    private boolean fetching;
+
+    /**
+     * Reads the pages of a PagedRowSource
+     *
+     * @param <T> The type of object shown on each row
+     * @since 0.0.1
+     */
+    public interface PageLoader<T> {
+        /**
+         * Read a page of rows. This is called on a background thread.
+         *
+         * @param afterKey The key of the row before the page
+         * @param pageSize The most rows to read
+         * @return The rows, in key order, or null if they could not be read
+         * @since 0.0.1
+         */
+        public Collection<T> load(final int afterKey, final int pageSize);
+
+        /**
+         * Get the key of a row, which the next page is read after
+         *
+         * @param row The row
+         * @return The key of the row
+         * @since 0.0.1
+         */
+        public int getKey(final T row);
+    }
+
+    /**
+     * Create a new row source keeping the default number of pages in memory.
+     * No rows are read until fetchNextPage() is called.
+     *
+     * @param core The core the pages are read through
+     * @param owner The form the rows are shown on, which cancels the reads
+     * when it is closed
+     * @param model The table model the rows are shown in
+     * @param loader Reads each page
+     * @param firstKey The key before the first row
+     * @param pageSize The number of rows in each page
+     * @since 0.0.1
+     */
+    public PagedRowSource(final Core core, final JFrame owner,
+            final LazyTableModel<T> model, final PageLoader<T> loader,
+            final int firstKey, final int pageSize)
+    {
+        this(core, owner, model, loader, firstKey, pageSize, DEFAULTPAGES);
+    }
+
+    /**
+     * Create a new row source. No rows are read until fetchNextPage() is
+     * called.
+     *
+     * @param core The core the pages are read through
+     * @param owner The form the rows are shown on, which cancels the reads
+     * when it is closed
+     * @param model The table model the rows are shown in
+     * @param loader Reads each page
+     * @param firstKey The key before the first row
+     * @param pageSize The number of rows in each page
+     * @param maxPages The most pages kept in memory
+     * @throws java.lang.IllegalArgumentException When core, model or loader
+     * are null, or pageSize or maxPages are not positive
+     * @since 0.0.1
+     */
+    public PagedRowSource(final Core core, final JFrame owner,
+            final LazyTableModel<T> model, final PageLoader<T> loader,
+            final int firstKey, final int pageSize, final int maxPages)
+    {
+        if(core == null) throw new IllegalArgumentException("The core " +
+                "instance must not be null.");
+        if(model == null) throw new IllegalArgumentException("The table " +
+                "model must not be null.");
+        if(loader == null) throw new IllegalArgumentException("The page " +
+                "loader must not be null.");
+        if(pageSize < 1) throw new IllegalArgumentException("The page size " +
+                "must be positive.");
+        if(maxPages < 1) throw new IllegalArgumentException("The number of " +
+                "pages kept must be positive.");
+        this.core = core;
+        this.owner = owner;
+        this.model = model;
+        this.loader = loader;
+        this.pageSize = pageSize;
+        pageKeys = new ArrayList<Integer>();
+        pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<Integer, List<T>> eldest)
+            {
+                return size() > maxPages;
+            }
+        };
+        loading = new HashSet<Integer>();
+        lastKey = firstKey;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a row, reading its page again if it has been dropped
+     *
+     * @param index The index of the row, from 0 to size() - 1
+     * @return The object shown on the row, or null while its page is read
+     * @since 0.0.1
+     */
+    public T get(final int index) {
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException(
+                "Row " + index + " of " + size);
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if(rows == null) {
+            reload(page);
+            return null;
+        }
+        int offset = index % pageSize;
+        // A page read again is short if rows were deleted since
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    /**
+     * Check whether every page has been read
+     *
+     * @return True if the last page has been read
+     * @since 0.0.1
+     */
+    public boolean isLastPage() {
+        return lastPage;
+    }
+
+    /**
+     * Read the page after the last row and add it to the end of the table,
+     * unless the last page has been read or is being read
+     *
+     * @since 0.0.1
+     */
+    public void fetchNextPage() {
+        if(lastPage || fetching) return;
+        fetching = true;
+        final int afterKey = lastKey;
+        core.execute(owner, new Callable<Collection<T>>() {
+            public Collection<T> call() {
+                return loader.load(afterKey, pageSize);
+            }
+        }, new TaskCallback<Collection<T>>() {
+            @Override
+            public void succeeded(final Collection<T> rows) {
+                fetching = false;
+                if(rows == null) {
+                    lastPage = true;
+                    return;
+                }
+                if(rows.size() < pageSize) lastPage = true;
+                if(rows.isEmpty()) return;
+                int page = pageKeys.size();
+                pageKeys.add(afterKey);
+                List<T> list = new ArrayList<T>(rows);
+                pages.put(page, list);
+                lastKey = loader.getKey(list.get(list.size() - 1));
+                int first = size;
+                size += list.size();
+                model.fireTableRowsInserted(first, size - 1);
+            }
+
+            @Override
+            public void failed(final Throwable cause) {
+                fetching = false;
+                super.failed(cause);
+            }
+        });
+    }
+
+    /**
+     * Read a dropped page again and redraw its rows when it arrives
+     *
+     * @param page The number of the page
+     * @since 0.0.1
+     */
+    private void reload(final int page) {
+        if(!loading.add(page)) return;
+        final int afterKey = pageKeys.get(page);
+        core.execute(owner, new Callable<Collection<T>>() {
+            public Collection<T> call() {
+                return loader.load(afterKey, pageSize);
+            }
+        }, new TaskCallback<Collection<T>>() {
+            @Override
+            public void succeeded(final Collection<T> rows) {
+                loading.remove(page);
+                if(rows == null) return;
+                pages.put(page, new ArrayList<T>(rows));
+                int first = page * pageSize;
+                model.fireTableRowsUpdated(first,
+                        Math.min(first + pageSize, size) - 1);
+            }
+
+            @Override
+            public void failed(final Throwable cause) {
+                loading.remove(page);
+                super.failed(cause);
+            }
+        });
+    }
+}
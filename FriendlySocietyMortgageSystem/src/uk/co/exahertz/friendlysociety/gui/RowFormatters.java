@@ -0,0 +1,75 @@
+package uk.co.exahertz.friendlysociety.gui;
+
+import uk.co.exahertz.friendlysociety.core.*;
+
+/**
+ * The columns and row formatters shared by the forms which list customers,
+ * members of staff and surveyors in a LazyTableModel
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+final class RowFormatters {
+    /** The columns of a customer table, the customer ID is column 4 */
+    static final String[] CUSTOMERCOLUMNS = {"Forenames", "Surname", "D.O.B",
+            "National Insurance Number", "Customer ID", "Address"};
+    /** The columns of a staff table, the staff ID is column 3 */
+    static final String[] STAFFCOLUMNS = {"forenames", "surname",
+            "Date of Birth", "Staff ID", "Address"};
+    /** The columns of a surveyor table, the surveyor ID is column 0 */
+    static final String[] SURVEYORCOLUMNS = {"ID", "Name", "Address",
+            "Telephone number", "Fax number", "email"};
+
+    /** Formats a customer as the CUSTOMERCOLUMNS */
+    static final LazyTableModel.RowFormatter<Customer> CUSTOMER =
+            new LazyTableModel.RowFormatter<Customer>() {
+        public Object[] format(final Customer customer) {
+            return new Object[] {customer.getForenames(),
+                    customer.getSurname(), formatDate(customer),
+                    customer.getNationalInsuranceNumber(), customer.getID(),
+                    customer.getAddressObject().toString()};
+        }
+    };
+
+    /** Formats a member of staff as the STAFFCOLUMNS */
+    static final LazyTableModel.RowFormatter<StaffMember> STAFF =
+            new LazyTableModel.RowFormatter<StaffMember>() {
+        public Object[] format(final StaffMember staff) {
+            return new Object[] {staff.getForenames(), staff.getSurname(),
+                    formatDate(staff), staff.getID(),
+                    staff.getAddressObject().toString()};
+        }
+    };
+
+    /** Formats a surveyor as the SURVEYORCOLUMNS */
+    static final LazyTableModel.RowFormatter<Surveyor> SURVEYOR =
+            new LazyTableModel.RowFormatter<Surveyor>() {
+        public Object[] format(final Surveyor surveyor) {
+            return new Object[] {surveyor.getSurveyorID(),
+                    surveyor.getSurveyorName(),
+                    surveyor.getSurveyorAddressObject().toString(),
+                    surveyor.getTelephoneNumber(), surveyor.getFaxNumber(),
+                    surveyor.getEmailAddress()};
+        }
+    };
+
+    /**
+     * This class only has static members
+     *
+     * @since 0.0.1
+     */
+    private RowFormatters() {
+    }
+
+    /**
+     * Format the date of birth of a person for a table
+     *
+     * @param person The person
+     * @return The date of birth as shown in the table
+     * @since 0.0.1
+     */
+    private static String formatDate(final Person person) {
+        return person.getDateOfBirth().toString();
+    }
+}
@@ -8,9 +8,10 @@ package uk.co.exahertz.friendlysociety.gui;
 import java.awt.Toolkit;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 import uk.co.exahertz.friendlysociety.core.*;
 
@@ -21,7 +22,8 @@ import uk.co.exahertz.friendlysociety.core.*;
 public class SearchCustomer extends javax.swing.JFrame {
 
     private Core core;
-    private DefaultTableModel myModel;
+    private LazyTableModel<Customer> myModel;
+    private Future<Collection<Customer>> search;
 
     /** Creates new form SearchCustomer */
     public SearchCustomer(Core core) {
@@ -39,10 +41,8 @@ public class SearchCustomer extends javax.swing.JFrame {
         
         
         
-        myModel = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int col) { return false; }
-        };
+        myModel = new LazyTableModel<Customer>(RowFormatters.CUSTOMERCOLUMNS,
+                RowFormatters.CUSTOMER);
         
         
         jTable1.setModel(myModel);
@@ -434,15 +434,22 @@ private void clickOnEditCustomerButtonHandler(java.awt.event.ActionEvent evt) {/
     int[] selectedRows = jTable1.getSelectedRows();
     if ( selectedRows.length == 1){//work just if one row is selected
         int selectedRow = selectedRows[0];
-        String customerID = myModel.getValueAt(selectedRow, 4).toString();
-        
-        Customer customer = core.getCustomerByID(Integer.parseInt(customerID));
+        final String customerID = myModel.getValueAt(selectedRow, 4).toString();
         
-        //CustomerDetails customerDetails = new CustomerDetails(core, customer);
-        //customerDetails.setVisible(true);
-        CustomerOption customerOption = new CustomerOption(core, customer);
-        customerOption.setVisible(true);
-        dispose();
+        core.execute(this, new Callable<Customer>() {
+            public Customer call() {
+                return core.getCustomerByID(Integer.parseInt(customerID));
+            }
+        }, new TaskCallback<Customer>() {
+            @Override
+            public void succeeded(Customer customer) {
+                //CustomerDetails customerDetails = new CustomerDetails(core, customer);
+                //customerDetails.setVisible(true);
+                CustomerOption customerOption = new CustomerOption(core, customer);
+                customerOption.setVisible(true);
+                dispose();
+            }
+        });
     }
     editCustomerButton.setEnabled(false);
 }//GEN-LAST:event_clickOnEditCustomerButtonHandler
@@ -453,30 +460,44 @@ private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 
     private void performSearchByName(final String surname, final String forenames) 
     {
-        Collection<Customer> customersCollection = core.getCustomersByName(surname, forenames);
-        Customer[] customers = customersCollection.toArray(new Customer[0]);
-        setRowsInModel(customers);
+        startSearch(new Callable<Collection<Customer>>() {
+            public Collection<Customer> call() {
+                return core.getCustomersByName(surname, forenames);
+            }
+        });
     }
 
     private void performSearchByAdress(final String country, final String town,
             final String postcode, final String streetName,
             final String propertyName) {
      
-        Collection<Customer> customersCollection = core.getCustomersByAddress(country, town, postcode, streetName, propertyName);
-        //Collection<Customer> customersCollection = core.getCustomersByName("", "");
-        Customer[] customers = customersCollection.toArray(new Customer[0]);
-
-        setRowsInModel(customers);
+        startSearch(new Callable<Collection<Customer>>() {
+            public Collection<Customer> call() {
+                return core.getCustomersByAddress(country, town, postcode, streetName, propertyName);
+            }
+        });
         
     }
 
+    /**
+     * Run a search in the background, replacing any search still running,
+     * and put the result in the table when it arrives
+     * @param query The search to run
+     */
+    private void startSearch(final Callable<Collection<Customer>> query) {
+        if (search != null) {
+            search.cancel(true);
+        }
+        search = core.execute(this, query,
+                new TaskCallback<Collection<Customer>>() {
+            @Override
+            public void succeeded(Collection<Customer> customersCollection) {
+                setRowsInModel(customersCollection);
+            }
+        });
+    }
+
     private void initModel() {
-        myModel.addColumn("Forenames");
-        myModel.addColumn("Surname");
-        myModel.addColumn("D.O.B");
-        myModel.addColumn("National Insurance Number");
-        myModel.addColumn("Customer ID");
-        myModel.addColumn("Address");
         
         TableColumn column = null;
         for (int i = 0; i < 5; i++) {
@@ -519,29 +540,10 @@ private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 
     }
 
-    private void emptyModel() {
-        while (myModel.getRowCount() != 0) {
-            myModel.removeRow(0);
-        }
-    }
     
-    private void setRowsInModel(Customer[] customers){
-        
-        emptyModel();
+    private void setRowsInModel(Collection<Customer> customers){
         editCustomerButton.setEnabled(false);
-        
-        //setting rows:
-        for (int i = 0; i < customers.length; i++) {
-            Object[] data = new Object[6];
-            data[0] = customers[i].getForenames();
-            data[1] = customers[i].getSurname();
-            data[2] = customers[i].getDateOfBirth().getTime().toString().substring(0, 10);
-            data[3] = customers[i].getNationalInsuranceNumber();
-            data[4] = customers[i].getID();
-            data[5] = customers[i].getAddressObject().toString();
-
-            myModel.addRow(data);
-        }
+        myModel.setRows(customers);
     }
     
    
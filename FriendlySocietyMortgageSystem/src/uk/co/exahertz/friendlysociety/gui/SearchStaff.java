@@ -8,9 +8,11 @@ package uk.co.exahertz.friendlysociety.gui;
 import java.awt.Toolkit;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import uk.co.exahertz.friendlysociety.core.TaskCallback;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 import uk.co.exahertz.friendlysociety.core.Core;
 import uk.co.exahertz.friendlysociety.core.StaffMember;
@@ -22,7 +24,8 @@ import uk.co.exahertz.friendlysociety.core.StaffMember;
 public class SearchStaff extends javax.swing.JFrame {
 
     private Core core;
-    private DefaultTableModel myModel;
+    private LazyTableModel<StaffMember> myModel;
+    private Future<Collection<StaffMember>> search;
 
     /** Creates new form SearchStaff */
     public SearchStaff(Core core) {
@@ -31,12 +34,8 @@ public class SearchStaff extends javax.swing.JFrame {
             throw new IllegalArgumentException("The core instance cannot be null.");
         }
         this.core = core;
-        myModel = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int col) {
-                return false;
-            }
-        };
+        myModel = new LazyTableModel<StaffMember>(RowFormatters.STAFFCOLUMNS,
+                RowFormatters.STAFF);
         setIconImage(Toolkit.getDefaultToolkit().getImage(
         LoginScreen.class.getResource("images/friendlyicon.jpg")));
         jTable1.setModel(myModel);
@@ -388,11 +387,18 @@ private void jButton3ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
     int selectedRow = jTable1.getSelectedRow();
     if ( selectedRow >= 0)// a row is selected
     {
-        String staffID = myModel.getValueAt(selectedRow, 3).toString();
-        StaffMember staff = core.getStaffMemberByID(Integer.parseInt(staffID));
-        
-        StaffDetails staffDetails = new StaffDetails(core, staff);
-        staffDetails.setVisible(true);
+        final String staffID = myModel.getValueAt(selectedRow, 3).toString();
+        core.execute(this, new Callable<StaffMember>() {
+            public StaffMember call() {
+                return core.getStaffMemberByID(Integer.parseInt(staffID));
+            }
+        }, new TaskCallback<StaffMember>() {
+            @Override
+            public void succeeded(StaffMember staff) {
+                StaffDetails staffDetails = new StaffDetails(core, staff);
+                staffDetails.setVisible(true);
+            }
+        });
     }
 }//GEN-LAST:event_jButton3ActionPerformed
 
@@ -404,11 +410,6 @@ private void jButton4ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
      * Initilize the table with which the table is bound
      */
     private void initModel() {
-        myModel.addColumn("forenames");
-        myModel.addColumn("surname");
-        myModel.addColumn("Date of Birth");
-        myModel.addColumn("Staff ID");
-        myModel.addColumn("Address");
 
         TableColumn column = null;
         for (int i = 0; i < 5; i++) {
@@ -451,14 +452,6 @@ private void jButton4ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 
     }
 
-    /**
-     * Empty the table (using the model)
-     */
-    private void emptyModel() {
-        while (myModel.getRowCount() != 0) {
-            myModel.removeRow(0);
-        }
-    }
 
     /**
      * Perform the search by name, put the result in the table
@@ -467,10 +460,11 @@ private void jButton4ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
      */
     private void performSearchByName(final String surname, final String forenames) {
 
-        Collection<StaffMember> staffCollection = core.getStaffMembersByName(surname, forenames);
-        StaffMember[] staffMembers = staffCollection.toArray(new StaffMember[0]);
-
-        setRowsInModel(staffMembers);
+        startSearch(new Callable<Collection<StaffMember>>() {
+            public Collection<StaffMember> call() {
+                return core.getStaffMembersByName(surname, forenames);
+            }
+        });
 
 
     }
@@ -487,34 +481,38 @@ private void jButton4ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
             final String postcode, final String streetName,
             final String propertyName) {
 
-        Collection<StaffMember> staffCollection = core.getStaffMembersByAddress(country, town, postcode, streetName, propertyName);
-        //Collection<Customer> customersCollection = core.getCustomersByName("", "");
-        StaffMember[] staffMembers = staffCollection.toArray(new StaffMember[0]);
-
-        setRowsInModel(staffMembers);
+        startSearch(new Callable<Collection<StaffMember>>() {
+            public Collection<StaffMember> call() {
+                return core.getStaffMembersByAddress(country, town, postcode, streetName, propertyName);
+            }
+        });
 
     }
 
     /**
-     * Fill the table with information about customers
-     * @param customers An array of customer to put into the table
+     * Run a search in the background, replacing any search still running,
+     * and put the result in the table when it arrives
+     * @param query The search to run
      */
-    private void setRowsInModel(StaffMember[] customers) {
-
-        emptyModel();
-        //editCustomerButton.setEnabled(false);
-
-        //setting rows:
-        for (int i = 0; i < customers.length; i++) {
-            Object[] data = new Object[6];
-            data[0] = customers[i].getForenames();
-            data[1] = customers[i].getSurname();
-            data[2] = customers[i].getDateOfBirth().getTime().toString().substring(0, 10);
-            data[3] = customers[i].getID();
-            data[4] = customers[i].getAddressObject().toString();
-
-            myModel.addRow(data);
+    private void startSearch(final Callable<Collection<StaffMember>> query) {
+        if (search != null) {
+            search.cancel(true);
         }
+        search = core.execute(this, query,
+                new TaskCallback<Collection<StaffMember>>() {
+            @Override
+            public void succeeded(Collection<StaffMember> staffCollection) {
+                setRowsInModel(staffCollection);
+            }
+        });
+    }
+
+    /**
+     * Fill the table with information about members of staff
+     * @param staffMembers The members of staff to put into the table
+     */
+    private void setRowsInModel(Collection<StaffMember> staffMembers) {
+        myModel.setRows(staffMembers);
     }
 
     /**
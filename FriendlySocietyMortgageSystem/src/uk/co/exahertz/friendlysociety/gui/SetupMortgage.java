@@ -7,9 +7,12 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import uk.co.exahertz.friendlysociety.core.*;
-import java.util.GregorianCalendar;
 import javax.swing.JOptionPane;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
  *
@@ -18,6 +21,7 @@ import javax.swing.JOptionPane;
 public class SetupMortgage extends javax.swing.JFrame {
     private Core core;
     private Customer customer;
+    private final AmortisationSchedule schedule;
     /** Creates new form SetupMortgage */
     public SetupMortgage(final Core core, final Customer customer) {
         if(core == null) throw new IllegalArgumentException("The core " +
@@ -31,8 +35,86 @@ public class SetupMortgage extends javax.swing.JFrame {
         CustomerOption.class.getResource("images/friendlyicon.jpg")));
         setResizable(false);    //disables maximize button
         jTextCustomer.setText(customer.getFullNameAndTitle());
+        schedule = new AmortisationSchedule();
+        listenForRepayment();
         core.addForm(this);
     }
+
+    /**
+     * Recalculate the monthly repayment whenever the amount, length, start
+     * date or type of the mortgage changes
+     */
+    private void listenForRepayment() {
+        DocumentListener documentListener = new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) {
+                updateRepayment();
+            }
+
+            public void removeUpdate(DocumentEvent e) {
+                updateRepayment();
+            }
+
+            public void changedUpdate(DocumentEvent e) {
+                updateRepayment();
+            }
+        };
+        jTextAmount.getDocument().addDocumentListener(documentListener);
+        jTextLength.getDocument().addDocumentListener(documentListener);
+        jTextStartDate.getDocument().addDocumentListener(documentListener);
+        jComboType.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                updateRepayment();
+            }
+        });
+    }
+
+    /**
+     * Show the first monthly repayment and the total interest in the title,
+     * or just the title if the mortgage is not filled in yet or its length is
+     * more than the longest schedule. The schedule starts this month until a
+     * valid start date is entered.
+     */
+    private void updateRepayment() {
+        String title = "Setup Mortgage";
+        try {
+            long amount = Money.parse(jTextAmount.getText()).getPence();
+            int length = Integer.parseInt(jTextLength.getText().trim());
+            int first = Day.monthNumber(Day.currentEpochDay());
+            String[] start = jTextStartDate.getText().split("/");
+            if(start.length == 3) {
+                try {
+                    int year = Integer.parseInt(start[2].trim());
+                    int month = Integer.parseInt(start[1].trim());
+                    if(month >= 1 && month <= 12 && year >= Day.MINYEAR &&
+                            year <= Day.MAXYEAR) {
+                        first = year * 12 + month - 1;
+                    }
+                } catch(NumberFormatException e) {
+                    // Keep this month until the date is complete
+                }
+            }
+            MortgagesOffered type = MortgagesOffered.values()[
+                    jComboType.getSelectedIndex()];
+            if(amount > 0 && length > 0 &&
+                    length <= AmortisationSchedule.MAXTERM) {
+                schedule.calculate(amount, length, type, first,
+                        core.getRateTable());
+                title += " - " + pounds(schedule.getPayment(0)) +
+                        " a month, " + pounds(schedule.getTotalInterest()) +
+                        " interest";
+            }
+        } catch(NumberFormatException e) {
+            // The amount or length is not filled in yet
+        }
+        setTitle(title);
+    }
+
+    /**
+     * Format an amount in pence as pounds
+     */
+    private static String pounds(final long pence) {
+        return "\u00a3" + Money.toString(pence);
+    }
     
     @Override
     public void dispose() {
@@ -383,18 +465,18 @@ public class SetupMortgage extends javax.swing.JFrame {
         return;
     }
 
-     GregorianCalendar dobApplication;
-     GregorianCalendar dobStart;
+     Day dobApplication;
+     Day dobStart;
     try {
         dobApplication =
-                new GregorianCalendar(Integer.parseInt(dateOfApplication[2]),
+                Day.of(Integer.parseInt(dateOfApplication[2]),
                 Integer.parseInt(dateOfApplication[1]),
                 Integer.parseInt(dateOfApplication[0]));
         dobStart =
-                new GregorianCalendar(Integer.parseInt(startDate[2]),
+                Day.of(Integer.parseInt(startDate[2]),
                 Integer.parseInt(startDate[1]),
                 Integer.parseInt(startDate[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The mortgage application" +
                 " could not be added to the database as the Date Of Birth " +
                 "is not in the correct format. The correct format " +
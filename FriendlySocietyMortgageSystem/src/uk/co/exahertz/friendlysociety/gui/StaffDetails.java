@@ -6,10 +6,10 @@
 
 package uk.co.exahertz.friendlysociety.gui;
 
+import java.util.concurrent.Callable;
 import uk.co.exahertz.friendlysociety.core.*;
 import java.awt.Toolkit;
 import javax.swing.JOptionPane;
-import java.util.GregorianCalendar;
 
 /**
  *
@@ -39,10 +39,9 @@ public class StaffDetails extends javax.swing.JFrame {
         jComboTitle.setSelectedItem(staff.getTitle());
         jTextForenames.setText(staff.getForenames());
         jTextSurname.setText(staff.getSurname());
-        GregorianCalendar dob = staff.getDateOfBirth();
-        jTextDOB.setText(dob.get(GregorianCalendar.DAY_OF_MONTH) + "/" +
-                dob.get(GregorianCalendar.MONTH) + "/" +
-                dob.get(GregorianCalendar.YEAR));
+        Day dob = staff.getDateOfBirth();
+        jTextDOB.setText(dob.getDayOfMonth() + "/" + dob.getMonth() + "/" +
+                dob.getYear());
         if(staff.getIsFemale()) {
             jComboGender.setSelectedItem("Female");
         } else {
@@ -489,11 +488,11 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         return;
     }
 
-    GregorianCalendar dobObject;
+    Day dobObject;
     try {
-        dobObject = new GregorianCalendar(Integer.parseInt(dob[2]),
+        dobObject = Day.of(Integer.parseInt(dob[2]),
                 Integer.parseInt(dob[1]), Integer.parseInt(dob[0]));
-    } catch(NumberFormatException e) {
+    } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "The member of staff could not " +
                 "be added to the database as the Date Of Birth is not in " +
                 "the correct format. The correct format is DD/MM/YYYY.",
@@ -518,29 +517,50 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         return;
     }
     
+    final StaffMember changed;
     try {
-        if(core.modifyStaffMember(new StaffMember(staff.getID(),
+        changed = new StaffMember(staff.getID(),
                 (String)jComboTitle.getSelectedItem(),
                 jTextForenames.getText(), jTextSurname.getText(), dobObject,
                 isFemale, address, jTextTelephone.getText(), jTextFax.getText(),
                 jTextEmail.getText(), isManager, staff.getUsername(),
                 "a",
-                stillWithCompany)))
-        {
-            JOptionPane.showMessageDialog(null, "The member of staff was " +
-                "successfully modified.",
-                "Success", JOptionPane.PLAIN_MESSAGE);
-            dispose();
-        } else {
-            JOptionPane.showMessageDialog(null, "The member of staff failed " +
-                    "to be changed in the database", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+                stillWithCompany);
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
+
+    jButtonSubmit.setEnabled(false);
+    core.execute(this, new Callable<Boolean>() {
+        public Boolean call() {
+            return core.modifyStaffMember(changed);
+        }
+    }, new TaskCallback<Boolean>() {
+        @Override
+        public void succeeded(Boolean result) {
+            jButtonSubmit.setEnabled(true);
+            if(result) {
+                JOptionPane.showMessageDialog(null, "The member of staff was " +
+                        "successfully modified.", "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The member of staff " +
+                        "failed to be changed in the database", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButtonSubmit.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButtonSubmitActionPerformed
 
 private void jButtonCancelActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButtonCancelActionPerformed
@@ -7,6 +7,7 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import uk.co.exahertz.friendlysociety.core.*;
 import javax.swing.JOptionPane;
 
@@ -163,10 +164,35 @@ private void jButtonSearchActionPerformed(java.awt.event.ActionEvent evt) {//GEN
         return;
     }
     
-    StaffMember staff = core.getStaffMemberByUsername(jTextUsername.getText());
-    StaffDetails staffDetails = new StaffDetails(core, staff);
-    staffDetails.setVisible(true);
-    dispose();
+    final String username = jTextUsername.getText();
+    jButtonSearch.setEnabled(false);
+    core.execute(this, new Callable<StaffMember>() {
+        public StaffMember call() {
+            return core.getStaffMemberByUsername(username);
+        }
+    }, new TaskCallback<StaffMember>() {
+        @Override
+        public void succeeded(StaffMember staff) {
+            jButtonSearch.setEnabled(true);
+            if(staff == null) {
+                JOptionPane.showMessageDialog(null, "No member of staff has " +
+                        "the username " + username + ".", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } else {
+                StaffDetails staffDetails = new StaffDetails(core, staff);
+                staffDetails.setVisible(true);
+                dispose();
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButtonSearch.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButtonSearchActionPerformed
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
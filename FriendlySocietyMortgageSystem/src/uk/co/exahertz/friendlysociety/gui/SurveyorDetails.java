@@ -7,10 +7,12 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
+import java.util.concurrent.Callable;
 import javax.swing.JOptionPane;
 import uk.co.exahertz.friendlysociety.core.Address;
 import uk.co.exahertz.friendlysociety.core.Core;
 import uk.co.exahertz.friendlysociety.core.Surveyor;
+import uk.co.exahertz.friendlysociety.core.TaskCallback;
 
 /**
  *
@@ -385,31 +387,48 @@ private void jButtonSubmitActionPerformed(java.awt.event.ActionEvent evt) {//GEN
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
-    
-    
-    
+
+    final Surveyor changed;
     try {
-        if(core.modifySurveyor(new Surveyor(surveyor.getSurveyorID(),
+        changed = new Surveyor(surveyor.getSurveyorID(),
                 jTextFieldName.getText(), address,
                 jTextFieldPhone.getText(), jTextFieldFax.getText(),
-                jTextFieldEmail.getText()))
-                )
-        {
-            JOptionPane.showMessageDialog(null, "The surveyor details were " +
-                    "successfully changed.", "Success",
-                    JOptionPane.PLAIN_MESSAGE);
-            dispose();
-        } else {
-            JOptionPane.showMessageDialog(null, "The surveyor failed " +
-                    "to be added to the database", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+                jTextFieldEmail.getText());
     } catch(IllegalArgumentException e) {
         JOptionPane.showMessageDialog(null, "Exception: " + e.toString(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
-    
+
+    jButtonSubmit.setEnabled(false);
+    core.execute(this, new Callable<Boolean>() {
+        public Boolean call() {
+            return core.modifySurveyor(changed);
+        }
+    }, new TaskCallback<Boolean>() {
+        @Override
+        public void succeeded(Boolean result) {
+            jButtonSubmit.setEnabled(true);
+            if(result) {
+                JOptionPane.showMessageDialog(null, "The surveyor details " +
+                        "were successfully changed.", "Success",
+                        JOptionPane.PLAIN_MESSAGE);
+                dispose();
+            } else {
+                JOptionPane.showMessageDialog(null, "The surveyor failed " +
+                        "to be added to the database", "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        @Override
+        public void failed(Throwable cause) {
+            jButtonSubmit.setEnabled(true);
+            super.failed(cause);
+            JOptionPane.showMessageDialog(null, "Exception: " +
+                    cause.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    });
 }//GEN-LAST:event_jButtonSubmitActionPerformed
 
 private void jButtonCancelActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButtonCancelActionPerformed
@@ -8,9 +8,12 @@ package uk.co.exahertz.friendlysociety.gui;
 import java.awt.Toolkit;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.swing.table.DefaultTableModel;
+import java.awt.event.AdjustmentEvent;
+import java.awt.event.AdjustmentListener;
+import javax.swing.JScrollBar;
 import javax.swing.table.TableColumn;
 import uk.co.exahertz.friendlysociety.core.*;
 
@@ -20,8 +23,11 @@ import uk.co.exahertz.friendlysociety.core.*;
  */
 public class ViewAllCustomers extends javax.swing.JFrame {
 
+    /** The number of customers fetched each time the table needs more */
+    private static final int PAGESIZE = 100;
     private Core core;
-    private DefaultTableModel myModel;
+    private LazyTableModel<Customer> myModel;
+    private PagedRowSource<Customer> customers;
 
     /** Creates new form ViewAllCustomers */
     public ViewAllCustomers(final Core core) {
@@ -33,16 +39,23 @@ public class ViewAllCustomers extends javax.swing.JFrame {
         this.core = core;
         setIconImage(Toolkit.getDefaultToolkit().getImage(
         LoginScreen.class.getResource("images/friendlyicon.jpg")));
-        myModel = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int col) {
-                return false;
-            }
-        };
+        myModel = new LazyTableModel<Customer>(RowFormatters.CUSTOMERCOLUMNS,
+                RowFormatters.CUSTOMER);
 
         table.setModel(myModel);
         initModel();
         fillModel();
+        mainScrollPane.getVerticalScrollBar().addAdjustmentListener(
+                new AdjustmentListener() {
+            public void adjustmentValueChanged(AdjustmentEvent e) {
+                JScrollBar bar = (JScrollBar) e.getAdjustable();
+                // Fetch the next page once the last screenful is in view
+                if (bar.getValue() + bar.getVisibleAmount() * 2 >=
+                        bar.getMaximum()) {
+                    customers.fetchNextPage();
+                }
+            }
+        });
         core.addForm(this);
     }
     
@@ -192,13 +205,24 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
     int[] selectedRows = table.getSelectedRows();
     if ( selectedRows.length == 1){//work just if one row is selected
         int selectedRow = selectedRows[0];
-        String customerID = myModel.getValueAt(selectedRow, 4).toString();
-        
-        Customer customer = core.getCustomerByID(Integer.parseInt(customerID));
+        Object selectedID = myModel.getValueAt(selectedRow, 4);
+        if (selectedID == null) {//the row is still being read
+            return;
+        }
+        final String customerID = selectedID.toString();
         
-        CustomerOption customerOption = new CustomerOption(core, customer);
-        customerOption.setVisible(true);
-        dispose();
+        core.execute(this, new Callable<Customer>() {
+            public Customer call() {
+                return core.getCustomerByID(Integer.parseInt(customerID));
+            }
+        }, new TaskCallback<Customer>() {
+            @Override
+            public void succeeded(Customer customer) {
+                CustomerOption customerOption = new CustomerOption(core, customer);
+                customerOption.setVisible(true);
+                dispose();
+            }
+        });
     }
 }//GEN-LAST:event_jButton1ActionPerformed
 
@@ -207,18 +231,24 @@ private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 }//GEN-LAST:event_jButton2ActionPerformed
 
     private void fillModel() {
-        Collection<Customer> customersCollection = core.getCustomersByName("", "");
-        Customer[] customers = customersCollection.toArray(new Customer[0]);
-        setRowsInModel(customers);
+        // Only the last few pages shown are kept, the rest are read again
+        // from the database when they scroll back into view
+        customers = new PagedRowSource<Customer>(core, this, myModel,
+                new PagedRowSource.PageLoader<Customer>() {
+            public Collection<Customer> load(int afterKey, int pageSize) {
+                return core.getCustomersPage(afterKey, pageSize,
+                        SortOrder.ASCENDING);
+            }
+
+            public int getKey(Customer customer) {
+                return customer.getID();
+            }
+        }, -1, PAGESIZE);
+        myModel.setSource(customers);
+        customers.fetchNextPage();
     }
 
     private void initModel() {
-        myModel.addColumn("Forenames");
-        myModel.addColumn("Surname");
-        myModel.addColumn("D.O.B");
-        myModel.addColumn("National Insurance Number");
-        myModel.addColumn("Customer ID");
-        myModel.addColumn("Address");
 
         TableColumn column = null;
         for (int i = 0; i < 5; i++) {
@@ -261,30 +291,7 @@ private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 
     }
 
-    private void emptyModel() {
-        while (myModel.getRowCount() != 0) {
-            myModel.removeRow(0);
-        }
-    }
-
-    private void setRowsInModel(Customer[] customers) {
 
-        emptyModel();
-
-
-        //setting rows:
-        for (int i = 0; i < customers.length; i++) {
-            Object[] data = new Object[6];
-            data[0] = customers[i].getForenames();
-            data[1] = customers[i].getSurname();
-            data[2] = customers[i].getDateOfBirth().getTime().toString().substring(0, 10);
-            data[3] = customers[i].getNationalInsuranceNumber();
-            data[4] = customers[i].getID();
-            data[5] = customers[i].getAddressObject().toString();
-
-            myModel.addRow(data);
-        }
-    }
 
     /**
      * @param args the command line arguments
@@ -9,9 +9,10 @@ package uk.co.exahertz.friendlysociety.gui;
 import java.awt.Toolkit;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
+import uk.co.exahertz.friendlysociety.core.TaskCallback;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 import uk.co.exahertz.friendlysociety.core.Core;
 import uk.co.exahertz.friendlysociety.core.StaffMember;
@@ -22,7 +23,7 @@ import uk.co.exahertz.friendlysociety.core.StaffMember;
  */
 public class ViewAllStaffMembers extends javax.swing.JFrame {
 
-     private DefaultTableModel myModel;
+     private LazyTableModel<StaffMember> myModel;
     private Core core;
     
     /** Creates new form ViewAllStaffMembers */
@@ -35,13 +36,8 @@ public class ViewAllStaffMembers extends javax.swing.JFrame {
         this.core = core;
         setIconImage(Toolkit.getDefaultToolkit().getImage(
         LoginScreen.class.getResource("images/friendlyicon.jpg")));
-        myModel = new DefaultTableModel() {
-
-            @Override
-            public boolean isCellEditable(int row, int col) {
-                return false;
-            }
-        };
+        myModel = new LazyTableModel<StaffMember>(RowFormatters.STAFFCOLUMNS,
+                RowFormatters.STAFF);
 
         jTable1.setModel(myModel);
         initModel();
@@ -185,11 +181,6 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 
     
     private void initModel() {
-        myModel.addColumn("forenames");
-        myModel.addColumn("surname");
-        myModel.addColumn("Date of Birth");
-        myModel.addColumn("Staff ID");
-        myModel.addColumn("Address");
 
         TableColumn column = null;
         for (int i = 0; i < 5; i++) {
@@ -232,43 +223,27 @@ private void jButton1ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
 
     }
 
-    /**
-     * Empty the table (using the model)
-     */
-    private void emptyModel() {
-        while (myModel.getRowCount() != 0) {
-            myModel.removeRow(0);
-        }
-    }
     
     
     private void fillModel(){
-        Collection<StaffMember> staffCollection = core.getStaffMembersByName("", "");
-        StaffMember[] staffMembers = staffCollection.toArray(new StaffMember[0]);
-
-        setRowsInModel(staffMembers);
+        core.execute(this, new Callable<Collection<StaffMember>>() {
+            public Collection<StaffMember> call() {
+                return core.getStaffMembersByName("", "");
+            }
+        }, new TaskCallback<Collection<StaffMember>>() {
+            @Override
+            public void succeeded(Collection<StaffMember> staffCollection) {
+                setRowsInModel(staffCollection);
+            }
+        });
     }
     
     /**
-     * Fill the table with information about customers
-     * @param customers An array of customer to put into the table
+     * Fill the table with information about members of staff
+     * @param staffMembers The members of staff to put into the table
      */
-    private void setRowsInModel(StaffMember[] customers) {
-
-        emptyModel();
-        //editCustomerButton.setEnabled(false);
-
-        //setting rows:
-        for (int i = 0; i < customers.length; i++) {
-            Object[] data = new Object[6];
-            data[0] = customers[i].getForenames();
-            data[1] = customers[i].getSurname();
-            data[2] = customers[i].getDateOfBirth().getTime().toString().substring(0, 10);
-            data[3] = customers[i].getID();
-            data[4] = customers[i].getAddressObject().toString();
-
-            myModel.addRow(data);
-        }
+    private void setRowsInModel(Collection<StaffMember> staffMembers) {
+        myModel.setRows(staffMembers);
     }
     
     
@@ -7,7 +7,6 @@
 package uk.co.exahertz.friendlysociety.gui;
 
 import uk.co.exahertz.friendlysociety.core.*;
-import java.util.GregorianCalendar;
 
 /**
  *
@@ -34,11 +33,9 @@ public class ViewCreditCheck extends javax.swing.JFrame {
         initComponents();
         
         jLabelID.setText(customer.getFullName());
-        jLabelDate.setText(creditCheck.getCreditCheckDate().get(
-                GregorianCalendar.DAY_OF_MONTH) + "/" +
-                creditCheck.getCreditCheckDate().get(GregorianCalendar.MONTH) +
-                "/" + creditCheck.getCreditCheckDate().get(
-                GregorianCalendar.YEAR));
+        Day checked = creditCheck.getCreditCheckDate();
+        jLabelDate.setText(checked.getDayOfMonth() + "/" +
+                checked.getMonth() + "/" + checked.getYear());
         jLabelScore.setText(Integer.toString(creditCheck.getCreditCheckScore()));
         jLabelRiskStatus.setText(creditCheck.getCreditCheckRiskStatus());
         core.addForm(this);
@@ -9,11 +9,11 @@ package uk.co.exahertz.friendlysociety.gui;
 
 import java.awt.Toolkit;
 import java.util.Collection;
-import java.util.GregorianCalendar;
 import javax.swing.table.DefaultTableModel;
 import uk.co.exahertz.friendlysociety.core.Core;
 import uk.co.exahertz.friendlysociety.core.CreditCheck;
 import uk.co.exahertz.friendlysociety.core.Customer;
+import uk.co.exahertz.friendlysociety.core.Day;
 
 /**
  *
@@ -256,10 +256,9 @@ private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRS
         for (int i = 0; i < creditChecks.length; i++) {
             Object[] data = new Object[4];
             data[0] = creditChecks[i].getID();
-            GregorianCalendar cal = creditChecks[i].getCreditCheckDate();
-            String date = "" + cal.get(GregorianCalendar.DAY_OF_MONTH) + "/" +
-                    cal.get(GregorianCalendar.MONTH) + "/" +
-                    cal.get(GregorianCalendar.YEAR);
+            Day checked = creditChecks[i].getCreditCheckDate();
+            String date = "" + checked.getDayOfMonth() + "/" +
+                    checked.getMonth() + "/" + checked.getYear();
             data[1] = date;
             data[2] = creditChecks[i].getCreditCheckScore();
             data[3] = creditChecks[i].getCreditCheckRiskStatus();
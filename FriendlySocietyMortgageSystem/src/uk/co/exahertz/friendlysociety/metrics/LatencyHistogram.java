@@ -0,0 +1,166 @@
+package uk.co.exahertz.friendlysociety.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in nanoseconds with log-linear buckets, in the
+ * style of HdrHistogram. Values below 128 have a bucket each; above that each
+ * power of two is split into 64 buckets, so every value is counted to within
+ * about 1.5% while the whole range from 1 ns to over an hour needs only a few
+ * thousand counters. Recording is lock free, one atomic increment of a bucket
+ * plus the totals, so histograms can stay on in production. Percentiles are
+ * read from the live counters, so a value recorded while they are read may or
+ * may not be included.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class LatencyHistogram {
+    /** The number of bits of each value kept exactly */
+    private static final int SUBBUCKETBITS = 7;
+    private static final int SUBBUCKETS = 1 << SUBBUCKETBITS;
+    private static final int HALFSUBBUCKETS = SUBBUCKETS / 2;
+    /** The largest latency recorded, about 73 minutes */
+    public static final long MAXVALUE = (1L << 42) - 1;
+    private final AtomicLongArray counts;
+    private final AtomicLong count;
+    private final AtomicLong total;
+    private final AtomicLong max;
+
+    /**
+     * Create a new, empty histogram
+     *
+     * @since 0.0.1
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(indexOf(MAXVALUE) + 1);
+        count = new AtomicLong();
+        total = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Record a latency
+     *
+     * @param nanos The latency in nanoseconds; negative values are counted as
+     * 0 and values above MAXVALUE as MAXVALUE
+     * @since 0.0.1
+     */
+    public void record(final long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, MAXVALUE);
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        long current = max.get();
+        while(value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Get the number of latencies recorded
+     *
+     * @return The count
+     * @since 0.0.1
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the mean latency
+     *
+     * @return The mean in nanoseconds, or 0 if nothing has been recorded
+     * @since 0.0.1
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * Get the largest latency recorded
+     *
+     * @return The largest latency in nanoseconds
+     * @since 0.0.1
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the latency which a given share of the recorded latencies are at or
+     * below, such as 99 for the 99th percentile
+     *
+     * @param percentile The percentile, from 0 to 100
+     * @return The latency in nanoseconds, to within the width of its bucket,
+     * or 0 if nothing has been recorded
+     * @throws java.lang.IllegalArgumentException When percentile is not
+     * within 0 to 100
+     * @since 0.0.1
+     */
+    public long getPercentile(final double percentile) {
+        if(percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be " +
+                    "within 0 to 100.");
+        }
+        long recorded = 0;
+        for(int i = 0; i < counts.length(); i++) {
+            recorded += counts.get(i);
+        }
+        if(recorded == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for(int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if(seen >= rank) {
+                return Math.min(highestEquivalent(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Forget every latency recorded
+     *
+     * @since 0.0.1
+     */
+    public void reset() {
+        for(int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Get the bucket of a value
+     *
+     * @param value The value, from 0 to MAXVALUE
+     * @return The index of its bucket
+     * @since 0.0.1
+     */
+    private static int indexOf(final long value) {
+        int magnitude = Math.max(0, 64 - Long.numberOfLeadingZeros(value) -
+                SUBBUCKETBITS);
+        if(magnitude == 0) return (int) value;
+        return magnitude * HALFSUBBUCKETS + (int) (value >>> magnitude);
+    }
+
+    /**
+     * Get the largest value counted in a bucket
+     *
+     * @param index The index of the bucket
+     * @return The largest value of the bucket
+     * @since 0.0.1
+     */
+    private static long highestEquivalent(final int index) {
+        if(index < SUBBUCKETS) return index;
+        int magnitude = index / HALFSUBBUCKETS - 1;
+        long subBucket = index - magnitude * HALFSUBBUCKETS;
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+}
@@ -0,0 +1,137 @@
+package uk.co.exahertz.friendlysociety.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of every operation, by name. Each operation is created the
+ * first time it is asked for and, unless publishing is turned off, registered
+ * with the platform MBean server as
+ * uk.co.exahertz.friendlysociety:type=Operation,name=&lt;operation&gt; so it
+ * can be watched with jconsole or any other JMX client.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class MetricsRegistry {
+    /** The JMX domain the operations are registered under */
+    public static final String JMXDOMAIN = "uk.co.exahertz.friendlysociety";
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry(true);
+    private final ConcurrentHashMap<String, OperationMetrics> operations;
+    private final boolean publish;
+
+    /**
+     * Create a new registry
+     *
+     * @param publish True to register each operation over JMX
+     * @since 0.0.1
+     */
+    public MetricsRegistry(final boolean publish) {
+        this.publish = publish;
+        operations = new ConcurrentHashMap<String, OperationMetrics>();
+    }
+
+    /**
+     * Get the registry shared by the application, which publishes over JMX
+     *
+     * @return The default registry
+     * @since 0.0.1
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get the metrics of an operation, creating them if this is the first
+     * time the operation has been asked for
+     *
+     * @param name The name of the operation, such as "Core.logIn"
+     * @return The metrics of the operation
+     * @throws java.lang.IllegalArgumentException When name is null
+     * @since 0.0.1
+     */
+    public OperationMetrics getOperation(final String name) {
+        OperationMetrics metrics = operations.get(name);
+        if(metrics != null) return metrics;
+        metrics = new OperationMetrics(name);
+        OperationMetrics existing = operations.putIfAbsent(name, metrics);
+        if(existing != null) return existing;
+        if(publish) register(metrics);
+        return metrics;
+    }
+
+    /**
+     * Get the metrics of every operation
+     *
+     * @return The operations, in order of name
+     * @since 0.0.1
+     */
+    public List<OperationMetrics> getOperations() {
+        List<OperationMetrics> list = new ArrayList<OperationMetrics>(
+                operations.values());
+        Collections.sort(list, new Comparator<OperationMetrics>() {
+            @Override
+            public int compare(final OperationMetrics a,
+                    final OperationMetrics b) {
+                return a.getName().compareTo(b.getName());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Reset the metrics of every operation
+     *
+     * @since 0.0.1
+     */
+    public void reset() {
+        for(OperationMetrics metrics : operations.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Get the JMX name of an operation
+     *
+     * @param name The name of the operation
+     * @return The object name
+     * @throws javax.management.JMException When the name is not valid in JMX
+     * @since 0.0.1
+     */
+    public static ObjectName getObjectName(final String name)
+            throws JMException
+    {
+        return new ObjectName(JMXDOMAIN + ":type=Operation,name=" +
+                ObjectName.quote(name));
+    }
+
+    /**
+     * Register the metrics of an operation with the platform MBean server.
+     * If they cannot be registered they are still recorded, and can be read
+     * from the snapshot file.
+     *
+     * @param metrics The metrics to register
+     * @since 0.0.1
+     */
+    private static void register(final OperationMetrics metrics) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = getObjectName(metrics.getName());
+            if(server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(metrics, objectName);
+        } catch(JMException e) {
+            System.err.println("Could not publish the metrics of " +
+                    metrics.getName() + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package uk.co.exahertz.friendlysociety.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Writes the metrics of every operation in a registry to a file at a fixed
+ * interval, from a background timer. Each snapshot replaces the last, so the
+ * file always holds a complete, recent table which can be read or collected
+ * while the application runs. As well as the totals since each operation was
+ * created, the file gives the calls per second since the last snapshot.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class MetricsSnapshotWriter {
+    /** The default file the snapshots are written to */
+    public static final String DEFAULTFILE = "metrics.txt";
+    /** The default time between snapshots in milliseconds */
+    public static final long DEFAULTINTERVAL = 60 * 1000;
+    private final MetricsRegistry registry;
+    private final File file;
+    private final long interval;
+    private final HashMap<String, Long> lastCounts;
+    private final SimpleDateFormat dateFormat;
+    private Timer timer;
+    private long lastWritten;
+
+    /**
+     * Create a new snapshot writer, which writes nothing until it is started
+     *
+     * @param registry The registry to write the metrics of
+     * @param file The file to write the snapshots to
+     * @param interval The time between snapshots in milliseconds
+     * @throws java.lang.IllegalArgumentException When registry or file is
+     * null, or interval is not positive
+     * @since 0.0.1
+     */
+    public MetricsSnapshotWriter(final MetricsRegistry registry,
+            final File file, final long interval)
+    {
+        if(registry == null) throw new IllegalArgumentException("The " +
+                "registry must not be null.");
+        if(file == null) throw new IllegalArgumentException("The file must " +
+                "not be null.");
+        if(interval <= 0) throw new IllegalArgumentException("The interval " +
+                "must be greater than 0.");
+        this.registry = registry;
+        this.file = file;
+        this.interval = interval;
+        lastCounts = new HashMap<String, Long>();
+        dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+    }
+
+    /**
+     * Start writing snapshots
+     *
+     * @since 0.0.1
+     */
+    public synchronized void start() {
+        if(timer != null) return;
+        lastWritten = System.nanoTime();
+        timer = new Timer("Metrics snapshot writer", true);
+        timer.scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                try {
+                    write();
+                } catch(IOException e) {
+                    System.err.println("Could not write the metrics to " +
+                            file + ": " + e);
+                }
+            }
+        }, interval, interval);
+    }
+
+    /**
+     * Stop writing snapshots, writing one last snapshot first
+     *
+     * @since 0.0.1
+     */
+    public synchronized void close() {
+        if(timer == null) return;
+        timer.cancel();
+        timer = null;
+        try {
+            write();
+        } catch(IOException e) {
+            System.err.println("Could not write the metrics to " + file +
+                    ": " + e);
+        }
+    }
+
+    /**
+     * Write a snapshot now. The snapshot is written to a temporary file which
+     * then replaces the file, so a reader never sees half a snapshot.
+     *
+     * @throws java.io.IOException When the snapshot could not be written
+     * @since 0.0.1
+     */
+    public synchronized void write() throws IOException {
+        long now = System.nanoTime();
+        double seconds = Math.max((now - lastWritten) / 1e9, 1e-9);
+        lastWritten = now;
+
+        StringBuilder text = new StringBuilder();
+        text.append("Metrics at ").append(dateFormat.format(new Date()))
+                .append(", latencies in microseconds\n");
+        text.append(String.format("%-45s %12s %8s %10s %10s %10s %10s %10s " +
+                "%10s%n", "Operation", "Calls", "Errors", "Calls/s", "Mean",
+                "p50", "p99", "p99.9", "Max"));
+        for(OperationMetrics metrics : registry.getOperations()) {
+            long count = metrics.getCount();
+            Long last = lastCounts.put(metrics.getName(), count);
+            // A count lower than last time means the metrics were reset
+            long calls = last == null || last > count ? count : count - last;
+            text.append(String.format("%-45s %12d %8d %10.1f %10.1f %10.1f " +
+                    "%10.1f %10.1f %10.1f%n", metrics.getName(), count,
+                    metrics.getErrorCount(), calls / seconds,
+                    metrics.getMeanMicros(), metrics.getP50Micros(),
+                    metrics.getP99Micros(), metrics.getP999Micros(),
+                    metrics.getMaxMicros()));
+        }
+
+        File temporary = new File(file.getPath() + ".tmp");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(
+                temporary), "UTF-8");
+        try {
+            writer.write(text.toString());
+        } finally {
+            writer.close();
+        }
+        // Windows will not rename over an existing file
+        if(!temporary.renameTo(file) &&
+                (!file.delete() || !temporary.renameTo(file))) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package uk.co.exahertz.friendlysociety.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The call count, error count and latency histogram of one operation, such as
+ * a method of Core or MortgageDatabase. A call is timed with:
+ * <pre>
+ * long started = metrics.start();
+ * ... the call ...
+ * metrics.stop(started, failed);
+ * </pre>
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class OperationMetrics implements OperationMetricsMBean {
+    private static final double NANOSPERMICRO = 1000.0;
+    private final String name;
+    private final LatencyHistogram latencies;
+    private final AtomicLong errors;
+    private volatile long since;
+
+    /**
+     * Create the metrics of an operation
+     *
+     * @param name The name of the operation, such as "Core.logIn"
+     * @throws java.lang.IllegalArgumentException When name is null
+     * @since 0.0.1
+     */
+    OperationMetrics(final String name) {
+        if(name == null) throw new IllegalArgumentException("The name must " +
+                "not be null.");
+        this.name = name;
+        latencies = new LatencyHistogram();
+        errors = new AtomicLong();
+        since = System.nanoTime();
+    }
+
+    /**
+     * Start timing a call
+     *
+     * @return The time the call started, to pass to stop()
+     * @since 0.0.1
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Finish timing a call
+     *
+     * @param started The time returned by start()
+     * @param failed True if the call failed
+     * @since 0.0.1
+     */
+    public void stop(final long started, final boolean failed) {
+        latencies.record(System.nanoTime() - started);
+        if(failed) errors.incrementAndGet();
+    }
+
+    /**
+     * Get the histogram of the latencies of the calls
+     *
+     * @return The histogram, in nanoseconds
+     * @since 0.0.1
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    /**
+     * Get the mean number of calls per second since the metrics were created
+     * or reset
+     *
+     * @return The throughput
+     * @since 0.0.1
+     */
+    @Override
+    public double getCallsPerSecond() {
+        double seconds = (System.nanoTime() - since) / 1e9;
+        return seconds <= 0 ? 0 : getCount() / seconds;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latencies.getMean() / NANOSPERMICRO;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencies.getPercentile(50) / NANOSPERMICRO;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencies.getPercentile(99) / NANOSPERMICRO;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencies.getPercentile(99.9) / NANOSPERMICRO;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latencies.getMax() / NANOSPERMICRO;
+    }
+
+    @Override
+    public void reset() {
+        latencies.reset();
+        errors.set(0);
+        since = System.nanoTime();
+    }
+}
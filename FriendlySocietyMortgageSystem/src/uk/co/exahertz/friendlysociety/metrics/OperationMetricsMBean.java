@@ -0,0 +1,22 @@
+package uk.co.exahertz.friendlysociety.metrics;
+
+/**
+ * The management interface of the metrics of one operation, as published
+ * over JMX. Latencies are given in microseconds.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface OperationMetricsMBean {
+    public String getName();
+    public long getCount();
+    public long getErrorCount();
+    public double getCallsPerSecond();
+    public double getMeanMicros();
+    public double getP50Micros();
+    public double getP99Micros();
+    public double getP999Micros();
+    public double getMaxMicros();
+    public void reset();
+}
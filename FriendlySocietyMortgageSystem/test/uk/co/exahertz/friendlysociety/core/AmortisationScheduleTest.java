@@ -0,0 +1,185 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the repayment schedules worked out by AmortisationSchedule
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class AmortisationScheduleTest {
+    /** 100,000.00 in pence */
+    private static final long AMOUNT = 10000000;
+    /** The month number of January 2025 */
+    private static final int FIRST = 2025 * 12;
+    private AmortisationSchedule schedule;
+
+    /**
+     * Create an empty schedule
+     *
+     * @since 0.0.1
+     */
+    @Before
+    public void setUp() {
+        schedule = new AmortisationSchedule(12);
+    }
+
+    /**
+     * A variable rate mortgage pays the level repayment every month, and the
+     * last payment clears the balance
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testVariableRate() {
+        assertEquals(300, schedule.calculate(AMOUNT, 300,
+                MortgagesOffered.VARIABLE_RATE, FIRST, RateTable.DEFAULT));
+        assertEquals(300, schedule.getMonths());
+        assertEquals(FIRST, schedule.getFirstMonth());
+        assertEquals(59631, schedule.getPayment(0));
+        assertEquals(43333, schedule.getInterest(0));
+        assertEquals(5.2, schedule.getRate(0), 0);
+        for(int i = 0; i < 299; i++) {
+            assertEquals(59631, schedule.getPayment(i));
+        }
+        assertEquals(0, schedule.getBalance(299));
+        checkTotals();
+    }
+
+    /**
+     * A fixed rate mortgage moves to the variable rate when its fixed period
+     * ends, and the payment is worked out again
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testFixedPeriodEnds() {
+        schedule.calculate(AMOUNT, 300, MortgagesOffered.FIXED_2YEARS, FIRST,
+                RateTable.DEFAULT);
+        assertEquals(52234, schedule.getPayment(0));
+        assertEquals(3.9, schedule.getRate(23), 0);
+        assertEquals(5.2, schedule.getRate(24), 0);
+        assertTrue(schedule.getPayment(24) > schedule.getPayment(23));
+        assertEquals(0, schedule.getBalance(299));
+        checkTotals();
+    }
+
+    /**
+     * A change to the base rate changes the payment of a variable mortgage
+     * from the month it applies
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testBaseRateChange() {
+        RateTable table = RateTable.DEFAULT.withBaseRate(FIRST + 12, 3.7);
+        schedule.calculate(AMOUNT, 300, MortgagesOffered.TRACKER, FIRST,
+                table);
+        assertEquals(4.6, schedule.getRate(11), 1e-9);
+        assertEquals(5.6, schedule.getRate(12), 1e-9);
+        assertTrue(schedule.getPayment(12) > schedule.getPayment(11));
+        assertEquals(0, schedule.getBalance(299));
+        checkTotals();
+    }
+
+    /**
+     * With no interest the loan is repaid in equal parts, the last payment
+     * taking what is left
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testNoInterest() {
+        RateTable free = new RateTable(0, 0, 0, 0, 0);
+        schedule.calculate(1000, 3, MortgagesOffered.VARIABLE_RATE, FIRST,
+                free);
+        assertEquals(334, schedule.getPayment(0));
+        assertEquals(334, schedule.getPayment(1));
+        assertEquals(332, schedule.getPayment(2));
+        assertEquals(0, schedule.getTotalInterest());
+    }
+
+    /**
+     * Calculating again replaces the schedule, growing the arrays for a
+     * longer term
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testRecalculate() {
+        schedule.calculate(AMOUNT, AmortisationSchedule.MAXTERM,
+                MortgagesOffered.FIXED_5YEARS, FIRST, RateTable.DEFAULT);
+        assertEquals(AmortisationSchedule.MAXTERM, schedule.getMonths());
+        assertEquals(0, schedule.getBalance(AmortisationSchedule.MAXTERM - 1));
+        checkTotals();
+        schedule.calculate(AMOUNT, 1, MortgagesOffered.FIXED_5YEARS, FIRST,
+                RateTable.DEFAULT);
+        assertEquals(1, schedule.getMonths());
+        assertEquals(AMOUNT + schedule.getInterest(0), schedule.getPayment(0));
+        try {
+            schedule.getPayment(1);
+            fail("Read a month past the end of the schedule.");
+        } catch(IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Terms longer than MAXTERM are refused rather than allocated
+     *
+     * @since 0.0.1
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTermTooLong() {
+        schedule.calculate(AMOUNT, AmortisationSchedule.MAXTERM + 1,
+                MortgagesOffered.VARIABLE_RATE, FIRST, RateTable.DEFAULT);
+    }
+
+    /**
+     * Capacities outside 0 to MAXTERM are refused
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testCapacity() {
+        int[] invalid = {-1, AmortisationSchedule.MAXTERM + 1,
+                Integer.MAX_VALUE};
+        for(int capacity : invalid) {
+            try {
+                new AmortisationSchedule(capacity);
+                fail("Created a schedule of " + capacity + " months.");
+            } catch(IllegalArgumentException e) {
+                // expected
+            }
+        }
+        new AmortisationSchedule(0).calculate(AMOUNT, 12,
+                MortgagesOffered.VARIABLE_RATE, FIRST, RateTable.DEFAULT);
+    }
+
+    /**
+     * Check that the payments of the schedule add up: each is the interest
+     * and principal of its month, the principal repaid is the amount
+     * borrowed and the interest is the total interest
+     *
+     * @since 0.0.1
+     */
+    private void checkTotals() {
+        long balance = AMOUNT;
+        long repaid = 0;
+        long charged = 0;
+        for(int i = 0; i < schedule.getMonths(); i++) {
+            assertEquals(schedule.getPayment(i), schedule.getInterest(i) +
+                    schedule.getPrincipal(i));
+            balance -= schedule.getPrincipal(i);
+            assertEquals(balance, schedule.getBalance(i));
+            repaid += schedule.getPrincipal(i);
+            charged += schedule.getInterest(i);
+        }
+        assertEquals(AMOUNT, repaid);
+        assertEquals(schedule.getTotalInterest(), charged);
+    }
+}
@@ -0,0 +1,254 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import uk.co.exahertz.friendlysociety.database.MemoryDatabase;
+
+/**
+ * Tests Core against a MemoryDatabase, so that it runs without MySQL
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class CoreTest {
+    /** How long to wait for a background task, in seconds */
+    private static final int TIMEOUT = 10;
+    private MemoryDatabase database;
+    private Core core;
+    private Address address;
+
+    /**
+     * Create a core over an empty database holding one member of staff
+     *
+     * @since 0.0.1
+     */
+    @Before
+    public void setUp() {
+        database = new MemoryDatabase();
+        core = new Core(database);
+        address = new Address(0, "1", "High Street", "Exeter", "UK",
+                "EX1 1AA");
+        database.addStaffMember(new StaffMember(0, "Ms", "Jane", "Smith",
+                Day.of(1980, 1, 1), true, address, "01234567890", "",
+                "jane@example.com", false, "jsmith", "secret", true));
+        database.addStaffMember(new StaffMember(0, "Mr", "John", "Jones",
+                Day.of(1970, 1, 1), false, address, "01234567890", "",
+                "john@example.com", false, "jjones", "secret", false));
+    }
+
+    /**
+     * Staff log in with their password only while they are still with the
+     * company
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testLogIn() {
+        assertFalse(core.logIn("jsmith", "wrong"));
+        assertNull(core.getLoggedInAs());
+        assertFalse(core.logIn("nobody", "secret"));
+        assertFalse(core.logIn("jjones", "secret"));
+        assertTrue(core.logIn("jsmith", "secret"));
+        assertEquals("jsmith", core.getLoggedInAs().getUsername());
+        core.reset();
+        assertNull(core.getLoggedInAs());
+    }
+
+    /**
+     * Customers added through the core are read back by ID
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testAddCustomer() {
+        int customerID = core.addCustomer(customer());
+        Customer customer = core.getCustomerByID(customerID);
+        assertEquals(customerID, customer.getID());
+        assertEquals("Brown", customer.getSurname());
+        assertNull(core.getCustomerByID(customerID + 1));
+    }
+
+    /**
+     * Mortgages read through the core are given its rate table, so their
+     * balance follows it
+     *
+     * @throws java.lang.Exception When a payment could not be added
+     * @since 0.0.1
+     */
+    @Test
+    public void testRateTable() throws Exception {
+        int mortgageID = addMortgage(0);
+        core.setRateTable(new RateTable(0, 0, 0, 0, 0));
+        Mortgage mortgage = core.getMortgageByID(mortgageID);
+        assertEquals(Money.ofPounds(100000).minus(Money.ofPounds(500 * 12)),
+                mortgage.getBalance());
+        assertEquals(1, core.getMortgagesByCustomerID(
+                mortgage.getCustomer().getID()).size());
+        core.setRateTable(RateTable.DEFAULT);
+        assertTrue(core.getMortgageByID(mortgageID).getBalance()
+                .isGreaterThan(mortgage.getBalance()));
+    }
+
+    /**
+     * The collections worklist holds only the mortgages in arrears, the
+     * furthest behind first
+     *
+     * @throws java.lang.Exception When a payment could not be added
+     * @since 0.0.1
+     */
+    @Test
+    public void testCollectionsWorklist() throws Exception {
+        addMortgage(0);
+        int oneMissed = addMortgage(1);
+        int threeMissed = addMortgage(3);
+        CollectionsWorklist worklist = core.getCollectionsWorklist(10);
+        assertEquals(3, worklist.getMortgagesScanned());
+        assertEquals(2, worklist.getMortgagesInArrears());
+        assertEquals(2, worklist.size());
+        assertEquals(threeMissed, worklist.get(0).getMortgageID());
+        assertEquals(3, worklist.get(0).getPaymentsInArrears());
+        assertEquals(oneMissed, worklist.get(1).getMortgageID());
+        assertEquals(1, core.getCollectionsWorklist(1).size());
+    }
+
+    /**
+     * Making a payment records it in the database and in the mortgage, and
+     * a payment can only be made once
+     *
+     * @throws java.lang.Exception When a payment could not be added
+     * @since 0.0.1
+     */
+    @Test
+    public void testMakeMortgagePayment() throws Exception {
+        int mortgageID = addMortgage(2);
+        Mortgage mortgage = core.getMortgageByID(mortgageID);
+        PaymentLedger ledger = mortgage.getPaymentLedger();
+        int paymentID = ledger.getPaymentID(ledger.getNextDue(
+                Integer.MIN_VALUE));
+        Day today = Day.today();
+        assertTrue(core.makeMortgagePayment(mortgage, paymentID, today,
+                MethodOfPayment.CASH));
+        assertTrue(mortgage.getMortgagePaymentByID(paymentID)
+                .getPaymentMade());
+        MortgagePaymentDetails stored = core.getMortgageByID(mortgageID)
+                .getMortgagePaymentByID(paymentID);
+        assertEquals(today, stored.getPaymentMadeDate());
+        assertEquals(MethodOfPayment.CASH, stored.getMethodOfPayment());
+        assertEquals(1, core.getCollectionsWorklist(10).get(0)
+                .getPaymentsInArrears());
+        try {
+            core.makeMortgagePayment(mortgage, paymentID, today,
+                    MethodOfPayment.CASH);
+            fail("Made a payment twice.");
+        } catch(PaymentAlreadyMadeException e) {
+            // expected
+        }
+        assertFalse(database.setMortgagePaymentMade(stored, mortgageID + 1));
+    }
+
+    /**
+     * A task run with execute() hands its result, or the exception it
+     * threw, to its callback on the event dispatch thread
+     *
+     * @throws java.lang.Exception When the callback was not called in time
+     * @since 0.0.1
+     */
+    @Test
+    public void testExecute() throws Exception {
+        final CountDownLatch done = new CountDownLatch(2);
+        final AtomicReference<Object> result = new AtomicReference<Object>();
+        final AtomicReference<Throwable> error =
+                new AtomicReference<Throwable>();
+        final int customerID = database.addCustomer(customer());
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                core.execute(null, new Callable<Customer>() {
+                    public Customer call() {
+                        return core.getCustomerByID(customerID);
+                    }
+                }, new TaskCallback<Customer>() {
+                    @Override
+                    public void succeeded(final Customer customer) {
+                        if(SwingUtilities.isEventDispatchThread()) {
+                            result.set(customer);
+                        }
+                        done.countDown();
+                    }
+                });
+                core.execute(null, new Callable<Customer>() {
+                    public Customer call() {
+                        throw new IllegalStateException("Expected");
+                    }
+                }, new TaskCallback<Customer>() {
+                    @Override
+                    public void succeeded(final Customer customer) {
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void failed(final Throwable cause) {
+                        if(SwingUtilities.isEventDispatchThread()) {
+                            error.set(cause);
+                        }
+                        done.countDown();
+                    }
+                });
+            }
+        });
+        assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(customerID, ((Customer) result.get()).getID());
+        assertTrue(error.get() instanceof IllegalStateException);
+    }
+
+    /**
+     * Build a customer who is not yet in the database
+     *
+     * @return The customer
+     * @since 0.0.1
+     */
+    private Customer customer() {
+        return new Customer(0, "Mr", "Alan", "Brown", Day.of(1980, 1, 1),
+                false, address, "01234567890", "", "alan@example.com",
+                "AB123456C", "12345678");
+    }
+
+    /**
+     * Add an accepted variable rate mortgage of 100,000.00 whose twelve
+     * monthly payments of 500.00 all fell due in the last year
+     *
+     * @param missed The number of the latest payments which were not made
+     * @return The ID of the mortgage
+     * @throws java.lang.Exception When a payment could not be added
+     * @since 0.0.1
+     */
+    private int addMortgage(final int missed) throws Exception {
+        Customer customer = database.getCustomerByID(database.addCustomer(
+                customer()));
+        Property property = new Property(0, address, PropertyType.values()[0],
+                2);
+        property = new Property(database.addProperty(property), address,
+                PropertyType.values()[0], 2);
+        Day begins = Day.today().plusMonths(-12);
+        int mortgageID = database.addMortgage(new Mortgage(0, customer, null,
+                property, begins.plusMonths(-2), Money.ofPounds(10000), 300,
+                Money.ofPounds(100000), MortgageApplicationStatus.ACCEPTED,
+                MortgagesOffered.VARIABLE_RATE, begins));
+        for(int i = 0; i < 12; i++) {
+            MortgagePaymentDetails payment = new MortgagePaymentDetails(0,
+                    begins.plusMonths(i), MethodOfPayment.DIRECTDEBIT,
+                    Money.ofPounds(500));
+            if(i < 12 - missed) {
+                payment.setPaymentMadeDate(payment.getPaymentDueDate());
+            }
+            database.addMortgagePayment(payment, mortgageID);
+        }
+        return mortgageID;
+    }
+}
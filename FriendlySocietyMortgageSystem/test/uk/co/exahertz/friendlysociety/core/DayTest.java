@@ -0,0 +1,163 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the calendar arithmetic of Day against GregorianCalendar
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class DayTest {
+    private static final long MILLISPERDAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * Every day from year 1 to 9999 has the same year, month and day of the
+     * month as the proleptic Gregorian calendar, and is read back from its
+     * text
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testCalendar() {
+        GregorianCalendar calendar = calendar();
+        calendar.set(Day.MINYEAR, Calendar.JANUARY, 1);
+        int first = Day.of(Day.MINYEAR, 1, 1).getEpochDay();
+        int last = Day.of(Day.MAXYEAR, 12, 31).getEpochDay();
+        assertEquals(calendar.getTimeInMillis() / MILLISPERDAY, first);
+        for(int epochDay = first; epochDay <= last; epochDay++) {
+            Day day = Day.ofEpochDay(epochDay);
+            assertEquals(calendar.get(Calendar.YEAR), day.getYear());
+            assertEquals(calendar.get(Calendar.MONTH) + 1, day.getMonth());
+            assertEquals(calendar.get(Calendar.DAY_OF_MONTH),
+                    day.getDayOfMonth());
+            assertEquals(day, Day.of(day.getYear(), day.getMonth(),
+                    day.getDayOfMonth()));
+            if(epochDay % 97 == 0) assertEquals(day, Day.parse(
+                    day.toString()));
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    /**
+     * Dates are written as yyyy-MM-dd
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testText() {
+        assertEquals(0, Day.parse("1970-01-01").getEpochDay());
+        assertEquals("1970-01-01", Day.ofEpochDay(0).toString());
+        assertEquals("0009-03-07", Day.of(9, 3, 7).toString());
+        assertEquals("2000-02-29", Day.parse("2000-02-29").toString());
+    }
+
+    /**
+     * Text which is not a real date is refused
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testParseInvalid() {
+        String[] invalid = {null, "", "1970-1-1", "1970/01/01", "1970-13-01",
+                "1970-00-10", "1900-02-29", "2001-04-31", "0000-01-01",
+                "19a0-01-01", "1970-01-01 00:00"};
+        for(String text : invalid) {
+            try {
+                Day.parse(text);
+                fail("Parsed \"" + text + "\".");
+            } catch(IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Adding months keeps the day of the month, or uses the last day of a
+     * shorter month
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testPlusMonths() {
+        Day day = Day.of(2024, 1, 31);
+        assertEquals(Day.of(2024, 2, 29), day.plusMonths(1));
+        assertEquals(Day.of(2023, 2, 28), day.plusMonths(-11));
+        assertEquals(Day.of(2024, 4, 30), day.plusMonths(3));
+        assertEquals(Day.of(2064, 1, 31), day.plusMonths(480));
+        assertSame(day, day.plusMonths(0));
+        assertEquals(Day.of(2024, 3, 1), Day.of(2024, 2, 28).plusDays(2));
+        assertEquals(day.getMonthNumber() + 480,
+                day.plusMonths(480).getMonthNumber());
+        assertEquals(2024 * 12, Day.of(2024, 1, 1).getMonthNumber());
+    }
+
+    /**
+     * Months cannot be added past the years a Day holds
+     *
+     * @since 0.0.1
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlusMonthsTooLate() {
+        Day.of(Day.MAXYEAR, 12, 1).plusMonths(1);
+    }
+
+    /**
+     * Ages count whole years, and a person born on 29 February is a year
+     * older on 1 March in years which are not leap years
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testYearsUntil() {
+        Day born = Day.of(2000, 2, 29);
+        assertEquals(0, born.getYearsUntil(Day.of(2001, 2, 28)));
+        assertEquals(1, born.getYearsUntil(Day.of(2001, 3, 1)));
+        assertEquals(4, born.getYearsUntil(Day.of(2004, 2, 29)));
+        assertEquals(-1, Day.of(2001, 3, 1).getYearsUntil(born));
+        Day birthday = Day.of(1980, 6, 15);
+        assertEquals(43, birthday.getYearsUntil(Day.of(2024, 6, 14)));
+        assertEquals(44, birthday.getYearsUntil(Day.of(2024, 6, 15)));
+    }
+
+    /**
+     * Days order by date
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testOrder() {
+        Day a = Day.of(2024, 12, 31);
+        Day b = Day.of(2025, 1, 1);
+        assertTrue(a.isBefore(b));
+        assertTrue(b.isAfter(a));
+        assertFalse(a.isAfter(a));
+        assertTrue(a.compareTo(b) < 0);
+        assertEquals(0, a.compareTo(Day.parse("2024-12-31")));
+        assertEquals(a.hashCode(), Day.parse("2024-12-31").hashCode());
+        assertTrue(Day.isLeapYear(2000));
+        assertFalse(Day.isLeapYear(1900));
+        assertEquals(29, Day.lengthOfMonth(2024, 2));
+    }
+
+    /**
+     * Get a calendar which uses the Gregorian rules for every year, in a zone
+     * with no daylight saving
+     *
+     * @return The calendar
+     * @since 0.0.1
+     */
+    private static GregorianCalendar calendar() {
+        GregorianCalendar calendar = new GregorianCalendar(
+                TimeZone.getTimeZone("UTC"));
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        calendar.clear();
+        return calendar;
+    }
+}
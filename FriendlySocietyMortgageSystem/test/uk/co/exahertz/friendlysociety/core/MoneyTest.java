@@ -0,0 +1,203 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the arithmetic, rounding and parsing of Money
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class MoneyTest {
+    /**
+     * Amounts are parsed exactly, with or without a pound sign and commas
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testParse() {
+        assertEquals(123450, Money.parse("1234.5").getPence());
+        assertEquals(123450, Money.parse(" \u00a31,234.50 ").getPence());
+        assertEquals(-1200, Money.parse("-12").getPence());
+        assertEquals(-5, Money.parse("-\u00a30.05").getPence());
+        assertEquals(10, Money.parse(".1").getPence());
+        assertEquals(1000, Money.parse("10.").getPence());
+        assertEquals(29, Money.parse("0.29").getPence());
+    }
+
+    /**
+     * Fractions of a penny are refused rather than rounded
+     *
+     * @since 0.0.1
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testParseFractionOfPenny() {
+        Money.parse("1.005");
+    }
+
+    /**
+     * Text which is not an amount is refused
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testParseInvalid() {
+        String[] invalid = {null, "", "-", "\u00a3", "12a", "1.2.3", "1e3",
+                ",12", "92233720368547758.08"};
+        for(String text : invalid) {
+            try {
+                Money.parse(text);
+                fail("Parsed \"" + text + "\".");
+            } catch(NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * toString gives two decimal places, which parse reads back
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testToString() {
+        assertEquals("1234.50", Money.ofPence(123450).toString());
+        assertEquals("-0.05", Money.ofPence(-5).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+        long[] pence = {0, 1, -1, 99, -100, 123456789, Long.MAX_VALUE,
+                Long.MIN_VALUE + 1};
+        for(long amount : pence) {
+            assertEquals(amount, Money.parse(Money.toString(amount))
+                    .getPence());
+        }
+    }
+
+    /**
+     * Decimal amounts are rounded half to even
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testValueOf() {
+        assertNull(Money.valueOf(null));
+        assertEquals(1234, Money.valueOf(new BigDecimal("12.34"))
+                .getPence());
+        assertEquals(2, Money.valueOf(new BigDecimal("0.025")).getPence());
+        assertEquals(4, Money.valueOf(new BigDecimal("0.035")).getPence());
+        assertEquals(new BigDecimal("12.34"), Money.ofPence(1234)
+                .toBigDecimal());
+    }
+
+    /**
+     * Whole number arithmetic is exact, and overflow is an error rather than
+     * a wrong amount
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testArithmetic() {
+        Money a = Money.ofPounds(10);
+        Money b = Money.ofPence(250);
+        assertEquals(Money.ofPence(1250), a.plus(b));
+        assertEquals(Money.ofPence(750), a.minus(b));
+        assertEquals(Money.ofPence(-750), b.minus(a));
+        assertEquals(Money.ofPence(3000), a.times(3));
+        assertEquals(Money.ofPence(-250), b.negate());
+        assertEquals(-1, b.negate().signum());
+        assertTrue(a.isGreaterThan(b));
+        assertTrue(b.isLessThan(a));
+        assertTrue(a.compareTo(b) > 0);
+        assertEquals(a.hashCode(), Money.ofPence(1000).hashCode());
+        assertEquals(Long.MIN_VALUE, Money.multiply(Long.MIN_VALUE, 1));
+        assertEquals(-Long.MAX_VALUE, Money.multiply(Long.MAX_VALUE, -1));
+    }
+
+    /**
+     * Every operation which would overflow a long throws
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testOverflow() {
+        try {
+            Money.add(Long.MAX_VALUE, 1);
+            fail("Added past the largest amount.");
+        } catch(ArithmeticException e) {
+            // expected
+        }
+        try {
+            Money.subtract(Long.MIN_VALUE, 1);
+            fail("Subtracted past the smallest amount.");
+        } catch(ArithmeticException e) {
+            // expected
+        }
+        try {
+            Money.multiply(Long.MIN_VALUE, -1);
+            fail("Negated the smallest amount.");
+        } catch(ArithmeticException e) {
+            // expected
+        }
+        try {
+            Money.multiply(1L << 40, 1L << 30);
+            fail("Multiplied past the largest amount.");
+        } catch(ArithmeticException e) {
+            // expected
+        }
+        try {
+            Money.ofPence(Long.MAX_VALUE).times(2.0, RoundingMode.HALF_EVEN);
+            fail("Multiplied past the largest amount by a rate.");
+        } catch(ArithmeticException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Multiplying by a rate rounds the way asked
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testRounding() {
+        assertEquals(3, Money.multiply(5, 0.5, RoundingMode.UP));
+        assertEquals(2, Money.multiply(5, 0.5, RoundingMode.DOWN));
+        assertEquals(-3, Money.multiply(-5, 0.5, RoundingMode.UP));
+        assertEquals(-2, Money.multiply(-5, 0.5, RoundingMode.CEILING));
+        assertEquals(-3, Money.multiply(-5, 0.5, RoundingMode.FLOOR));
+        assertEquals(3, Money.multiply(5, 0.5, RoundingMode.HALF_UP));
+        assertEquals(2, Money.multiply(5, 0.5, RoundingMode.HALF_DOWN));
+        assertEquals(2, Money.multiply(5, 0.5, RoundingMode.HALF_EVEN));
+        assertEquals(4, Money.multiply(7, 0.5, RoundingMode.HALF_EVEN));
+        assertEquals(-2, Money.multiply(-5, 0.5, RoundingMode.HALF_EVEN));
+        assertEquals(6, Money.multiply(3, 2.0, RoundingMode.UNNECESSARY));
+    }
+
+    /**
+     * UNNECESSARY rounding refuses an amount which is not a whole penny
+     *
+     * @since 0.0.1
+     */
+    @Test(expected = ArithmeticException.class)
+    public void testRoundingUnnecessary() {
+        Money.multiply(5, 0.5, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Interest is the annual percentage spread over the months
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testInterest() {
+        Money principal = Money.ofPounds(1200);
+        assertEquals(Money.ofPounds(60), principal.interest(5, 12,
+                RoundingMode.HALF_EVEN));
+        assertEquals(Money.ofPounds(5), principal.interest(5, 1,
+                RoundingMode.HALF_EVEN));
+        assertEquals(Money.ZERO, principal.interest(0, 12,
+                RoundingMode.HALF_EVEN));
+    }
+}
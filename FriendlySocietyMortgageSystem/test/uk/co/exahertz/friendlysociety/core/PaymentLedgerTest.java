@@ -0,0 +1,165 @@
+package uk.co.exahertz.friendlysociety.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the totals, lookups and snapshots of PaymentLedger
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class PaymentLedgerTest {
+    private PaymentLedger ledger;
+
+    /**
+     * Fill a ledger with twelve monthly payments of 100.00 due on day 100,
+     * 130 and so on, the first three of which were made on the day they were
+     * due
+     *
+     * @since 0.0.1
+     */
+    @Before
+    public void setUp() {
+        ledger = new PaymentLedger();
+        for(int i = 0; i < 12; i++) {
+            ledger.add(i + 1, 100 + i * 30, i < 3 ? 100 + i * 30 :
+                    PaymentLedger.NOTMADE, MethodOfPayment.DIRECTDEBIT, 10000);
+        }
+    }
+
+    /**
+     * Payments are found by ID and read back as they were added
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testLookup() {
+        assertEquals(12, ledger.size());
+        for(int i = 0; i < 12; i++) {
+            assertEquals(i, ledger.indexOf(i + 1));
+            assertEquals(i + 1, ledger.getPaymentID(i));
+            assertEquals(100 + i * 30, ledger.getDueDay(i));
+            assertEquals(i < 3, ledger.isMade(i));
+        }
+        assertEquals(-1, ledger.indexOf(13));
+        MortgagePaymentDetails payment = ledger.get(1);
+        assertEquals(2, payment.getPaymentID());
+        assertEquals(Day.ofEpochDay(130), payment.getPaymentDueDate());
+        assertEquals(Day.ofEpochDay(130), payment.getPaymentMadeDate());
+        assertEquals(MethodOfPayment.DIRECTDEBIT,
+                payment.getMethodOfPayment());
+        assertEquals(Money.ofPence(10000), payment.getAmount());
+        assertNull(ledger.get(5).getPaymentMadeDate());
+    }
+
+    /**
+     * The index keeps finding payments as the ledger grows past its first
+     * capacity
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testGrow() {
+        PaymentLedger large = new PaymentLedger();
+        for(int i = 0; i < 1000; i++) {
+            large.add(i * 7 + 3, i, PaymentLedger.NOTMADE, null, i);
+        }
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(i, large.indexOf(i * 7 + 3));
+        }
+        assertEquals(-1, large.indexOf(4));
+        assertNull(large.getMethod(10));
+        assertEquals(999L * 1000 / 2, large.getTotalDue());
+    }
+
+    /**
+     * Totals and arrears count the payments due and not made by a day
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testTotals() {
+        assertEquals(120000, ledger.getTotalDue());
+        assertEquals(30000, ledger.getTotalPaid());
+        assertEquals(0, ledger.getArrears(189));
+        assertEquals(10000, ledger.getArrears(190));
+        assertEquals(1, ledger.getPaymentsInArrears(190));
+        assertEquals(20000, ledger.getArrears(220));
+        assertEquals(3, ledger.getNextDue(190));
+        assertEquals(4, ledger.getNextDue(191));
+        assertEquals(-1, ledger.getNextDue(1000));
+    }
+
+    /**
+     * A payment made late counts as arrears up to the day before it was
+     * made
+     *
+     * @throws uk.co.exahertz.friendlysociety.core.PaymentAlreadyMadeException
+     * When the payment has already been made
+     * @since 0.0.1
+     */
+    @Test
+    public void testLatePayment() throws PaymentAlreadyMadeException {
+        ledger.setMadeDay(3, 200);
+        assertEquals(10000, ledger.getArrears(199));
+        assertEquals(0, ledger.getArrears(200));
+        assertEquals(40000, ledger.getTotalPaid());
+    }
+
+    /**
+     * A payment can only be made once
+     *
+     * @throws uk.co.exahertz.friendlysociety.core.PaymentAlreadyMadeException
+     * Always, as the payment has already been made
+     * @since 0.0.1
+     */
+    @Test(expected = PaymentAlreadyMadeException.class)
+    public void testPaymentMadeTwice() throws PaymentAlreadyMadeException {
+        ledger.setMadeDay(0, 120);
+    }
+
+    /**
+     * A snapshot keeps the ledger as it was when it was taken, and can not
+     * be changed
+     *
+     * @throws uk.co.exahertz.friendlysociety.core.PaymentAlreadyMadeException
+     * When a payment has already been made
+     * @since 0.0.1
+     */
+    @Test
+    public void testSnapshot() throws PaymentAlreadyMadeException {
+        PaymentLedger snapshot = ledger.snapshot();
+        assertSame(snapshot, snapshot.snapshot());
+        ledger.setMadeDay(3, 190);
+        ledger.add(13, 460, PaymentLedger.NOTMADE, MethodOfPayment.CASH,
+                5000);
+        assertEquals(12, snapshot.size());
+        assertFalse(snapshot.isMade(3));
+        assertEquals(-1, snapshot.indexOf(13));
+        assertEquals(13, ledger.size());
+        assertTrue(ledger.isMade(3));
+        try {
+            snapshot.setMadeDay(4, 220);
+            fail("Changed a snapshot.");
+        } catch(UnsupportedOperationException e) {
+            // expected
+        }
+        ledger.clear();
+        assertEquals(0, ledger.size());
+        assertEquals(-1, ledger.indexOf(1));
+        assertEquals(0, snapshot.indexOf(1));
+    }
+
+    /**
+     * Positions outside the ledger are refused
+     *
+     * @since 0.0.1
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() {
+        ledger.getAmount(12);
+    }
+}
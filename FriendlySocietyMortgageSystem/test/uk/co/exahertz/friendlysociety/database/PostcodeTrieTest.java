@@ -0,0 +1,75 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that PostcodeTrie finds addresses by the start of their post code,
+ * normalised the same way as AddressQuery
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class PostcodeTrieTest {
+    private PostcodeTrie trie;
+
+    /**
+     * Add a few addresses in two districts
+     *
+     * @since 0.0.1
+     */
+    @Before
+    public void setUp() {
+        trie = new PostcodeTrie();
+        trie.put(4, "SW1A 1AA");
+        trie.put(2, "sw1a 2aa");
+        trie.put(7, "SW1P 3BU");
+        trie.put(1, "EH1 1YZ");
+        trie.put(3, "SW1A 1AA");
+    }
+
+    /**
+     * A prefix finds every address under it, in ascending order
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testSearchPrefix() {
+        assertArrayEquals(new int[] {2, 3, 4, 7}, trie.searchPrefix("SW1"));
+        assertArrayEquals(new int[] {2, 3, 4}, trie.searchPrefix("SW1A"));
+        assertArrayEquals(new int[] {3, 4}, trie.searchPrefix("SW1A 1AA"));
+        assertArrayEquals(new int[0], trie.searchPrefix("N1"));
+        assertArrayEquals(new int[] {1, 2, 3, 4, 7}, trie.searchPrefix(""));
+    }
+
+    /**
+     * Prefixes match ignoring case and spaces
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testSearchNormalised() {
+        assertArrayEquals(new int[] {3, 4}, trie.searchPrefix("sw1a1"));
+        assertArrayEquals(new int[] {3, 4}, trie.searchPrefix(" sw1a 1a "));
+        assertArrayEquals(new int[] {2}, trie.searchPrefix("SW1A2AA"));
+        assertEquals("SW1A1AA", AddressQuery.normalisePostCode(" sw1a 1AA"));
+        assertEquals("", AddressQuery.normalisePostCode(null));
+    }
+
+    /**
+     * Putting an address again moves it to its new post code
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testPutMoves() {
+        trie.put(4, "EH1 2NG");
+        assertArrayEquals(new int[] {3}, trie.searchPrefix("SW1A 1"));
+        assertArrayEquals(new int[] {1, 4}, trie.searchPrefix("EH1"));
+        trie.put(4, "eh1 2ng");
+        assertArrayEquals(new int[] {1, 4}, trie.searchPrefix("EH1"));
+        assertEquals(5, trie.size());
+    }
+}
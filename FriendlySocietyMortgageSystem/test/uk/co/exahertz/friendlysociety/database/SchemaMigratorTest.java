@@ -0,0 +1,86 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Runs the migrations against the database MySQL connects to and checks that
+ * every lookup query is served by its index. These tests change the schema
+ * of that database, so they are skipped unless the system property
+ * friendlysociety.test.mysql is true, which can be set for NetBeans with
+ * test-sys-prop.friendlysociety.test.mysql=true in private.properties. They
+ * are also skipped when the MySQL driver is not on the test classpath.
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class SchemaMigratorTest {
+    /** The system property which must be true for the tests to run */
+    private static final String ENABLED = "friendlysociety.test.mysql";
+
+    /**
+     * Skip the tests if no database is configured for them, or migrate it
+     *
+     * @throws java.lang.Exception When the migrations fail
+     * @since 0.0.1
+     */
+    @BeforeClass
+    public static void migrate() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean(ENABLED));
+        try {
+            Class.forName("com.mysql.jdbc.Driver");
+        } catch(ClassNotFoundException e) {
+            Assume.assumeNoException(e);
+        }
+        assertEquals(SchemaMigrator.getLatestVersion(), MySQL.migrate());
+    }
+
+    /**
+     * Migrating a database which is up to date changes nothing
+     *
+     * @throws java.lang.Exception When the migrations fail
+     * @since 0.0.1
+     */
+    @Test
+    public void testMigrateTwice() throws Exception {
+        assertEquals(SchemaMigrator.getLatestVersion(), MySQL.migrate());
+    }
+
+    /**
+     * The database opens once it has been migrated
+     *
+     * @throws java.lang.Exception When the database could not be opened
+     * @since 0.0.1
+     */
+    @Test
+    public void testOpenMigrated() throws Exception {
+        MySQL database = new MySQL(1, 1);
+        try {
+            assertEquals(SchemaMigrator.getLatestVersion(),
+                    new SchemaMigrator(database.getConnectionPool())
+                    .getVersion());
+        } finally {
+            database.close();
+        }
+    }
+
+    /**
+     * EXPLAIN shows every lookup query using its index
+     *
+     * @throws java.lang.Exception When the queries could not be explained
+     * @since 0.0.1
+     */
+    @Test
+    public void testExplainPlans() throws Exception {
+        ByteArrayOutputStream plans = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(plans, true, "UTF-8");
+        boolean passed = MySQL.checkSchema(out);
+        out.close();
+        assertTrue(plans.toString("UTF-8"), passed);
+    }
+}
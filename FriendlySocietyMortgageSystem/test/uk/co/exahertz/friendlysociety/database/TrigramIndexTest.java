@@ -0,0 +1,160 @@
+package uk.co.exahertz.friendlysociety.database;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that TrigramIndex finds the same records as a LIKE '%term%' search
+ *
+ * @author Niall Scott
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class TrigramIndexTest {
+    private TrigramIndex index;
+
+    /**
+     * Index a few surnames
+     *
+     * @since 0.0.1
+     */
+    @Before
+    public void setUp() {
+        index = new TrigramIndex();
+        index.put(1, "Smith");
+        index.put(2, "Smithson");
+        index.put(3, "Goldsmith");
+        index.put(4, "Jones");
+        index.put(5, null);
+    }
+
+    /**
+     * A term matches anywhere in a value, ignoring case and surrounding
+     * spaces
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testSearchSubstring() {
+        assertArrayEquals(new int[] {1, 2, 3}, index.search("smith"));
+        assertArrayEquals(new int[] {1, 2, 3}, index.search(" SMITH "));
+        assertArrayEquals(new int[] {2}, index.search("thson"));
+        assertArrayEquals(new int[0], index.search("smyth"));
+    }
+
+    /**
+     * Terms too short to have a trigram are checked against every value, and
+     * an empty term matches every record
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testSearchShortTerm() {
+        assertArrayEquals(new int[] {4}, index.search("ne"));
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, index.search(""));
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, index.search(null));
+    }
+
+    /**
+     * A term whose trigrams are all present but not together matches
+     * nothing
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testSearchTrigramsApart() {
+        index.put(6, "abcxbcd");
+        assertArrayEquals(new int[0], index.search("abcd"));
+        assertArrayEquals(new int[] {6}, index.search("xbcd"));
+    }
+
+    /**
+     * Putting a record again replaces its old value
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testPutReplaces() {
+        index.put(1, "Brown");
+        assertArrayEquals(new int[] {2, 3}, index.search("smith"));
+        assertArrayEquals(new int[] {1}, index.search("brown"));
+        assertEquals(5, index.size());
+    }
+
+    /**
+     * Random terms find exactly the values which contain them
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testSearchMatchesScan() {
+        Random random = new Random(8);
+        String[] values = new String[500];
+        TrigramIndex random500 = new TrigramIndex();
+        for(int i = 0; i < values.length; i++) {
+            values[i] = word(random, 4 + random.nextInt(8));
+            random500.put(i, values[i]);
+        }
+        for(int n = 0; n < 200; n++) {
+            String term = word(random, 1 + random.nextInt(4));
+            int[] expected = new int[values.length];
+            int count = 0;
+            for(int i = 0; i < values.length; i++) {
+                if(values[i].indexOf(term) >= 0) expected[count++] = i;
+            }
+            assertArrayEquals(Arrays.copyOf(expected, count),
+                    random500.search(term));
+        }
+    }
+
+    /**
+     * Intersecting two ascending arrays keeps the IDs in both
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testIntersect() {
+        assertArrayEquals(new int[] {2, 5}, TrigramIndex.intersect(
+                new int[] {1, 2, 5, 9}, new int[] {2, 3, 5}));
+        assertArrayEquals(new int[0], TrigramIndex.intersect(new int[0],
+                new int[] {1}));
+    }
+
+    /**
+     * Filtering keeps the given records whose value contains the term, even
+     * when the term is too short to have a trigram
+     *
+     * @since 0.0.1
+     */
+    @Test
+    public void testFilter() {
+        assertArrayEquals(new int[] {3}, index.filter(new int[] {1, 3, 4},
+                "gol"));
+        assertArrayEquals(new int[] {2, 4}, index.filter(
+                new int[] {1, 2, 4, 9}, "on"));
+        assertArrayEquals(new int[] {1, 5}, index.filter(
+                new int[] {1, 5, 9}, ""));
+        assertFalse(TrigramIndex.hasTrigram(" ab "));
+        assertFalse(TrigramIndex.hasTrigram(null));
+        assertTrue(TrigramIndex.hasTrigram("abc"));
+    }
+
+    /**
+     * Make a random word from a small alphabet, so that words share trigrams
+     *
+     * @param random The random numbers
+     * @param length The length of the word
+     * @return The word
+     * @since 0.0.1
+     */
+    private static String word(final Random random, final int length) {
+        StringBuilder word = new StringBuilder(length);
+        for(int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+}